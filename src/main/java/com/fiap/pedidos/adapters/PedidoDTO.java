@@ -2,6 +2,7 @@ package com.fiap.pedidos.adapters;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fiap.pedidos.entities.Pedido;
+import com.fiap.pedidos.entities.ValorProduto;
 import com.fiap.pedidos.utils.enums.StatusPedido;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -10,9 +11,11 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @AllArgsConstructor
@@ -34,8 +37,11 @@ public class PedidoDTO {
     public static PedidoDTO from(Pedido pedido) {
         List<ProdutoDTO> pedidoProdutoDTO = null;
         if (Objects.nonNull(pedido.getProdutos())) {
+            //Um item por produto, com a quantidade de unidades, na ordem em que foram incluídos
             pedidoProdutoDTO = pedido.getProdutos().stream()
-                    .map(ProdutoDTO::from)
+                    .collect(Collectors.groupingBy(Function.identity(), LinkedHashMap::new, Collectors.counting()))
+                    .entrySet().stream()
+                    .map(unidades -> ProdutoDTO.from(unidades.getKey(), unidades.getValue().intValue()))
                     .collect(Collectors.toList());
         }
         return PedidoDTO.builder()
@@ -43,7 +49,7 @@ public class PedidoDTO {
                 .idCliente(pedido.getCliente().getId())
                 .produtos(pedidoProdutoDTO)
                 .statusPedido(pedido.getStatusPedido())
-                .valorPedido(pedido.getValorPedido())
+                .valorPedido(ValorProduto.emReais(pedido.getValorPedido()))
                 .dataInclusao(pedido.getDataInclusao())
                 .dataAtualizacao(pedido.getDataAtualizacao())
                 .build();
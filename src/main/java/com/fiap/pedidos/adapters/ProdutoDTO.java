@@ -1,5 +1,6 @@
 package com.fiap.pedidos.adapters;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fiap.pedidos.entities.Produto;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -20,13 +21,22 @@ public class ProdutoDTO {
     private String tipo;
     private BigDecimal valor;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL) //Só aparece nos itens do pedido.
+    private Integer quantidade;
+
     public static ProdutoDTO from(Produto produto) {
         return ProdutoDTO.builder()
                 .id(produto.getIdProduto())
                 .nome(produto.getNomeProduto().getNome())
                 .descricao(produto.getDescricaoProduto().getDescricao())
                 .tipo(produto.getTipoProduto().name())
-                .valor(produto.getValorProduto().getValorProduto())
+                .valor(produto.getValorProduto().emReais())
                 .build();
     }
+
+    public static ProdutoDTO from(Produto produto, int quantidade) {
+        ProdutoDTO produtoDTO = from(produto);
+        produtoDTO.setQuantidade(quantidade);
+        return produtoDTO;
+    }
 }
@@ -0,0 +1,18 @@
+package com.fiap.pedidos.adapters;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+//Contrato da consulta de pagamentos em lote: um item por pedido consultado
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class SituacaoPagamentoDTO {
+    private UUID idPedido;
+    private boolean pago;
+}
@@ -1,9 +1,13 @@
 package com.fiap.pedidos.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fiap.pedidos.adapters.ClienteDTO;
 import com.fiap.pedidos.controllers.requestValidations.ClienteRequest;
 import com.fiap.pedidos.entities.Cliente;
 import com.fiap.pedidos.entities.Cpf;
+import com.fiap.pedidos.entities.CursorCliente;
+import com.fiap.pedidos.entities.PaginaClientes;
 import com.fiap.pedidos.interfaces.usecases.IClienteUseCasePort;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
@@ -13,8 +17,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -24,15 +31,39 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ClienteController {
 
+    private static final int TAMANHO_MAXIMO_PAGINA = 500;
+
     private final IClienteUseCasePort clienteUseCasePort;
+    private final ObjectMapper objectMapper;
 
     @GetMapping(value = {"/", ""}, produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<ClienteDTO>> buscarTodos() {
-            return ResponseEntity.ok(clienteUseCasePort.bucarTodos()
-                    .stream()
-                    .map(obj -> new ClienteDTO().from(obj))
-                    .collect(Collectors.toList())
-            );
+    public ResponseEntity<List<ClienteDTO>> buscarTodos(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int pageSize) {
+        PaginaClientes pagina = clienteUseCasePort.buscarTodos(
+                Objects.isNull(cursor) ? null : CursorCliente.decodificar(cursor),
+                Math.min(Math.max(pageSize, 1), TAMANHO_MAXIMO_PAGINA));
+        List<ClienteDTO> clienteDTOs = pagina.getClientes().stream()
+                .map(obj -> new ClienteDTO().from(obj))
+                .collect(Collectors.toList());
+        HttpHeaders headers = new HttpHeaders();
+        pagina.getProximoCursor().ifPresent(proximo -> headers.set(PedidoController.HEADER_PROXIMO_CURSOR, proximo.codificar()));
+        return new ResponseEntity<>(clienteDTOs, headers, HttpStatus.OK);
+    }
+
+    //Exporta todos os clientes, um JSON por linha, escrevendo cada um assim que é lido do banco
+    @GetMapping(value = "/exportacao", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportarTodos() {
+        ObjectWriter writer = objectMapper.writerFor(ClienteDTO.class);
+        StreamingResponseBody corpo = saida -> clienteUseCasePort.exportarTodos(cliente -> {
+            try {
+                saida.write(writer.writeValueAsBytes(new ClienteDTO().from(cliente)));
+                saida.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(corpo);
     }
 
     @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -1,24 +1,31 @@
 package com.fiap.pedidos.controllers;
 
 import com.fiap.pedidos.adapters.PedidoDTO;
+import com.fiap.pedidos.controllers.requestValidations.PedidoItensRequest;
 import com.fiap.pedidos.controllers.requestValidations.PedidoProdutoRequest;
 import com.fiap.pedidos.controllers.requestValidations.PedidoRequest;
 import com.fiap.pedidos.entities.Cliente;
+import com.fiap.pedidos.entities.CursorPedido;
+import com.fiap.pedidos.entities.PaginaPedidos;
 import com.fiap.pedidos.entities.Pedido;
 import com.fiap.pedidos.entities.PedidoProduto;
+import com.fiap.pedidos.interfaces.facade.IPainelPedidos;
 import com.fiap.pedidos.interfaces.facade.IServiceAsyncProcessWebhook;
 import com.fiap.pedidos.interfaces.usecases.IClienteUseCasePort;
 import com.fiap.pedidos.interfaces.usecases.IPedidoProdutoUseCasePort;
 import com.fiap.pedidos.interfaces.usecases.IPedidoUseCasePort;
 import com.fiap.pedidos.utils.enums.StatusPedido;
 import com.fiap.pedidos.utils.enums.TipoAtualizacao;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Objects;
@@ -32,10 +39,14 @@ import java.util.stream.Collectors;
 @EnableAsync
 public class PedidoController {
 
+    public static final String HEADER_PROXIMO_CURSOR = "X-Proximo-Cursor";
+    private static final int TAMANHO_MAXIMO_PAGINA = 500;
+
     private final IPedidoUseCasePort pedidoUseCasePort;
     private final IPedidoProdutoUseCasePort pedidoProdutoUseCasePort;
     private final IClienteUseCasePort clienteUseCasePort;
     private final IServiceAsyncProcessWebhook serviceAsyncProcessWebhook;
+    private final IPainelPedidos painelPedidos;
 
     @PostMapping(value = {"/", ""},
             produces = MediaType.APPLICATION_JSON_VALUE,
@@ -76,6 +87,26 @@ public class PedidoController {
         return new ResponseEntity<>(PedidoDTO.from(pedido), HttpStatus.OK);
     }
 
+    //adicionar varios itens no pedido de uma vez
+    @PostMapping(value = "/{idPedido}/itens",
+            produces = MediaType.APPLICATION_JSON_VALUE,
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<PedidoDTO> adicionarItens(
+            @PathVariable("idPedido") UUID idPedido, @RequestBody @NotNull @Valid PedidoItensRequest request) {
+        Pedido pedido = pedidoProdutoUseCasePort.adicionarItensNoPedido(idPedido, request.from(request, idPedido));
+        return new ResponseEntity<>(PedidoDTO.from(pedido), HttpStatus.OK);
+    }
+
+    //remover varios itens do pedido de uma vez
+    @DeleteMapping(value = "/{idPedido}/itens",
+            produces = MediaType.APPLICATION_JSON_VALUE,
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<PedidoDTO> removerItens(
+            @PathVariable("idPedido") UUID idPedido, @RequestBody @NotNull @Valid PedidoItensRequest request) {
+        Pedido pedido = pedidoProdutoUseCasePort.removerItensDoPedido(idPedido, request.from(request, idPedido));
+        return new ResponseEntity<>(PedidoDTO.from(pedido), HttpStatus.OK);
+    }
+
     //FinalizaPedido
     @PostMapping(value = "/checkout/{idPedido}", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<PedidoDTO> checkout(@PathVariable UUID idPedido) {
@@ -85,13 +116,26 @@ public class PedidoController {
 
     @GetMapping(value = {"/", ""}, produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<List<PedidoDTO>> buscarTodosNaoFinalizados(
-            @RequestParam(defaultValue = "0") int pageNumber,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "100") int pageSize) {
-        List<Pedido> pedidos = pedidoUseCasePort.buscarTodos(pageNumber, pageSize);
-        List<PedidoDTO> pedidoDTOs = pedidos.stream()
+        PaginaPedidos pagina = pedidoUseCasePort.buscarTodos(
+                Objects.isNull(cursor) ? null : CursorPedido.decodificar(cursor),
+                Math.min(Math.max(pageSize, 1), TAMANHO_MAXIMO_PAGINA));
+        List<PedidoDTO> pedidoDTOs = pagina.getPedidos().stream()
                 .map(PedidoDTO::from)
                 .collect(Collectors.toList());
-        return new ResponseEntity<>(pedidoDTOs, HttpStatus.OK);
+        HttpHeaders headers = new HttpHeaders();
+        pagina.getProximoCursor().ifPresent(proximo -> headers.set(HEADER_PROXIMO_CURSOR, proximo.codificar()));
+        return new ResponseEntity<>(pedidoDTOs, headers, HttpStatus.OK);
+    }
+
+    //Painel de pedidos: envia a listagem atual e depois cada mudança de status
+    @GetMapping(value = "/painel", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter acompanharPainel() {
+        return painelPedidos.inscrever(() -> pedidoUseCasePort.buscarTodos(null, TAMANHO_MAXIMO_PAGINA)
+                .getPedidos().stream()
+                .map(PedidoDTO::from)
+                .collect(Collectors.toList()));
     }
 
     @GetMapping(value = "/{idPedido}", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -3,18 +3,20 @@ package com.fiap.pedidos.controllers;
 import com.fiap.pedidos.adapters.ProdutoDTO;
 import com.fiap.pedidos.controllers.requestValidations.ProdutoRequest;
 import com.fiap.pedidos.entities.Produto;
+import com.fiap.pedidos.facade.CardapioSerializado;
 import com.fiap.pedidos.interfaces.usecases.IProdutoUseCasePort;
 import com.fiap.pedidos.utils.enums.TipoProduto;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -23,22 +25,30 @@ import java.util.UUID;
 public class ProdutoController {
 
     private final IProdutoUseCasePort produtoUseCasePort;
+    private final CardapioSerializado cardapioSerializado;
 
     @GetMapping(value = {"/", ""}, produces = "application/json")
-    public ResponseEntity<List<ProdutoDTO>> buscarProdutos(
-            @RequestParam(value="tipo_produto") @Validated @NotBlank String tipoProduto) {
+    public ResponseEntity<byte[]> buscarProdutos(
+            @RequestParam(value="tipo_produto") @Validated @NotBlank String tipoProduto,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
-        List<Produto> produtoArrayList = this.produtoUseCasePort
-                .listarProdutosPorTipoProduto(TipoProduto.fromCodigo(tipoProduto));
+        TipoProduto tipo = TipoProduto.fromCodigo(tipoProduto);
+        var cardapio = cardapioSerializado.obter(tipo, this.produtoUseCasePort.listarProdutosPorTipoProduto(tipo));
 
-        final var produtoDTOList = new ArrayList<ProdutoDTO>();
+        if(cardapio.vazio())
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
 
-        produtoArrayList.forEach(produto -> produtoDTOList.add(ProdutoDTO.from(produto)));
+        if(cardapio.correspondeA(ifNoneMatch))
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(cardapio.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
 
-        if(produtoDTOList.isEmpty())
-            return new ResponseEntity<>(produtoDTOList, HttpStatus.NO_CONTENT);
-
-        return new ResponseEntity<>(produtoDTOList, HttpStatus.OK);
+        return ResponseEntity.ok()
+                .eTag(cardapio.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(cardapio.corpo());
     }
 
     @PostMapping(value = {"/", ""}, produces = "application/json")
@@ -0,0 +1,25 @@
+package com.fiap.pedidos.controllers.requestValidations;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PedidoItemRequest {
+
+    @NotNull(message = "id produto não pode estar vazio")
+    private UUID idProduto;
+
+    @Positive(message = "quantidade deve ser maior que zero")
+    @Max(value = 50, message = "quantidade não pode ser maior que 50")
+    private int quantidade = 1;
+}
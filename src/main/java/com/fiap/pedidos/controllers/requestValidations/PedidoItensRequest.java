@@ -0,0 +1,38 @@
+package com.fiap.pedidos.controllers.requestValidations;
+
+import com.fiap.pedidos.entities.PedidoProduto;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PedidoItensRequest {
+
+    @NotEmpty(message = "itens não pode estar vazio")
+    @Size(max = 50, message = "itens não pode ter mais que 50 produtos")
+    private List<@Valid PedidoItemRequest> itens;
+
+    public List<PedidoProduto> from(PedidoItensRequest request, UUID idPedido) {
+        List<PedidoProduto> pedidoProdutos = new ArrayList<>();
+        request.getItens().forEach(item -> {
+            for (int i = 0; i < item.getQuantidade(); i++) {
+                pedidoProdutos.add(PedidoProduto.builder()
+                        .pedidoId(idPedido)
+                        .produtoId(item.getIdProduto())
+                        .build());
+            }
+        });
+        return pedidoProdutos;
+    }
+}
@@ -30,7 +30,7 @@ public class ProdutoRequest {
                 .nomeProduto(new NomeProduto(request.getNome()))
                 .tipoProduto(TipoProduto.fromCodigo(request.getTipo()))
                 .descricaoProduto(new DescricaoProduto(request.getDescricao()))
-                .valorProduto(new ValorProduto(request.getValor()))
+                .valorProduto(ValorProduto.deReais(request.getValor()))
                 .build();
     }
 }
\ No newline at end of file
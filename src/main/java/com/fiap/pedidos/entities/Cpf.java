@@ -2,28 +2,51 @@ package com.fiap.pedidos.entities;
 
 import com.fiap.pedidos.exceptions.entities.CpfInvalidoException;
 
-import java.util.InputMismatchException;
 import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public final class Cpf {
 
-    public static final Pattern REGEX_CPF_NUMERO_REPETIDO = Pattern.compile("/([0-9])\1{10}/g");
+    static final long INVALIDO = -1L;
+    private static final int DIGITOS = 11;
+    private static final int TAMANHO_COM_MASCARA = 14;
+    // Todo CPF de 11 dígitos iguais é múltiplo de 11111111111, e nenhum outro número de 11 dígitos é.
+    private static final long NUMERO_REPETIDO = 11111111111L;
+
     private String cpf;
+    //Os dígitos como número, calculados uma única vez: no construtor ou, quando o Hibernate monta o Cpf direto
+    //pelo campo, na primeira leitura. Zero é "ainda não calculado", já que nenhum CPF válido é zero
+    private transient volatile long numero;
     Cpf() {}
 
+    /**
+     * Aceita o CPF só com os dígitos ou com a máscara 000.000.000-00 e guarda sempre só os 11 dígitos.
+     */
     public Cpf(String cpf) {
-        this.cpf = Objects.nonNull(cpf) ? cpf : "";
-        if (!isValid()) {
+        long numero = Objects.nonNull(cpf) ? converter(cpf) : INVALIDO;
+        if (numero == INVALIDO) {
             throw new CpfInvalidoException();
         }
+        this.cpf = cpf.length() == DIGITOS ? cpf : digitos(numero);
+        this.numero = numero;
     }
 
     public String getCpf() {
         return this.cpf;
     }
 
+    /**
+     * Os dígitos do CPF como número, guardados junto com a String para servirem de chave sem percorrê-la a cada
+     * consulta (as chaves do cache, por exemplo). Não valida: ignora qualquer caractere que não seja dígito.
+     */
+    public long getNumero() {
+        long atual = this.numero;
+        if (atual == 0 && Objects.nonNull(this.cpf)) {
+            atual = somenteDigitos(this.cpf);
+            this.numero = atual;
+        }
+        return atual;
+    }
+
     @Override
     public String toString() {
         return getCpf();
@@ -55,54 +78,80 @@ public final class Cpf {
     }
 
     public boolean isValid() {
-        // considera-se erro CPF's formados por uma sequencia de numeros iguais
-        Matcher matcher = REGEX_CPF_NUMERO_REPETIDO.matcher(getCpf());
-        if (matcher.find() || getCpf().length() != 11)
-            return(false);
-
-        char dig10, dig11;
-        int sm, i, r, num, peso;
-
-        // "try" - protege o codigo para eventuais erros de conversao de tipo (int)
-        try {
-            // Calculo do 1o. Digito Verificador
-            sm = 0;
-            peso = 10;
-            for (i=0; i<9; i++) {
-                // converte o i-esimo caractere do CPF em um numero:
-                // por exemplo, transforma o caractere '0' no inteiro 0
-                // (48 eh a posicao de '0' na tabela ASCII)
-                num = (int)(getCpf().charAt(i) - 48);
-                sm = sm + (num * peso);
-                peso = peso - 1;
+        return Objects.nonNull(getCpf()) && converter(getCpf()) != INVALIDO;
+    }
+
+    /**
+     * Valida o CPF numa única passada pelos caracteres, sem regex e sem alocação, e devolve os seus dígitos
+     * como número, ou {@link #INVALIDO}.
+     */
+    static long converter(String valor) {
+        int tamanho = valor.length();
+        if (tamanho != DIGITOS && tamanho != TAMANHO_COM_MASCARA) {
+            return INVALIDO;
+        }
+        boolean comMascara = tamanho == TAMANHO_COM_MASCARA;
+
+        long numero = 0;
+        int somaDigito10 = 0;
+        int somaDigito11 = 0;
+        int posicao = 0;
+        for (int i = 0; i < tamanho; i++) {
+            char caractere = valor.charAt(i);
+            if (comMascara && (i == 3 || i == 7 || i == 11)) {
+                if (caractere != (i == 11 ? '-' : '.')) {
+                    return INVALIDO;
+                }
+                continue;
+            }
+            int digito = caractere - '0';
+            if (digito < 0 || digito > 9) {
+                return INVALIDO;
+            }
+            // Pesos de 10 a 2 para o 1o. dígito verificador e de 11 a 2 para o 2o.
+            if (posicao < 9) {
+                somaDigito10 += digito * (10 - posicao);
+            }
+            if (posicao < 10) {
+                somaDigito11 += digito * (11 - posicao);
             }
+            numero = numero * 10 + digito;
+            posicao++;
+        }
+
+        // considera-se erro CPF's formados por uma sequencia de numeros iguais
+        if (numero % NUMERO_REPETIDO == 0) {
+            return INVALIDO;
+        }
+        if (digitoVerificador(somaDigito10) != (numero / 10) % 10 || digitoVerificador(somaDigito11) != numero % 10) {
+            return INVALIDO;
+        }
+        return numero;
+    }
+
+    private static int digitoVerificador(int soma) {
+        int resto = 11 - (soma % 11);
+        return resto >= 10 ? 0 : resto;
+    }
 
-            r = 11 - (sm % 11);
-            if ((r == 10) || (r == 11))
-                dig10 = '0';
-            else dig10 = (char)(r + 48); // converte no respectivo caractere numerico
-
-            // Calculo do 2o. Digito Verificador
-            sm = 0;
-            peso = 11;
-            for(i=0; i<10; i++) {
-                num = (int)(getCpf().charAt(i) - 48);
-                sm = sm + (num * peso);
-                peso = peso - 1;
+    private static long somenteDigitos(String valor) {
+        long numero = 0;
+        for (int i = 0; i < valor.length(); i++) {
+            int digito = valor.charAt(i) - '0';
+            if (digito >= 0 && digito <= 9) {
+                numero = numero * 10 + digito;
             }
+        }
+        return numero;
+    }
 
-            r = 11 - (sm % 11);
-            if ((r == 10) || (r == 11))
-                dig11 = '0';
-            else dig11 = (char)(r + 48);
-
-            // Verifica se os digitos calculados conferem com os digitos informados.
-            if ((dig10 == getCpf().charAt(9)) && (dig11 == getCpf().charAt(10)))
-                return(true);
-            else return(false);
-        } catch (InputMismatchException erro) {
-            return(false);
+    private static String digitos(long numero) {
+        char[] digitos = new char[DIGITOS];
+        for (int i = DIGITOS - 1; i >= 0; i--) {
+            digitos[i] = (char) ('0' + numero % 10);
+            numero /= 10;
         }
+        return new String(digitos);
     }
 
 }
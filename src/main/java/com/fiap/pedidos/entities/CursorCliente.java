@@ -0,0 +1,48 @@
+package com.fiap.pedidos.entities;
+
+import com.fiap.pedidos.exceptions.entities.CursorInvalidoException;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Posição do último cliente de uma página na ordem por id.
+ * Trafega para o cliente como um token opaco em base64url.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class CursorCliente {
+
+    private final UUID idCliente;
+
+    public CursorCliente(UUID idCliente) {
+        if (Objects.isNull(idCliente)) {
+            throw new CursorInvalidoException();
+        }
+        this.idCliente = idCliente;
+    }
+
+    public static CursorCliente de(Cliente cliente) {
+        return new CursorCliente(cliente.getId());
+    }
+
+    public static CursorCliente decodificar(String token) {
+        try {
+            return new CursorCliente(UUID.fromString(
+                    new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)));
+        } catch (IllegalArgumentException e) {
+            throw new CursorInvalidoException();
+        }
+    }
+
+    public String codificar() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(idCliente.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,65 @@
+package com.fiap.pedidos.entities;
+
+import com.fiap.pedidos.exceptions.entities.CursorInvalidoException;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Posição do último pedido de uma página na ordem (status, data de inclusão, id).
+ * Trafega para o cliente como um token opaco em base64url.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class CursorPedido {
+
+    private static final String SEPARADOR = ":";
+
+    private final int ordemStatus;
+    private final Date dataInclusao;
+    private final UUID idPedido;
+
+    public CursorPedido(int ordemStatus, Date dataInclusao, UUID idPedido) {
+        if (Objects.isNull(dataInclusao) || Objects.isNull(idPedido)) {
+            throw new CursorInvalidoException();
+        }
+        this.ordemStatus = ordemStatus;
+        this.dataInclusao = new Date(dataInclusao.getTime());
+        this.idPedido = idPedido;
+    }
+
+    public static CursorPedido de(Pedido pedido) {
+        return new CursorPedido(
+                pedido.getStatusPedido().getOrdemListagem(),
+                pedido.getDataInclusao(),
+                pedido.getIdPedido());
+    }
+
+    public static CursorPedido decodificar(String token) {
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+                    .split(SEPARADOR);
+            if (partes.length != 3) {
+                throw new CursorInvalidoException();
+            }
+            return new CursorPedido(
+                    Integer.parseInt(partes[0]),
+                    new Date(Long.parseLong(partes[1])),
+                    UUID.fromString(partes[2]));
+        } catch (IllegalArgumentException e) {
+            throw new CursorInvalidoException();
+        }
+    }
+
+    public String codificar() {
+        String valor = ordemStatus + SEPARADOR + dataInclusao.getTime() + SEPARADOR + idPedido;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,20 @@
+package com.fiap.pedidos.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public final class EnvioFila {
+
+    private final UUID idEnvio;
+    private final UUID idPedido;
+    private final UUID idCliente;
+    private final int tentativas;
+}
@@ -0,0 +1,22 @@
+package com.fiap.pedidos.entities;
+
+import com.fiap.pedidos.utils.enums.StatusPedido;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Date;
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public final class EventoStatusPedido {
+
+    private final UUID idPedido;
+    private final StatusPedido statusAnterior;
+    private final StatusPedido statusAtual;
+    private final Date dataEvento;
+}
@@ -0,0 +1,19 @@
+package com.fiap.pedidos.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Optional;
+
+@Getter
+@AllArgsConstructor
+public class PaginaClientes {
+
+    private final List<Cliente> clientes;
+    private final CursorCliente proximoCursor;
+
+    public Optional<CursorCliente> getProximoCursor() {
+        return Optional.ofNullable(proximoCursor);
+    }
+}
@@ -0,0 +1,19 @@
+package com.fiap.pedidos.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Optional;
+
+@Getter
+@AllArgsConstructor
+public class PaginaPedidos {
+
+    private final List<Pedido> pedidos;
+    private final CursorPedido proximoCursor;
+
+    public Optional<CursorPedido> getProximoCursor() {
+        return Optional.ofNullable(proximoCursor);
+    }
+}
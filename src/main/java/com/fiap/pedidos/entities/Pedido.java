@@ -3,7 +3,6 @@ package com.fiap.pedidos.entities;
 import com.fiap.pedidos.utils.enums.StatusPedido;
 import lombok.*;
 
-import java.math.BigDecimal;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
@@ -21,8 +20,10 @@ public class Pedido {
     private Cliente cliente;
     private List<Produto> produtos;
     private StatusPedido statusPedido;
-    private BigDecimal valorPedido;
+    //Em centavos
+    private long valorPedido;
     private Date dataInclusao;
     private Date dataAtualizacao;
+    private Long versao;
 
 }
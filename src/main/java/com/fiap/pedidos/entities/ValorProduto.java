@@ -9,17 +9,39 @@ import lombok.ToString;
 import java.math.BigDecimal;
 import java.util.Objects;
 
+/**
+ * Valor em centavos. A conversão de e para reais só acontece na borda da API.
+ */
 @Getter
 @NoArgsConstructor
 @EqualsAndHashCode
 @ToString
 public final class ValorProduto {
-    private BigDecimal valorProduto;
 
-    public ValorProduto(BigDecimal valorProduto) {
-        if (Objects.isNull(valorProduto)) {
+    public static final int CASAS_DECIMAIS = 2;
+
+    private long centavos;
+
+    public ValorProduto(long centavos) {
+        this.centavos = centavos;
+    }
+
+    public static ValorProduto deReais(BigDecimal reais) {
+        if (Objects.isNull(reais)) {
             throw new ValorProdutoInvalidoException();
         }
-        this.valorProduto = valorProduto.setScale(2);
+        try {
+            return new ValorProduto(reais.movePointRight(CASAS_DECIMAIS).longValueExact());
+        } catch (ArithmeticException e) {
+            throw new ValorProdutoInvalidoException("Valor do produto deve ter no máximo 2 casas decimais");
+        }
+    }
+
+    public static BigDecimal emReais(long centavos) {
+        return BigDecimal.valueOf(centavos, CASAS_DECIMAIS);
+    }
+
+    public BigDecimal emReais() {
+        return emReais(this.centavos);
     }
 }
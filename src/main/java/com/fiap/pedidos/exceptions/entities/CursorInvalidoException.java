@@ -0,0 +1,9 @@
+package com.fiap.pedidos.exceptions.entities;
+
+public class CursorInvalidoException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public CursorInvalidoException() {
+        super("Cursor de paginação inválido");
+    }
+}
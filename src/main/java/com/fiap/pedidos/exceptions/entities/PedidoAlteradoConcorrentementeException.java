@@ -0,0 +1,9 @@
+package com.fiap.pedidos.exceptions.entities;
+
+public class PedidoAlteradoConcorrentementeException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public PedidoAlteradoConcorrentementeException() {
+        super("Pedido alterado por outra operação");
+    }
+}
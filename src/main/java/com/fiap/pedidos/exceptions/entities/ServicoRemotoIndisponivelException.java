@@ -0,0 +1,13 @@
+package com.fiap.pedidos.exceptions.entities;
+
+public class ServicoRemotoIndisponivelException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public ServicoRemotoIndisponivelException(String servico) {
+        super("Serviço " + servico + " indisponível no momento");
+    }
+
+    public ServicoRemotoIndisponivelException(String servico, Throwable causa) {
+        super("Serviço " + servico + " indisponível no momento", causa);
+    }
+}
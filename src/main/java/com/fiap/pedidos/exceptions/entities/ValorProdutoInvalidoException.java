@@ -5,4 +5,8 @@ public class ValorProdutoInvalidoException extends RuntimeException {
     public ValorProdutoInvalidoException() {
         super("Valor do produto não pode ser nulo");
     }
+
+    public ValorProdutoInvalidoException(String msg) {
+        super(msg);
+    }
 }
@@ -0,0 +1,16 @@
+package com.fiap.pedidos.exceptions.entities;
+
+public class WebhookSobrecarregadoException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final long segundosParaNovaTentativa;
+
+    public WebhookSobrecarregadoException(long segundosParaNovaTentativa) {
+        super("Processamento de webhooks sobrecarregado, tente novamente mais tarde");
+        this.segundosParaNovaTentativa = segundosParaNovaTentativa;
+    }
+
+    public long getSegundosParaNovaTentativa() {
+        return segundosParaNovaTentativa;
+    }
+}
@@ -3,6 +3,7 @@ package com.fiap.pedidos.exceptions.handlers;
 import com.fiap.pedidos.controllers.ClienteController;
 import com.fiap.pedidos.exceptions.entities.CpfExistenteException;
 import com.fiap.pedidos.exceptions.entities.CpfInvalidoException;
+import com.fiap.pedidos.exceptions.entities.CursorInvalidoException;
 import com.fiap.pedidos.exceptions.entities.EmailInvalidoException;
 import com.fiap.pedidos.exceptions.entities.NomeInvalidoException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -37,4 +38,10 @@ public class ClienteExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(err);
     }
 
+    @ExceptionHandler(CursorInvalidoException.class)
+    public ResponseEntity<StandardError> cursorInvalido(CursorInvalidoException e, HttpServletRequest request){
+        StandardError err = new StandardError(System.currentTimeMillis(), HttpStatus.BAD_REQUEST.value(), "Cursor inválido", e.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(err);
+    }
+
 }
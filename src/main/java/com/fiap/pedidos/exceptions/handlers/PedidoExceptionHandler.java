@@ -1,9 +1,13 @@
 package com.fiap.pedidos.exceptions.handlers;
 
 import com.fiap.pedidos.controllers.PedidoController;
+import com.fiap.pedidos.exceptions.entities.CursorInvalidoException;
+import com.fiap.pedidos.exceptions.entities.PedidoAlteradoConcorrentementeException;
 import com.fiap.pedidos.exceptions.entities.PedidoNaoEncontradoException;
 import com.fiap.pedidos.exceptions.entities.PedidoOperacaoNaoSuportadaException;
+import com.fiap.pedidos.exceptions.entities.WebhookSobrecarregadoException;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -22,4 +26,24 @@ public class PedidoExceptionHandler {
         StandardError err = new StandardError(System.currentTimeMillis(), HttpStatus.BAD_REQUEST.value(), "Operação não suportada, verifique o status do pedido", e.getMessage(), request.getRequestURI());
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(err);
     }
+
+    @ExceptionHandler(PedidoAlteradoConcorrentementeException.class)
+    public ResponseEntity<StandardError> pedidoAlteradoConcorrentemente(PedidoAlteradoConcorrentementeException e, HttpServletRequest request){
+        StandardError err = new StandardError(System.currentTimeMillis(), HttpStatus.CONFLICT.value(), "Pedido alterado por outra operação, tente novamente", e.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(err);
+    }
+
+    @ExceptionHandler(CursorInvalidoException.class)
+    public ResponseEntity<StandardError> cursorInvalido(CursorInvalidoException e, HttpServletRequest request){
+        StandardError err = new StandardError(System.currentTimeMillis(), HttpStatus.BAD_REQUEST.value(), "Cursor inválido", e.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(err);
+    }
+
+    @ExceptionHandler(WebhookSobrecarregadoException.class)
+    public ResponseEntity<StandardError> webhookSobrecarregado(WebhookSobrecarregadoException e, HttpServletRequest request){
+        StandardError err = new StandardError(System.currentTimeMillis(), HttpStatus.SERVICE_UNAVAILABLE.value(), "Serviço sobrecarregado", e.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getSegundosParaNovaTentativa()))
+                .body(err);
+    }
 }
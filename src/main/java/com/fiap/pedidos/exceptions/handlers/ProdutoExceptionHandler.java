@@ -58,7 +58,7 @@ public class ProdutoExceptionHandler {
         StandardError err = new StandardError(
                 System.currentTimeMillis(),
                 HttpStatus.BAD_REQUEST.value(),
-                "valor do produto não pode ser nulo",
+                "valor do produto inválido",
                 e.getMessage(),
                 request.getRequestURI()
         );
@@ -0,0 +1,80 @@
+package com.fiap.pedidos.facade;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.pedidos.adapters.ProdutoDTO;
+import com.fiap.pedidos.entities.Produto;
+import com.fiap.pedidos.utils.enums.TipoProduto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Mantém o JSON do cardápio já serializado por tipo de produto.
+ * O corpo só é gerado de novo quando a lista vinda do catálogo muda.
+ */
+@Component
+@RequiredArgsConstructor
+public class CardapioSerializado {
+
+    private final ObjectMapper objectMapper;
+    private final Map<TipoProduto, Cardapio> cardapios = new EnumMap<>(TipoProduto.class);
+
+    public Cardapio obter(TipoProduto tipoProduto, List<Produto> produtos) {
+        synchronized (cardapios) {
+            Cardapio cardapio = cardapios.get(tipoProduto);
+            if (cardapio != null && cardapio.produtos() == produtos) {
+                return cardapio;
+            }
+        }
+
+        Cardapio cardapio = serializar(produtos);
+        synchronized (cardapios) {
+            cardapios.put(tipoProduto, cardapio);
+        }
+        return cardapio;
+    }
+
+    private Cardapio serializar(List<Produto> produtos) {
+        try {
+            byte[] corpo = objectMapper.writeValueAsBytes(produtos.stream().map(ProdutoDTO::from).toList());
+            return new Cardapio(produtos, corpo, gerarEtag(corpo));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Não foi possível serializar o cardápio", e);
+        }
+    }
+
+    private String gerarEtag(byte[] corpo) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(corpo);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record Cardapio(List<Produto> produtos, byte[] corpo, String etag) {
+
+        public boolean vazio() {
+            return produtos.isEmpty();
+        }
+
+        public boolean correspondeA(String ifNoneMatch) {
+            if (Objects.isNull(ifNoneMatch)) {
+                return false;
+            }
+            return Arrays.stream(ifNoneMatch.split(","))
+                    .map(String::trim)
+                    .map(valor -> valor.startsWith("W/") ? valor.substring(2) : valor)
+                    .anyMatch(valor -> valor.equals("*") || valor.equals(etag));
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.fiap.pedidos.facade;
 
 import com.fiap.pedidos.gateways.PagamentoRepositoryAdapter;
+import com.fiap.pedidos.interfaces.facade.IPublicadorEventosPedido;
 import com.fiap.pedidos.interfaces.gateways.*;
 import com.fiap.pedidos.interfaces.repositories.PagamentoRepository;
 import com.fiap.pedidos.interfaces.usecases.IClienteUseCasePort;
@@ -32,8 +33,9 @@ public class ConfigurationContext {
             IPedidoProdutoRepositoryPort pedidoProdutoRepositoryPort,
             IPedidoRepositoryPort pedidoRepositoryPort,
             IPagamentoRepositoryPort pagamentoRepositoryPort,
-            IFilaRepositoryPort filaRepositoryPort) {
-        return new PedidoUseCaseImpl(pedidoProdutoRepositoryPort, pedidoRepositoryPort, pagamentoRepositoryPort, filaRepositoryPort);
+            IPublicadorEventosPedido publicadorEventosPedido) {
+        return new PedidoUseCaseImpl(pedidoProdutoRepositoryPort, pedidoRepositoryPort, pagamentoRepositoryPort,
+                publicadorEventosPedido);
     }
 
     @Bean
@@ -0,0 +1,149 @@
+package com.fiap.pedidos.facade;
+
+import com.fiap.pedidos.exceptions.entities.WebhookSobrecarregadoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor dedicado ao processamento dos webhooks de pagamento.
+ * Aceita no máximo {@code threads + tamanhoFila} webhooks pendentes e rejeita os demais com
+ * {@link WebhookSobrecarregadoException}, para que um pico de pagamentos não acumule trabalho sem limite
+ * nem esgote o pool de conexões do banco. Com threads virtuais a concorrência continua limitada a {@code threads}.
+ */
+@Slf4j
+@Component
+public class ExecutorWebhook implements DisposableBean {
+
+    public static final String TIPO_VIRTUAL = "virtual";
+
+    private final ExecutorService executor;
+    private final Semaphore vagas;
+    private final Semaphore execucoes;
+    private final long segundosParaNovaTentativa;
+    private final AtomicInteger emFila = new AtomicInteger();
+    private final AtomicInteger emExecucao = new AtomicInteger();
+    private final Timer tempoEspera;
+    private final Timer tempoProcessamento;
+    private final Counter rejeicoes;
+
+    public ExecutorWebhook(MeterRegistry meterRegistry,
+                           @Value("${webhook.executor.tipo:plataforma}") String tipo,
+                           @Value("${webhook.executor.threads:8}") int threads,
+                           @Value("${webhook.executor.tamanho-fila:200}") int tamanhoFila,
+                           @Value("${webhook.executor.retry-after:PT5S}") Duration retryAfter) {
+        this.executor = criarExecutor(tipo, threads);
+        this.vagas = new Semaphore(threads + tamanhoFila);
+        this.execucoes = new Semaphore(threads);
+        this.segundosParaNovaTentativa = Math.max(1, retryAfter.toSeconds());
+
+        Gauge.builder("webhook.fila", emFila, AtomicInteger::get)
+                .description("Webhooks aguardando processamento")
+                .register(meterRegistry);
+        Gauge.builder("webhook.em.execucao", emExecucao, AtomicInteger::get)
+                .description("Webhooks em processamento")
+                .register(meterRegistry);
+        this.tempoEspera = Timer.builder("webhook.espera")
+                .description("Tempo entre o recebimento e o início do processamento")
+                .register(meterRegistry);
+        this.tempoProcessamento = Timer.builder("webhook.processamento")
+                .description("Tempo de processamento do webhook")
+                .register(meterRegistry);
+        this.rejeicoes = Counter.builder("webhook.rejeicoes")
+                .description("Webhooks recusados por falta de capacidade")
+                .register(meterRegistry);
+    }
+
+    public void executar(Runnable tarefa) {
+        if (!vagas.tryAcquire()) {
+            rejeicoes.increment();
+            throw new WebhookSobrecarregadoException(segundosParaNovaTentativa);
+        }
+        emFila.incrementAndGet();
+        long recebidoEm = System.nanoTime();
+        try {
+            executor.execute(() -> processar(tarefa, recebidoEm));
+        } catch (RejectedExecutionException e) {
+            emFila.decrementAndGet();
+            vagas.release();
+            rejeicoes.increment();
+            throw new WebhookSobrecarregadoException(segundosParaNovaTentativa);
+        }
+    }
+
+    private void processar(Runnable tarefa, long recebidoEm) {
+        try {
+            execucoes.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            emFila.decrementAndGet();
+            vagas.release();
+            return;
+        }
+        emFila.decrementAndGet();
+        emExecucao.incrementAndGet();
+        long iniciadoEm = System.nanoTime();
+        tempoEspera.record(iniciadoEm - recebidoEm, TimeUnit.NANOSECONDS);
+        try {
+            tarefa.run();
+        } catch (RuntimeException e) {
+            log.error("Falha ao processar webhook", e);
+        } finally {
+            tempoProcessamento.record(System.nanoTime() - iniciadoEm, TimeUnit.NANOSECONDS);
+            execucoes.release();
+            vagas.release();
+            emExecucao.decrementAndGet();
+        }
+    }
+
+    public int getEmFila() {
+        return emFila.get();
+    }
+
+    public int getEmExecucao() {
+        return emExecucao.get();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ExecutorService criarExecutor(String tipo, int threads) {
+        if (TIPO_VIRTUAL.equalsIgnoreCase(tipo)) {
+            // Obtido por reflexão para continuar compilando em Java 17; só existe a partir do Java 21.
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                log.warn("Threads virtuais indisponíveis nesta JVM, usando threads de plataforma");
+            }
+        }
+        return Executors.newFixedThreadPool(threads, criarThreadFactory());
+    }
+
+    private static ThreadFactory criarThreadFactory() {
+        AtomicInteger contador = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "webhook-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
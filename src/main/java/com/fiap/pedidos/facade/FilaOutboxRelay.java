@@ -0,0 +1,80 @@
+package com.fiap.pedidos.facade;
+
+import com.fiap.pedidos.entities.EnvioFila;
+import com.fiap.pedidos.interfaces.gateways.IFilaOutboxRepositoryPort;
+import com.fiap.pedidos.interfaces.gateways.IFilaRepositoryPort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Entrega na fila os pedidos gravados no outbox junto com a mudança para R.
+ * A entrega é "pelo menos uma vez": se a réplica cair depois de chamar a fila e antes de concluir,
+ * o registro volta a ser enviado quando a reserva expirar.
+ */
+@Slf4j
+@Component
+public class FilaOutboxRelay {
+
+    private final IFilaOutboxRepositoryPort filaOutboxRepositoryPort;
+    private final IFilaRepositoryPort filaRepositoryPort;
+    private final int tamanhoLote;
+    private final Duration reserva;
+    private final Duration esperaInicial;
+    private final Duration esperaMaxima;
+
+    public FilaOutboxRelay(IFilaOutboxRepositoryPort filaOutboxRepositoryPort,
+                           IFilaRepositoryPort filaRepositoryPort,
+                           @Value("${fila.outbox.tamanho-lote:20}") int tamanhoLote,
+                           @Value("${fila.outbox.reserva:PT5M}") Duration reserva,
+                           @Value("${fila.outbox.espera-inicial:PT2S}") Duration esperaInicial,
+                           @Value("${fila.outbox.espera-maxima:PT5M}") Duration esperaMaxima) {
+        this.filaOutboxRepositoryPort = filaOutboxRepositoryPort;
+        this.filaRepositoryPort = filaRepositoryPort;
+        this.tamanhoLote = tamanhoLote;
+        this.reserva = reserva;
+        this.esperaInicial = esperaInicial;
+        this.esperaMaxima = esperaMaxima;
+    }
+
+    @Scheduled(fixedDelayString = "${fila.outbox.intervalo-ms:1000}")
+    public void enviarPendentes() {
+        List<EnvioFila> envios;
+        do {
+            envios = filaOutboxRepositoryPort.reservarPendentes(
+                    tamanhoLote, new Date(System.currentTimeMillis() + reserva.toMillis()));
+            envios.forEach(this::enviar);
+        } while (envios.size() == tamanhoLote);
+    }
+
+    private void enviar(EnvioFila envio) {
+        try {
+            filaRepositoryPort.inserePedidoNaFila(envio.getIdPedido(), envio.getIdCliente());
+            filaOutboxRepositoryPort.concluir(envio.getIdEnvio());
+        } catch (RuntimeException e) {
+            int tentativas = envio.getTentativas() + 1;
+            Duration espera = calcularEspera(tentativas);
+            log.warn("Falha ao inserir o pedido {} na fila, tentativa {}. Nova tentativa em {}",
+                    envio.getIdPedido(), tentativas, espera, e);
+            filaOutboxRepositoryPort.reagendar(
+                    envio.getIdEnvio(), tentativas, new Date(System.currentTimeMillis() + espera.toMillis()));
+        }
+    }
+
+    //Espera exponencial limitada, com até 20% de variação para as réplicas não tentarem todas juntas
+    Duration calcularEspera(int tentativas) {
+        int expoente = Math.min(Math.max(tentativas - 1, 0), 20);
+        Duration espera = esperaInicial.multipliedBy(1L << expoente);
+        if (espera.compareTo(esperaMaxima) > 0) {
+            espera = esperaMaxima;
+        }
+        long variacao = espera.toMillis() / 5;
+        return variacao > 0 ? espera.minusMillis(ThreadLocalRandom.current().nextLong(variacao + 1)) : espera;
+    }
+}
@@ -0,0 +1,23 @@
+package com.fiap.pedidos.facade;
+
+import com.fiap.pedidos.entities.EventoStatusPedido;
+import com.fiap.pedidos.interfaces.facade.IOuvinteTransicaoPedido;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+//Conta as transições de status por origem e destino
+@Component
+@RequiredArgsConstructor
+public class MetricasTransicoesPedido implements IOuvinteTransicaoPedido {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void aoTransicionar(EventoStatusPedido evento) {
+        meterRegistry.counter("pedidos.transicoes",
+                        "de", evento.getStatusAnterior().name(),
+                        "para", evento.getStatusAtual().name())
+                .increment();
+    }
+}
@@ -0,0 +1,192 @@
+package com.fiap.pedidos.facade;
+
+import com.fiap.pedidos.entities.EventoStatusPedido;
+import com.fiap.pedidos.interfaces.facade.IOuvinteTransicaoPedido;
+import com.fiap.pedidos.interfaces.facade.IPainelPedidos;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Distribui as mudanças de status dos pedidos para os painéis conectados via SSE.
+ * Cada painel tem um buffer limitado; quem não consome no ritmo dos eventos é desconectado
+ * e reconecta recebendo um novo snapshot.
+ * <p>
+ * Os envios rodam fora da thread dos heartbeats, uma thread por painel com eventos pendentes, para que um painel
+ * travado não segure os demais; um envio que passa de {@code painel.sse.timeout-envio} desconecta o painel.
+ */
+@Slf4j
+@Service
+public class PainelPedidosPublisher implements IPainelPedidos, IOuvinteTransicaoPedido, DisposableBean {
+
+    static final String EVENTO_SNAPSHOT = "snapshot";
+    static final String EVENTO_STATUS = "status";
+
+    private final int capacidadeBuffer;
+    private final long timeoutMillis;
+    private final long timeoutEnvioNanos;
+    private final ScheduledExecutorService agendador;
+    private final ExecutorService envios;
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public PainelPedidosPublisher(@Value("${painel.sse.buffer-por-cliente:256}") int capacidadeBuffer,
+                                  @Value("${painel.sse.timeout:PT30M}") Duration timeout,
+                                  @Value("${painel.sse.timeout-envio:PT10S}") Duration timeoutEnvio,
+                                  @Value("${painel.sse.heartbeat:PT15S}") Duration heartbeat) {
+        this(capacidadeBuffer, timeout, timeoutEnvio,
+                Executors.newSingleThreadScheduledExecutor(criarThreadFactory("painel-pedidos-heartbeat-")),
+                Executors.newCachedThreadPool(criarThreadFactory("painel-pedidos-envio-")));
+        this.agendador.scheduleAtFixedRate(
+                this::enviarHeartbeat, heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    PainelPedidosPublisher(int capacidadeBuffer, Duration timeout, Duration timeoutEnvio,
+                           ScheduledExecutorService agendador, ExecutorService envios) {
+        this.capacidadeBuffer = capacidadeBuffer;
+        this.timeoutMillis = timeout.toMillis();
+        this.timeoutEnvioNanos = timeoutEnvio.toNanos();
+        this.agendador = agendador;
+        this.envios = envios;
+    }
+
+    @Override
+    public SseEmitter inscrever(Supplier<?> snapshot) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Assinante assinante = new Assinante(emitter, new LinkedBlockingDeque<>(capacidadeBuffer));
+        emitter.onCompletion(() -> assinantes.remove(assinante));
+        emitter.onTimeout(() -> desconectar(assinante));
+        emitter.onError(erro -> assinantes.remove(assinante));
+
+        // Inscreve antes de montar o snapshot para não perder eventos ocorridos durante a consulta; eles ficam
+        // no buffer e só começam a ser enviados depois que o snapshot estiver na frente da fila.
+        assinantes.add(assinante);
+        SseEventBuilder eventoSnapshot;
+        try {
+            eventoSnapshot = SseEmitter.event().name(EVENTO_SNAPSHOT).data(snapshot.get());
+        } catch (RuntimeException e) {
+            assinantes.remove(assinante);
+            throw e;
+        }
+        if (!assinante.fila().offerFirst(eventoSnapshot)) {
+            desconectar(assinante);
+            return emitter;
+        }
+        assinante.snapshotEnfileirado().set(true);
+        agendarEnvio(assinante);
+        return emitter;
+    }
+
+    @Override
+    public void aoTransicionar(EventoStatusPedido evento) {
+        assinantes.forEach(assinante -> enfileirar(assinante,
+                SseEmitter.event().name(EVENTO_STATUS).id(evento.getIdPedido().toString()).data(evento)));
+    }
+
+    public int quantidadeAssinantes() {
+        return assinantes.size();
+    }
+
+    @Override
+    public void destroy() {
+        agendador.shutdownNow();
+        envios.shutdownNow();
+        assinantes.forEach(this::desconectar);
+    }
+
+    private void enviarHeartbeat() {
+        desconectarEnviosTravados();
+        assinantes.forEach(assinante -> enfileirar(assinante, SseEmitter.event().comment("keep-alive")));
+    }
+
+    // Completar o emitter com erro fecha a conexão e destrava a escrita bloqueada na thread de envio.
+    void desconectarEnviosTravados() {
+        long agora = System.nanoTime();
+        assinantes.forEach(assinante -> {
+            long inicio = assinante.inicioEnvio().get();
+            if (inicio != 0 && agora - inicio > timeoutEnvioNanos && assinantes.remove(assinante)) {
+                log.warn("Painel desconectado por não receber um evento em {} ms", TimeUnit.NANOSECONDS.toMillis(timeoutEnvioNanos));
+                assinante.fila().clear();
+                assinante.emitter().completeWithError(new IOException("Envio ao painel excedeu o tempo limite"));
+            }
+        });
+    }
+
+    private void enfileirar(Assinante assinante, SseEventBuilder evento) {
+        if (!assinante.fila().offer(evento)) {
+            log.warn("Painel desconectado por não acompanhar os eventos, buffer de {} eventos cheio", capacidadeBuffer);
+            desconectar(assinante);
+            return;
+        }
+        agendarEnvio(assinante);
+    }
+
+    private void agendarEnvio(Assinante assinante) {
+        if (assinante.snapshotEnfileirado().get() && assinante.enviando().compareAndSet(false, true)) {
+            envios.execute(() -> enviar(assinante));
+        }
+    }
+
+    private void enviar(Assinante assinante) {
+        try {
+            SseEventBuilder evento;
+            while ((evento = assinante.fila().poll()) != null) {
+                assinante.inicioEnvio().set(System.nanoTime());
+                assinante.emitter().send(evento);
+                assinante.inicioEnvio().set(0);
+            }
+        } catch (IOException | IllegalStateException e) {
+            assinantes.remove(assinante);
+            return;
+        } finally {
+            assinante.inicioEnvio().set(0);
+            assinante.enviando().set(false);
+        }
+        if (!assinante.fila().isEmpty() && assinantes.contains(assinante)) {
+            agendarEnvio(assinante);
+        }
+    }
+
+    private void desconectar(Assinante assinante) {
+        if (assinantes.remove(assinante)) {
+            assinante.fila().clear();
+            assinante.emitter().complete();
+        }
+    }
+
+    private static ThreadFactory criarThreadFactory(String prefixo) {
+        AtomicInteger contador = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefixo + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record Assinante(SseEmitter emitter, BlockingDeque<SseEventBuilder> fila, AtomicBoolean enviando,
+                             AtomicBoolean snapshotEnfileirado, AtomicLong inicioEnvio) {
+        Assinante(SseEmitter emitter, BlockingDeque<SseEventBuilder> fila) {
+            this(emitter, fila, new AtomicBoolean(), new AtomicBoolean(), new AtomicLong());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.fiap.pedidos.facade;
+
+import com.fiap.pedidos.interfaces.gateways.IProjecaoListagemPedidos;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+//Remonta a projeção da listagem a partir da tabela de pedidos: POST /actuator/projecaopedidos, só na porta de
+//gerenciamento (management.server.port), que o Service do Kubernetes não expõe
+@Component
+@Endpoint(id = "projecaopedidos")
+@RequiredArgsConstructor
+public class ProjecaoListagemPedidosEndpoint {
+
+    private final IProjecaoListagemPedidos projecaoListagemPedidos;
+
+    @WriteOperation
+    public Map<String, Integer> reconstruir() {
+        return Map.of("pedidos", projecaoListagemPedidos.reconstruir());
+    }
+}
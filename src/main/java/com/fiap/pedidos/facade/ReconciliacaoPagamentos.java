@@ -0,0 +1,152 @@
+package com.fiap.pedidos.facade;
+
+import com.fiap.pedidos.entities.CursorPedido;
+import com.fiap.pedidos.entities.Pedido;
+import com.fiap.pedidos.interfaces.gateways.ITarefaAgendadaRepositoryPort;
+import com.fiap.pedidos.interfaces.usecases.IPedidoUseCasePort;
+import com.fiap.pedidos.utils.enums.StatusPedido;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recupera webhooks de pagamento perdidos: percorre os pedidos abertos há mais de {@code idade-minima}
+ * (e há menos de {@code idade-maxima}, para não reconsultar carrinhos abandonados para sempre) e consulta os
+ * pagamentos em lotes, com no máximo {@code concorrencia} lotes em andamento.
+ * <p>
+ * Só uma réplica reconcilia por vez: a execução reserva a tarefa por até {@code reserva-maxima} e, ao terminar,
+ * deixa a reserva valendo até o próximo intervalo, para as demais réplicas pularem a rodada.
+ */
+@Slf4j
+@Component
+public class ReconciliacaoPagamentos implements DisposableBean {
+
+    static final String TAREFA = "reconciliacao-pagamentos";
+
+    private final IPedidoUseCasePort pedidoUseCasePort;
+    private final ITarefaAgendadaRepositoryPort tarefaAgendadaRepositoryPort;
+    private final Duration idadeMinima;
+    private final Duration idadeMaxima;
+    private final int tamanhoLote;
+    private final long intervaloMillis;
+    private final Duration reservaMaxima;
+    private final Semaphore lotesEmAndamento;
+    private final ExecutorService executor;
+    private final Counter pagamentosConfirmados;
+
+    public ReconciliacaoPagamentos(IPedidoUseCasePort pedidoUseCasePort,
+                                   ITarefaAgendadaRepositoryPort tarefaAgendadaRepositoryPort,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${reconciliacao.idade-minima:PT5M}") Duration idadeMinima,
+                                   @Value("${reconciliacao.idade-maxima:PT24H}") Duration idadeMaxima,
+                                   @Value("${reconciliacao.tamanho-lote:50}") int tamanhoLote,
+                                   @Value("${reconciliacao.concorrencia:2}") int concorrencia,
+                                   @Value("${reconciliacao.intervalo-ms:60000}") long intervaloMillis,
+                                   @Value("${reconciliacao.reserva-maxima:PT10M}") Duration reservaMaxima) {
+        this.pedidoUseCasePort = pedidoUseCasePort;
+        this.tarefaAgendadaRepositoryPort = tarefaAgendadaRepositoryPort;
+        this.idadeMinima = idadeMinima;
+        this.idadeMaxima = idadeMaxima;
+        this.tamanhoLote = tamanhoLote;
+        this.intervaloMillis = intervaloMillis;
+        this.reservaMaxima = reservaMaxima;
+        this.lotesEmAndamento = new Semaphore(concorrencia);
+        this.executor = Executors.newFixedThreadPool(concorrencia, runnable -> {
+            Thread thread = new Thread(runnable, "reconciliacao-pagamentos");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pagamentosConfirmados = Counter.builder("reconciliacao.pagamentos.confirmados")
+                .description("Pedidos com pagamento confirmado pela reconciliação")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${reconciliacao.intervalo-ms:60000}",
+            initialDelayString = "${reconciliacao.intervalo-ms:60000}")
+    public void reconciliar() {
+        long agora = System.currentTimeMillis();
+        Date reservadaAte = new Date(agora + reservaMaxima.toMillis());
+        if (!tarefaAgendadaRepositoryPort.reservar(TAREFA, reservadaAte)) {
+            return;
+        }
+        try {
+            reconciliar(agora);
+        } finally {
+            tarefaAgendadaRepositoryPort.liberar(TAREFA, reservadaAte, new Date(agora + intervaloMillis));
+        }
+    }
+
+    private void reconciliar(long agora) {
+        Date incluidosAntes = new Date(agora - idadeMinima.toMillis());
+        CursorPedido cursor = new CursorPedido(
+                StatusPedido.A.getOrdemListagem(), new Date(agora - idadeMaxima.toMillis()), new UUID(0, 0));
+
+        AtomicInteger confirmados = new AtomicInteger();
+        List<Future<?>> lotes = new ArrayList<>();
+        try {
+            List<Pedido> pedidos;
+            do {
+                pedidos = pedidoUseCasePort.buscarAguardandoPagamento(cursor, incluidosAntes, tamanhoLote);
+                if (pedidos.isEmpty()) {
+                    break;
+                }
+                // Só busca o próximo lote quando há vaga, para não acumular pedidos em memória nem em fila
+                lotesEmAndamento.acquire();
+                lotes.add(executor.submit(reconciliarLote(pedidos, confirmados)));
+                cursor = CursorPedido.de(pedidos.get(pedidos.size() - 1));
+            } while (pedidos.size() == tamanhoLote);
+
+            for (Future<?> lote : lotes) {
+                aguardar(lote);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        if (confirmados.get() > 0) {
+            log.info("Reconciliação confirmou o pagamento de {} pedidos", confirmados.get());
+        }
+    }
+
+    private void aguardar(Future<?> lote) throws InterruptedException {
+        try {
+            lote.get();
+        } catch (ExecutionException e) {
+            log.warn("Falha ao reconciliar lote de pagamentos", e.getCause());
+        }
+    }
+
+    private Runnable reconciliarLote(List<Pedido> pedidos, AtomicInteger confirmados) {
+        return () -> {
+            try {
+                int quantidade = pedidoUseCasePort.reconciliarPagamentos(pedidos).size();
+                confirmados.addAndGet(quantidade);
+                pagamentosConfirmados.increment(quantidade);
+            } finally {
+                lotesEmAndamento.release();
+            }
+        };
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
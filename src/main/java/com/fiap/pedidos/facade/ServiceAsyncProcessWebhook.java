@@ -1,23 +1,98 @@
 package com.fiap.pedidos.facade;
 
+import com.fiap.pedidos.entities.Pedido;
+import com.fiap.pedidos.exceptions.entities.WebhookSobrecarregadoException;
+import com.fiap.pedidos.gateways.cache.CacheLocal;
 import com.fiap.pedidos.interfaces.facade.IServiceAsyncProcessWebhook;
 import com.fiap.pedidos.interfaces.usecases.IPedidoUseCasePort;
+import com.fiap.pedidos.utils.enums.StatusPedido;
 import com.fiap.pedidos.utils.enums.TipoAtualizacao;
-import lombok.RequiredArgsConstructor;
-import org.springframework.scheduling.annotation.Async;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Agrupa os webhooks repetidos do serviço de pagamentos por pedido: enquanto uma verificação está em andamento
+ * os demais webhooks apenas pedem uma nova verificação ao final dela, e pedidos com pagamento já confirmado
+ * são lembrados pelo TTL configurado sem nova consulta ao pagamento.
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class ServiceAsyncProcessWebhook implements IServiceAsyncProcessWebhook {
 
     private final IPedidoUseCasePort pedidoUseCasePort;
+    private final ExecutorWebhook executorWebhook;
+    private final CacheLocal<UUID, StatusPedido> pagamentosConfirmados;
+    private final Map<UUID, AtomicBoolean> emAndamento = new ConcurrentHashMap<>();
+
+    public ServiceAsyncProcessWebhook(IPedidoUseCasePort pedidoUseCasePort,
+                                      ExecutorWebhook executorWebhook,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${webhook.deduplicacao.tamanho-maximo:10000}") int tamanhoMaximo,
+                                      @Value("${webhook.deduplicacao.ttl:PT10M}") Duration ttl) {
+        this.pedidoUseCasePort = pedidoUseCasePort;
+        this.executorWebhook = executorWebhook;
+        this.pagamentosConfirmados = new CacheLocal<>(tamanhoMaximo, ttl);
+        this.pagamentosConfirmados.registrarMetricas(meterRegistry, "webhook.pagamentos.confirmados");
+    }
 
     @Override
-    @Async
     public void processarWebhook(UUID idPedido) {
-        this.pedidoUseCasePort.atualizarPedido(idPedido, TipoAtualizacao.P, null, null);
+        if (pagamentosConfirmados.buscar(idPedido).isPresent()) {
+            return;
+        }
+
+        AtomicBoolean reverificar = new AtomicBoolean();
+        AtomicBoolean verificacaoEmAndamento = emAndamento.putIfAbsent(idPedido, reverificar);
+        if (verificacaoEmAndamento != null) {
+            verificacaoEmAndamento.set(true);
+            return;
+        }
+
+        try {
+            this.executorWebhook.executar(() -> processar(idPedido, reverificar));
+        } catch (RuntimeException e) {
+            emAndamento.remove(idPedido, reverificar);
+            throw e;
+        }
+    }
+
+    private void processar(UUID idPedido, AtomicBoolean reverificar) {
+        boolean confirmado = false;
+        try {
+            // Os webhooks recebidos enquanto a tarefa aguardava na fila são atendidos por esta verificação, que
+            // ainda não consultou o pagamento; só os que chegam durante uma consulta pedem outra.
+            do {
+                reverificar.set(false);
+                confirmado = verificarPagamento(idPedido);
+            } while (!confirmado && reverificar.get());
+        } finally {
+            emAndamento.remove(idPedido, reverificar);
+        }
+
+        // Webhook recebido entre a última verificação e a remoção acima
+        if (!confirmado && reverificar.get()) {
+            try {
+                processarWebhook(idPedido);
+            } catch (WebhookSobrecarregadoException e) {
+                log.warn("Nova verificação do pagamento do pedido {} descartada por falta de capacidade", idPedido);
+            }
+        }
+    }
+
+    private boolean verificarPagamento(UUID idPedido) {
+        Pedido pedido = this.pedidoUseCasePort.atualizarPedido(idPedido, TipoAtualizacao.P, null, null);
+        if (pedido.getStatusPedido() == StatusPedido.A) {
+            return false;
+        }
+        pagamentosConfirmados.colocar(idPedido, pedido.getStatusPedido());
+        return true;
     }
 }
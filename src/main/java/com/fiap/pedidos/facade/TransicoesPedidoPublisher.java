@@ -0,0 +1,36 @@
+package com.fiap.pedidos.facade;
+
+import com.fiap.pedidos.entities.EventoStatusPedido;
+import com.fiap.pedidos.interfaces.facade.IOuvinteTransicaoPedido;
+import com.fiap.pedidos.interfaces.facade.IPublicadorEventosPedido;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Entrega cada transição de status gravada a todos os ouvintes registrados (painel, métricas...).
+ * A falha de um ouvinte não impede a entrega aos demais nem desfaz a transição.
+ */
+@Slf4j
+@Service
+public class TransicoesPedidoPublisher implements IPublicadorEventosPedido {
+
+    private final List<IOuvinteTransicaoPedido> ouvintes;
+
+    public TransicoesPedidoPublisher(List<IOuvinteTransicaoPedido> ouvintes) {
+        this.ouvintes = List.copyOf(ouvintes);
+    }
+
+    @Override
+    public void publicar(EventoStatusPedido evento) {
+        for (IOuvinteTransicaoPedido ouvinte : ouvintes) {
+            try {
+                ouvinte.aoTransicionar(evento);
+            } catch (RuntimeException e) {
+                log.warn("Falha ao notificar {} da transição do pedido {}",
+                        ouvinte.getClass().getSimpleName(), evento.getIdPedido(), e);
+            }
+        }
+    }
+}
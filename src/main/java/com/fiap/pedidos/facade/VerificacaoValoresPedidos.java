@@ -0,0 +1,65 @@
+package com.fiap.pedidos.facade;
+
+import com.fiap.pedidos.interfaces.gateways.IPedidoRepositoryPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Confere em lotes o total dos pedidos em aberto com a soma dos seus itens e corrige os divergentes.
+ * Só entram os pedidos alterados dentro da {@code janela}; os alterados há menos de {@code margem} ficam para a
+ * próxima execução, para não disputar com inclusões e remoções em andamento.
+ */
+@Slf4j
+@Component
+public class VerificacaoValoresPedidos {
+
+    private final IPedidoRepositoryPort pedidoRepositoryPort;
+    private final Duration margem;
+    private final Duration janela;
+    private final int lote;
+    private final Counter valoresCorrigidos;
+
+    public VerificacaoValoresPedidos(IPedidoRepositoryPort pedidoRepositoryPort,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${pedidos.verificacao-valores.margem:PT1M}") Duration margem,
+                                     @Value("${pedidos.verificacao-valores.janela:PT24H}") Duration janela,
+                                     @Value("${pedidos.verificacao-valores.lote:500}") int lote) {
+        this.pedidoRepositoryPort = pedidoRepositoryPort;
+        this.margem = margem;
+        this.janela = janela;
+        this.lote = lote;
+        this.valoresCorrigidos = Counter.builder("pedidos.valores.corrigidos")
+                .description("Pedidos com total divergente da soma dos itens")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${pedidos.verificacao-valores.intervalo-ms:3600000}",
+            initialDelayString = "${pedidos.verificacao-valores.intervalo-ms:3600000}")
+    public int verificar() {
+        long agora = System.currentTimeMillis();
+        Date alteradosDesde = new Date(agora - janela.toMillis());
+        Date alteradosAntes = new Date(agora - margem.toMillis());
+
+        // Cada lote corrigido sai da janela, já que o pedido passa a ter sido alterado agora.
+        int total = 0;
+        List<UUID> corrigidos;
+        do {
+            corrigidos = pedidoRepositoryPort.corrigirValoresDivergentes(alteradosDesde, alteradosAntes, lote);
+            if (!corrigidos.isEmpty()) {
+                valoresCorrigidos.increment(corrigidos.size());
+                log.warn("Total recalculado a partir dos itens em {} pedidos: {}", corrigidos.size(), corrigidos);
+                total += corrigidos.size();
+            }
+        } while (corrigidos.size() == lote);
+        return total;
+    }
+}
@@ -0,0 +1,52 @@
+package com.fiap.pedidos.gateways;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.Set;
+
+/**
+ * Banco de dados em uso, identificado pelos metadados da conexão e não pela configuração do dialeto, que é
+ * opcional. Os comandos fora do SQL padrão, como os upserts, têm uma versão para o Postgres e outra para o H2
+ * do perfil dev e dos testes; qualquer outro banco impede a subida da aplicação.
+ */
+@Slf4j
+@Component
+public class BancoDeDados {
+
+    private static final Set<DatabaseDriver> SUPORTADOS = Set.of(DatabaseDriver.POSTGRESQL, DatabaseDriver.H2);
+
+    private final DatabaseDriver driver;
+
+    @Autowired
+    public BancoDeDados(DataSource dataSource) {
+        this(identificar(dataSource));
+    }
+
+    public BancoDeDados(DatabaseDriver driver) {
+        if (!SUPORTADOS.contains(driver)) {
+            throw new IllegalStateException("Banco de dados não suportado: " + driver);
+        }
+        this.driver = driver;
+        log.info("Banco de dados identificado: {}", driver);
+    }
+
+    public boolean isPostgres() {
+        return driver == DatabaseDriver.POSTGRESQL;
+    }
+
+    private static DatabaseDriver identificar(DataSource dataSource) {
+        try {
+            return DatabaseDriver.fromProductName(
+                    JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName));
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Não foi possível identificar o banco de dados", e);
+        }
+    }
+}
@@ -2,51 +2,114 @@ package com.fiap.pedidos.gateways;
 
 import com.fiap.pedidos.entities.Cliente;
 import com.fiap.pedidos.entities.Cpf;
+import com.fiap.pedidos.entities.CursorCliente;
+import com.fiap.pedidos.exceptions.entities.CpfExistenteException;
+import com.fiap.pedidos.gateways.cache.ClienteCache;
 import com.fiap.pedidos.gateways.entities.ClienteEntity;
+import com.fiap.pedidos.gateways.projecao.ItemCliente;
 import com.fiap.pedidos.interfaces.gateways.IClienteRepositoryPort;
 import com.fiap.pedidos.interfaces.repositories.ClienteRepository;
-import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
-@RequiredArgsConstructor
 public class ClienteRepositoryAdapter implements IClienteRepositoryPort {
 
     private final ClienteRepository clienteRepository;
+    private final ClienteCache clienteCache;
+    private final ReservaClientesAnonimos reservaClientesAnonimos;
+    private final boolean identificaComUpsert;
 
+    // O INSERT ... ON CONFLICT só existe no Postgres; no H2 do perfil dev a identificação busca e depois cadastra.
+    public ClienteRepositoryAdapter(ClienteRepository clienteRepository,
+                                    ClienteCache clienteCache,
+                                    ReservaClientesAnonimos reservaClientesAnonimos,
+                                    BancoDeDados bancoDeDados) {
+        this.clienteRepository = clienteRepository;
+        this.clienteCache = clienteCache;
+        this.reservaClientesAnonimos = reservaClientesAnonimos;
+        this.identificaComUpsert = bancoDeDados.isPostgres();
+    }
+
+    // Sem transação própria: a violação do CPF único sai do save e pode ser traduzida aqui.
     @Override
     public Cliente cadastrar(Cliente cliente) {
         ClienteEntity clienteEntity = new ClienteEntity().from(cliente);
-        var clienteSalvo = clienteRepository.save(clienteEntity);
-        return clienteSalvo.to(clienteSalvo);
+        try {
+            var clienteSalvo = clienteRepository.save(clienteEntity);
+            var clienteCadastrado = clienteSalvo.to(clienteSalvo);
+            clienteCache.invalidar(clienteCadastrado);
+            return clienteCadastrado;
+        } catch (DataIntegrityViolationException e) {
+            clienteCache.invalidar(cliente);
+            throw new CpfExistenteException();
+        }
+    }
+
+    @Override
+    public Cliente identificarPorCpf(Cpf cpf) {
+        return clienteCache.identificarPorCpf(cpf, chave -> {
+            ClienteEntity clienteEntity = identificaComUpsert
+                    ? clienteRepository.inserirOuBuscarPorCpf(chave.getCpf())
+                            // Cadastrado por outro totem durante o comando: uma nova consulta já o enxerga
+                            .orElseGet(() -> clienteRepository.findAllByCpf(chave).orElseThrow())
+                    : buscarOuCadastrarPorCpf(chave);
+            return clienteEntity.to(clienteEntity);
+        });
+    }
+
+    private ClienteEntity buscarOuCadastrarPorCpf(Cpf cpf) {
+        return clienteRepository.findAllByCpf(cpf).orElseGet(() -> {
+            try {
+                return clienteRepository.save(ClienteEntity.builder().cpf(cpf).build());
+            } catch (DataIntegrityViolationException e) {
+                // Outro totem cadastrou o mesmo CPF entre a busca e o cadastro
+                return clienteRepository.findAllByCpf(cpf).orElseThrow(() -> e);
+            }
+        });
     }
 
     @Override
     public UUID gerarId() {
-        return clienteRepository.save(new ClienteEntity()).getId();
+        return reservaClientesAnonimos.retirar();
     }
 
+    // As leituras não abrem transação aqui para que um acerto no cache não reserve conexão com o banco.
     @Override
     public Optional<Cliente> buscarPorCpf(Cpf cpf) {
-        return clienteRepository.findAllByCpf(cpf).map(obj -> obj.to(obj));
+        return clienteCache.buscarPorCpf(cpf, chave -> clienteRepository.findAllByCpf(chave).map(obj -> obj.to(obj)));
     }
 
     @Override
-    public List<Cliente> bucarTodos() {
-        List<ClienteEntity> clientesEntity = clienteRepository.findAll();
-        return clientesEntity
-                .stream()
-                .map(clienteEntity -> clienteEntity.to(clienteEntity))
+    public List<Cliente> buscarTodos(CursorCliente cursor, int limite) {
+        List<ItemCliente> itens = Objects.isNull(cursor) ?
+                clienteRepository.listagemOrdenadaPorId(limite) :
+                clienteRepository.listagemOrdenadaPorIdAposCursor(cursor.getIdCliente(), limite);
+        return itens.stream()
+                .map(ItemCliente::to)
                 .collect(Collectors.toList());
     }
 
+    // A transação segura o cursor aberto enquanto o consumidor escreve; a memória fica limitada a um lote.
+    @Override
+    @Transactional(readOnly = true)
+    public void percorrerTodos(Consumer<Cliente> consumidor) {
+        try (Stream<ItemCliente> itens = clienteRepository.exportacao()) {
+            itens.map(ItemCliente::to).forEach(consumidor);
+        }
+    }
+
     @Override
     public Optional<Cliente> buscarPorId(UUID uuid) {
-        return clienteRepository.findById(uuid).map(obj -> obj.to(obj));
+        return clienteCache.buscarPorId(uuid, id -> clienteRepository.findById(id).map(obj -> obj.to(obj)));
     }
 }
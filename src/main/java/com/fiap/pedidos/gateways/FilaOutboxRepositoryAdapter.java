@@ -0,0 +1,44 @@
+package com.fiap.pedidos.gateways;
+
+import com.fiap.pedidos.entities.EnvioFila;
+import com.fiap.pedidos.gateways.entities.FilaOutboxEntity;
+import com.fiap.pedidos.interfaces.gateways.IFilaOutboxRepositoryPort;
+import com.fiap.pedidos.interfaces.repositories.FilaOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class FilaOutboxRepositoryAdapter implements IFilaOutboxRepositoryPort {
+
+    private final FilaOutboxRepository filaOutboxRepository;
+
+    @Override
+    @Transactional
+    public List<EnvioFila> reservarPendentes(int limite, Date reservadoAte) {
+        List<FilaOutboxEntity> pendentes = this.filaOutboxRepository
+                .buscarPendentes(new Date(), PageRequest.of(0, limite));
+        pendentes.forEach(pendente -> pendente.setProximaTentativa(reservadoAte));
+        return pendentes.stream()
+                .map(FilaOutboxEntity::to)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public void concluir(UUID idEnvio) {
+        this.filaOutboxRepository.deleteById(idEnvio);
+    }
+
+    @Override
+    @Transactional
+    public void reagendar(UUID idEnvio, int tentativas, Date proximaTentativa) {
+        this.filaOutboxRepository.reagendar(idEnvio, tentativas, proximaTentativa);
+    }
+}
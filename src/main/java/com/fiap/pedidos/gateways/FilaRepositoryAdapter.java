@@ -1,20 +1,28 @@
 package com.fiap.pedidos.gateways;
 
+import com.fiap.pedidos.gateways.resiliencia.ProtecaoServicoRemoto;
+import com.fiap.pedidos.gateways.resiliencia.ProtecaoServicosRemotos;
 import com.fiap.pedidos.interfaces.gateways.IFilaRepositoryPort;
 import com.fiap.pedidos.interfaces.repositories.FilaRepository;
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.UUID;
 
 @Service
-@RequiredArgsConstructor
 public class FilaRepositoryAdapter implements IFilaRepositoryPort {
 
+    static final String SERVICO = "fila";
+
     private final FilaRepository filaRepository;
+    private final ProtecaoServicoRemoto protecao;
+
+    public FilaRepositoryAdapter(FilaRepository filaRepository, ProtecaoServicosRemotos protecaoServicosRemotos) {
+        this.filaRepository = filaRepository;
+        this.protecao = protecaoServicosRemotos.obter(SERVICO);
+    }
 
     @Override
     public void inserePedidoNaFila(UUID idPedido, UUID idCliente) {
-        this.filaRepository.inserePedidoNaFila(idPedido, idCliente);
+        protecao.executar(() -> this.filaRepository.inserePedidoNaFila(idPedido, idCliente));
     }
 }
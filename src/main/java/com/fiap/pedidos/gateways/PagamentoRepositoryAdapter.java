@@ -1,21 +1,138 @@
 package com.fiap.pedidos.gateways;
 
+import com.fiap.pedidos.adapters.SituacaoPagamentoDTO;
+import com.fiap.pedidos.exceptions.entities.ServicoRemotoIndisponivelException;
+import com.fiap.pedidos.gateways.cache.CacheLocal;
+import com.fiap.pedidos.gateways.resiliencia.ProtecaoServicoRemoto;
+import com.fiap.pedidos.gateways.resiliencia.ProtecaoServicosRemotos;
 import com.fiap.pedidos.interfaces.gateways.IPagamentoRepositoryPort;
 import com.fiap.pedidos.interfaces.repositories.PagamentoRepository;
+import feign.FeignException;
 import feign.Response;
-import lombok.RequiredArgsConstructor;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class PagamentoRepositoryAdapter implements IPagamentoRepositoryPort {
 
+    static final String SERVICO = "pagamentos";
+    private static final Duration NOVA_TENTATIVA_CONSULTA_EM_LOTE = Duration.ofHours(1);
+
     private final PagamentoRepository pagamentoRepository;
+    private final ProtecaoServicoRemoto protecao;
+    //Só a confirmação é guardada: um pagamento confirmado não deixa de estar, já a recusa pode mudar a qualquer momento
+    private final CacheLocal<UUID, Boolean> pagamentosConfirmados;
+    //Limita as chamadas feitas nas consultas em lote, para a reconciliação não disputar o serviço com os webhooks
+    private final RateLimiter limiteConsultasEmLote;
+    private volatile long consultaEmLoteIndisponivelAte;
+
+    public PagamentoRepositoryAdapter(PagamentoRepository pagamentoRepository,
+                                      ProtecaoServicosRemotos protecaoServicosRemotos,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${pagamentos.cache.ttl:PT30S}") Duration ttlConfirmacao,
+                                      @Value("${pagamentos.consulta-lote.chamadas-por-segundo:20}") int chamadasPorSegundo,
+                                      @Value("${pagamentos.consulta-lote.espera-maxima:PT30S}") Duration esperaMaxima) {
+        this.pagamentoRepository = pagamentoRepository;
+        this.protecao = protecaoServicosRemotos.obter(SERVICO);
+        this.pagamentosConfirmados = new CacheLocal<>(10_000, ttlConfirmacao);
+        this.pagamentosConfirmados.registrarMetricas(meterRegistry, "pagamentos.confirmados");
+        this.limiteConsultasEmLote = RateLimiter.of("pagamentos-consulta-lote", RateLimiterConfig.custom()
+                .limitForPeriod(chamadasPorSegundo)
+                .limitRefreshPeriod(Duration.ofSeconds(1))
+                .timeoutDuration(esperaMaxima)
+                .build());
+    }
+
     @Override
-    public boolean consultaPagamento(UUID idPedido) {Response response = this.pagamentoRepository.consultarPagamento(idPedido);
-       return response.status() == HttpStatus.OK.value();
+    public boolean consultaPagamento(UUID idPedido) {
+        if (pagamentosConfirmados.buscar(idPedido).isPresent()) {
+            return true;
+        }
+
+        boolean pago = protecao.executar(() -> {
+            //Fechar a resposta devolve a conexão ao pool mesmo quando o corpo não é lido
+            try (Response response = this.pagamentoRepository.consultarPagamento(idPedido)) {
+                //Erro do servidor é falha do serviço, não recusa do pagamento, e precisa contar para o circuit breaker
+                if (HttpStatus.Series.resolve(response.status()) == HttpStatus.Series.SERVER_ERROR) {
+                    throw new ServicoRemotoIndisponivelException(SERVICO);
+                }
+                return response.status() == HttpStatus.OK.value();
+            }
+        });
+
+        if (pago) {
+            pagamentosConfirmados.colocar(idPedido, Boolean.TRUE);
+        }
+        return pago;
+    }
+
+    @Override
+    public Set<UUID> consultaPagamentos(Collection<UUID> idsPedido) {
+        Set<UUID> confirmados = new HashSet<>();
+        List<UUID> aConsultar = new ArrayList<>();
+        idsPedido.forEach(idPedido -> {
+            if (pagamentosConfirmados.buscar(idPedido).isPresent()) {
+                confirmados.add(idPedido);
+            } else {
+                aConsultar.add(idPedido);
+            }
+        });
+        if (aConsultar.isEmpty()) {
+            return confirmados;
+        }
+
+        if (System.currentTimeMillis() >= consultaEmLoteIndisponivelAte) {
+            try {
+                RateLimiter.waitForPermission(limiteConsultasEmLote);
+                List<SituacaoPagamentoDTO> situacoes = protecao.executar(
+                        () -> this.pagamentoRepository.consultarPagamentos(aConsultar));
+                situacoes.stream()
+                        .filter(SituacaoPagamentoDTO::isPago)
+                        .forEach(situacao -> {
+                            confirmados.add(situacao.getIdPedido());
+                            pagamentosConfirmados.colocar(situacao.getIdPedido(), Boolean.TRUE);
+                        });
+                return confirmados;
+            } catch (FeignException.NotFound | FeignException.MethodNotAllowed e) {
+                log.warn("Serviço de pagamentos sem consulta em lote, consultando pedido a pedido");
+                consultaEmLoteIndisponivelAte = System.currentTimeMillis() + NOVA_TENTATIVA_CONSULTA_EM_LOTE.toMillis();
+            } catch (RequestNotPermitted e) {
+                return semPermissao(confirmados, aConsultar.size());
+            }
+        }
+
+        for (int i = 0; i < aConsultar.size(); i++) {
+            UUID idPedido = aConsultar.get(i);
+            try {
+                RateLimiter.waitForPermission(limiteConsultasEmLote);
+            } catch (RequestNotPermitted e) {
+                return semPermissao(confirmados, aConsultar.size() - i);
+            }
+            if (consultaPagamento(idPedido)) {
+                confirmados.add(idPedido);
+            }
+        }
+        return confirmados;
+    }
+
+    //Sem vaga no limite de chamadas dentro da espera máxima: os pedidos restantes ficam para a próxima reconciliação
+    private Set<UUID> semPermissao(Set<UUID> confirmados, int naoConsultados) {
+        log.warn("Limite de consultas de pagamento atingido, {} pedidos não consultados nesta rodada", naoConsultados);
+        return confirmados;
     }
 }
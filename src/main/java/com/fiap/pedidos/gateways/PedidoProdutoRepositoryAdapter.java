@@ -5,20 +5,23 @@ import com.fiap.pedidos.entities.PedidoProduto;
 import com.fiap.pedidos.entities.Produto;
 import com.fiap.pedidos.exceptions.entities.PedidoNaoEncontradoException;
 import com.fiap.pedidos.exceptions.entities.PedidoOperacaoNaoSuportadaException;
-import com.fiap.pedidos.gateways.entities.PedidoEntity;
 import com.fiap.pedidos.gateways.entities.PedidoProdutoEntity;
-import com.fiap.pedidos.gateways.entities.ProdutoEntity;
+import com.fiap.pedidos.gateways.projecao.ItemListagem;
 import com.fiap.pedidos.interfaces.gateways.IPedidoProdutoRepositoryPort;
 import com.fiap.pedidos.interfaces.repositories.PedidoProdutoRepository;
+import com.fiap.pedidos.interfaces.repositories.PedidoProdutoRepositoryCustom.QuantidadeItem;
 import com.fiap.pedidos.interfaces.repositories.PedidoRepository;
-import com.fiap.pedidos.interfaces.repositories.ProdutoRepository;
 import com.fiap.pedidos.utils.enums.StatusPedido;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -27,9 +30,10 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class PedidoProdutoRepositoryAdapter implements IPedidoProdutoRepositoryPort {
 
+    private static final String PEDIDO_FECHADO = "Pedido não está aberto para edição.";
+
     private final PedidoProdutoRepository pedidoProdutoRepository;
     private final PedidoRepository pedidoRepository;
-    private final ProdutoRepository produtoRepository;
 
     @Override
     @Transactional(readOnly = true)
@@ -40,45 +44,113 @@ public class PedidoProdutoRepositoryAdapter implements IPedidoProdutoRepositoryP
 
     @Override
     @Transactional
-    public PedidoProduto adicionarPedidoProduto(Pedido pedido, Produto produto, PedidoProduto pedidoProduto) {
-
-        ProdutoEntity existProdutoEntity = new ProdutoEntity().from(produto, false);
-        PedidoEntity pedidoEntity = new PedidoEntity().from(pedido, false);
-
-        PedidoProdutoEntity pedidoProdutoEntity = PedidoProdutoEntity.builder()
-                .pedido(pedidoEntity)
-                .produto(existProdutoEntity)
-                .build();
+    public Pedido adicionarPedidoProdutoSomandoValor(UUID idPedido, Produto produto) {
+        return adicionarPedidoProdutosSomandoValor(idPedido, List.of(produto));
+    }
 
-        return PedidoProdutoEntity.to(this.pedidoProdutoRepository.save(pedidoProdutoEntity));
+    /*
+     * O pedido não é lido antes: o UPDATE do total só passa com o pedido aberto e devolve a linha gravada.
+     * O pedido devolvido traz o total do banco e, nos produtos, só os incluídos nesta chamada.
+     */
+    @Override
+    @Transactional
+    public Pedido adicionarPedidoProdutosSomandoValor(UUID idPedido, List<Produto> produtos) {
+        Pedido pedido = pedidoRepository.somarValorPedidoAberto(idPedido, somarValorProdutos(produtos))
+                .map(ItemListagem::to)
+                .orElseThrow(() -> pedidoRepository.existsById(idPedido) ?
+                        new PedidoOperacaoNaoSuportadaException(PEDIDO_FECHADO) :
+                        new PedidoNaoEncontradoException());
+
+        somarQuantidades(idPedido, produtos);
+        pedido.setProdutos(new ArrayList<>(produtos));
+        return pedido;
     }
 
     @Override
     @Transactional
-    public void excluirPedidoProduto(UUID idPedido, UUID idProduto) {
-        Optional<PedidoEntity> pedidoEntityOptional = pedidoRepository.findById(idPedido);
+    public long excluirPedidoProdutosRecalculandoValor(UUID idPedido, List<Produto> produtos) {
+        // O UPDATE inicial trava o pedido: remoções e inclusões simultâneas esperam, e o total recalculado
+        // ao final enxerga exatamente os itens que sobraram.
+        atualizarValorPedido(idPedido, 0L);
+
+        List<PedidoProdutoEntity> itens = pedidoProdutoRepository.buscarItensComProdutoPorIdPedido(idPedido);
+        List<PedidoProdutoEntity> semQuantidade = new ArrayList<>();
+        contarUnidades(produtos).forEach((chave, unidades) -> {
+            long aRemover = unidades;
+            // Primeiro a linha com o valor do produto removido; o que faltar sai das outras linhas do produto
+            for (PedidoProdutoEntity item : ordenarPorChave(itens, chave)) {
+                if (aRemover == 0) {
+                    break;
+                }
+                long removidas = Math.min(aRemover, item.getQuantidade());
+                item.setQuantidade(item.getQuantidade() - (int) removidas);
+                aRemover -= removidas;
+                if (item.getQuantidade() == 0) {
+                    semQuantidade.add(item);
+                }
+            }
+        });
+        pedidoProdutoRepository.deleteAll(semQuantidade);
+        pedidoProdutoRepository.flush();
+
+        pedidoRepository.recalcularValorPedido(idPedido);
+        return pedidoRepository.buscarValorPedido(idPedido);
+    }
 
-        if(pedidoEntityOptional.isEmpty()){
-            throw new PedidoNaoEncontradoException();
-        }
 
-        if(pedidoEntityOptional.get().getStatusPedido() != StatusPedido.A) {
-            throw new PedidoOperacaoNaoSuportadaException("Pedido status is not A, id: " + pedidoEntityOptional.get().getIdPedido());
+    @Override
+    @Transactional(readOnly = true)
+    public List<Produto> obterTodosOsProdutosAssociadosAoPedidoPeloIdPedido(UUID idPedido) {
+        return pedidoProdutoRepository.buscarItensComProdutoPorIdPedido(idPedido).stream()
+                .flatMap(pedidoProdutoEntity -> pedidoProdutoEntity.toProdutos().stream())
+                .collect(Collectors.toList());
+    }
+
+    private void atualizarValorPedido(UUID idPedido, long valor) {
+        if (pedidoRepository.somarValorPedido(idPedido, valor, StatusPedido.A) == 0) {
+            throw new PedidoOperacaoNaoSuportadaException(PEDIDO_FECHADO);
         }
+    }
 
-        pedidoProdutoRepository.deleteByIdPedidoAndIdProduto(idPedido, idProduto);
+    /*
+     * Uma linha por produto e valor: incluir o produto de novo com o mesmo valor soma na quantidade, e com
+     * outro valor abre uma linha nova, para que cada unidade continue valendo o que foi cobrado por ela.
+     * As linhas do pedido não são lidas: os itens da requisição vão num único upsert, já agrupados por chave.
+     */
+    private void somarQuantidades(UUID idPedido, List<Produto> produtos) {
+        pedidoProdutoRepository.somarQuantidades(idPedido, contarUnidades(produtos).entrySet().stream()
+                .map(unidades -> new QuantidadeItem(unidades.getKey().idProduto(), unidades.getKey().valorProduto(),
+                        unidades.getValue().intValue()))
+                .toList());
     }
 
+    private static Map<ChaveItem, Long> contarUnidades(List<Produto> produtos) {
+        return produtos.stream()
+                .collect(Collectors.groupingBy(ChaveItem::de, LinkedHashMap::new, Collectors.counting()));
+    }
 
-    @Override
-    @Transactional(readOnly = true)
-    public List<Produto> obterTodosOsProdutosAssociadosAoPedidoPeloIdPedido(UUID idPedido) {
-        var produtoEntityList = produtoRepository.findAllProductsByIdPedido(idPedido);
+    private static List<PedidoProdutoEntity> ordenarPorChave(List<PedidoProdutoEntity> itens, ChaveItem chave) {
+        return itens.stream()
+                .filter(item -> item.getQuantidade() > 0)
+                .filter(item -> Objects.equals(item.getProduto().getIdProduto(), chave.idProduto()))
+                .sorted(Comparator.comparing(item -> !chave.equals(ChaveItem.de(item))))
+                .toList();
+    }
+
+    private long somarValorProdutos(List<Produto> produtos) {
+        return produtos.stream()
+                .mapToLong(produto -> produto.getValorProduto().getCentavos())
+                .sum();
+    }
 
-        return produtoEntityList.map(produtoEntities -> produtoEntities
-                .stream()
-                .map(ProdutoEntity::to)
-                .collect(Collectors.toList())).orElseGet(ArrayList::new);
+    private record ChaveItem(UUID idProduto, Long valorProduto) {
 
+        static ChaveItem de(Produto produto) {
+            return new ChaveItem(produto.getIdProduto(), produto.getValorProduto().getCentavos());
+        }
+
+        static ChaveItem de(PedidoProdutoEntity item) {
+            return new ChaveItem(item.getProduto().getIdProduto(), item.getValorProduto());
+        }
     }
 }
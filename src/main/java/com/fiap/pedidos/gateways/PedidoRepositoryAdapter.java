@@ -1,18 +1,27 @@
 package com.fiap.pedidos.gateways;
 
+import com.fiap.pedidos.entities.CursorPedido;
 import com.fiap.pedidos.entities.Pedido;
+import com.fiap.pedidos.exceptions.entities.PedidoAlteradoConcorrentementeException;
 import com.fiap.pedidos.exceptions.entities.PedidoNaoEncontradoException;
+import com.fiap.pedidos.gateways.entities.FilaOutboxEntity;
 import com.fiap.pedidos.gateways.entities.PedidoEntity;
+import com.fiap.pedidos.gateways.projecao.ItemListagem;
+import com.fiap.pedidos.gateways.projecao.ProjecaoListagemPedidos;
 import com.fiap.pedidos.interfaces.gateways.IPedidoRepositoryPort;
+import com.fiap.pedidos.interfaces.repositories.ClienteRepository;
+import com.fiap.pedidos.interfaces.repositories.FilaOutboxRepository;
+import com.fiap.pedidos.interfaces.repositories.PedidoExcluidoRepository;
 import com.fiap.pedidos.interfaces.repositories.PedidoProdutoRepository;
 import com.fiap.pedidos.interfaces.repositories.PedidoRepository;
 import com.fiap.pedidos.utils.enums.StatusPedido;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -25,10 +34,16 @@ public class PedidoRepositoryAdapter implements IPedidoRepositoryPort {
 
     private final PedidoRepository pedidoRepository;
     private final PedidoProdutoRepository pedidoProdutoRepository;
+    private final ClienteRepository clienteRepository;
+    private final FilaOutboxRepository filaOutboxRepository;
+    private final ProjecaoListagemPedidos projecaoListagemPedidos;
+    private final PedidoExcluidoRepository pedidoExcluidoRepository;
 
     @Override
     @Transactional
     public Pedido cadastrar(Pedido pedido) {
+        //O primeiro pedido de um cliente anônimo da reserva o tira da limpeza das reservas vencidas
+        this.clienteRepository.confirmarReserva(pedido.getCliente().getId());
         PedidoEntity pedidoEntity = new PedidoEntity().from(pedido, true);
         return this.pedidoRepository.save(pedidoEntity).to();
     }
@@ -36,8 +51,42 @@ public class PedidoRepositoryAdapter implements IPedidoRepositoryPort {
     @Override
     @Transactional
     public Pedido atualizarPedido(Pedido pedido) {
-        PedidoEntity existingPedidoEntity = new PedidoEntity().from(pedido, false);
-        return this.pedidoRepository.save(existingPedidoEntity).to();
+        //Grava direto com UPDATE condicionado à versão lida, sem o SELECT do merge e sem sobrescrever outra gravação
+        int atualizados = this.pedidoRepository.atualizarNaVersao(
+                pedido.getIdPedido(),
+                pedido.getValorPedido(),
+                pedido.getStatusPedido(),
+                pedido.getStatusPedido().getOrdemListagem(),
+                pedido.getVersao());
+        if (atualizados == 0) {
+            throw new PedidoAlteradoConcorrentementeException();
+        }
+        pedido.setVersao(pedido.getVersao() + 1);
+        return pedido;
+    }
+
+    @Override
+    @Transactional
+    public Pedido transicionarStatus(Pedido pedido, StatusPedido statusEsperado) {
+        int atualizados = this.pedidoRepository.transicionarStatus(
+                pedido.getIdPedido(),
+                statusEsperado,
+                pedido.getStatusPedido(),
+                pedido.getStatusPedido().getOrdemListagem());
+        if (atualizados == 0) {
+            throw new PedidoAlteradoConcorrentementeException();
+        }
+        pedido.setDataAtualizacao(new Date());
+        return pedido;
+    }
+
+    @Override
+    @Transactional
+    public Pedido transicionarStatusEnviandoParaFila(Pedido pedido, StatusPedido statusEsperado) {
+        //O registro no outbox só existe se a mudança de status for gravada, e vice-versa
+        Pedido pedidoAtualizado = this.transicionarStatus(pedido, statusEsperado);
+        this.filaOutboxRepository.save(FilaOutboxEntity.novo(pedido.getIdPedido(), pedido.getCliente().getId()));
+        return pedidoAtualizado;
     }
 
     @Override
@@ -51,14 +100,28 @@ public class PedidoRepositoryAdapter implements IPedidoRepositoryPort {
                 this.pedidoProdutoRepository.deleteById(pedidoProdutoEntity.getId());
             });
         this.pedidoRepository.delete(pedidoEntity);
+        //Registrada na mesma transação, para as outras réplicas tirarem o pedido das suas projeções
+        this.pedidoExcluidoRepository.registrar(idPedido, pedidoEntity.getVersao());
+        this.projecaoListagemPedidos.remover(idPedido, pedidoEntity.getVersao());
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<Pedido> buscarTodos(int pageNumber, int pageSize) {
-        Pageable pageable = PageRequest.of(pageNumber, pageSize);
-        return this.pedidoRepository.listagemOrdenadaPorStatusExcluindoFinalizados(pageable).stream()
-                .map(PedidoEntity::to)
+    public List<Pedido> buscarTodos(CursorPedido cursor, int limite) {
+        //Depois que a projeção foi montada, só as páginas que chegam aos finalizados consultam o banco
+        if (this.projecaoListagemPedidos.isPronta()) {
+            return this.projecaoListagemPedidos.listar(cursor, limite);
+        }
+
+        List<ItemListagem> itens = Objects.isNull(cursor) ?
+                this.pedidoRepository.listagemOrdenadaPorStatus(StatusPedido.ORDEM_MAXIMA_LISTAGEM, limite) :
+                this.pedidoRepository.listagemOrdenadaPorStatusAposCursor(
+                        StatusPedido.ORDEM_MAXIMA_LISTAGEM,
+                        cursor.getOrdemStatus(),
+                        new Timestamp(cursor.getDataInclusao().getTime()),
+                        cursor.getIdPedido(),
+                        limite);
+        return itens.stream()
+                .map(ItemListagem::to)
                 .collect(Collectors.toList());
     }
 
@@ -71,10 +134,78 @@ public class PedidoRepositoryAdapter implements IPedidoRepositoryPort {
 
     @Override
     @Transactional(readOnly = true)
-    public List<Pedido> buscarPedidosPorClienteEStatus(UUID idCliente, StatusPedido statusPedido) {
-        return this.pedidoRepository.findByIdClienteAndStatusPedido(idCliente, statusPedido.toString())
+    public Optional<Pedido> buscarPorIdComProdutos(UUID idPedido) {
+        return this.pedidoRepository.findByIdComClienteEProdutos(idPedido)
+                .map(PedidoEntity::toComProdutos);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Pedido> buscarPedidosAtivosPorClienteEStatus(UUID idCliente, StatusPedido statusPedido) {
+        // A consulta exclui os finalizados para usar o índice parcial; pedir por eles devolveria sempre vazio.
+        if (statusPedido == StatusPedido.F) {
+            throw new IllegalArgumentException("Pedidos finalizados não são buscados por cliente.");
+        }
+        return this.pedidoRepository.buscarPedidosAtivosPorClienteEStatus(idCliente, statusPedido.toString())
+                .stream()
+                .map(PedidoEntity::to)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Pedido> buscarAguardandoPagamento(CursorPedido aPartirDe, Date incluidosAntes, int limite) {
+        return this.pedidoRepository.buscarPorOrdemStatusIncluidosAntesAposCursor(
+                        StatusPedido.A.getOrdemListagem(),
+                        new Timestamp(aPartirDe.getDataInclusao().getTime()),
+                        aPartirDe.getIdPedido(),
+                        new Timestamp(incluidosAntes.getTime()),
+                        limite)
                 .stream()
                 .map(PedidoEntity::to)
                 .collect(Collectors.toList());
     }
+
+    @Override
+    @Transactional
+    public List<Pedido> confirmarPagamentos(Collection<UUID> idsPedido) {
+        if (idsPedido.isEmpty()) {
+            return List.of();
+        }
+
+        //Bloqueia e filtra os que ainda estão abertos, para não reenviar à fila pedido já confirmado pelo webhook
+        List<PedidoEntity> aguardandoPagamento = this.pedidoRepository
+                .buscarParaAtualizarStatus(idsPedido, StatusPedido.A);
+        if (aguardandoPagamento.isEmpty()) {
+            return List.of();
+        }
+
+        Date agora = new Date();
+        List<UUID> idsConfirmados = aguardandoPagamento.stream().map(PedidoEntity::getIdPedido).toList();
+        this.pedidoRepository.atualizarStatus(idsConfirmados, StatusPedido.R, StatusPedido.R.getOrdemListagem());
+        this.filaOutboxRepository.saveAll(aguardandoPagamento.stream()
+                .map(pedidoEntity -> FilaOutboxEntity.novo(pedidoEntity.getIdPedido(), pedidoEntity.getCliente().getId()))
+                .toList());
+
+        return aguardandoPagamento.stream()
+                .map(pedidoEntity -> {
+                    Pedido pedido = pedidoEntity.to();
+                    pedido.setStatusPedido(StatusPedido.R);
+                    pedido.setDataAtualizacao(agora);
+                    return pedido;
+                })
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public List<UUID> corrigirValoresDivergentes(Date alteradosDesde, Date alteradosAntes, int limite) {
+        List<UUID> idsDivergentes = this.pedidoRepository.buscarComValorDivergente(
+                StatusPedido.A, alteradosDesde, alteradosAntes, limite);
+        if (idsDivergentes.isEmpty()) {
+            return idsDivergentes;
+        }
+        this.pedidoRepository.recalcularValorPedidos(idsDivergentes, alteradosAntes);
+        return idsDivergentes;
+    }
 }
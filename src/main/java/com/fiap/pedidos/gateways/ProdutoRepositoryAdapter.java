@@ -2,6 +2,7 @@ package com.fiap.pedidos.gateways;
 
 import com.fiap.pedidos.entities.Produto;
 import com.fiap.pedidos.exceptions.entities.ProdutoNaoEncontradoException;
+import com.fiap.pedidos.gateways.cache.CatalogoProdutoCache;
 import com.fiap.pedidos.gateways.entities.ProdutoEntity;
 import com.fiap.pedidos.interfaces.gateways.IProdutoRepositoryPort;
 import com.fiap.pedidos.interfaces.repositories.ProdutoRepository;
@@ -11,6 +12,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -20,18 +22,28 @@ import java.util.UUID;
 public class ProdutoRepositoryAdapter implements IProdutoRepositoryPort {
 
     private final ProdutoRepository produtoRepository;
+    private final CatalogoProdutoCache catalogoProdutoCache;
 
-
+    // As leituras não abrem transação aqui para que um acerto no cache não reserve conexão com o banco.
     @Override
-    @Transactional(readOnly = true)
     public Optional<Produto> buscarPorId(UUID idProduto) {
-        return this.produtoRepository.findById(idProduto)
-                .map(ProdutoEntity::to);
+        return catalogoProdutoCache.buscarPorId(idProduto, id -> this.produtoRepository.findById(id)
+                .map(ProdutoEntity::to));
+    }
+
+    @Override
+    public List<Produto> buscarPorIds(Collection<UUID> idsProduto) {
+        return catalogoProdutoCache.buscarPorIds(idsProduto, ids -> this.produtoRepository.findAllById(ids).stream()
+                .map(ProdutoEntity::to)
+                .toList());
     }
 
     @Override
-    @Transactional(readOnly = true)
     public List<Produto> listarProdutosPorTipo(TipoProduto tipoProduto) {
+        return catalogoProdutoCache.listarPorTipo(tipoProduto, this::buscarProdutosAtivosPorTipo);
+    }
+
+    private List<Produto> buscarProdutosAtivosPorTipo(TipoProduto tipoProduto) {
         final var produtoList = new ArrayList<Produto>();
         final Optional<List<ProdutoEntity>> produtoEntityList = this.produtoRepository
                 .findAllByTipoProdutoAndAtivo(tipoProduto.getCodigo(), true);
@@ -50,7 +62,9 @@ public class ProdutoRepositoryAdapter implements IProdutoRepositoryPort {
     @Transactional()
     public Produto criarProduto(Produto produto) {
         ProdutoEntity produtoEntity = new ProdutoEntity().from(produto, true);
-        return this.produtoRepository.save(produtoEntity).to();
+        Produto produtoCriado = this.produtoRepository.save(produtoEntity).to();
+        catalogoProdutoCache.invalidar(produtoCriado);
+        return produtoCriado;
     }
 
     @Override
@@ -61,5 +75,6 @@ public class ProdutoRepositoryAdapter implements IProdutoRepositoryPort {
             throw new ProdutoNaoEncontradoException();
         produto.get().setAtivo(false);
         this.produtoRepository.save(produto.get());
+        catalogoProdutoCache.invalidar(produto.get().to());
     }
 }
\ No newline at end of file
@@ -0,0 +1,128 @@
+package com.fiap.pedidos.gateways;
+
+import com.fiap.pedidos.gateways.entities.ClienteEntity;
+import com.fiap.pedidos.interfaces.repositories.ClienteRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Stream;
+
+/**
+ * Clientes anônimos (sem CPF) cadastrados de antemão, em lote, para que a identificação sem CPF no totem não
+ * faça um insert por requisição. A reserva é reposta em segundo plano quando fica abaixo do mínimo; se ela se
+ * esgotar num pico, o cliente é cadastrado na hora, como antes.
+ * <p>
+ * Cada cliente da reserva é gravado marcado com a sua validade, e a marca só sai no primeiro pedido. Os que
+ * vencem sem pedido são excluídos pela limpeza periódica, inclusive os que sobraram na reserva de uma instância
+ * que caiu; enquanto marcados, não aparecem na listagem nem na exportação de clientes. Os que sobrarem na
+ * reserva também são excluídos quando a aplicação é encerrada.
+ */
+@Slf4j
+@Component
+public class ReservaClientesAnonimos {
+
+    private final ClienteRepository clienteRepository;
+    private final int tamanho;
+    private final int minimo;
+    private final long validadeMillis;
+    private final int loteLimpeza;
+    private final BlockingQueue<Reservado> reservados = new LinkedBlockingQueue<>();
+    private final Counter reservaEsgotada;
+
+    public ReservaClientesAnonimos(ClienteRepository clienteRepository,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${clientes.anonimos.reserva.tamanho:200}") int tamanho,
+                                   @Value("${clientes.anonimos.reserva.minimo:50}") int minimo,
+                                   @Value("${clientes.anonimos.reserva.validade:PT24H}") Duration validade,
+                                   @Value("${clientes.anonimos.limpeza.lote:500}") int loteLimpeza) {
+        this.clienteRepository = clienteRepository;
+        this.tamanho = tamanho;
+        this.minimo = minimo;
+        this.validadeMillis = validade.toMillis();
+        this.loteLimpeza = loteLimpeza;
+        Gauge.builder("clientes.anonimos.reserva", reservados, BlockingQueue::size)
+                .description("Clientes anônimos já cadastrados aguardando identificação")
+                .register(meterRegistry);
+        this.reservaEsgotada = Counter.builder("clientes.anonimos.reserva.esgotada")
+                .description("Identificações sem CPF que cadastraram o cliente na hora")
+                .register(meterRegistry);
+    }
+
+    public UUID retirar() {
+        long agora = System.currentTimeMillis();
+        Reservado reservado;
+        while ((reservado = reservados.poll()) != null) {
+            //Só entrega quem ainda tem ao menos metade da validade; os demais ficam para a limpeza
+            if (reservado.reservadoAte() - agora >= validadeMillis / 2) {
+                return reservado.id();
+            }
+        }
+        reservaEsgotada.increment();
+        return clienteRepository.save(novo(agora)).getId();
+    }
+
+    // O saveAll grava os clientes em lotes de hibernate.jdbc.batch_size numa única transação.
+    @Scheduled(fixedDelayString = "${clientes.anonimos.reserva.intervalo-ms:1000}")
+    public int repor() {
+        if (reservados.size() >= minimo) {
+            return 0;
+        }
+        long agora = System.currentTimeMillis();
+        List<ClienteEntity> novos = Stream.generate(() -> novo(agora))
+                .limit(tamanho - reservados.size())
+                .toList();
+        clienteRepository.saveAll(novos).forEach(cliente ->
+                reservados.add(new Reservado(cliente.getId(), cliente.getReservadoAte().getTime())));
+        return novos.size();
+    }
+
+    @Scheduled(fixedDelayString = "${clientes.anonimos.limpeza.intervalo-ms:3600000}")
+    public int excluirVencidos() {
+        Date agora = new Date();
+        int excluidos = 0;
+        int lote;
+        do {
+            lote = clienteRepository.excluirReservasVencidas(agora, loteLimpeza);
+            excluidos += lote;
+        } while (lote == loteLimpeza);
+        if (excluidos > 0) {
+            log.info("{} clientes anônimos reservados e sem pedido excluídos", excluidos);
+        }
+        return excluidos;
+    }
+
+    @PreDestroy
+    public void liberar() {
+        List<Reservado> restantes = new ArrayList<>();
+        reservados.drainTo(restantes);
+        if (restantes.isEmpty()) {
+            return;
+        }
+        try {
+            clienteRepository.deleteAllByIdInBatch(restantes.stream().map(Reservado::id).toList());
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível excluir {} clientes anônimos da reserva", restantes.size(), e);
+        }
+    }
+
+    private ClienteEntity novo(long agora) {
+        return ClienteEntity.builder()
+                .reservadoAte(new Date(agora + validadeMillis))
+                .build();
+    }
+
+    private record Reservado(UUID id, long reservadoAte) {}
+}
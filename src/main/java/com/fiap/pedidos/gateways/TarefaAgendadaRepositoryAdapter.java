@@ -0,0 +1,37 @@
+package com.fiap.pedidos.gateways;
+
+import com.fiap.pedidos.interfaces.gateways.ITarefaAgendadaRepositoryPort;
+import com.fiap.pedidos.interfaces.repositories.TarefaAgendadaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+
+@Service
+@RequiredArgsConstructor
+public class TarefaAgendadaRepositoryAdapter implements ITarefaAgendadaRepositoryPort {
+
+    private final TarefaAgendadaRepository tarefaAgendadaRepository;
+
+    @Override
+    public boolean reservar(String tarefa, Date reservadaAte) {
+        if (this.tarefaAgendadaRepository.reservar(tarefa, new Date(), reservadaAte) == 1) {
+            return true;
+        }
+        if (this.tarefaAgendadaRepository.existsById(tarefa)) {
+            return false;
+        }
+        //Primeira execução da tarefa: fica com a reserva a réplica que conseguir inserir a linha
+        try {
+            return this.tarefaAgendadaRepository.inserir(tarefa, reservadaAte) == 1;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void liberar(String tarefa, Date reservadaAte, Date proximaExecucao) {
+        this.tarefaAgendadaRepository.liberar(tarefa, reservadaAte, proximaExecucao);
+    }
+}
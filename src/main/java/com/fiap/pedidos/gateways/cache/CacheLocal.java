@@ -0,0 +1,146 @@
+package com.fiap.pedidos.gateways.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache em memória limitado por quantidade (LRU) e por tempo de vida.
+ * O TTL limita quanto tempo uma réplica pode servir um dado já invalidado em outra réplica.
+ */
+public class CacheLocal<K, V> {
+
+    private final int tamanhoMaximo;
+    private final long ttlNanos;
+    private final LongSupplier relogio;
+    private final Map<K, Entrada<V>> entradas;
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder faltas = new LongAdder();
+    private final LongAdder remocoes = new LongAdder();
+
+    private long versao;
+
+    public CacheLocal(int tamanhoMaximo, Duration ttl) {
+        this(tamanhoMaximo, ttl, System::nanoTime);
+    }
+
+    CacheLocal(int tamanhoMaximo, Duration ttl, LongSupplier relogio) {
+        if (tamanhoMaximo <= 0) {
+            throw new IllegalArgumentException("tamanhoMaximo deve ser maior que zero");
+        }
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.ttlNanos = ttl.toNanos();
+        this.relogio = relogio;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> maisAntiga) {
+                if (size() > CacheLocal.this.tamanhoMaximo) {
+                    remocoes.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized Optional<V> buscar(K chave) {
+        Entrada<V> entrada = entradas.get(chave);
+        if (entrada == null) {
+            faltas.increment();
+            return Optional.empty();
+        }
+        if (entrada.expiraEm() - relogio.getAsLong() <= 0) {
+            entradas.remove(chave);
+            remocoes.increment();
+            faltas.increment();
+            return Optional.empty();
+        }
+        acertos.increment();
+        return Optional.of(entrada.valor());
+    }
+
+    /**
+     * Busca no cache e, em caso de falta, carrega fora do lock. Valores nulos não são guardados.
+     * Se o cache for invalidado durante a carga, o valor carregado é devolvido mas não é guardado.
+     */
+    public V buscar(K chave, Function<? super K, ? extends V> carregador) {
+        Optional<V> emCache = buscar(chave);
+        if (emCache.isPresent()) {
+            return emCache.get();
+        }
+        long versaoAntesDaCarga = versaoAtual();
+        V valor = carregador.apply(chave);
+        if (valor != null) {
+            colocarSeVersao(chave, valor, versaoAntesDaCarga);
+        }
+        return valor;
+    }
+
+    public synchronized void colocar(K chave, V valor) {
+        entradas.put(chave, new Entrada<>(Objects.requireNonNull(valor), relogio.getAsLong() + ttlNanos));
+    }
+
+    synchronized long versaoAtual() {
+        return versao;
+    }
+
+    synchronized void colocarSeVersao(K chave, V valor, long versaoEsperada) {
+        if (versao == versaoEsperada) {
+            colocar(chave, valor);
+        }
+    }
+
+    public synchronized void invalidar(K chave) {
+        versao++;
+        entradas.remove(chave);
+    }
+
+    public synchronized void invalidarTudo() {
+        versao++;
+        entradas.clear();
+    }
+
+    public synchronized int tamanho() {
+        return entradas.size();
+    }
+
+    public long getAcertos() {
+        return acertos.sum();
+    }
+
+    public long getFaltas() {
+        return faltas.sum();
+    }
+
+    public long getRemocoes() {
+        return remocoes.sum();
+    }
+
+    public void registrarMetricas(MeterRegistry meterRegistry, String nome) {
+        FunctionCounter.builder("cache.gets", this, CacheLocal::getAcertos)
+                .tags("cache", nome, "result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", this, CacheLocal::getFaltas)
+                .tags("cache", nome, "result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", this, CacheLocal::getRemocoes)
+                .tags("cache", nome)
+                .register(meterRegistry);
+        Gauge.builder("cache.size", this, CacheLocal::tamanho)
+                .tags("cache", nome)
+                .register(meterRegistry);
+    }
+
+    private record Entrada<V>(V valor, long expiraEm) {
+    }
+}
@@ -0,0 +1,79 @@
+package com.fiap.pedidos.gateways.cache;
+
+import com.fiap.pedidos.entities.Produto;
+import com.fiap.pedidos.utils.enums.TipoProduto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+@Component
+public class CatalogoProdutoCache {
+
+    private final CacheLocal<UUID, Produto> produtosPorId;
+    private final CacheLocal<TipoProduto, List<Produto>> produtosPorTipo;
+
+    public CatalogoProdutoCache(MeterRegistry meterRegistry,
+                                @Value("${catalogo.cache.tamanho-maximo:1000}") int tamanhoMaximo,
+                                @Value("${catalogo.cache.ttl:PT5M}") Duration ttl) {
+        this.produtosPorId = new CacheLocal<>(tamanhoMaximo, ttl);
+        this.produtosPorTipo = new CacheLocal<>(TipoProduto.values().length, ttl);
+        this.produtosPorId.registrarMetricas(meterRegistry, "catalogo.produtos.id");
+        this.produtosPorTipo.registrarMetricas(meterRegistry, "catalogo.produtos.tipo");
+    }
+
+    public Optional<Produto> buscarPorId(UUID idProduto, Function<UUID, Optional<Produto>> carregador) {
+        return Optional.ofNullable(produtosPorId.buscar(idProduto, id -> carregador.apply(id).orElse(null)));
+    }
+
+    public List<Produto> buscarPorIds(Collection<UUID> idsProduto, Function<Set<UUID>, List<Produto>> carregador) {
+        List<Produto> produtos = new ArrayList<>();
+        Set<UUID> idsNaoEncontrados = new HashSet<>();
+        for (UUID idProduto : idsProduto) {
+            produtosPorId.buscar(idProduto).ifPresentOrElse(produtos::add, () -> idsNaoEncontrados.add(idProduto));
+        }
+
+        if (!idsNaoEncontrados.isEmpty()) {
+            long versao = produtosPorId.versaoAtual();
+            carregador.apply(idsNaoEncontrados).forEach(produto -> {
+                produtosPorId.colocarSeVersao(produto.getIdProduto(), produto, versao);
+                produtos.add(produto);
+            });
+        }
+
+        return produtos;
+    }
+
+    public List<Produto> listarPorTipo(TipoProduto tipoProduto, Function<TipoProduto, List<Produto>> carregador) {
+        return produtosPorTipo.buscar(tipoProduto, tipo -> List.copyOf(carregador.apply(tipo)));
+    }
+
+    public void invalidar(Produto produto) {
+        removerDoCache(produto);
+        // Invalida de novo após o commit para descartar o que outra leitura tenha carregado antes da gravação.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removerDoCache(produto);
+                }
+            });
+        }
+    }
+
+    private void removerDoCache(Produto produto) {
+        produtosPorId.invalidar(produto.getIdProduto());
+        produtosPorTipo.invalidar(produto.getTipoProduto());
+    }
+}
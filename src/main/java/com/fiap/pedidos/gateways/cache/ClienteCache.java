@@ -0,0 +1,110 @@
+package com.fiap.pedidos.gateways.cache;
+
+import com.fiap.pedidos.entities.Cliente;
+import com.fiap.pedidos.entities.Cpf;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+@Component
+public class ClienteCache {
+
+    private final CacheLocal<UUID, Cliente> clientesPorId;
+    private final CacheLocal<Long, Cliente> clientesPorCpf;
+    private final CacheLocal<Long, Boolean> cpfsSemCadastro;
+
+    // O cache negativo tem TTL próprio e curto: um CPF cadastrado por outra réplica só fica invisível aqui até ele expirar.
+    public ClienteCache(MeterRegistry meterRegistry,
+                        @Value("${clientes.cache.tamanho-maximo:10000}") int tamanhoMaximo,
+                        @Value("${clientes.cache.ttl:PT30M}") Duration ttl,
+                        @Value("${clientes.cache.ttl-cpf-sem-cadastro:PT30S}") Duration ttlCpfSemCadastro) {
+        this.clientesPorId = new CacheLocal<>(tamanhoMaximo, ttl);
+        this.clientesPorCpf = new CacheLocal<>(tamanhoMaximo, ttl);
+        this.cpfsSemCadastro = new CacheLocal<>(tamanhoMaximo, ttlCpfSemCadastro);
+        this.clientesPorId.registrarMetricas(meterRegistry, "clientes.id");
+        this.clientesPorCpf.registrarMetricas(meterRegistry, "clientes.cpf");
+        this.cpfsSemCadastro.registrarMetricas(meterRegistry, "clientes.cpf.sem-cadastro");
+    }
+
+    public Optional<Cliente> buscarPorId(UUID idCliente, Function<UUID, Optional<Cliente>> carregador) {
+        return Optional.ofNullable(clientesPorId.buscar(idCliente, id -> carregador.apply(id).orElse(null)));
+    }
+
+    public Optional<Cliente> buscarPorCpf(Cpf cpf, Function<Cpf, Optional<Cliente>> carregador) {
+        long chave = normalizar(cpf);
+        if (cpfsSemCadastro.buscar(chave).isPresent()) {
+            return Optional.empty();
+        }
+        Optional<Cliente> emCache = clientesPorCpf.buscar(chave);
+        if (emCache.isPresent()) {
+            return emCache;
+        }
+
+        long versaoPorId = clientesPorId.versaoAtual();
+        long versaoPorCpf = clientesPorCpf.versaoAtual();
+        long versaoSemCadastro = cpfsSemCadastro.versaoAtual();
+        Optional<Cliente> cliente = carregador.apply(cpf);
+        cliente.ifPresentOrElse(clienteCarregado -> {
+            clientesPorCpf.colocarSeVersao(chave, clienteCarregado, versaoPorCpf);
+            clientesPorId.colocarSeVersao(clienteCarregado.getId(), clienteCarregado, versaoPorId);
+        }, () -> cpfsSemCadastro.colocarSeVersao(chave, Boolean.TRUE, versaoSemCadastro));
+        return cliente;
+    }
+
+    /**
+     * Devolve o cliente do cache ou o que o carregador cadastrar ou encontrar para o CPF, que passa a ficar em cache.
+     * Um CPF guardado como sem cadastro é ignorado aqui, já que a identificação o cadastra.
+     */
+    public Cliente identificarPorCpf(Cpf cpf, Function<Cpf, Cliente> carregador) {
+        long chave = normalizar(cpf);
+        Optional<Cliente> emCache = clientesPorCpf.buscar(chave);
+        if (emCache.isPresent()) {
+            return emCache.get();
+        }
+
+        long versaoPorId = clientesPorId.versaoAtual();
+        long versaoPorCpf = clientesPorCpf.versaoAtual();
+        Cliente cliente = carregador.apply(cpf);
+        cpfsSemCadastro.invalidar(chave);
+        clientesPorCpf.colocarSeVersao(chave, cliente, versaoPorCpf);
+        clientesPorId.colocarSeVersao(cliente.getId(), cliente, versaoPorId);
+        return cliente;
+    }
+
+    public void invalidar(Cliente cliente) {
+        removerDoCache(cliente);
+        // Invalida de novo após o commit para descartar o que outra leitura tenha carregado antes da gravação.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removerDoCache(cliente);
+                }
+            });
+        }
+    }
+
+    private void removerDoCache(Cliente cliente) {
+        if (Objects.nonNull(cliente.getId())) {
+            clientesPorId.invalidar(cliente.getId());
+        }
+        if (Objects.nonNull(cliente.getCpf())) {
+            long chave = normalizar(cliente.getCpf());
+            clientesPorCpf.invalidar(chave);
+            cpfsSemCadastro.invalidar(chave);
+        }
+    }
+
+    // A chave é o número do CPF, que o próprio Cpf já guarda: a consulta não percorre nem aloca uma String.
+    static long normalizar(Cpf cpf) {
+        return cpf.getNumero();
+    }
+}
@@ -10,6 +10,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Date;
 import java.util.UUID;
 
 @Entity
@@ -17,7 +18,11 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "clientes")
+@Table(name = "clientes", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_clientes_cpf", columnNames = "cpf")
+}, indexes = {
+        @Index(name = "idx_clientes_reservado_ate", columnList = "dt_h_reservado_ate")
+})
 public class ClienteEntity {
     @Id
     @GeneratedValue
@@ -35,6 +40,11 @@ public class ClienteEntity {
     @Embedded
     private Email email;
 
+    //Preenchido nos clientes anônimos cadastrados de antemão até o primeiro pedido; vencido, o cliente é excluído
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "dt_h_reservado_ate")
+    private Date reservadoAte;
+
     public Cliente to(ClienteEntity clienteEntity) {
         return Cliente.builder()
                 .id(clienteEntity.getId())
@@ -0,0 +1,65 @@
+package com.fiap.pedidos.gateways.entities;
+
+import com.fiap.pedidos.entities.EnvioFila;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Date;
+import java.util.UUID;
+
+@Entity
+@Data
+@AllArgsConstructor
+@Builder
+@Table(name = "fila_outbox", indexes = {
+        @Index(name = "idx_fila_outbox_proxima_tentativa", columnList = "dt_h_proxima_tentativa")
+})
+public class FilaOutboxEntity {
+
+    @Id
+    @GeneratedValue
+    @Column(name = "id")
+    private UUID idEnvio;
+
+    @Column(name = "id_pedido")
+    @NotNull
+    private UUID idPedido;
+
+    @Column(name = "id_cliente")
+    @NotNull
+    private UUID idCliente;
+
+    @Column(name = "nr_tentativas")
+    @NotNull
+    private Integer tentativas;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "dt_h_inclusao")
+    private Date dataInclusao;
+
+    //Também serve de reserva: o relay empurra a data para frente ao pegar o registro
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "dt_h_proxima_tentativa")
+    @NotNull
+    private Date proximaTentativa;
+
+    public FilaOutboxEntity() {}
+
+    public static FilaOutboxEntity novo(UUID idPedido, UUID idCliente) {
+        Date agora = new Date();
+        return FilaOutboxEntity.builder()
+                .idPedido(idPedido)
+                .idCliente(idCliente)
+                .tentativas(0)
+                .dataInclusao(agora)
+                .proximaTentativa(agora)
+                .build();
+    }
+
+    public EnvioFila to() {
+        return new EnvioFila(this.idEnvio, this.idPedido, this.idCliente, this.tentativas);
+    }
+}
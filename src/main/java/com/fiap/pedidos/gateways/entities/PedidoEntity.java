@@ -2,15 +2,15 @@ package com.fiap.pedidos.gateways.entities;
 
 
 import com.fiap.pedidos.entities.Pedido;
-import com.fiap.pedidos.entities.PedidoProduto;
 import com.fiap.pedidos.utils.enums.StatusPedido;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
@@ -21,7 +21,12 @@ import java.util.stream.Collectors;
 @Data
 @AllArgsConstructor
 @Builder
-@Table(name = "pedidos")
+@Table(name = "pedidos", indexes = {
+        @Index(name = "idx_pedidos_listagem", columnList = "nr_ordem_status, dt_h_inclusao, id"),
+        @Index(name = "idx_pedidos_atualizacao", columnList = "dt_h_atualizacao"),
+        //No Postgres o esquema vem das migrações do Flyway, onde este índice é parcial (sem os finalizados)
+        @Index(name = "idx_pedidos_cliente_status", columnList = "id_cliente, id_status")
+})
 public class PedidoEntity {
 
     @Id
@@ -39,8 +44,14 @@ public class PedidoEntity {
     @NotNull
     private StatusPedido statusPedido;
 
-    @Column(name = "v_pedido")
-    private BigDecimal valorPedido;
+    //Ordem do status na listagem de pedidos, gravada para permitir a paginação por cursor no índice
+    @Column(name = "nr_ordem_status")
+    private Integer ordemStatus;
+
+    //Em centavos, mantido pelo banco com UPDATE relativo a cada item incluído ou removido
+    @ColumnDefault("0")
+    @Column(name = "v_pedido_centavos")
+    private long valorPedido;
 
     @Temporal(TemporalType.TIMESTAMP)
     @Column(name = "dt_h_inclusao")
@@ -50,18 +61,26 @@ public class PedidoEntity {
     @Column(name = "dt_h_atualizacao")
     private Date dataAtualizacao;
 
+    //Incrementada a cada gravação, para que atualizações concorrentes do mesmo pedido não se sobrescrevam
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "nr_versao")
+    private Long versao;
+
     @OneToMany(mappedBy = "pedido", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<PedidoProdutoEntity> produtos;
 
     public PedidoEntity() {}
 
-    public Pedido to() {
-        List<PedidoProduto> pedidoProdutos = null;
-        if (this.produtos != null) {
-            pedidoProdutos = this.produtos.stream()
-                    .map(PedidoProdutoEntity::to)
-                    .toList();
+    @PrePersist
+    @PreUpdate
+    void atualizarOrdemStatus() {
+        if (this.statusPedido != null) {
+            this.ordemStatus = this.statusPedido.getOrdemListagem();
         }
+    }
+
+    public Pedido to() {
         return Pedido.builder()
                 .idPedido(this.idPedido)
                 .cliente(new ClienteEntity().to(this.cliente))
@@ -69,9 +88,18 @@ public class PedidoEntity {
                 .valorPedido(this.valorPedido)
                 .dataInclusao(this.dataInclusao)
                 .dataAtualizacao(this.dataAtualizacao)
+                .versao(this.versao)
                 .build();
     }
 
+    public Pedido toComProdutos() {
+        Pedido pedido = this.to();
+        pedido.setProdutos(this.produtos == null ? new ArrayList<>() : this.produtos.stream()
+                .flatMap(pedidoProdutoEntity -> pedidoProdutoEntity.toProdutos().stream())
+                .collect(Collectors.toList()));
+        return pedido;
+    }
+
     public PedidoEntity from(Pedido pedido, boolean isCreated) {
         PedidoEntityBuilder pedidoEntityBuilder = PedidoEntity.builder()
                 .idPedido(pedido.getIdPedido())
@@ -82,9 +110,11 @@ public class PedidoEntity {
 
         if(isCreated) {
             pedidoEntityBuilder.dataInclusao(this.obterDataHoraAtual());
+            pedidoEntityBuilder.dataAtualizacao(new Date());
             pedidoEntityBuilder.statusPedido(StatusPedido.A);
         } else {
             pedidoEntityBuilder.statusPedido(pedido.getStatusPedido());
+            pedidoEntityBuilder.versao(pedido.getVersao());
         }
 
         return pedidoEntityBuilder.build();
@@ -0,0 +1,34 @@
+package com.fiap.pedidos.gateways.entities;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+import java.util.UUID;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "pedidos_excluidos", indexes = {
+        @Index(name = "idx_pedidos_excluidos_exclusao", columnList = "dt_h_exclusao")
+})
+public class PedidoExcluidoEntity {
+
+    @Id
+    @Column(name = "id_pedido")
+    private UUID idPedido;
+
+    //Versão do pedido quando foi excluído: leituras da linha até esta versão são anteriores à exclusão
+    @Column(name = "nr_versao")
+    @NotNull
+    private Long versao;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "dt_h_exclusao")
+    @NotNull
+    private Date dataExclusao;
+}
@@ -2,13 +2,18 @@ package com.fiap.pedidos.gateways.entities;
 
 import com.fiap.pedidos.entities.NomeProduto;
 import com.fiap.pedidos.entities.PedidoProduto;
+import com.fiap.pedidos.entities.Produto;
+import com.fiap.pedidos.entities.ValorProduto;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
-import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 @Entity
@@ -16,7 +21,10 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "pedido_produtos")
+@Table(name = "pedido_produtos", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_pedido_produtos_pedido_produto_valor",
+                columnNames = {"id_pedido", "id_produto", "v_produto_centavos"})
+})
 public class PedidoProdutoEntity {
 
     @Id
@@ -32,10 +40,29 @@ public class PedidoProdutoEntity {
     @JoinColumn(name = "id_produto")
     private ProdutoEntity produto;
 
+    //Valor do produto em centavos no momento da inclusão; o total do pedido é a soma destes valores
+    @Column(name = "v_produto_centavos")
+    private Long valorProduto;
+
+    //Uma linha por produto e valor; incluir o mesmo produto de novo, com o mesmo valor, soma na quantidade
+    @Builder.Default
+    @ColumnDefault("1")
+    @Column(name = "nr_quantidade")
+    private int quantidade = 1;
+
     public static PedidoProduto to(PedidoProdutoEntity pedidoProdutoEntity) {
         return PedidoProduto.builder()
                 .pedidoId(pedidoProdutoEntity.getPedido().getIdPedido())
                 .produtoId(pedidoProdutoEntity.getProduto().getIdProduto())
                 .build();
     }
+
+    //Cada unidade sai com o valor gravado na linha, e não com o valor atual do catálogo
+    public List<Produto> toProdutos() {
+        Produto produtoDoItem = this.produto.to();
+        if (Objects.nonNull(this.valorProduto)) {
+            produtoDoItem.setValorProduto(new ValorProduto(this.valorProduto));
+        }
+        return Collections.nCopies(this.quantidade, produtoDoItem);
+    }
 }
@@ -20,7 +20,9 @@ import java.util.UUID;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@Table(name = "produtos")
+@Table(name = "produtos", indexes = {
+        @Index(name = "idx_produtos_tipo_ativo", columnList = "tipo_produto, ativo")
+})
 public class ProdutoEntity {
     @Id
     @GeneratedValue
@@ -36,8 +38,8 @@ public class ProdutoEntity {
 
     private String tipoProduto;
 
-    @Column(name = "v_produto")
     @Embedded
+    @AttributeOverride(name = "centavos", column = @Column(name = "v_produto_centavos", columnDefinition = "bigint default 0"))
     private ValorProduto valorProduto;
 
 
@@ -0,0 +1,27 @@
+package com.fiap.pedidos.gateways.entities;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "tarefas_agendadas")
+public class TarefaAgendadaEntity {
+
+    @Id
+    @Column(name = "nome", length = 100)
+    private String nome;
+
+    //Enquanto esta data não passar, as outras réplicas não executam a tarefa
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "dt_h_reservada_ate")
+    @NotNull
+    private Date reservadaAte;
+}
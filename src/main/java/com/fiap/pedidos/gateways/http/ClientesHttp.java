@@ -0,0 +1,71 @@
+package com.fiap.pedidos.gateways.http;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpConnectionPoolMetrics;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mantém um cliente OkHttp por serviço remoto, cada um com o seu pool de conexões keep-alive,
+ * para que as consultas de pagamento e inserções na fila não abram uma conexão nova a cada chamada.
+ * A utilização de cada pool é publicada em {@code okhttp.pool.*} com a tag {@code servico}.
+ */
+@Component
+public class ClientesHttp implements DisposableBean {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, OkHttpClient> clientes = new ConcurrentHashMap<>();
+
+    public ClientesHttp(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public OkHttpClient obter(String servico, ConfiguracaoClienteHttp configuracao) {
+        return clientes.computeIfAbsent(servico, nome -> criar(nome, configuracao));
+    }
+
+    private OkHttpClient criar(String servico, ConfiguracaoClienteHttp configuracao) {
+        ConnectionPool pool = new ConnectionPool(
+                configuracao.maxConexoesOciosas(), configuracao.keepAlive().toMillis(), TimeUnit.MILLISECONDS);
+        new OkHttpConnectionPoolMetrics(pool, "okhttp.pool", Tags.of("servico", servico),
+                configuracao.maxConexoesOciosas()).bindTo(meterRegistry);
+
+        // Sem TLS o HTTP/2 só é possível com prior knowledge, que não tem fallback para HTTP/1.1.
+        List<Protocol> protocolos = configuracao.http2SemTls() ?
+                List.of(Protocol.H2_PRIOR_KNOWLEDGE) :
+                List.of(Protocol.HTTP_2, Protocol.HTTP_1_1);
+
+        return new OkHttpClient.Builder()
+                .connectionPool(pool)
+                .protocols(protocolos)
+                .connectTimeout(configuracao.timeoutConexao())
+                .readTimeout(configuracao.timeoutLeitura())
+                .retryOnConnectionFailure(true)
+                .build();
+    }
+
+    @Override
+    public void destroy() {
+        clientes.values().forEach(cliente -> {
+            cliente.connectionPool().evictAll();
+            cliente.dispatcher().executorService().shutdown();
+        });
+    }
+
+    public record ConfiguracaoClienteHttp(int maxConexoesOciosas,
+                                          Duration keepAlive,
+                                          Duration timeoutConexao,
+                                          Duration timeoutLeitura,
+                                          boolean http2SemTls) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.fiap.pedidos.gateways.http;
+
+import feign.Client;
+import feign.okhttp.OkHttpClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Duration;
+
+//Sem @Configuration de propósito: é carregada só no contexto do cliente Feign de pagamentos
+public class PagamentosFeignConfiguration {
+
+    @Bean
+    public Client feignClient(ClientesHttp clientesHttp,
+                              @Value("${pagamentos.http.max-conexoes-ociosas:20}") int maxConexoesOciosas,
+                              @Value("${pagamentos.http.keep-alive:PT5M}") Duration keepAlive,
+                              @Value("${feign.client.config.default.connectTimeout:14000}") long timeoutConexaoMillis,
+                              @Value("${feign.client.config.default.readTimeout:14000}") long timeoutLeituraMillis,
+                              @Value("${pagamentos.http.http2-sem-tls:false}") boolean http2SemTls) {
+        return new OkHttpClient(clientesHttp.obter("pagamentos", new ClientesHttp.ConfiguracaoClienteHttp(
+                maxConexoesOciosas, keepAlive,
+                Duration.ofMillis(timeoutConexaoMillis), Duration.ofMillis(timeoutLeituraMillis), http2SemTls)));
+    }
+}
@@ -0,0 +1,28 @@
+package com.fiap.pedidos.gateways.projecao;
+
+import com.fiap.pedidos.entities.CursorPedido;
+
+import java.util.UUID;
+
+//Mesma ordem do índice idx_pedidos_listagem; o id é comparado sem sinal, como o uuid no banco
+record ChaveListagem(int ordemStatus, long dataInclusao, UUID idPedido) implements Comparable<ChaveListagem> {
+
+    static ChaveListagem de(CursorPedido cursor) {
+        return new ChaveListagem(cursor.getOrdemStatus(), cursor.getDataInclusao().getTime(), cursor.getIdPedido());
+    }
+
+    @Override
+    public int compareTo(ChaveListagem outra) {
+        int comparacao = Integer.compare(ordemStatus, outra.ordemStatus);
+        if (comparacao == 0) {
+            comparacao = Long.compare(dataInclusao, outra.dataInclusao);
+        }
+        if (comparacao == 0) {
+            comparacao = Long.compareUnsigned(idPedido.getMostSignificantBits(), outra.idPedido.getMostSignificantBits());
+        }
+        if (comparacao == 0) {
+            comparacao = Long.compareUnsigned(idPedido.getLeastSignificantBits(), outra.idPedido.getLeastSignificantBits());
+        }
+        return comparacao;
+    }
+}
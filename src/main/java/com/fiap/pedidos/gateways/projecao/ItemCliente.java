@@ -0,0 +1,21 @@
+package com.fiap.pedidos.gateways.projecao;
+
+import com.fiap.pedidos.entities.Cliente;
+import com.fiap.pedidos.entities.Cpf;
+import com.fiap.pedidos.entities.Email;
+import com.fiap.pedidos.entities.Nome;
+
+import java.util.UUID;
+
+//Montado direto pela consulta: fora do contexto de persistência, cada linha lida pode ser descartada logo depois
+public record ItemCliente(UUID id, Nome nome, Cpf cpf, Email email) {
+
+    public Cliente to() {
+        return Cliente.builder()
+                .id(id)
+                .nome(nome)
+                .cpf(cpf)
+                .email(email)
+                .build();
+    }
+}
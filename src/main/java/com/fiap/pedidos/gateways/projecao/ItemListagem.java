@@ -0,0 +1,42 @@
+package com.fiap.pedidos.gateways.projecao;
+
+import com.fiap.pedidos.entities.Cliente;
+import com.fiap.pedidos.entities.Pedido;
+import com.fiap.pedidos.utils.enums.StatusPedido;
+
+import java.util.Date;
+import java.util.UUID;
+
+//Só o que a listagem devolve: do cliente basta o id. Montado direto pela consulta, sem passar pela entidade
+public record ItemListagem(UUID idPedido,
+                           UUID idCliente,
+                           StatusPedido statusPedido,
+                           Long valorPedido,
+                           Date dataInclusao,
+                           Date dataAtualizacao,
+                           Long versao) {
+
+    ChaveListagem chave() {
+        return new ChaveListagem(statusPedido.getOrdemListagem(), dataInclusao.getTime(), idPedido);
+    }
+
+    boolean emMemoria() {
+        return statusPedido.getOrdemListagem() <= ProjecaoListagemPedidos.ORDEM_MAXIMA_EM_MEMORIA;
+    }
+
+    ItemListagem comStatus(StatusPedido novoStatus, Date dataAtualizacao) {
+        return new ItemListagem(idPedido, idCliente, novoStatus, valorPedido, dataInclusao, dataAtualizacao, versao);
+    }
+
+    public Pedido to() {
+        return Pedido.builder()
+                .idPedido(idPedido)
+                .cliente(Cliente.builder().id(idCliente).build())
+                .statusPedido(statusPedido)
+                .valorPedido(valorPedido)
+                .dataInclusao(dataInclusao)
+                .dataAtualizacao(dataAtualizacao)
+                .versao(versao)
+                .build();
+    }
+}
@@ -0,0 +1,248 @@
+package com.fiap.pedidos.gateways.projecao;
+
+import com.fiap.pedidos.entities.CursorPedido;
+import com.fiap.pedidos.entities.EventoStatusPedido;
+import com.fiap.pedidos.entities.Pedido;
+import com.fiap.pedidos.gateways.entities.PedidoExcluidoEntity;
+import com.fiap.pedidos.interfaces.facade.IOuvinteTransicaoPedido;
+import com.fiap.pedidos.interfaces.gateways.IProjecaoListagemPedidos;
+import com.fiap.pedidos.interfaces.repositories.PedidoExcluidoRepository;
+import com.fiap.pedidos.interfaces.repositories.PedidoRepository;
+import com.fiap.pedidos.utils.enums.StatusPedido;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Modelo de leitura da listagem de pedidos: os pedidos em andamento ficam em memória na ordem do índice
+ * (status, data de inclusão, id), e cada página é lida a partir do cursor sem consultar a tabela de pedidos.
+ * Os finalizados, que só crescem, não ficam em memória: vêm depois de todos os outros na listagem, então a
+ * página que passa do último pedido em andamento é completada pelo banco, a partir do mesmo cursor.
+ * <p>
+ * É montado do zero na subida e a cada {@code reconstrucao-ms}, lendo só os pedidos em andamento. Entre uma montagem e outra recebe os pedidos
+ * gravados desde a última sincronização (inclusive por outras instâncias) e, nesta instância, cada transição
+ * de status assim que publicada. Uma linha lida do banco só substitui o item se tiver versão maior, e uma
+ * transição só é aplicada se o item ainda estiver no status de origem, então leituras atrasadas não desfazem
+ * alterações mais novas.
+ * <p>
+ * As exclusões ficam registradas em {@code pedidos_excluidos}, lidas pela mesma sincronização, e nesta instância
+ * são aplicadas após o commit. O pedido excluído fica marcado com a versão em que foi excluído, e nenhuma leitura
+ * até essa versão o devolve à listagem.
+ */
+@Slf4j
+@Component
+public class ProjecaoListagemPedidos implements IProjecaoListagemPedidos, IOuvinteTransicaoPedido {
+
+    //Só os status antes dos finalizados na listagem ficam em memória
+    static final int ORDEM_MAXIMA_EM_MEMORIA = StatusPedido.F.getOrdemListagem() - 1;
+    //Chave anterior a qualquer pedido finalizado: a data de inclusão zero e o menor uuid
+    private static final ChaveListagem INICIO_FINALIZADOS =
+            new ChaveListagem(StatusPedido.F.getOrdemListagem(), 0L, new UUID(0, 0));
+
+    private final PedidoRepository pedidoRepository;
+    private final PedidoExcluidoRepository pedidoExcluidoRepository;
+    private final int tamanhoLote;
+    private final long margemMillis;
+    private final long retencaoExclusoesMillis;
+    private final Object escrita = new Object();
+
+    //Nulo até a primeira montagem; enquanto isso a listagem vai ao banco
+    private volatile Indice indice;
+
+    public ProjecaoListagemPedidos(PedidoRepository pedidoRepository,
+                                   PedidoExcluidoRepository pedidoExcluidoRepository,
+                                   @Value("${listagem.projecao.tamanho-lote:500}") int tamanhoLote,
+                                   @Value("${listagem.projecao.margem:PT5S}") Duration margem,
+                                   @Value("${listagem.projecao.retencao-exclusoes:PT1H}") Duration retencaoExclusoes) {
+        this.pedidoRepository = pedidoRepository;
+        this.pedidoExcluidoRepository = pedidoExcluidoRepository;
+        this.tamanhoLote = tamanhoLote;
+        this.margemMillis = margem.toMillis();
+        this.retencaoExclusoesMillis = retencaoExclusoes.toMillis();
+    }
+
+    public boolean isPronta() {
+        return indice != null;
+    }
+
+    public List<Pedido> listar(CursorPedido cursor, int limite) {
+        Indice atual = indice;
+        NavigableMap<ChaveListagem, ItemListagem> itens = Objects.isNull(cursor) ?
+                atual.itens :
+                atual.itens.tailMap(ChaveListagem.de(cursor), false);
+
+        List<Pedido> pedidos = new ArrayList<>(Math.min(limite, itens.size()));
+        for (ItemListagem item : itens.values()) {
+            if (pedidos.size() == limite) {
+                break;
+            }
+            pedidos.add(item.to());
+        }
+        if (pedidos.size() < limite) {
+            ChaveListagem aPartirDe = Objects.nonNull(cursor) && cursor.getOrdemStatus() > ORDEM_MAXIMA_EM_MEMORIA ?
+                    ChaveListagem.de(cursor) :
+                    INICIO_FINALIZADOS;
+            pedidoRepository.listagemOrdenadaPorStatusAposCursor(
+                            StatusPedido.ORDEM_MAXIMA_LISTAGEM,
+                            aPartirDe.ordemStatus(),
+                            new Timestamp(aPartirDe.dataInclusao()),
+                            aPartirDe.idPedido(),
+                            limite - pedidos.size())
+                    .forEach(item -> pedidos.add(item.to()));
+        }
+        return pedidos;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${listagem.projecao.reconstrucao-ms:600000}",
+            initialDelayString = "${listagem.projecao.reconstrucao-ms:600000}")
+    public int reconstruir() {
+        long inicio = pedidoRepository.agora().getTime();
+        Indice novo = new Indice(inicio);
+
+        List<ItemListagem> lote = pedidoRepository.listagemOrdenadaPorStatus(ORDEM_MAXIMA_EM_MEMORIA, tamanhoLote);
+        while (!lote.isEmpty()) {
+            lote.forEach(novo::colocar);
+            if (lote.size() < tamanhoLote) {
+                break;
+            }
+            ChaveListagem ultima = lote.get(lote.size() - 1).chave();
+            lote = pedidoRepository.listagemOrdenadaPorStatusAposCursor(
+                    ORDEM_MAXIMA_EM_MEMORIA,
+                    ultima.ordemStatus(),
+                    new Timestamp(ultima.dataInclusao()),
+                    ultima.idPedido(),
+                    tamanhoLote);
+        }
+
+        // O que foi gravado ou excluído durante a leitura chega pela próxima sincronização, que parte do início da montagem.
+        synchronized (escrita) {
+            indice = novo;
+        }
+        pedidoExcluidoRepository.excluirAnterioresA(new Date(inicio - retencaoExclusoesMillis));
+        log.info("Projeção da listagem de pedidos montada com {} pedidos em andamento", novo.porId.size());
+        return novo.porId.size();
+    }
+
+    @Scheduled(fixedDelayString = "${listagem.projecao.intervalo-ms:1000}")
+    public void sincronizar() {
+        if (indice == null) {
+            reconstruir();
+            return;
+        }
+
+        // A janela segue o relógio do banco, que carimbou as gravações, e não o desta réplica.
+        long inicio = pedidoRepository.agora().getTime();
+        Date desde = new Date(indice.sincronizadoAte - margemMillis);
+        List<ItemListagem> alterados = pedidoRepository.buscarAlteradosDesde(desde);
+        List<PedidoExcluidoEntity> excluidos = pedidoExcluidoRepository.buscarExcluidosDesde(desde);
+
+        synchronized (escrita) {
+            Indice atual = indice;
+            excluidos.forEach(excluido -> atual.excluir(excluido.getIdPedido(), excluido.getVersao()));
+            alterados.forEach(item -> aplicar(atual, item));
+            atual.sincronizadoAte = Math.max(atual.sincronizadoAte, inicio);
+        }
+    }
+
+    @Override
+    public void aoTransicionar(EventoStatusPedido evento) {
+        synchronized (escrita) {
+            Indice atual = indice;
+            if (atual == null) {
+                return;
+            }
+            ItemListagem item = atual.porId.get(evento.getIdPedido());
+            if (item == null || item.statusPedido() != evento.getStatusAnterior()) {
+                return;
+            }
+            atual.remover(item);
+            ItemListagem transicionado = item.comStatus(evento.getStatusAtual(), evento.getDataEvento());
+            if (transicionado.emMemoria()) {
+                atual.colocar(transicionado);
+            }
+        }
+    }
+
+    public void remover(UUID idPedido, long versao) {
+        // Só após o commit: antes dele a exclusão pode ser desfeita, e a sincronização ainda lê a linha.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    excluir(idPedido, versao);
+                }
+            });
+        } else {
+            excluir(idPedido, versao);
+        }
+    }
+
+    private void excluir(UUID idPedido, long versao) {
+        synchronized (escrita) {
+            Indice atual = indice;
+            if (atual != null) {
+                atual.excluir(idPedido, versao);
+            }
+        }
+    }
+
+    private static void aplicar(Indice indice, ItemListagem lido) {
+        Long versaoExcluida = indice.excluidos.get(lido.idPedido());
+        if (versaoExcluida != null && versaoExcluida >= lido.versao()) {
+            return;
+        }
+        ItemListagem atual = indice.porId.get(lido.idPedido());
+        if (atual != null && atual.versao() >= lido.versao()) {
+            return;
+        }
+        indice.remover(atual);
+        if (lido.emMemoria()) {
+            indice.colocar(lido);
+        }
+    }
+
+    private static final class Indice {
+        private final NavigableMap<ChaveListagem, ItemListagem> itens = new ConcurrentSkipListMap<>();
+        private final Map<UUID, ItemListagem> porId = new ConcurrentHashMap<>();
+        //Versão de cada pedido excluído desde a montagem; descartada com o índice na próxima montagem
+        private final Map<UUID, Long> excluidos = new ConcurrentHashMap<>();
+        private volatile long sincronizadoAte;
+
+        private Indice(long sincronizadoAte) {
+            this.sincronizadoAte = sincronizadoAte;
+        }
+
+        private void colocar(ItemListagem item) {
+            itens.put(item.chave(), item);
+            porId.put(item.idPedido(), item);
+        }
+
+        private void remover(ItemListagem item) {
+            if (item != null) {
+                itens.remove(item.chave());
+                porId.remove(item.idPedido());
+            }
+        }
+
+        private void excluir(UUID idPedido, long versao) {
+            excluidos.merge(idPedido, versao, Math::max);
+            remover(porId.get(idPedido));
+        }
+    }
+}
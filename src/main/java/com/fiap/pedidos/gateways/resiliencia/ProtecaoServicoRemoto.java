@@ -0,0 +1,45 @@
+package com.fiap.pedidos.gateways.resiliencia;
+
+import com.fiap.pedidos.exceptions.entities.ServicoRemotoIndisponivelException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+
+import java.util.function.Supplier;
+
+/**
+ * Limita as chamadas simultâneas a um serviço remoto e interrompe as chamadas enquanto ele estiver
+ * lento ou falhando, devolvendo {@link ServicoRemotoIndisponivelException} sem ocupar a thread.
+ */
+public class ProtecaoServicoRemoto {
+
+    private final String servico;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+
+    ProtecaoServicoRemoto(String servico, Bulkhead bulkhead, CircuitBreaker circuitBreaker) {
+        this.servico = servico;
+        this.bulkhead = bulkhead;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public <T> T executar(Supplier<T> chamada) {
+        try {
+            return Bulkhead.decorateSupplier(bulkhead, CircuitBreaker.decorateSupplier(circuitBreaker, chamada)).get();
+        } catch (BulkheadFullException | CallNotPermittedException e) {
+            throw new ServicoRemotoIndisponivelException(servico, e);
+        }
+    }
+
+    public void executar(Runnable chamada) {
+        executar(() -> {
+            chamada.run();
+            return null;
+        });
+    }
+
+    public CircuitBreaker.State getEstado() {
+        return circuitBreaker.getState();
+    }
+}
@@ -0,0 +1,71 @@
+package com.fiap.pedidos.gateways.resiliencia;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cria uma {@link ProtecaoServicoRemoto} por serviço, cada uma com seu circuit breaker e limite de concorrência,
+ * publicando o estado e as transições de cada circuito no Micrometer.
+ */
+@Component
+public class ProtecaoServicosRemotos {
+
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final Map<String, ProtecaoServicoRemoto> protecoes = new ConcurrentHashMap<>();
+
+    public ProtecaoServicosRemotos(MeterRegistry meterRegistry,
+                                   @Value("${servicos-remotos.concorrencia-maxima:20}") int concorrenciaMaxima,
+                                   @Value("${servicos-remotos.percentual-falhas:50}") float percentualFalhas,
+                                   @Value("${servicos-remotos.percentual-lentidao:50}") float percentualLentidao,
+                                   @Value("${servicos-remotos.chamada-lenta:PT2S}") Duration chamadaLenta,
+                                   @Value("${servicos-remotos.janela-chamadas:20}") int janelaChamadas,
+                                   @Value("${servicos-remotos.minimo-chamadas:10}") int minimoChamadas,
+                                   @Value("${servicos-remotos.espera-circuito-aberto:PT30S}") Duration esperaCircuitoAberto) {
+        this.meterRegistry = meterRegistry;
+        this.circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(janelaChamadas)
+                .minimumNumberOfCalls(minimoChamadas)
+                .failureRateThreshold(percentualFalhas)
+                .slowCallRateThreshold(percentualLentidao)
+                .slowCallDurationThreshold(chamadaLenta)
+                .waitDurationInOpenState(esperaCircuitoAberto)
+                .permittedNumberOfCallsInHalfOpenState(3)
+                .automaticTransitionFromOpenToHalfOpenEnabled(false)
+                .build());
+        this.bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(concorrenciaMaxima)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+    }
+
+    public ProtecaoServicoRemoto obter(String servico) {
+        return protecoes.computeIfAbsent(servico, this::criar);
+    }
+
+    private ProtecaoServicoRemoto criar(String servico) {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(servico);
+        circuitBreaker.getEventPublisher().onStateTransition(evento -> meterRegistry.counter(
+                "servico.remoto.transicoes",
+                "servico", servico,
+                "de", evento.getStateTransition().getFromState().name(),
+                "para", evento.getStateTransition().getToState().name()).increment());
+        return new ProtecaoServicoRemoto(servico, bulkheadRegistry.bulkhead(servico), circuitBreaker);
+    }
+}
@@ -0,0 +1,8 @@
+package com.fiap.pedidos.interfaces.facade;
+
+import com.fiap.pedidos.entities.EventoStatusPedido;
+
+public interface IOuvinteTransicaoPedido {
+
+    void aoTransicionar(EventoStatusPedido evento);
+}
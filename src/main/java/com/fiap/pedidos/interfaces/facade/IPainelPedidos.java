@@ -0,0 +1,10 @@
+package com.fiap.pedidos.interfaces.facade;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.function.Supplier;
+
+public interface IPainelPedidos {
+
+    SseEmitter inscrever(Supplier<?> snapshot);
+}
@@ -2,15 +2,19 @@ package com.fiap.pedidos.interfaces.gateways;
 
 import com.fiap.pedidos.entities.Cliente;
 import com.fiap.pedidos.entities.Cpf;
+import com.fiap.pedidos.entities.CursorCliente;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface IClienteRepositoryPort {
     Cliente cadastrar(Cliente cliente);
+    Cliente identificarPorCpf(Cpf cpf);
     UUID gerarId();
     Optional<Cliente> buscarPorCpf(Cpf cpf);
-    List<Cliente> bucarTodos();
+    List<Cliente> buscarTodos(CursorCliente cursor, int limite);
+    void percorrerTodos(Consumer<Cliente> consumidor);
     Optional<Cliente> buscarPorId(UUID uuid);
 }
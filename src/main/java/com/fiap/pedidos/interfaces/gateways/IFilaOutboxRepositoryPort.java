@@ -0,0 +1,13 @@
+package com.fiap.pedidos.interfaces.gateways;
+
+import com.fiap.pedidos.entities.EnvioFila;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+public interface IFilaOutboxRepositoryPort {
+    List<EnvioFila> reservarPendentes(int limite, Date reservadoAte);
+    void concluir(UUID idEnvio);
+    void reagendar(UUID idEnvio, int tentativas, Date proximaTentativa);
+}
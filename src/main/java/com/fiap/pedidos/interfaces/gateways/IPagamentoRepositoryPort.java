@@ -1,7 +1,10 @@
 package com.fiap.pedidos.interfaces.gateways;
 
+import java.util.Collection;
+import java.util.Set;
 import java.util.UUID;
 
 public interface IPagamentoRepositoryPort {
     boolean consultaPagamento(UUID idPedido);
+    Set<UUID> consultaPagamentos(Collection<UUID> idsPedido);
 }
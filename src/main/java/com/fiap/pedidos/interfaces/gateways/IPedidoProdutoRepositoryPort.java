@@ -14,6 +14,8 @@ public interface IPedidoProdutoRepositoryPort {
 
     List<Produto> obterTodosOsProdutosAssociadosAoPedidoPeloIdPedido(UUID id);
 
-    PedidoProduto adicionarPedidoProduto(Pedido pedido, Produto produto, PedidoProduto pedidoProduto);
-    void excluirPedidoProduto(UUID idPedido, UUID idProduto);
+    //Devolvem o pedido com o total gravado e, nos produtos, só os incluídos
+    Pedido adicionarPedidoProdutoSomandoValor(UUID idPedido, Produto produto);
+    Pedido adicionarPedidoProdutosSomandoValor(UUID idPedido, List<Produto> produtos);
+    long excluirPedidoProdutosRecalculandoValor(UUID idPedido, List<Produto> produtos);
 }
@@ -1,8 +1,11 @@
 package com.fiap.pedidos.interfaces.gateways;
 
+import com.fiap.pedidos.entities.CursorPedido;
 import com.fiap.pedidos.entities.Pedido;
 import com.fiap.pedidos.utils.enums.StatusPedido;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -10,8 +13,15 @@ import java.util.UUID;
 public interface IPedidoRepositoryPort {
     Pedido cadastrar(Pedido pedido);
     Pedido atualizarPedido(Pedido pedido);
+    Pedido transicionarStatus(Pedido pedido, StatusPedido statusEsperado);
+    Pedido transicionarStatusEnviandoParaFila(Pedido pedido, StatusPedido statusEsperado);
     void remover(UUID idPedido);
-    List<Pedido> buscarTodos(int pageNumber, int pageSize);
+    List<Pedido> buscarTodos(CursorPedido cursor, int limite);
     Optional<Pedido> buscarPorId(UUID idPedido);
-    List<Pedido> buscarPedidosPorClienteEStatus(UUID idCliente, StatusPedido statusPedido);
+    Optional<Pedido> buscarPorIdComProdutos(UUID idPedido);
+    //Não aceita StatusPedido.F: os finalizados não são buscados por cliente
+    List<Pedido> buscarPedidosAtivosPorClienteEStatus(UUID idCliente, StatusPedido statusPedido);
+    List<Pedido> buscarAguardandoPagamento(CursorPedido aPartirDe, Date incluidosAntes, int limite);
+    List<Pedido> confirmarPagamentos(Collection<UUID> idsPedido);
+    List<UUID> corrigirValoresDivergentes(Date alteradosDesde, Date alteradosAntes, int limite);
 }
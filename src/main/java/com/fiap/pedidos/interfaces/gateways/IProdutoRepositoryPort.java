@@ -3,6 +3,7 @@ package com.fiap.pedidos.interfaces.gateways;
 import com.fiap.pedidos.entities.Produto;
 import com.fiap.pedidos.utils.enums.TipoProduto;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -12,5 +13,6 @@ public interface IProdutoRepositoryPort {
     Produto criarProduto(Produto produto);
     void deletarProduto(UUID idProduto);
     Optional<Produto> buscarPorId(UUID idProduto);
+    List<Produto> buscarPorIds(Collection<UUID> idsProduto);
 
 }
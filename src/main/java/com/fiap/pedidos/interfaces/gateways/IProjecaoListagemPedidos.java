@@ -0,0 +1,5 @@
+package com.fiap.pedidos.interfaces.gateways;
+
+public interface IProjecaoListagemPedidos {
+    int reconstruir();
+}
@@ -0,0 +1,8 @@
+package com.fiap.pedidos.interfaces.gateways;
+
+import java.util.Date;
+
+public interface ITarefaAgendadaRepositoryPort {
+    boolean reservar(String tarefa, Date reservadaAte);
+    void liberar(String tarefa, Date reservadaAte, Date proximaExecucao);
+}
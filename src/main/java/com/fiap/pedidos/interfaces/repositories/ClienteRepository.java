@@ -2,13 +2,58 @@ package com.fiap.pedidos.interfaces.repositories;
 
 import com.fiap.pedidos.entities.Cpf;
 import com.fiap.pedidos.gateways.entities.ClienteEntity;
+import com.fiap.pedidos.gateways.projecao.ItemCliente;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface ClienteRepository extends JpaRepository<ClienteEntity, UUID> {
     Optional<ClienteEntity> findAllByCpf(Cpf cpf);
+
+    //Os anônimos ainda reservados, sem nenhum pedido, ficam fora da listagem e da exportação
+    String SELECAO_LISTAGEM = "SELECT new com.fiap.pedidos.gateways.projecao.ItemCliente(c.id, c.nome, c.cpf, c.email) " +
+            "FROM ClienteEntity c WHERE c.reservadoAte IS NULL ";
+
+    @Query(SELECAO_LISTAGEM + "ORDER BY c.id LIMIT ?1")
+    List<ItemCliente> listagemOrdenadaPorId(int limite);
+
+    @Query(SELECAO_LISTAGEM + "AND c.id > ?1 ORDER BY c.id LIMIT ?2")
+    List<ItemCliente> listagemOrdenadaPorIdAposCursor(UUID idCliente, int limite);
+
+    //Lê em lotes pelo cursor do JDBC em vez de trazer a tabela inteira de uma vez. No Postgres o fetch size só
+    //vale dentro de uma transação
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECAO_LISTAGEM)
+    Stream<ItemCliente> exportacao();
+
+    //Somente Postgres. O DO NOTHING não grava nada quando o CPF já tem cadastro, e o SELECT do UNION devolve o
+    //cadastro existente no mesmo comando. Vem vazio só quando o cadastro foi gravado por uma transação concorrente
+    //depois do início do comando, que o SELECT ainda não enxerga
+    @Transactional
+    @Query(value = "WITH inserido AS (INSERT INTO clientes (id, txt_cpf) VALUES (gen_random_uuid(), ?1) " +
+            "ON CONFLICT (txt_cpf) DO NOTHING RETURNING *) " +
+            "SELECT * FROM inserido UNION ALL SELECT * FROM clientes WHERE txt_cpf = ?1 LIMIT 1", nativeQuery = true)
+    Optional<ClienteEntity> inserirOuBuscarPorCpf(String cpf);
+
+    @Modifying
+    @Query("UPDATE ClienteEntity c SET c.reservadoAte = NULL WHERE c.id = ?1 AND c.reservadoAte IS NOT NULL")
+    int confirmarReserva(UUID idCliente);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM clientes WHERE id IN " +
+            "(SELECT id FROM clientes WHERE dt_h_reservado_ate < ?1 LIMIT ?2)", nativeQuery = true)
+    int excluirReservasVencidas(Date agora, int limite);
 }
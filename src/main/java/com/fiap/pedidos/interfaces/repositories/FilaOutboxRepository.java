@@ -0,0 +1,32 @@
+package com.fiap.pedidos.interfaces.repositories;
+
+import com.fiap.pedidos.gateways.entities.FilaOutboxEntity;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+public interface FilaOutboxRepository extends JpaRepository<FilaOutboxEntity, UUID> {
+
+    //Timeout -2 é o SKIP LOCKED do Hibernate: réplicas concorrentes pegam lotes diferentes sem esperar
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT f FROM FilaOutboxEntity f WHERE f.proximaTentativa <= :agora ORDER BY f.proximaTentativa")
+    List<FilaOutboxEntity> buscarPendentes(@Param("agora") Date agora, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE FilaOutboxEntity f SET f.tentativas = :tentativas, f.proximaTentativa = :proximaTentativa " +
+            "WHERE f.idEnvio = :idEnvio")
+    int reagendar(@Param("idEnvio") UUID idEnvio,
+                  @Param("tentativas") int tentativas,
+                  @Param("proximaTentativa") Date proximaTentativa);
+}
@@ -1,12 +1,14 @@
 package com.fiap.pedidos.interfaces.repositories;
 
+import com.fiap.pedidos.gateways.http.FilaFeignConfiguration;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 
 import java.util.UUID;
 
-@FeignClient(name = "insere-fila", url = "${fila.service.url}")
+@FeignClient(name = "insere-fila", url = "${fila.service.url}",
+        configuration = FilaFeignConfiguration.class)
 public interface FilaRepository {
     @PostMapping("/clientes/{idCliente}/pedidos/{idPedido}")
     void inserePedidoNaFila(@PathVariable(name = "idPedido") UUID idPedido,
@@ -1,14 +1,23 @@
 package com.fiap.pedidos.interfaces.repositories;
 
+import com.fiap.pedidos.adapters.SituacaoPagamentoDTO;
+import com.fiap.pedidos.gateways.http.PagamentosFeignConfiguration;
 import feign.Response;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
+import java.util.List;
 import java.util.UUID;
 
-@FeignClient(name = "consulta-pagamento", url = "${pagamentos.service.url}")
+@FeignClient(name = "consulta-pagamento", url = "${pagamentos.service.url}",
+        configuration = PagamentosFeignConfiguration.class)
 public interface PagamentoRepository {
     @GetMapping("/{idPedido}")
     Response consultarPagamento(@PathVariable("idPedido")UUID idPedido);
+
+    @PostMapping("/consultas")
+    List<SituacaoPagamentoDTO> consultarPagamentos(@RequestBody List<UUID> idsPedido);
 }
@@ -0,0 +1,28 @@
+package com.fiap.pedidos.interfaces.repositories;
+
+import com.fiap.pedidos.gateways.entities.PedidoExcluidoEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+public interface PedidoExcluidoRepository extends JpaRepository<PedidoExcluidoEntity, UUID> {
+
+    //Carimbada pelo relógio do banco, o mesmo das datas comparadas pela sincronização das réplicas
+    @Modifying
+    @Query(value = "INSERT INTO pedidos_excluidos (id_pedido, nr_versao, dt_h_exclusao) VALUES (?1, ?2, CURRENT_TIMESTAMP)",
+            nativeQuery = true)
+    int registrar(UUID idPedido, Long versao);
+
+    @Query("SELECT e FROM PedidoExcluidoEntity e WHERE e.dataExclusao >= ?1")
+    List<PedidoExcluidoEntity> buscarExcluidosDesde(Date excluidosDesde);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PedidoExcluidoEntity e WHERE e.dataExclusao < ?1")
+    int excluirAnterioresA(Date excluidosAntes);
+}
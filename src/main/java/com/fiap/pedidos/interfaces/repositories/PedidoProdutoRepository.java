@@ -4,7 +4,6 @@ import com.fiap.pedidos.entities.Pedido;
 import com.fiap.pedidos.gateways.entities.PedidoProdutoEntity;
 import com.fiap.pedidos.gateways.entities.ProdutoEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -13,14 +12,12 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface PedidoProdutoRepository extends JpaRepository<PedidoProdutoEntity, UUID> {
+public interface PedidoProdutoRepository extends JpaRepository<PedidoProdutoEntity, UUID>, PedidoProdutoRepositoryCustom {
 
     @Query(value = "SELECT * FROM pedido_produtos WHERE pedido.id = ?1",
             nativeQuery = true)
     Optional<List<PedidoProdutoEntity>> findByIdPedido(UUID idPedido);
 
-    @Modifying
-    @Query(value = "DELETE FROM pedido_produtos WHERE id IN (SELECT id FROM pedido_produtos " +
-                    "WHERE id_pedido = ?1 AND id_produto = ?2 LIMIT 1)", nativeQuery = true)
-    void deleteByIdPedidoAndIdProduto(UUID idPedido, UUID idProduto);
+    @Query("SELECT pp FROM PedidoProdutoEntity pp JOIN FETCH pp.produto WHERE pp.pedido.idPedido = ?1")
+    List<PedidoProdutoEntity> buscarItensComProdutoPorIdPedido(UUID idPedido);
 }
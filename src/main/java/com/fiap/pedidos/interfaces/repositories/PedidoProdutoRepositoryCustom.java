@@ -0,0 +1,13 @@
+package com.fiap.pedidos.interfaces.repositories;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface PedidoProdutoRepositoryCustom {
+
+    //Soma as quantidades nas linhas (pedido, produto, valor), criando as que faltam, num único comando por chamada
+    int somarQuantidades(UUID idPedido, List<QuantidadeItem> itens);
+
+    record QuantidadeItem(UUID idProduto, long valorProduto, int quantidade) {
+    }
+}
@@ -0,0 +1,67 @@
+package com.fiap.pedidos.interfaces.repositories;
+
+import com.fiap.pedidos.gateways.BancoDeDados;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+/**
+ * Upsert das linhas do pedido sem ler as existentes: no Postgres um INSERT ... ON CONFLICT na restrição única
+ * (id_pedido, id_produto, v_produto_centavos), e no H2 o MERGE equivalente. Todas as linhas da chamada vão num
+ * só comando, então quem chama agrupa os itens por produto e valor antes, para cada linha aparecer uma vez.
+ */
+public class PedidoProdutoRepositoryCustomImpl implements PedidoProdutoRepositoryCustom {
+
+    private static final String COLUNAS = "(id, id_pedido, id_produto, v_produto_centavos, nr_quantidade)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final BancoDeDados bancoDeDados;
+
+    public PedidoProdutoRepositoryCustomImpl(BancoDeDados bancoDeDados) {
+        this.bancoDeDados = bancoDeDados;
+    }
+
+    @Override
+    public int somarQuantidades(UUID idPedido, List<QuantidadeItem> itens) {
+        if (itens.isEmpty()) {
+            return 0;
+        }
+
+        StringJoiner valores = new StringJoiner(", ");
+        for (int i = 0; i < itens.size(); i++) {
+            int parametro = 2 + i * 4;
+            valores.add(bancoDeDados.isPostgres() ?
+                    String.format("(?%d, ?1, ?%d, ?%d, ?%d)", parametro, parametro + 1, parametro + 2, parametro + 3) :
+                    String.format("(CAST(?%d AS UUID), CAST(?1 AS UUID), CAST(?%d AS UUID), CAST(?%d AS BIGINT), " +
+                            "CAST(?%d AS INTEGER))", parametro, parametro + 1, parametro + 2, parametro + 3));
+        }
+
+        Query upsert = entityManager.createNativeQuery(bancoDeDados.isPostgres() ?
+                "INSERT INTO pedido_produtos " + COLUNAS + " VALUES " + valores + " " +
+                        "ON CONFLICT (id_pedido, id_produto, v_produto_centavos) " +
+                        "DO UPDATE SET nr_quantidade = pedido_produtos.nr_quantidade + EXCLUDED.nr_quantidade" :
+                "MERGE INTO pedido_produtos pp USING (VALUES " + valores + ") AS novo " + COLUNAS + " " +
+                        "ON pp.id_pedido = novo.id_pedido AND pp.id_produto = novo.id_produto " +
+                        "AND pp.v_produto_centavos = novo.v_produto_centavos " +
+                        "WHEN MATCHED THEN UPDATE SET nr_quantidade = pp.nr_quantidade + novo.nr_quantidade " +
+                        "WHEN NOT MATCHED THEN INSERT " + COLUNAS + " VALUES (novo.id, novo.id_pedido, " +
+                        "novo.id_produto, novo.v_produto_centavos, novo.nr_quantidade)");
+
+        upsert.setParameter(1, idPedido);
+        for (int i = 0; i < itens.size(); i++) {
+            int parametro = 2 + i * 4;
+            QuantidadeItem item = itens.get(i);
+            upsert.setParameter(parametro, UUID.randomUUID());
+            upsert.setParameter(parametro + 1, item.idProduto());
+            upsert.setParameter(parametro + 2, item.valorProduto());
+            upsert.setParameter(parametro + 3, item.quantidade());
+        }
+        return upsert.executeUpdate();
+    }
+}
@@ -1,22 +1,116 @@
 package com.fiap.pedidos.interfaces.repositories;
 
 import com.fiap.pedidos.gateways.entities.PedidoEntity;
-import org.springframework.data.domain.Pageable;
+import com.fiap.pedidos.gateways.projecao.ItemListagem;
+import com.fiap.pedidos.utils.enums.StatusPedido;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface PedidoRepository extends JpaRepository<PedidoEntity, UUID> {
+public interface PedidoRepository extends JpaRepository<PedidoEntity, UUID>, PedidoRepositoryCustom {
 
-    @Query(value = "SELECT * FROM pedidos WHERE id_cliente = ?1 AND id_status LIKE ?2",
-    nativeQuery = true)
-    List<PedidoEntity> findByIdClienteAndStatusPedido(UUID idCliente, String statusPedido);
+    //Só pedidos não finalizados. O filtro fixo de status deixa o Postgres usar o índice parcial
+    //idx_pedidos_cliente_status mesmo no plano genérico
+    String PEDIDOS_ATIVOS_POR_CLIENTE_E_STATUS =
+            "SELECT * FROM pedidos WHERE id_cliente = ?1 AND id_status = ?2 AND id_status <> 'F'";
 
-    @Query(value = "SELECT * FROM pedidos WHERE id_status NOT LIKE 'P' ORDER BY CASE id_status WHEN 'C' THEN 1 WHEN 'E' THEN 2 WHEN 'R' THEN 3 WHEN 'A' THEN 4 END ASC, dt_h_inclusao ASC",
+    @Query(value = PEDIDOS_ATIVOS_POR_CLIENTE_E_STATUS, nativeQuery = true)
+    List<PedidoEntity> buscarPedidosAtivosPorClienteEStatus(UUID idCliente, String statusPedido);
+
+    //A listagem só lê as colunas do pedido e o id do cliente, sem carregar o ClienteEntity de cada linha
+    String SELECAO_LISTAGEM = "SELECT new com.fiap.pedidos.gateways.projecao.ItemListagem(" +
+            "p.idPedido, p.cliente.id, p.statusPedido, p.valorPedido, p.dataInclusao, p.dataAtualizacao, p.versao) " +
+            "FROM PedidoEntity p ";
+
+    @Query(SELECAO_LISTAGEM + "WHERE p.ordemStatus <= ?1 " +
+            "ORDER BY p.ordemStatus, p.dataInclusao, p.idPedido LIMIT ?2")
+    List<ItemListagem> listagemOrdenadaPorStatus(int ordemMaxima, int limite);
+
+    @Query(SELECAO_LISTAGEM + "WHERE p.ordemStatus <= ?1 " +
+            "AND (p.ordemStatus, p.dataInclusao, p.idPedido) > (?2, ?3, ?4) " +
+            "ORDER BY p.ordemStatus, p.dataInclusao, p.idPedido LIMIT ?5")
+    List<ItemListagem> listagemOrdenadaPorStatusAposCursor(
+            int ordemMaxima, int ordemStatus, Date dataInclusao, UUID idPedido, int limite);
+
+    @Query(value = "SELECT * FROM pedidos WHERE nr_ordem_status = ?1 " +
+            "AND (nr_ordem_status, dt_h_inclusao, id) > (?1, ?2, ?3) AND dt_h_inclusao < ?4 " +
+            "ORDER BY nr_ordem_status, dt_h_inclusao, id LIMIT ?5",
             nativeQuery = true)
-    List<PedidoEntity> listagemOrdenadaPorStatusExcluindoFinalizados(Pageable pageable);
+    List<PedidoEntity> buscarPorOrdemStatusIncluidosAntesAposCursor(
+            int ordemStatus, Date dataInclusao, UUID idPedido, Date incluidosAntes, int limite);
+
+    @Query(SELECAO_LISTAGEM + "WHERE p.dataAtualizacao >= ?1")
+    List<ItemListagem> buscarAlteradosDesde(Date dataAtualizacao);
+
+    //Hora do banco, o mesmo relógio que carimba dt_h_atualizacao nas gravações de todas as réplicas
+    @Query(value = "SELECT LOCALTIMESTAMP", nativeQuery = true)
+    Date agora();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM PedidoEntity p JOIN FETCH p.cliente WHERE p.idPedido IN ?1 AND p.statusPedido = ?2")
+    List<PedidoEntity> buscarParaAtualizarStatus(Collection<UUID> idsPedido, StatusPedido statusPedido);
+
+    @Modifying
+    @Query("UPDATE PedidoEntity p SET p.statusPedido = ?2, p.ordemStatus = ?3, p.dataAtualizacao = CURRENT_TIMESTAMP, " +
+            "p.versao = p.versao + 1 WHERE p.idPedido IN ?1")
+    int atualizarStatus(Collection<UUID> idsPedido, StatusPedido statusPedido, Integer ordemStatus);
+
+    @Query("SELECT p FROM PedidoEntity p JOIN FETCH p.cliente " +
+            "LEFT JOIN FETCH p.produtos pp LEFT JOIN FETCH pp.produto " +
+            "WHERE p.idPedido = ?1")
+    Optional<PedidoEntity> findByIdComClienteEProdutos(UUID idPedido);
+
+    @Modifying
+    @Query("UPDATE PedidoEntity p SET p.valorPedido = p.valorPedido + ?2, p.dataAtualizacao = CURRENT_TIMESTAMP, " +
+            "p.versao = p.versao + 1 " +
+            "WHERE p.idPedido = ?1 AND p.statusPedido = ?3")
+    int somarValorPedido(UUID idPedido, long valor, StatusPedido statusPedido);
+
+    //Total do pedido recalculado a partir dos valores gravados nos itens
+    String SOMA_ITENS = "(SELECT COALESCE(SUM(pp.v_produto_centavos * pp.nr_quantidade), 0) FROM pedido_produtos pp WHERE pp.id_pedido = p.id)";
+
+    @Modifying
+    @Query(value = "UPDATE pedidos p SET v_pedido_centavos = " + SOMA_ITENS + ", dt_h_atualizacao = LOCALTIMESTAMP, " +
+            "nr_versao = nr_versao + 1 WHERE p.id = ?1",
+            nativeQuery = true)
+    int recalcularValorPedido(UUID idPedido);
+
+    @Query("SELECT p.valorPedido FROM PedidoEntity p WHERE p.idPedido = ?1")
+    long buscarValorPedido(UUID idPedido);
+
+    //Só pedidos em aberto e alterados na janela: o índice de dt_h_atualizacao limita a varredura, e o total dos
+    //pedidos já pagos ou finalizados é o que foi cobrado, que não é reescrito pelos itens
+    @Query("SELECT p.idPedido FROM PedidoEntity p WHERE p.statusPedido = ?1 " +
+            "AND p.dataAtualizacao >= ?2 AND p.dataAtualizacao < ?3 " +
+            "AND p.valorPedido <> (SELECT COALESCE(SUM(pp.valorProduto * pp.quantidade), 0) " +
+            "FROM PedidoProdutoEntity pp WHERE pp.pedido = p) " +
+            "ORDER BY p.dataAtualizacao LIMIT ?4")
+    List<UUID> buscarComValorDivergente(StatusPedido statusPedido, Date alteradosDesde, Date alteradosAntes, int limite);
+
+    //Repete os filtros de status e data para não sobrescrever pedido alterado depois da busca das divergências
+    @Modifying
+    @Query(value = "UPDATE pedidos p SET v_pedido_centavos = " + SOMA_ITENS + ", dt_h_atualizacao = LOCALTIMESTAMP, " +
+            "nr_versao = nr_versao + 1 WHERE p.id IN ?1 AND p.id_status = 'A' AND p.dt_h_atualizacao < ?2",
+            nativeQuery = true)
+    int recalcularValorPedidos(Collection<UUID> idsPedido, Date alteradosAntes);
+
+    @Modifying
+    @Query("UPDATE PedidoEntity p SET p.valorPedido = ?2, p.statusPedido = ?3, p.ordemStatus = ?4, " +
+            "p.dataAtualizacao = CURRENT_TIMESTAMP, p.versao = p.versao + 1 WHERE p.idPedido = ?1 AND p.versao = ?5")
+    int atualizarNaVersao(UUID idPedido, long valorPedido, StatusPedido statusPedido, Integer ordemStatus, Long versao);
+
+    @Modifying
+    @Query("UPDATE PedidoEntity p SET p.statusPedido = ?3, p.ordemStatus = ?4, p.dataAtualizacao = CURRENT_TIMESTAMP, " +
+            "p.versao = p.versao + 1 WHERE p.idPedido = ?1 AND p.statusPedido = ?2")
+    int transicionarStatus(UUID idPedido, StatusPedido statusEsperado, StatusPedido novoStatus, Integer ordemStatus);
 }
@@ -0,0 +1,13 @@
+package com.fiap.pedidos.interfaces.repositories;
+
+import com.fiap.pedidos.gateways.projecao.ItemListagem;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface PedidoRepositoryCustom {
+
+    //Soma o valor no total do pedido aberto e devolve a linha já gravada, no mesmo comando; vazio se o pedido
+    //não existe ou não está aberto
+    Optional<ItemListagem> somarValorPedidoAberto(UUID idPedido, long valor);
+}
@@ -0,0 +1,65 @@
+package com.fiap.pedidos.interfaces.repositories;
+
+import com.fiap.pedidos.gateways.BancoDeDados;
+import com.fiap.pedidos.gateways.projecao.ItemListagem;
+import com.fiap.pedidos.utils.enums.StatusPedido;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * UPDATE do total que já devolve o pedido gravado, sem reler a linha: no Postgres com RETURNING, e no H2 lendo
+ * o resultado do próprio UPDATE pela FINAL TABLE. O filtro de status faz do comando a validação de que o pedido
+ * está aberto, e o total devolvido é o que ficou no banco, inclusive com inclusões simultâneas.
+ */
+public class PedidoRepositoryCustomImpl implements PedidoRepositoryCustom {
+
+    private static final String COLUNAS =
+            "id, id_cliente, id_status, v_pedido_centavos, dt_h_inclusao, dt_h_atualizacao, nr_versao";
+    private static final String SOMA_VALOR = "UPDATE pedidos SET v_pedido_centavos = v_pedido_centavos + ?2, " +
+            "dt_h_atualizacao = LOCALTIMESTAMP, nr_versao = nr_versao + 1 WHERE id = ?1 AND id_status = 'A'";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final BancoDeDados bancoDeDados;
+
+    public PedidoRepositoryCustomImpl(BancoDeDados bancoDeDados) {
+        this.bancoDeDados = bancoDeDados;
+    }
+
+    @Override
+    public Optional<ItemListagem> somarValorPedidoAberto(UUID idPedido, long valor) {
+        // Tipos declarados: sem entidade no resultado, o H2 devolveria os uuid como bytes
+        List<Object[]> linhas = entityManager.createNativeQuery(bancoDeDados.isPostgres() ?
+                        SOMA_VALOR + " RETURNING " + COLUNAS :
+                        "SELECT " + COLUNAS + " FROM FINAL TABLE (" + SOMA_VALOR + ")")
+                .setParameter(1, idPedido)
+                .setParameter(2, valor)
+                .unwrap(NativeQuery.class)
+                .addScalar("id", UUID.class)
+                .addScalar("id_cliente", UUID.class)
+                .addScalar("id_status", String.class)
+                .addScalar("v_pedido_centavos", Long.class)
+                .addScalar("dt_h_inclusao", Date.class)
+                .addScalar("dt_h_atualizacao", Date.class)
+                .addScalar("nr_versao", Long.class)
+                .getResultList();
+
+        return linhas.stream()
+                .map(colunas -> new ItemListagem(
+                        (UUID) colunas[0],
+                        (UUID) colunas[1],
+                        StatusPedido.valueOf((String) colunas[2]),
+                        (Long) colunas[3],
+                        (Date) colunas[4],
+                        (Date) colunas[5],
+                        (Long) colunas[6]))
+                .findFirst();
+    }
+}
@@ -0,0 +1,30 @@
+package com.fiap.pedidos.interfaces.repositories;
+
+import com.fiap.pedidos.gateways.entities.TarefaAgendadaEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+
+public interface TarefaAgendadaRepository extends JpaRepository<TarefaAgendadaEntity, String> {
+
+    //A condição na data torna a reserva atômica: das réplicas que tentam ao mesmo tempo, só uma atualiza a linha
+    @Transactional
+    @Modifying
+    @Query("UPDATE TarefaAgendadaEntity t SET t.reservadaAte = ?3 WHERE t.nome = ?1 AND t.reservadaAte <= ?2")
+    int reservar(String nome, Date agora, Date reservadaAte);
+
+    //Insert explícito para a chave repetida falhar em vez de o save virar um merge sobre a reserva de outra réplica
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO tarefas_agendadas (nome, dt_h_reservada_ate) VALUES (?1, ?2)", nativeQuery = true)
+    int inserir(String nome, Date reservadaAte);
+
+    //Só libera a própria reserva; se ela expirou e outra réplica reservou, a data já é outra
+    @Transactional
+    @Modifying
+    @Query("UPDATE TarefaAgendadaEntity t SET t.reservadaAte = ?3 WHERE t.nome = ?1 AND t.reservadaAte = ?2")
+    int liberar(String nome, Date reservadaAte, Date proximaExecucao);
+}
@@ -2,17 +2,20 @@ package com.fiap.pedidos.interfaces.usecases;
 
 import com.fiap.pedidos.entities.Cliente;
 import com.fiap.pedidos.entities.Cpf;
+import com.fiap.pedidos.entities.CursorCliente;
+import com.fiap.pedidos.entities.PaginaClientes;
 import com.fiap.pedidos.exceptions.entities.CpfExistenteException;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface IClienteUseCasePort {
     Cliente cadastrar(Cliente cliente) throws CpfExistenteException;
     Cliente identificarPorCpf(Cpf cpf);
     UUID gerarId();
     Optional<Cliente> buscarPorCpf(Cpf cpf);
-    List<Cliente> bucarTodos();
+    PaginaClientes buscarTodos(CursorCliente cursor, int tamanhoPagina);
+    void exportarTodos(Consumer<Cliente> consumidor);
     Optional<Cliente> buscarPorId(UUID uuid);
 }
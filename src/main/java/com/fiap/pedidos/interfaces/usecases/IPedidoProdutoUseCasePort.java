@@ -13,4 +13,6 @@ public interface IPedidoProdutoUseCasePort {
 
     Pedido adicionarItemNoPedido(PedidoProduto pedidoProduto);
     Pedido removerItemDoPedido(PedidoProduto pedidoProduto);
+    Pedido adicionarItensNoPedido(UUID idPedido, List<PedidoProduto> itens);
+    Pedido removerItensDoPedido(UUID idPedido, List<PedidoProduto> itens);
 }
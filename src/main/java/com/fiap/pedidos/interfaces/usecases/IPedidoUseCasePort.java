@@ -1,9 +1,12 @@
 package com.fiap.pedidos.interfaces.usecases;
 
+import com.fiap.pedidos.entities.CursorPedido;
+import com.fiap.pedidos.entities.PaginaPedidos;
 import com.fiap.pedidos.entities.Pedido;
 import com.fiap.pedidos.utils.enums.StatusPedido;
 import com.fiap.pedidos.utils.enums.TipoAtualizacao;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,10 +16,14 @@ public interface IPedidoUseCasePort {
 
    Pedido buscarPorId(UUID idPedido);
 
-    List<Pedido> buscarTodos(int pageNumber, int pageSize);
+    PaginaPedidos buscarTodos(CursorPedido cursor, int tamanhoPagina);
 
     Pedido atualizarPedido(UUID idPedido, TipoAtualizacao tipoAtualizacao, Pedido pedido, StatusPedido statusPedido);
 
     Pedido atualizarPedido(Pedido pedido);
 
+    List<Pedido> buscarAguardandoPagamento(CursorPedido aPartirDe, Date incluidosAntes, int limite);
+
+    List<Pedido> reconciliarPagamentos(List<Pedido> pedidos);
+
 }
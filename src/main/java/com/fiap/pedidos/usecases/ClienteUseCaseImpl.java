@@ -2,6 +2,8 @@ package com.fiap.pedidos.usecases;
 
 import com.fiap.pedidos.entities.Cliente;
 import com.fiap.pedidos.entities.Cpf;
+import com.fiap.pedidos.entities.CursorCliente;
+import com.fiap.pedidos.entities.PaginaClientes;
 import com.fiap.pedidos.exceptions.entities.CpfExistenteException;
 import com.fiap.pedidos.interfaces.gateways.IClienteRepositoryPort;
 import com.fiap.pedidos.interfaces.usecases.IClienteUseCasePort;
@@ -10,6 +12,7 @@ import lombok.RequiredArgsConstructor;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @RequiredArgsConstructor
 public class ClienteUseCaseImpl implements IClienteUseCasePort {
@@ -26,14 +29,25 @@ public class ClienteUseCaseImpl implements IClienteUseCasePort {
 
     @Override
     public Cliente identificarPorCpf(Cpf cpf) {
-        Optional<Cliente> clienteDb = buscarPorCpf(cpf);
-        return clienteDb
-                .orElseGet(() -> clienteRepositoryPort.cadastrar(Cliente.builder().cpf(cpf).build()));
+        return clienteRepositoryPort.identificarPorCpf(cpf);
     }
 
     @Override
-    public List<Cliente> bucarTodos() { // TODO - temp remover posteriormente
-        return clienteRepositoryPort.bucarTodos();
+    public PaginaClientes buscarTodos(CursorCliente cursor, int tamanhoPagina) {
+        // Busca um cliente a mais para saber se existe próxima página sem precisar de contagem.
+        List<Cliente> clientes = clienteRepositoryPort.buscarTodos(cursor, tamanhoPagina + 1);
+
+        if (clientes.size() <= tamanhoPagina) {
+            return new PaginaClientes(clientes, null);
+        }
+
+        List<Cliente> pagina = clientes.subList(0, tamanhoPagina);
+        return new PaginaClientes(pagina, CursorCliente.de(pagina.get(tamanhoPagina - 1)));
+    }
+
+    @Override
+    public void exportarTodos(Consumer<Cliente> consumidor) {
+        clienteRepositoryPort.percorrerTodos(consumidor);
     }
 
     @Override
@@ -0,0 +1,83 @@
+package com.fiap.pedidos.usecases;
+
+import com.fiap.pedidos.exceptions.entities.PedidoOperacaoNaoSuportadaException;
+import com.fiap.pedidos.utils.enums.StatusPedido;
+import com.fiap.pedidos.utils.enums.TipoAtualizacao;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Transições de status permitidas para cada tipo de atualização do pedido.
+ * A tabela é montada uma única vez em EnumMap/EnumSet, então validar uma transição não depende do banco
+ * e pode ser feito antes de qualquer leitura. Repetir o status atual é aceito onde o destino é permitido,
+ * para que mensagens reenviadas pela fila não virem erro.
+ */
+public final class MaquinaEstadosPedido {
+
+    static final String PEDIDO_FECHADO = "Pedido não está aberto para edição.";
+
+    private static final Map<TipoAtualizacao, Map<StatusPedido, Set<StatusPedido>>> TRANSICOES =
+            new EnumMap<>(TipoAtualizacao.class);
+    private static final Map<TipoAtualizacao, Set<StatusPedido>> DESTINOS = new EnumMap<>(TipoAtualizacao.class);
+
+    static {
+        permitir(TipoAtualizacao.P, StatusPedido.A, StatusPedido.R);
+        permitir(TipoAtualizacao.F, StatusPedido.R, StatusPedido.E);
+        permitir(TipoAtualizacao.F, StatusPedido.E, StatusPedido.E, StatusPedido.P);
+        permitir(TipoAtualizacao.F, StatusPedido.P, StatusPedido.P, StatusPedido.F);
+        permitir(TipoAtualizacao.F, StatusPedido.F, StatusPedido.F);
+        permitir(TipoAtualizacao.I, StatusPedido.A, StatusPedido.A);
+        permitir(TipoAtualizacao.C, StatusPedido.A, StatusPedido.A);
+    }
+
+    private MaquinaEstadosPedido() {
+    }
+
+    private static void permitir(TipoAtualizacao tipoAtualizacao, StatusPedido origem, StatusPedido... destinos) {
+        Set<StatusPedido> permitidos = EnumSet.of(destinos[0], destinos);
+        TRANSICOES.computeIfAbsent(tipoAtualizacao, tipo -> new EnumMap<>(StatusPedido.class))
+                .computeIfAbsent(origem, status -> EnumSet.noneOf(StatusPedido.class))
+                .addAll(permitidos);
+        DESTINOS.computeIfAbsent(tipoAtualizacao, tipo -> EnumSet.noneOf(StatusPedido.class))
+                .addAll(permitidos);
+    }
+
+    public static boolean permite(TipoAtualizacao tipoAtualizacao, StatusPedido origem, StatusPedido destino) {
+        Set<StatusPedido> destinos = TRANSICOES.getOrDefault(tipoAtualizacao, Map.of()).get(origem);
+        return destinos != null && destinos.contains(destino);
+    }
+
+    public static boolean aceitaDestino(TipoAtualizacao tipoAtualizacao, StatusPedido destino) {
+        return DESTINOS.getOrDefault(tipoAtualizacao, Set.of()).contains(destino);
+    }
+
+    // Recusa destinos que nenhuma origem alcança por este tipo de atualização, sem precisar ler o pedido.
+    public static void validarDestino(TipoAtualizacao tipoAtualizacao, StatusPedido destino) {
+        if (!aceitaDestino(tipoAtualizacao, destino)) {
+            throw new PedidoOperacaoNaoSuportadaException(String.format(
+                    "Atualização %s não leva o pedido para o status %s.",
+                    tipoAtualizacao.getDescricao(), descricao(destino)));
+        }
+    }
+
+    public static void validar(TipoAtualizacao tipoAtualizacao, StatusPedido origem, StatusPedido destino) {
+        if (permite(tipoAtualizacao, origem, destino)) {
+            return;
+        }
+        // Atualizações que só partem de pedido aberto mantêm a mensagem de edição
+        Set<StatusPedido> origens = TRANSICOES.getOrDefault(tipoAtualizacao, Map.of()).keySet();
+        if (origem != StatusPedido.A && origens.equals(EnumSet.of(StatusPedido.A))) {
+            throw new PedidoOperacaoNaoSuportadaException(PEDIDO_FECHADO);
+        }
+        throw new PedidoOperacaoNaoSuportadaException(String.format(
+                "Pedido %s não pode passar para %s pela atualização %s.",
+                descricao(origem), descricao(destino), tipoAtualizacao.getDescricao()));
+    }
+
+    private static String descricao(StatusPedido statusPedido) {
+        return statusPedido == null ? "sem status" : statusPedido.getDescricao();
+    }
+}
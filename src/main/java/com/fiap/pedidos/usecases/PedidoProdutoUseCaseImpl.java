@@ -4,19 +4,26 @@ import com.fiap.pedidos.entities.Pedido;
 import com.fiap.pedidos.entities.PedidoProduto;
 import com.fiap.pedidos.entities.Produto;
 import com.fiap.pedidos.exceptions.entities.PedidoNaoEncontradoException;
-import com.fiap.pedidos.exceptions.entities.PedidoOperacaoNaoSuportadaException;
 import com.fiap.pedidos.exceptions.entities.ProdutoNaoEncontradoException;
 import com.fiap.pedidos.interfaces.gateways.IPedidoProdutoRepositoryPort;
 import com.fiap.pedidos.interfaces.gateways.IPedidoRepositoryPort;
 import com.fiap.pedidos.interfaces.gateways.IProdutoRepositoryPort;
 import com.fiap.pedidos.interfaces.usecases.IPedidoProdutoUseCasePort;
 import com.fiap.pedidos.utils.enums.StatusPedido;
+import com.fiap.pedidos.utils.enums.TipoAtualizacao;
 import lombok.RequiredArgsConstructor;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 public class PedidoProdutoUseCaseImpl implements IPedidoProdutoUseCasePort {
@@ -27,76 +34,81 @@ public class PedidoProdutoUseCaseImpl implements IPedidoProdutoUseCasePort {
 
     @Override
     public Pedido adicionarItemNoPedido(PedidoProduto pedidoProduto) {
-        Pedido pedido = this.buscarPorId(pedidoProduto.getPedidoId());
-        validarPedido(pedido);
-
         Optional<Produto> optionalProduto = produtoRepositoryPort.buscarPorId(pedidoProduto.getProdutoId());
         validarProduto(optionalProduto);
 
-        Produto produto = optionalProduto.get();
-
-        pedido.setDataAtualizacao(new Date());
-        pedido.setValorPedido(
-                pedido.getValorPedido()
-                        .add(produto.getValorProduto().getValorProduto())
-        );
-
-        pedidoProdutoRepositoryPort.adicionarPedidoProduto(pedido, produto, pedidoProduto);
-
-        List<Produto> produtoList = this.pedidoProdutoRepositoryPort.obterTodosOsProdutosAssociadosAoPedidoPeloIdPedido(pedido.getIdPedido());
+        // Sem ler o pedido: a gravação do total valida que está aberto e devolve o total já somado.
+        return pedidoProdutoRepositoryPort.adicionarPedidoProdutoSomandoValor(
+                pedidoProduto.getPedidoId(), optionalProduto.get());
+    }
 
-        pedido = pedidoRepositoryPort.atualizarPedido(pedido);
+    @Override
+    public Pedido removerItemDoPedido(PedidoProduto pedidoProduto) {
+        validarProduto(produtoRepositoryPort.buscarPorId(pedidoProduto.getProdutoId()));
 
-        pedido.setProdutos(produtoList);
+        // Mesmo caminho da remoção em lote: o total é recalculado no banco a partir dos itens que sobraram.
+        return this.removerItensDoPedido(pedidoProduto.getPedidoId(), List.of(pedidoProduto));
+    }
 
-        return pedido;
+    @Override
+    public Pedido adicionarItensNoPedido(UUID idPedido, List<PedidoProduto> itens) {
+        Set<UUID> idsProduto = itens.stream()
+                .map(PedidoProduto::getProdutoId)
+                .collect(Collectors.toSet());
+        Map<UUID, Produto> produtosPorId = produtoRepositoryPort.buscarPorIds(idsProduto).stream()
+                .collect(Collectors.toMap(Produto::getIdProduto, Function.identity()));
+
+        List<Produto> produtos = itens.stream()
+                .map(item -> {
+                    Produto produto = produtosPorId.get(item.getProdutoId());
+                    validarProduto(Optional.ofNullable(produto));
+                    return produto;
+                })
+                .toList();
+
+        return pedidoProdutoRepositoryPort.adicionarPedidoProdutosSomandoValor(idPedido, produtos);
     }
 
     @Override
-    public Pedido removerItemDoPedido(PedidoProduto pedidoProduto) {
-        Pedido pedido = this.buscarPorId(pedidoProduto.getPedidoId());
+    public Pedido removerItensDoPedido(UUID idPedido, List<PedidoProduto> itens) {
+        Pedido pedido = this.buscarPorIdComProdutos(idPedido);
         validarPedido(pedido);
 
-        Optional<Produto> optionalProduto = produtoRepositoryPort.buscarPorId(pedidoProduto.getProdutoId());
-        validarProduto(optionalProduto);
-
-        List<Produto> produtoList = this.pedidoProdutoRepositoryPort
-                .obterTodosOsProdutosAssociadosAoPedidoPeloIdPedido(pedido.getIdPedido());
-
-        if(produtoList.isEmpty())
+        // Itens que não estão no pedido são ignorados, assim como na remoção unitária com o pedido vazio.
+        List<Produto> produtosRestantes = new ArrayList<>(pedido.getProdutos());
+        List<Produto> produtosRemovidos = new ArrayList<>();
+        itens.forEach(item -> {
+            Iterator<Produto> iterator = produtosRestantes.iterator();
+            while (iterator.hasNext()) {
+                Produto produto = iterator.next();
+                if (Objects.equals(produto.getIdProduto(), item.getProdutoId())) {
+                    iterator.remove();
+                    produtosRemovidos.add(produto);
+                    break;
+                }
+            }
+        });
+
+        if (produtosRemovidos.isEmpty())
             return pedido;
 
-        pedidoProdutoRepositoryPort.excluirPedidoProduto(pedidoProduto.getPedidoId(), pedidoProduto.getProdutoId());
-
-        Produto produto = optionalProduto.get();
-
-        var novoValorPedido = pedido.getValorPedido()
-                .subtract(produto.getValorProduto().getValorProduto());
+        long valorPedido = pedidoProdutoRepositoryPort
+                .excluirPedidoProdutosRecalculandoValor(idPedido, produtosRemovidos);
 
-        pedido.setValorPedido(novoValorPedido);
         pedido.setDataAtualizacao(new Date());
-
-        pedidoRepositoryPort.atualizarPedido(pedido);
-
-        pedido.setProdutos(produtoList);
+        pedido.setValorPedido(valorPedido);
+        pedido.setProdutos(produtosRestantes);
 
         return pedido;
     }
 
-    private Pedido buscarPorId(UUID id) {
-        var pedidoOptional = pedidoRepositoryPort.buscarPorId(id);
-
-        if (pedidoOptional.isEmpty()) {
-            throw new PedidoNaoEncontradoException();
-        }
-
-        return pedidoOptional.get();
+    private Pedido buscarPorIdComProdutos(UUID id) {
+        return pedidoRepositoryPort.buscarPorIdComProdutos(id)
+                .orElseThrow(PedidoNaoEncontradoException::new);
     }
 
     private void validarPedido(Pedido optionalPedido) {
-        if (optionalPedido.getStatusPedido() != StatusPedido.A) {
-            throw new PedidoOperacaoNaoSuportadaException("Pedido não está aberto para edição.");
-        }
+        MaquinaEstadosPedido.validar(TipoAtualizacao.I, optionalPedido.getStatusPedido(), StatusPedido.A);
     }
 
     private void validarProduto(Optional<Produto> optionalProduto) {
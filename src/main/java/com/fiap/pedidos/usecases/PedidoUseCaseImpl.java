@@ -1,9 +1,12 @@
 package com.fiap.pedidos.usecases;
 
+import com.fiap.pedidos.entities.CursorPedido;
+import com.fiap.pedidos.entities.EventoStatusPedido;
+import com.fiap.pedidos.entities.PaginaPedidos;
 import com.fiap.pedidos.entities.Pedido;
+import com.fiap.pedidos.exceptions.entities.PedidoAlteradoConcorrentementeException;
 import com.fiap.pedidos.exceptions.entities.PedidoNaoEncontradoException;
-import com.fiap.pedidos.exceptions.entities.PedidoOperacaoNaoSuportadaException;
-import com.fiap.pedidos.interfaces.gateways.IFilaRepositoryPort;
+import com.fiap.pedidos.interfaces.facade.IPublicadorEventosPedido;
 import com.fiap.pedidos.interfaces.gateways.IPagamentoRepositoryPort;
 import com.fiap.pedidos.interfaces.gateways.IPedidoProdutoRepositoryPort;
 import com.fiap.pedidos.interfaces.gateways.IPedidoRepositoryPort;
@@ -12,10 +15,10 @@ import com.fiap.pedidos.utils.enums.StatusPedido;
 import com.fiap.pedidos.utils.enums.TipoAtualizacao;
 import lombok.RequiredArgsConstructor;
 
-import java.math.BigDecimal;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @RequiredArgsConstructor
@@ -24,17 +27,19 @@ public class PedidoUseCaseImpl implements IPedidoUseCasePort {
     private final IPedidoProdutoRepositoryPort pedidoProdutoRepositoryPort;
     private final IPedidoRepositoryPort pedidoRepositoryPort;
     private final IPagamentoRepositoryPort pagamentoRepositoryPort;
-    private final IFilaRepositoryPort filaRepositoryPort;
+    private final IPublicadorEventosPedido publicadorEventosPedido;
+
+    private static final int MAXIMO_TENTATIVAS = 3;
 
     @Override
     public Pedido iniciarPedido(Pedido pedido) {
         UUID idCliente = pedido.getCliente().getId();
 
         List<Pedido> pedidosAtivos = this.pedidoRepositoryPort
-                .buscarPedidosPorClienteEStatus(idCliente, StatusPedido.A);
+                .buscarPedidosAtivosPorClienteEStatus(idCliente, StatusPedido.A);
 
         if (pedidosAtivos.isEmpty()) {
-            pedido.setValorPedido(new BigDecimal("0.0"));
+            pedido.setValorPedido(0L);
             return pedidoRepositoryPort.cadastrar(pedido);
         }
 
@@ -49,28 +54,73 @@ public class PedidoUseCaseImpl implements IPedidoUseCasePort {
             Pedido pedidoRequest,
             StatusPedido statusPedido) {
 
-        Pedido pedidoExistente = buscarPorId(idPedido);
+        // Destino que a fila nunca pode definir é recusado antes de ler o pedido.
+        if (tipoAtualizacao == TipoAtualizacao.F) {
+            MaquinaEstadosPedido.validarDestino(TipoAtualizacao.F, statusPedido);
+        }
 
-        switch (tipoAtualizacao){
-            case F -> pedidoExistente.setStatusPedido(statusPedido);
-            case C -> {
-                if (pedidoExistente.getStatusPedido() != StatusPedido.A) {
-                    throw new PedidoOperacaoNaoSuportadaException("Pedido não está aberto para edição.");
+        // Em conflito com outra gravação o pedido é relido e a atualização reaplicada sobre o estado atual.
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return this.aplicarAtualizacao(idPedido, tipoAtualizacao, pedidoRequest, statusPedido);
+            } catch (PedidoAlteradoConcorrentementeException e) {
+                if (tentativa >= MAXIMO_TENTATIVAS) {
+                    throw e;
                 }
             }
+        }
+    }
+
+    private Pedido aplicarAtualizacao(
+            UUID idPedido,
+            TipoAtualizacao tipoAtualizacao,
+            Pedido pedidoRequest,
+            StatusPedido statusPedido) {
+
+        Pedido pedidoExistente = buscarPedidoExistente(idPedido);
+        StatusPedido statusAnterior = pedidoExistente.getStatusPedido();
+        long valorAnterior = pedidoExistente.getValorPedido();
+        boolean enviarParaFila = false;
+
+        switch (tipoAtualizacao){
+            case F -> {
+                MaquinaEstadosPedido.validar(TipoAtualizacao.F, statusAnterior, statusPedido);
+                pedidoExistente.setStatusPedido(statusPedido);
+            }
+            case C -> MaquinaEstadosPedido.validar(TipoAtualizacao.C, statusAnterior, StatusPedido.A);
             case I -> {
-                if (pedidoExistente.getStatusPedido() != StatusPedido.A) {
-                    throw new PedidoOperacaoNaoSuportadaException("Pedido não está aberto para edição.");
-                }
+                MaquinaEstadosPedido.validar(TipoAtualizacao.I, statusAnterior, pedidoRequest.getStatusPedido());
                 pedidoExistente.setProdutos(pedidoRequest.getProdutos());
                 pedidoExistente.setValorPedido(pedidoRequest.getValorPedido());
                 pedidoExistente.setStatusPedido(pedidoRequest.getStatusPedido());
                 pedidoExistente.setDataAtualizacao(new Date());
             }
-            case P -> this.atualizarStatusPagamento(pedidoExistente);
+            case P -> {
+                // Webhook repetido de pedido já pago não consulta o pagamento nem gera novo envio para a fila.
+                if (MaquinaEstadosPedido.permite(TipoAtualizacao.P, statusAnterior, StatusPedido.R)) {
+                    enviarParaFila = this.atualizarStatusPagamento(pedidoExistente);
+                }
+            }
+        }
+
+        // Mudanças de status só são gravadas se o pedido ainda estiver no status lido.
+        // A entrega na fila é feita pelo FilaOutboxRelay a partir do registro gravado junto com o pedido.
+        Pedido pedido;
+        if (enviarParaFila) {
+            pedido = pedidoRepositoryPort.transicionarStatusEnviandoParaFila(pedidoExistente, statusAnterior);
+        } else if (pedidoExistente.getStatusPedido() != statusAnterior) {
+            pedido = pedidoRepositoryPort.transicionarStatus(pedidoExistente, statusAnterior);
+        } else if (pedidoExistente.getValorPedido() != valorAnterior) {
+            pedido = this.atualizarPedido(pedidoExistente);
+        } else {
+            // Checkout, pagamento ainda não confirmado ou status repetido pela fila: nada a gravar.
+            pedido = pedidoExistente;
         }
 
-        Pedido pedido = this.atualizarPedido(pedidoExistente);
+        if (pedido.getStatusPedido() != statusAnterior) {
+            publicadorEventosPedido.publicar(new EventoStatusPedido(
+                    pedido.getIdPedido(), statusAnterior, pedido.getStatusPedido(), new Date()));
+        }
 
         pedido.setProdutos(this.pedidoProdutoRepositoryPort
                 .obterTodosOsProdutosAssociadosAoPedidoPeloIdPedido(pedido.getIdPedido()));
@@ -78,13 +128,13 @@ public class PedidoUseCaseImpl implements IPedidoUseCasePort {
         return pedido;
     }
 
-    private void atualizarStatusPagamento(Pedido pedido) {
+    private boolean atualizarStatusPagamento(Pedido pedido) {
          var pagOk = this.pagamentoRepositoryPort.consultaPagamento(pedido.getIdPedido());
 
         if(pagOk){
             pedido.setStatusPedido(StatusPedido.R);
-            filaRepositoryPort.inserePedidoNaFila(pedido.getIdPedido(), pedido.getCliente().getId());
         }
+        return pagOk;
     }
 
     @Override
@@ -94,21 +144,49 @@ public class PedidoUseCaseImpl implements IPedidoUseCasePort {
 
     @Override
     public Pedido buscarPorId(UUID id) {
-        var pedidoOptional = pedidoRepositoryPort.buscarPorId(id);
+        return pedidoRepositoryPort.buscarPorIdComProdutos(id)
+                .orElseThrow(PedidoNaoEncontradoException::new);
+    }
+
+    // Os produtos são recarregados após a atualização, então aqui basta o pedido com o cliente.
+    private Pedido buscarPedidoExistente(UUID id) {
+        return pedidoRepositoryPort.buscarPorId(id)
+                .orElseThrow(PedidoNaoEncontradoException::new);
+    }
 
-        if (pedidoOptional.isEmpty()) {
-            throw new PedidoNaoEncontradoException();
+    @Override
+    public PaginaPedidos buscarTodos(CursorPedido cursor, int tamanhoPagina) {
+        // Busca um pedido a mais para saber se existe próxima página sem precisar de contagem.
+        List<Pedido> pedidos = pedidoRepositoryPort.buscarTodos(cursor, tamanhoPagina + 1);
+
+        if (pedidos.size() <= tamanhoPagina) {
+            return new PaginaPedidos(pedidos, null);
         }
 
-        pedidoOptional
-                .get()
-                .setProdutos(this.pedidoProdutoRepositoryPort.obterTodosOsProdutosAssociadosAoPedidoPeloIdPedido(id));
+        List<Pedido> pagina = pedidos.subList(0, tamanhoPagina);
+        return new PaginaPedidos(pagina, CursorPedido.de(pagina.get(tamanhoPagina - 1)));
+    }
 
-        return pedidoOptional.get();
+    @Override
+    public List<Pedido> buscarAguardandoPagamento(CursorPedido aPartirDe, Date incluidosAntes, int limite) {
+        return pedidoRepositoryPort.buscarAguardandoPagamento(aPartirDe, incluidosAntes, limite);
     }
 
     @Override
-    public List<Pedido> buscarTodos(int pageNumber, int pageSize) {
-        return pedidoRepositoryPort.buscarTodos(pageNumber, pageSize);
+    public List<Pedido> reconciliarPagamentos(List<Pedido> pedidos) {
+        if (pedidos.isEmpty()) {
+            return List.of();
+        }
+
+        Set<UUID> pagos = pagamentoRepositoryPort.consultaPagamentos(
+                pedidos.stream().map(Pedido::getIdPedido).toList());
+        if (pagos.isEmpty()) {
+            return List.of();
+        }
+
+        List<Pedido> confirmados = pedidoRepositoryPort.confirmarPagamentos(pagos);
+        confirmados.forEach(pedido -> publicadorEventosPedido.publicar(new EventoStatusPedido(
+                pedido.getIdPedido(), StatusPedido.A, pedido.getStatusPedido(), pedido.getDataAtualizacao())));
+        return confirmados;
     }
 }
@@ -1,19 +1,28 @@
 package com.fiap.pedidos.utils.enums;
 
 public enum StatusPedido {
-    A("Aberto"),
-    R("Recebido"),
-    E("Em preparação"),
-    P("Pronto"),
-    F("Finalizado");
+    A("Aberto", 3),
+    R("Recebido", 2),
+    E("Em preparação", 1),
+    P("Pronto", 5),
+    F("Finalizado", 4);
+
+    //Pedidos com ordem acima deste valor não aparecem na listagem de pedidos
+    public static final int ORDEM_MAXIMA_LISTAGEM = 4;
 
     private final String descricao;
+    private final int ordemListagem;
 
-    StatusPedido(String descricao) {
+    StatusPedido(String descricao, int ordemListagem) {
         this.descricao = descricao;
+        this.ordemListagem = ordemListagem;
     }
 
     public String getDescricao() {
         return descricao;
     }
+
+    public int getOrdemListagem() {
+        return ordemListagem;
+    }
 }
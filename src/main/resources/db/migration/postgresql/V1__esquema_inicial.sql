@@ -0,0 +1,61 @@
+-- Esquema equivalente ao que o Hibernate gerava com ddl-auto=update. Bancos que já existiam antes das
+-- migrações recebem esta versão como baseline (spring.flyway.baseline-on-migrate) e não executam este script.
+CREATE TABLE clientes (
+    id uuid NOT NULL,
+    txt_nome varchar(255),
+    txt_cpf varchar(255),
+    txt_email varchar(255),
+    CONSTRAINT clientes_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE produtos (
+    id_produto uuid NOT NULL,
+    txt_nome_produto varchar(255),
+    txt_descricao_produto varchar(255),
+    tipo_produto varchar(255),
+    v_produto_centavos bigint DEFAULT 0,
+    dt_h_atualizacao timestamp(6),
+    dt_h_inclusao timestamp(6),
+    ativo boolean,
+    CONSTRAINT produtos_pkey PRIMARY KEY (id_produto)
+);
+
+CREATE TABLE pedidos (
+    id uuid NOT NULL,
+    id_cliente uuid NOT NULL,
+    id_status varchar(255) NOT NULL CHECK (id_status IN ('A', 'R', 'E', 'P', 'F')),
+    nr_ordem_status integer,
+    v_pedido_centavos bigint NOT NULL DEFAULT 0,
+    dt_h_inclusao timestamp(6),
+    dt_h_atualizacao timestamp(6),
+    nr_versao bigint DEFAULT 0,
+    CONSTRAINT pedidos_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_pedidos_cliente FOREIGN KEY (id_cliente) REFERENCES clientes (id)
+);
+
+CREATE INDEX idx_pedidos_listagem ON pedidos (nr_ordem_status, dt_h_inclusao, id);
+CREATE INDEX idx_pedidos_atualizacao ON pedidos (dt_h_atualizacao);
+
+CREATE TABLE pedido_produtos (
+    id uuid NOT NULL,
+    id_pedido uuid,
+    id_produto uuid,
+    v_produto_centavos bigint,
+    nr_quantidade integer NOT NULL DEFAULT 1,
+    CONSTRAINT pedido_produtos_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_pedido_produtos_pedido_produto UNIQUE (id_pedido, id_produto),
+    CONSTRAINT fk_pedido_produtos_pedido FOREIGN KEY (id_pedido) REFERENCES pedidos (id),
+    CONSTRAINT fk_pedido_produtos_produto FOREIGN KEY (id_produto) REFERENCES produtos (id_produto)
+);
+
+CREATE TABLE fila_outbox (
+    id uuid NOT NULL,
+    id_pedido uuid NOT NULL,
+    id_cliente uuid NOT NULL,
+    nr_tentativas integer NOT NULL,
+    dt_h_inclusao timestamp(6),
+    dt_h_proxima_tentativa timestamp(6) NOT NULL,
+    CONSTRAINT fila_outbox_pkey PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_fila_outbox_proxima_tentativa ON fila_outbox (dt_h_proxima_tentativa);
@@ -0,0 +1,72 @@
+-- Traz até o mapeamento atual os bancos criados pelo Hibernate antes das migrações, que entram com a V1
+-- como baseline. Substitui o antigo data.sql. Em banco criado pela V1 nenhum comando aqui tem efeito.
+ALTER TABLE pedidos ADD COLUMN IF NOT EXISTS nr_ordem_status integer;
+ALTER TABLE pedidos ADD COLUMN IF NOT EXISTS v_pedido_centavos bigint NOT NULL DEFAULT 0;
+ALTER TABLE pedidos ADD COLUMN IF NOT EXISTS nr_versao bigint DEFAULT 0;
+ALTER TABLE produtos ADD COLUMN IF NOT EXISTS v_produto_centavos bigint DEFAULT 0;
+ALTER TABLE pedido_produtos ADD COLUMN IF NOT EXISTS v_produto_centavos bigint;
+ALTER TABLE pedido_produtos ADD COLUMN IF NOT EXISTS nr_quantidade integer NOT NULL DEFAULT 1;
+
+CREATE TABLE IF NOT EXISTS fila_outbox (
+    id uuid NOT NULL,
+    id_pedido uuid NOT NULL,
+    id_cliente uuid NOT NULL,
+    nr_tentativas integer NOT NULL,
+    dt_h_inclusao timestamp(6),
+    dt_h_proxima_tentativa timestamp(6) NOT NULL,
+    CONSTRAINT fila_outbox_pkey PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_pedidos_listagem ON pedidos (nr_ordem_status, dt_h_inclusao, id);
+CREATE INDEX IF NOT EXISTS idx_pedidos_atualizacao ON pedidos (dt_h_atualizacao);
+CREATE INDEX IF NOT EXISTS idx_fila_outbox_proxima_tentativa ON fila_outbox (dt_h_proxima_tentativa);
+
+UPDATE pedidos SET nr_ordem_status = CASE id_status
+    WHEN 'E' THEN 1
+    WHEN 'R' THEN 2
+    WHEN 'A' THEN 3
+    WHEN 'F' THEN 4
+    WHEN 'P' THEN 5
+END
+WHERE nr_ordem_status IS NULL;
+
+UPDATE pedidos SET nr_versao = 0 WHERE nr_versao IS NULL;
+
+-- Valores em reais das colunas antigas convertidos para centavos; as colunas antigas são removidas
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'produtos' AND column_name = 'valor_produto') THEN
+        UPDATE produtos SET v_produto_centavos = ROUND(valor_produto * 100) WHERE valor_produto IS NOT NULL;
+        ALTER TABLE produtos DROP COLUMN valor_produto;
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'pedidos' AND column_name = 'v_pedido') THEN
+        UPDATE pedidos SET v_pedido_centavos = ROUND(v_pedido * 100) WHERE v_pedido IS NOT NULL;
+        ALTER TABLE pedidos DROP COLUMN v_pedido;
+    END IF;
+END $$;
+
+UPDATE pedido_produtos pp SET v_produto_centavos = (
+    SELECT pr.v_produto_centavos FROM produtos pr WHERE pr.id_produto = pp.id_produto
+) WHERE pp.v_produto_centavos IS NULL;
+
+-- Itens gravados uma linha por unidade viram uma linha por produto, mantendo a de menor id
+UPDATE pedido_produtos pp SET nr_quantidade = (
+    SELECT SUM(d.nr_quantidade) FROM pedido_produtos d WHERE d.id_pedido = pp.id_pedido AND d.id_produto = pp.id_produto
+) WHERE EXISTS (
+    SELECT 1 FROM pedido_produtos d WHERE d.id_pedido = pp.id_pedido AND d.id_produto = pp.id_produto AND d.id <> pp.id
+);
+
+DELETE FROM pedido_produtos pp WHERE EXISTS (
+    SELECT 1 FROM pedido_produtos d WHERE d.id_pedido = pp.id_pedido AND d.id_produto = pp.id_produto AND d.id < pp.id
+);
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_pedido_produtos_pedido_produto') THEN
+        ALTER TABLE pedido_produtos
+            ADD CONSTRAINT uk_pedido_produtos_pedido_produto UNIQUE (id_pedido, id_produto);
+    END IF;
+END $$;
@@ -0,0 +1,12 @@
+-- Pedidos de um cliente por status (findByIdClienteAndStatusPedido). Os finalizados são a maior parte
+-- da tabela e nunca são buscados por cliente, então ficam fora do índice.
+CREATE INDEX idx_pedidos_cliente_status ON pedidos (id_cliente, id_status) WHERE id_status <> 'F';
+
+-- Cardápio por tipo (findAllByTipoProdutoAndAtivo)
+CREATE INDEX idx_produtos_tipo_ativo ON produtos (tipo_produto, ativo);
+
+-- Identificação do cliente pelo CPF (findAllByCpf)
+CREATE INDEX idx_clientes_cpf ON clientes (txt_cpf);
+
+-- Os itens de um pedido (pedido_produtos.id_pedido) já são encontrados pelo índice da restrição
+-- uk_pedido_produtos_pedido_produto, que começa por id_pedido.
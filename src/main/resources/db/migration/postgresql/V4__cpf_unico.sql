@@ -0,0 +1,14 @@
+-- Um CPF identifica um único cliente. Os pedidos dos cadastros repetidos passam para o de menor id
+UPDATE pedidos p SET id_cliente = (
+    SELECT MIN(d.id::text)::uuid FROM clientes c JOIN clientes d ON d.txt_cpf = c.txt_cpf WHERE c.id = p.id_cliente
+) WHERE EXISTS (
+    SELECT 1 FROM clientes c JOIN clientes d ON d.txt_cpf = c.txt_cpf WHERE c.id = p.id_cliente AND d.id < c.id
+);
+
+DELETE FROM clientes c WHERE EXISTS (
+    SELECT 1 FROM clientes d WHERE d.txt_cpf = c.txt_cpf AND d.id < c.id
+);
+
+-- O índice da restrição atende a identificação pelo CPF (findAllByCpf) no lugar do idx_clientes_cpf
+ALTER TABLE clientes ADD CONSTRAINT uk_clientes_cpf UNIQUE (txt_cpf);
+DROP INDEX idx_clientes_cpf;
@@ -0,0 +1,7 @@
+-- Reserva das tarefas agendadas que só uma réplica deve executar por vez, como a reconciliação de pagamentos.
+-- A linha de cada tarefa é criada na primeira reserva.
+CREATE TABLE tarefas_agendadas (
+    nome varchar(100) NOT NULL,
+    dt_h_reservada_ate timestamp(6) NOT NULL,
+    CONSTRAINT tarefas_agendadas_pkey PRIMARY KEY (nome)
+);
@@ -0,0 +1,5 @@
+-- Um produto pode voltar ao pedido com outro valor: cada valor ganha a sua linha, e o total continua sendo a
+-- soma de valor x quantidade das linhas. O índice da nova restrição também começa por id_pedido.
+ALTER TABLE pedido_produtos DROP CONSTRAINT uk_pedido_produtos_pedido_produto;
+ALTER TABLE pedido_produtos
+    ADD CONSTRAINT uk_pedido_produtos_pedido_produto_valor UNIQUE (id_pedido, id_produto, v_produto_centavos);
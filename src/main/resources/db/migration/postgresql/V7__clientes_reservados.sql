@@ -0,0 +1,4 @@
+-- Os clientes anônimos cadastrados de antemão ficam marcados até o primeiro pedido. Os que vencem sem pedido,
+-- inclusive os que sobraram na reserva de uma instância que caiu, são excluídos pela limpeza periódica.
+ALTER TABLE clientes ADD COLUMN dt_h_reservado_ate timestamp(6);
+CREATE INDEX idx_clientes_reservado_ate ON clientes (dt_h_reservado_ate) WHERE dt_h_reservado_ate IS NOT NULL;
@@ -0,0 +1,9 @@
+-- Exclusões de pedidos, para que as réplicas tirem da projeção da listagem os pedidos que outra réplica excluiu.
+-- Cada linha guarda a última versão do pedido; as antigas são apagadas depois do prazo de retenção.
+CREATE TABLE pedidos_excluidos (
+    id_pedido uuid NOT NULL,
+    nr_versao bigint NOT NULL,
+    dt_h_exclusao timestamp(6) NOT NULL,
+    CONSTRAINT pedidos_excluidos_pkey PRIMARY KEY (id_pedido)
+);
+CREATE INDEX idx_pedidos_excluidos_exclusao ON pedidos_excluidos (dt_h_exclusao);
@@ -25,11 +25,11 @@ class ClienteDTOTest {
             ClienteDTO clienteDTO1 = new ClienteDTO().from(cliente);
 
             clienteDTO.setNome("Nome 1");
-            clienteDTO.setCpf("11111111111");
+            clienteDTO.setCpf("86288366757");
             clienteDTO.setEmail("aaaaaa@gmail.com");
 
             clienteDTO1.setNome("Nome 1");
-            clienteDTO1.setCpf("11111111111");
+            clienteDTO1.setCpf("86288366757");
             clienteDTO1.setEmail("aaaaaa@gmail.com");
 
             assertThat(clienteDTO).isNotNull();
@@ -94,11 +94,11 @@ class ClienteDTOTest {
             ClienteDTO clienteDTO1 = new ClienteDTO().from(cliente);
 
             clienteDTO.setNome("Nome 1");
-            clienteDTO.setCpf("11111111111");
+            clienteDTO.setCpf("86288366757");
             clienteDTO.setEmail("aaaaaa@gmail.com");
 
             clienteDTO1.setNome("Nome 1");
-            clienteDTO1.setCpf("11111111111");
+            clienteDTO1.setCpf("86288366757");
             clienteDTO1.setEmail("aaaaaa@gmail.com");
 
             assertThat(clienteDTO).isNotNull();
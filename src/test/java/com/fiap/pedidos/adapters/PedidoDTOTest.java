@@ -4,6 +4,7 @@ import com.fiap.pedidos.entities.Pedido;
 import com.fiap.pedidos.entities.Produto;
 import com.fiap.pedidos.helpers.Helper;
 import com.fiap.pedidos.utils.enums.StatusPedido;
+import com.fiap.pedidos.utils.enums.TipoProduto;
 import io.qameta.allure.Description;
 import io.qameta.allure.Severity;
 import io.qameta.allure.SeverityLevel;
@@ -72,6 +73,34 @@ class PedidoDTOTest {
             assertThat(pedidoDTO.toString()).contains(pedidoDTO1.getValorPedido().toString(), pedidoDTO1.getIdPedido().toString());
         }
 
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Converter o valor do pedido de centavos para reais")
+        void converterValorPedidoParaReais() {
+            Pedido pedido = Helper.gerarPedidoComClienteEProdutos();
+            pedido.setValorPedido(1550L);
+
+            PedidoDTO pedidoDTO = PedidoDTO.from(pedido);
+
+            assertThat(pedidoDTO.getValorPedido()).isEqualTo(new BigDecimal("15.50"));
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Converter as unidades de um mesmo produto em um único item com quantidade")
+        void converterUnidadesDoMesmoProdutoEmItemComQuantidade() {
+            Pedido pedido = Helper.gerarPedidoComClienteEProdutos();
+            pedido.getProdutos().add(Helper.gerarProdutoLanche());
+
+            PedidoDTO pedidoDTO = PedidoDTO.from(pedido);
+
+            assertThat(pedidoDTO.getProdutos()).hasSize(2);
+            assertThat(pedidoDTO.getProdutos()).extracting(ProdutoDTO::getTipo)
+                    .containsExactly(TipoProduto.LANCHE.name(), TipoProduto.BEBIDA.name());
+            assertThat(pedidoDTO.getProdutos()).extracting(ProdutoDTO::getQuantidade)
+                    .containsExactly(2, 1);
+        }
+
         @Test
         @Severity(SeverityLevel.CRITICAL)
         void testarConstrutoVazio() {
@@ -1,7 +1,11 @@
 package com.fiap.pedidos.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.pedidos.adapters.ClienteDTO;
 import com.fiap.pedidos.entities.Cliente;
 import com.fiap.pedidos.entities.Cpf;
+import com.fiap.pedidos.entities.CursorCliente;
+import com.fiap.pedidos.entities.PaginaClientes;
 import com.fiap.pedidos.helpers.Helper;
 import com.fiap.pedidos.interfaces.usecases.IClienteUseCasePort;
 import io.qameta.allure.Description;
@@ -20,12 +24,18 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 public class ClienteControllerTest {
@@ -37,7 +47,7 @@ public class ClienteControllerTest {
     @BeforeEach
     void setup() {
         mock = MockitoAnnotations.openMocks(this);
-        ClienteController clienteController = new ClienteController(clienteUseCasePort);
+        ClienteController clienteController = new ClienteController(clienteUseCasePort, new ObjectMapper());
         mockMvc = MockMvcBuilders.standaloneSetup(clienteController).addFilter((request, response, chain) -> {
             response.setCharacterEncoding("UTF-8");
             chain.doFilter(request, response);
@@ -102,19 +112,63 @@ public class ClienteControllerTest {
 
         @Test
         @Severity(SeverityLevel.NORMAL)
-        @Description("Buscar todos os clientes")
+        @Description("Buscar a primeira página de clientes")
         void deveBuscarTodosOsClientes() throws Exception {
             var cliente = Helper.gerarClienteComTodosDadosEID();
-            when(clienteUseCasePort.bucarTodos()).thenReturn(List.of(cliente));
+            when(clienteUseCasePort.buscarTodos(any(), anyInt())).thenReturn(new PaginaClientes(List.of(cliente), null));
 
-            mockMvc.perform(get("/clientes", cliente.getId()))
+            mockMvc.perform(get("/clientes"))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.[0].id").value(cliente.getId().toString()))
                     .andExpect(jsonPath("$.[0].cpf").value(cliente.getCpf().getCpf()))
                     .andExpect(jsonPath("$.[0].nome").value(cliente.getNome().getNome()))
-                    .andExpect(jsonPath("$.[0].email").value(cliente.getEmail().getEmail()));
+                    .andExpect(jsonPath("$.[0].email").value(cliente.getEmail().getEmail()))
+                    .andExpect(header().doesNotExist(PedidoController.HEADER_PROXIMO_CURSOR));
 
-            verify(clienteUseCasePort, times(1)).bucarTodos();
+            verify(clienteUseCasePort, times(1)).buscarTodos(null, 100);
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Buscar clientes a partir de um cursor e devolver o próximo")
+        void deveBuscarClientesComCursor() throws Exception {
+            var cliente = Helper.gerarClienteComTodosDadosEID();
+            var cursor = new CursorCliente(UUID.randomUUID());
+            var proximoCursor = CursorCliente.de(cliente);
+            when(clienteUseCasePort.buscarTodos(any(), anyInt())).thenReturn(new PaginaClientes(List.of(cliente), proximoCursor));
+
+            mockMvc.perform(get("/clientes")
+                            .queryParam("cursor", cursor.codificar())
+                            .queryParam("pageSize", "1000"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(PedidoController.HEADER_PROXIMO_CURSOR, proximoCursor.codificar()));
+
+            verify(clienteUseCasePort, times(1)).buscarTodos(cursor, 500);
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Exportar todos os clientes em NDJSON, um por linha")
+        void deveExportarTodosOsClientesEmNdjson() throws Exception {
+            var cliente = Helper.gerarClienteComTodosDadosEID();
+            doAnswer(invocation -> {
+                Consumer<Cliente> consumidor = invocation.getArgument(0);
+                consumidor.accept(cliente);
+                consumidor.accept(cliente);
+                return null;
+            }).when(clienteUseCasePort).exportarTodos(any());
+
+            var resultado = mockMvc.perform(get("/clientes/exportacao").accept(MediaType.APPLICATION_NDJSON))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            var linha = new ObjectMapper().writeValueAsString(new ClienteDTO().from(cliente));
+            mockMvc.perform(asyncDispatch(resultado))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                    .andExpect(content().string(linha + "\n" + linha + "\n"));
+
+            verify(clienteUseCasePort, times(1)).exportarTodos(any());
         }
     }
 
@@ -1,14 +1,20 @@
 package com.fiap.pedidos.controllers;
 
+import com.fiap.pedidos.controllers.requestValidations.PedidoItemRequest;
+import com.fiap.pedidos.controllers.requestValidations.PedidoItensRequest;
 import com.fiap.pedidos.controllers.requestValidations.PedidoRequest;
 import com.fiap.pedidos.entities.Cliente;
+import com.fiap.pedidos.entities.CursorPedido;
+import com.fiap.pedidos.entities.PaginaPedidos;
 import com.fiap.pedidos.entities.Pedido;
 import com.fiap.pedidos.entities.PedidoProduto;
 import com.fiap.pedidos.helpers.Helper;
+import com.fiap.pedidos.interfaces.facade.IPainelPedidos;
 import com.fiap.pedidos.interfaces.facade.IServiceAsyncProcessWebhook;
 import com.fiap.pedidos.interfaces.usecases.IClienteUseCasePort;
 import com.fiap.pedidos.interfaces.usecases.IPedidoProdutoUseCasePort;
 import com.fiap.pedidos.interfaces.usecases.IPedidoUseCasePort;
+import com.fiap.pedidos.utils.enums.StatusPedido;
 import com.fiap.pedidos.utils.enums.TipoAtualizacao;
 import io.qameta.allure.Description;
 import io.qameta.allure.Severity;
@@ -23,14 +29,23 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -48,6 +63,9 @@ class PedidoControllerTest {
     @Mock
     private IServiceAsyncProcessWebhook serviceAsyncProcessWebhook;
 
+    @Mock
+    private IPainelPedidos painelPedidos;
+
     @InjectMocks
     private PedidoController pedidoController;
 
@@ -156,6 +174,65 @@ class PedidoControllerTest {
         }
     }
 
+    @Nested
+    class ItensEmLote {
+
+        @Test
+        @Severity(SeverityLevel.BLOCKER)
+        @Description("Adicionar vários itens ao pedido em uma única requisição")
+        void deveAdicionarItensAoPedidoComSucesso() throws Exception {
+            UUID idPedido = UUID.randomUUID();
+            var pedido = Helper.gerarPedidoComIDComClienteComIDEProdutos();
+            var request = new PedidoItensRequest(List.of(
+                    new PedidoItemRequest(UUID.randomUUID(), 2),
+                    new PedidoItemRequest(UUID.randomUUID(), 1)));
+
+            when(pedidoProdutoUseCasePort.adicionarItensNoPedido(any(UUID.class), anyList()))
+                    .thenReturn(pedido);
+
+            mockMvc.perform(post("/pedidos/{idPedido}/itens", idPedido)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(Helper.asJsonString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.idPedido").value(pedido.getIdPedido().toString()));
+
+            verify(pedidoProdutoUseCasePort, times(1))
+                    .adicionarItensNoPedido(eq(idPedido), argThat(itens -> itens.size() == 3));
+        }
+
+        @Test
+        @Severity(SeverityLevel.BLOCKER)
+        @Description("Remover vários itens do pedido em uma única requisição")
+        void deveRemoverItensDoPedidoComSucesso() throws Exception {
+            UUID idPedido = UUID.randomUUID();
+            var pedido = Helper.gerarPedidoComIDComClienteComIDEProdutos();
+            var request = new PedidoItensRequest(List.of(new PedidoItemRequest(UUID.randomUUID(), 2)));
+
+            when(pedidoProdutoUseCasePort.removerItensDoPedido(any(UUID.class), anyList()))
+                    .thenReturn(pedido);
+
+            mockMvc.perform(delete("/pedidos/{idPedido}/itens", idPedido)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(Helper.asJsonString(request)))
+                    .andExpect(status().isOk());
+
+            verify(pedidoProdutoUseCasePort, times(1))
+                    .removerItensDoPedido(eq(idPedido), argThat(itens -> itens.size() == 2));
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Rejeitar requisição em lote sem itens")
+        void deveRejeitarRequisicaoSemItens() throws Exception {
+            mockMvc.perform(post("/pedidos/{idPedido}/itens", UUID.randomUUID())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(Helper.asJsonString(new PedidoItensRequest(List.of()))))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(pedidoProdutoUseCasePort);
+        }
+    }
+
     @Nested
     class FinalizarPedido {
 
@@ -206,12 +283,51 @@ class PedidoControllerTest {
             pedidoRequest.setIdCliente(UUID.randomUUID());
             var pedido = Helper.gerarPedidoComIDComClienteComIDEProdutos();
 
-            when(pedidoUseCasePort.buscarTodos(anyInt(), anyInt())).thenReturn(List.of(pedido));
+            when(pedidoUseCasePort.buscarTodos(any(), anyInt())).thenReturn(new PaginaPedidos(List.of(pedido), null));
 
             mockMvc.perform(get("/pedidos"))
-                    .andExpect(status().isOk());
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(PedidoController.HEADER_PROXIMO_CURSOR));
 
-            verify(pedidoUseCasePort, times(1)).buscarTodos(anyInt(),anyInt());
+            verify(pedidoUseCasePort, times(1)).buscarTodos(null, 100);
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Buscar pedidos a partir de um cursor e devolver o próximo")
+        void deveBuscarPedidosComCursor() throws Exception {
+            var pedido = Helper.gerarPedidoComIDComClienteComIDEProdutos();
+            var cursor = new CursorPedido(StatusPedido.E.getOrdemListagem(), new Date(), UUID.randomUUID());
+            var proximoCursor = new CursorPedido(StatusPedido.R.getOrdemListagem(), new Date(), pedido.getIdPedido());
+
+            when(pedidoUseCasePort.buscarTodos(any(), anyInt())).thenReturn(new PaginaPedidos(List.of(pedido), proximoCursor));
+
+            mockMvc.perform(get("/pedidos")
+                            .queryParam("cursor", cursor.codificar())
+                            .queryParam("pageSize", "1000"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(PedidoController.HEADER_PROXIMO_CURSOR, proximoCursor.codificar()));
+
+            verify(pedidoUseCasePort, times(1)).buscarTodos(cursor, 500);
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Acompanhar o painel de pedidos recebendo o snapshot da listagem")
+        void deveInscreverNoPainelComSnapshotDaListagem() throws Exception {
+            var pedido = Helper.gerarPedidoComIDComClienteComIDEProdutos();
+            when(pedidoUseCasePort.buscarTodos(any(), anyInt())).thenReturn(new PaginaPedidos(List.of(pedido), null));
+            when(painelPedidos.inscrever(any())).thenAnswer(invocation -> {
+                Supplier<?> snapshot = invocation.getArgument(0);
+                assertThat((List<?>) snapshot.get()).hasSize(1);
+                return new SseEmitter();
+            });
+
+            mockMvc.perform(get("/pedidos/painel").accept(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(request().asyncStarted());
+
+            verify(painelPedidos, times(1)).inscrever(any());
+            verify(pedidoUseCasePort, times(1)).buscarTodos(null, 500);
         }
 
         @Test
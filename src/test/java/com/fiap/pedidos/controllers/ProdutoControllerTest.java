@@ -2,7 +2,9 @@ package com.fiap.pedidos.controllers;
 
 import com.fiap.pedidos.adapters.ProdutoDTO;
 import com.fiap.pedidos.controllers.requestValidations.ProdutoRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fiap.pedidos.entities.Produto;
+import com.fiap.pedidos.facade.CardapioSerializado;
 import com.fiap.pedidos.helpers.Helper;
 import com.fiap.pedidos.interfaces.usecases.IClienteUseCasePort;
 import com.fiap.pedidos.interfaces.usecases.IProdutoUseCasePort;
@@ -18,6 +20,7 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -35,6 +38,8 @@ import java.util.UUID;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -47,7 +52,7 @@ public class ProdutoControllerTest {
     @BeforeEach
     void setup() {
         mock = MockitoAnnotations.openMocks(this);
-        ProdutoController produtoController = new ProdutoController(produtoUseCasePort);
+        ProdutoController produtoController = new ProdutoController(produtoUseCasePort, new CardapioSerializado(new ObjectMapper()));
         mockMvc = MockMvcBuilders.standaloneSetup(produtoController).addFilter((request, response, chain) -> {
             response.setCharacterEncoding("UTF-8");
             chain.doFilter(request, response);
@@ -80,6 +85,41 @@ public class ProdutoControllerTest {
             verify(produtoUseCasePort, times(1))
                     .listarProdutosPorTipoProduto(any(TipoProduto.class));
         }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Buscar produtos retornando ETag e 304 quando o cardápio não mudou")
+        void deveRetornarNaoModificado_QuandoEtagCorresponde() throws Exception {
+            var produtos = List.of(Helper.gerarProdutoBebida());
+
+            when(produtoUseCasePort.listarProdutosPorTipoProduto(any(TipoProduto.class)))
+                    .thenReturn(produtos);
+
+            var etag = mockMvc.perform(get("/produtos")
+                            .queryParam("tipo_produto", TipoProduto.BEBIDA.getCodigo()))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists(HttpHeaders.ETAG))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            mockMvc.perform(get("/produtos")
+                            .queryParam("tipo_produto", TipoProduto.BEBIDA.getCodigo())
+                            .header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, etag))
+                    .andExpect(content().bytes(new byte[0]));
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Buscar produtos de um tipo sem produtos cadastrados")
+        void deveRetornarSemConteudo_QuandoNaoHaProdutos() throws Exception {
+            when(produtoUseCasePort.listarProdutosPorTipoProduto(any(TipoProduto.class)))
+                    .thenReturn(List.of());
+
+            mockMvc.perform(get("/produtos")
+                            .queryParam("tipo_produto", TipoProduto.SOBREMESA.getCodigo()))
+                    .andExpect(status().isNoContent());
+        }
     }
 
     @Nested
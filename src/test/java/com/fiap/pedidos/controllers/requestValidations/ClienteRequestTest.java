@@ -45,21 +45,21 @@ class ClienteRequestTest {
         void deveCriarClienteAPartirDeClienteRequestValido() {
             ClienteRequest clienteRequest = new ClienteRequest();
             clienteRequest.setNome("John Doe");
-            clienteRequest.setCpf("11111111111");
+            clienteRequest.setCpf("86288366757");
             clienteRequest.setEmail("john.doe@example.com");
 
             Cliente cliente = clienteRequest.from(clienteRequest);
 
             assertThat(cliente).isNotNull();
             assertThat(cliente.getNome()).isEqualToComparingFieldByField(new Nome("John Doe"));
-            assertThat(cliente.getCpf()).isEqualToComparingFieldByField(new Cpf("11111111111"));
+            assertThat(cliente.getCpf()).isEqualToComparingFieldByField(new Cpf("86288366757"));
             assertThat(cliente.getEmail()).isEqualToComparingFieldByField(new Email("john.doe@example.com"));
 
             assertThat(cliente.getEmail().hashCode()).isEqualTo(new Email("john.doe@example.com").hashCode());
             assertThat(cliente.getEmail().equals(new Email("john.doe@example.com"))).isTrue();
 
-            assertThat(cliente.getCpf().hashCode()).isEqualTo(new Cpf("11111111111").hashCode());
-            assertThat(cliente.getCpf().equals(new Cpf("11111111111"))).isTrue();
+            assertThat(cliente.getCpf().hashCode()).isEqualTo(new Cpf("86288366757").hashCode());
+            assertThat(cliente.getCpf().equals(new Cpf("86288366757"))).isTrue();
         }
 
         @Test
@@ -99,7 +99,7 @@ class ClienteRequestTest {
         void deveFalhar_AoCriarClienteAPartirDeClienteRequestComEmailInvalido() {
             ClienteRequest clienteRequest = new ClienteRequest();
             clienteRequest.setNome("John Doe");
-            clienteRequest.setCpf("11111111111");
+            clienteRequest.setCpf("86288366757");
             clienteRequest.setEmail("john.doe");
 
             assertThatThrownBy(() ->  clienteRequest.from(clienteRequest))
@@ -113,7 +113,7 @@ class ClienteRequestTest {
         void deveFalhar_AoCriarClienteAPartirDeClienteRequestComNomeInvalido() {
             ClienteRequest clienteRequest = new ClienteRequest();
             clienteRequest.setNome(null);
-            clienteRequest.setCpf("11111111111");
+            clienteRequest.setCpf("86288366757");
             clienteRequest.setEmail("john.doe@gmail.com");
 
             assertThatThrownBy(() ->  clienteRequest.from(clienteRequest))
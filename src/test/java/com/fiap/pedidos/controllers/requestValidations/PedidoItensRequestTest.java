@@ -0,0 +1,49 @@
+package com.fiap.pedidos.controllers.requestValidations;
+
+import com.fiap.pedidos.entities.PedidoProduto;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PedidoItensRequestTest {
+
+    @Nested
+    class CriarPedidoProdutos {
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @DisplayName("Deve gerar um PedidoProduto para cada unidade solicitada")
+        void deveGerarUmPedidoProdutoPorUnidade() {
+            UUID idPedido = UUID.randomUUID();
+            UUID idLanche = UUID.randomUUID();
+            UUID idBebida = UUID.randomUUID();
+            PedidoItensRequest request = new PedidoItensRequest(List.of(
+                    new PedidoItemRequest(idLanche, 2),
+                    new PedidoItemRequest(idBebida, 1)));
+
+            List<PedidoProduto> pedidoProdutos = request.from(request, idPedido);
+
+            assertThat(pedidoProdutos).hasSize(3);
+            assertThat(pedidoProdutos).allMatch(pedidoProduto -> pedidoProduto.getPedidoId().equals(idPedido));
+            assertThat(pedidoProdutos).extracting(PedidoProduto::getProdutoId)
+                    .containsExactly(idLanche, idLanche, idBebida);
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @DisplayName("Deve considerar quantidade 1 quando não informada")
+        void deveConsiderarQuantidadePadrao() {
+            PedidoItemRequest item = new PedidoItemRequest();
+            item.setIdProduto(UUID.randomUUID());
+            PedidoItensRequest request = new PedidoItensRequest(List.of(item));
+
+            assertThat(request.from(request, UUID.randomUUID())).hasSize(1);
+        }
+    }
+}
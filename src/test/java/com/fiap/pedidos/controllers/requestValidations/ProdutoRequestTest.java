@@ -37,7 +37,7 @@ class ProdutoRequestTest {
             assertThat(produto.getNomeProduto()).isEqualTo(new NomeProduto("Nome do Produto"));
             assertThat(produto.getDescricaoProduto()).isEqualTo(new DescricaoProduto("Descrição do Produto"));
             assertThat(produto.getTipoProduto()).isEqualTo(TipoProduto.BEBIDA);
-            assertThat(produto.getValorProduto()).isEqualTo(new ValorProduto(BigDecimal.TEN));
+            assertThat(produto.getValorProduto()).isEqualTo(new ValorProduto(1000L));
         }
 
         @Test
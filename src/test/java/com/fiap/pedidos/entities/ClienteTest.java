@@ -10,7 +10,7 @@ class ClienteTest {
     void testEqualsAndHashCode() {
         UUID id = UUID.randomUUID();
         Nome nome = new Nome("Sobrenome 123");
-        Cpf cpf = new Cpf("11111111111");
+        Cpf cpf = new Cpf("86288366757");
         Email email = new Email("cliente@example.com");
 
         Cliente cliente1 = new Cliente(id, nome, cpf, email);
@@ -26,7 +26,7 @@ class ClienteTest {
     void testToString() {
         UUID id = UUID.randomUUID();
         Nome nome = new Nome("Primeiro 123");
-        Cpf cpf = new Cpf("11111111111");
+        Cpf cpf = new Cpf("86288366757");
         Email email = new Email("cliente@example.com");
 
         Cliente cliente = new Cliente(id, nome, cpf, email);
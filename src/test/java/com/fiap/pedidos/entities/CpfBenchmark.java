@@ -0,0 +1,115 @@
+package com.fiap.pedidos.entities;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.InputMismatchException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compara a validação do CPF em passo único com a implementação anterior, baseada em regex, e a chave numérica
+ * do cache com a que limpava a String por regex. Não roda com os testes; para executar, com -prof gc para ver
+ * a alocação por operação:
+ * <pre>
+ * mvn -B test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main CpfBenchmark -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CpfBenchmark {
+
+    @Param({"52998224725", "52998224726", "529.982.247-25"})
+    private String valor;
+
+    private Cpf cpf;
+
+    @Setup
+    public void setup() {
+        cpf = new Cpf("52998224725");
+    }
+
+    @Benchmark
+    public long validarEmPassoUnico() {
+        return Cpf.converter(valor);
+    }
+
+    @Benchmark
+    public boolean validarComRegex() {
+        return CpfComRegex.isValid(valor);
+    }
+
+    @Benchmark
+    public long chaveNumerica() {
+        return cpf.getNumero();
+    }
+
+    @Benchmark
+    public String chaveComRegex() {
+        return cpf.getCpf().replaceAll("\\D", "");
+    }
+
+    // Cópia fiel do Cpf.isValid anterior, inclusive da regex, para servir de referência.
+    static final class CpfComRegex {
+
+        private static final Pattern REGEX_CPF_NUMERO_REPETIDO = Pattern.compile("/([0-9])\1{10}/g");
+
+        private CpfComRegex() {}
+
+        static boolean isValid(String cpf) {
+            Matcher matcher = REGEX_CPF_NUMERO_REPETIDO.matcher(cpf);
+            if (matcher.find() || cpf.length() != 11)
+                return(false);
+
+            char dig10, dig11;
+            int sm, i, r, num, peso;
+
+            try {
+                sm = 0;
+                peso = 10;
+                for (i=0; i<9; i++) {
+                    num = (int)(cpf.charAt(i) - 48);
+                    sm = sm + (num * peso);
+                    peso = peso - 1;
+                }
+
+                r = 11 - (sm % 11);
+                if ((r == 10) || (r == 11))
+                    dig10 = '0';
+                else dig10 = (char)(r + 48);
+
+                sm = 0;
+                peso = 11;
+                for(i=0; i<10; i++) {
+                    num = (int)(cpf.charAt(i) - 48);
+                    sm = sm + (num * peso);
+                    peso = peso - 1;
+                }
+
+                r = 11 - (sm % 11);
+                if ((r == 10) || (r == 11))
+                    dig11 = '0';
+                else dig11 = (char)(r + 48);
+
+                return (dig10 == cpf.charAt(9)) && (dig11 == cpf.charAt(10));
+            } catch (InputMismatchException erro) {
+                return(false);
+            }
+        }
+    }
+}
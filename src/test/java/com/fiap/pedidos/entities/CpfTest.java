@@ -0,0 +1,70 @@
+package com.fiap.pedidos.entities;
+
+import com.fiap.pedidos.exceptions.entities.CpfInvalidoException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CpfTest {
+
+    @Test
+    void testConstrutorComCpfValido() {
+        Cpf cpf = new Cpf("52998224725");
+
+        assertThat(cpf.getCpf()).isEqualTo("52998224725");
+        assertThat(cpf.getNumero()).isEqualTo(52998224725L);
+        assertThat(cpf.isValid()).isTrue();
+    }
+
+    @Test
+    void testConstrutorComCpfComMascara() {
+        Cpf cpf = new Cpf("529.982.247-25");
+
+        assertThat(cpf.getCpf()).isEqualTo("52998224725");
+        assertThat(cpf).isEqualTo(new Cpf("52998224725"));
+        assertThat(cpf.hashCode()).isEqualTo(new Cpf("52998224725").hashCode());
+    }
+
+    @Test
+    void testConstrutorComCpfIniciadoPorZero() {
+        Cpf cpf = new Cpf("012.345.678-90");
+
+        assertThat(cpf.getCpf()).isEqualTo("01234567890");
+        assertThat(cpf.getNumero()).isEqualTo(1234567890L);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "5299822472", "529982247250", "52998224726", "52998224715", "5299822472a",
+            "529.982.247.25", "529-982-247-25", "529.982.24725", "00000000000", "11111111111", "99999999999",
+            "111.111.111-11"})
+    void testConstrutorComCpfInvalido(String valor) {
+        assertThatThrownBy(() -> new Cpf(valor)).isInstanceOf(CpfInvalidoException.class);
+    }
+
+    @Test
+    void testConstrutorComCpfNulo() {
+        assertThatThrownBy(() -> new Cpf(null)).isInstanceOf(CpfInvalidoException.class);
+    }
+
+    @Test
+    void testNumeroQuandoMontadoPeloCampo() {
+        // Como o Hibernate monta o Cpf: pelo construtor sem argumentos e gravando direto no campo
+        Cpf cpf = new Cpf();
+        ReflectionTestUtils.setField(cpf, "cpf", "52998224725");
+
+        assertThat(cpf.getNumero()).isEqualTo(52998224725L);
+        assertThat(cpf).isEqualTo(new Cpf("52998224725"));
+    }
+
+    @Test
+    void testInicializarVazio() {
+        Cpf cpf = new Cpf();
+
+        assertThat(cpf.getCpf()).isNull();
+        assertThat(cpf.isValid()).isFalse();
+    }
+}
@@ -0,0 +1,47 @@
+package com.fiap.pedidos.entities;
+
+import com.fiap.pedidos.exceptions.entities.CursorInvalidoException;
+import com.fiap.pedidos.helpers.Helper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorClienteTest {
+
+    @Test
+    void deveCodificarEDecodificarCursor() {
+        var cliente = Helper.gerarClienteComTodosDadosEID();
+
+        var cursor = CursorCliente.de(cliente);
+        var decodificado = CursorCliente.decodificar(cursor.codificar());
+
+        assertThat(decodificado).isEqualTo(cursor);
+        assertThat(decodificado.getIdCliente()).isEqualTo(cliente.getId());
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoTokenNaoEBase64() {
+        assertThatThrownBy(() -> CursorCliente.decodificar("%%%"))
+                .isInstanceOf(CursorInvalidoException.class)
+                .hasMessage("Cursor de paginação inválido");
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoTokenNaoEUmId() {
+        var token = Base64.getUrlEncoder().encodeToString("abc".getBytes());
+
+        assertThatThrownBy(() -> CursorCliente.decodificar(token))
+                .isInstanceOf(CursorInvalidoException.class);
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoClienteNaoTemId() {
+        var cliente = Helper.gerarClienteComTodosDados();
+
+        assertThatThrownBy(() -> CursorCliente.de(cliente))
+                .isInstanceOf(CursorInvalidoException.class);
+    }
+}
@@ -0,0 +1,53 @@
+package com.fiap.pedidos.entities;
+
+import com.fiap.pedidos.exceptions.entities.CursorInvalidoException;
+import com.fiap.pedidos.helpers.Helper;
+import com.fiap.pedidos.utils.enums.StatusPedido;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorPedidoTest {
+
+    @Test
+    void deveCodificarEDecodificarCursor() {
+        var pedido = Helper.gerarPedidoComIDComClienteComIDEProdutos();
+        pedido.setDataInclusao(new Date());
+
+        var cursor = CursorPedido.de(pedido);
+        var decodificado = CursorPedido.decodificar(cursor.codificar());
+
+        assertThat(decodificado).isEqualTo(cursor);
+        assertThat(decodificado.getOrdemStatus()).isEqualTo(StatusPedido.A.getOrdemListagem());
+        assertThat(decodificado.getIdPedido()).isEqualTo(pedido.getIdPedido());
+        assertThat(decodificado.getDataInclusao()).isEqualTo(pedido.getDataInclusao());
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoTokenNaoEBase64() {
+        assertThatThrownBy(() -> CursorPedido.decodificar("%%%"))
+                .isInstanceOf(CursorInvalidoException.class)
+                .hasMessage("Cursor de paginação inválido");
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoTokenTemFormatoInvalido() {
+        var token = Base64.getUrlEncoder().encodeToString(("1:abc:" + UUID.randomUUID()).getBytes());
+
+        assertThatThrownBy(() -> CursorPedido.decodificar(token))
+                .isInstanceOf(CursorInvalidoException.class);
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoPedidoNaoTemDataDeInclusao() {
+        var pedido = Helper.gerarPedidoComIDComClienteComIDEProdutos();
+
+        assertThatThrownBy(() -> CursorPedido.de(pedido))
+                .isInstanceOf(CursorInvalidoException.class);
+    }
+}
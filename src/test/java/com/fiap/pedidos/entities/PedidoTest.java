@@ -4,7 +4,6 @@ import com.fiap.pedidos.entities.Produto;
 import com.fiap.pedidos.helpers.Helper;
 import com.fiap.pedidos.utils.enums.StatusPedido;
 import org.junit.jupiter.api.Test;
-import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
@@ -19,12 +18,12 @@ class PedidoTest {
         Cliente cliente = new Cliente();
         List<Produto> produtos = Arrays.asList(new Produto(), new Produto());
         StatusPedido statusPedido = StatusPedido.A;
-        BigDecimal valorPedido = new BigDecimal("50.00");
+        long valorPedido = 5000L;
         Date dataInclusao = new Date();
         Date dataAtualizacao = new Date();
 
-        Pedido pedido1 = new Pedido(idPedido, cliente, produtos, statusPedido, valorPedido, dataInclusao, dataAtualizacao);
-        Pedido pedido2 = new Pedido(idPedido, cliente, produtos, statusPedido, valorPedido, dataInclusao, dataAtualizacao);
+        Pedido pedido1 = new Pedido(idPedido, cliente, produtos, statusPedido, valorPedido, dataInclusao, dataAtualizacao, 0L);
+        Pedido pedido2 = new Pedido(idPedido, cliente, produtos, statusPedido, valorPedido, dataInclusao, dataAtualizacao, 0L);
 
         assertThat(pedido1).isEqualTo(pedido2);
         assertThat(pedido1.hashCode()).isEqualTo(pedido2.hashCode());
@@ -34,7 +33,7 @@ class PedidoTest {
     void testInicializarVazio() {
         Pedido pedido = new Pedido();
         assertThat(pedido.getIdPedido()).isNull();
-        assertThat(pedido.getValorPedido()).isNull();
+        assertThat(pedido.getValorPedido()).isZero();
         assertThat(pedido.getCliente()).isNull();
         assertThat(pedido.getProdutos()).isNull();
     }
@@ -45,10 +44,10 @@ class PedidoTest {
         Cliente cliente = Helper.gerarClienteComTodosDadosEID();
         List<Produto> produtos = Arrays.asList(Helper.gerarProdutoBebida(), Helper.gerarProdutoBebida());
         StatusPedido statusPedido = StatusPedido.A;
-        BigDecimal valorPedido = new BigDecimal("50.00");
+        long valorPedido = 5000L;
 
-        Pedido pedido = new Pedido(idPedido, cliente, produtos, statusPedido, valorPedido, null, null);
+        Pedido pedido = new Pedido(idPedido, cliente, produtos, statusPedido, valorPedido, null, null, null);
 
-        assertThat(pedido.toString()).contains(idPedido.toString(), cliente.toString(), produtos.toString(), statusPedido.toString(), valorPedido.toString());
+        assertThat(pedido.toString()).contains(idPedido.toString(), cliente.toString(), produtos.toString(), statusPedido.toString(), String.valueOf(valorPedido));
     }
 }
@@ -3,7 +3,6 @@ package com.fiap.pedidos.entities;
 import com.fiap.pedidos.utils.enums.TipoProduto;
 import org.junit.jupiter.api.Test;
 
-import java.math.BigDecimal;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -16,7 +15,7 @@ class ProdutoTest {
         NomeProduto nomeProduto = new NomeProduto("Produto A");
         DescricaoProduto descricaoProduto = new DescricaoProduto("Descrição do Produto A");
         TipoProduto tipoProduto = TipoProduto.BEBIDA;
-        ValorProduto valorProduto = new ValorProduto(BigDecimal.TEN);
+        ValorProduto valorProduto = new ValorProduto(1000L);
         Boolean ativo = true;
 
         Produto produto1 = new Produto(idProduto, nomeProduto, descricaoProduto, tipoProduto, valorProduto, ativo);
@@ -41,7 +40,7 @@ class ProdutoTest {
         NomeProduto nomeProduto = new NomeProduto("Produto B");
         DescricaoProduto descricaoProduto = new DescricaoProduto("Descrição do Produto B");
         TipoProduto tipoProduto = TipoProduto.BEBIDA;
-        ValorProduto valorProduto = new ValorProduto(BigDecimal.TEN);
+        ValorProduto valorProduto = new ValorProduto(1000L);
         Boolean ativo = false;
 
         Produto produto = new Produto(idProduto, nomeProduto, descricaoProduto, tipoProduto, valorProduto, ativo);
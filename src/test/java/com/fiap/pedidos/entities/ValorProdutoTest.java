@@ -9,8 +9,8 @@ class ValorProdutoTest {
 
     @Test
     void testEqualsAndHashCode() {
-        ValorProduto produto1 = new ValorProduto(new BigDecimal("10.50"));
-        ValorProduto produto2 = new ValorProduto(new BigDecimal("10.50"));
+        ValorProduto produto1 = new ValorProduto(1050L);
+        ValorProduto produto2 = ValorProduto.deReais(new BigDecimal("10.50"));
 
         assertThat(produto1).isEqualTo(produto2);
         assertThat(produto1.hashCode()).isEqualTo(produto2.hashCode());
@@ -18,27 +18,42 @@ class ValorProdutoTest {
 
     @Test
     void testToString() {
-        ValorProduto produto = new ValorProduto(new BigDecimal("25.75"));
-        assertThat(produto.toString()).contains("25.75");
+        ValorProduto produto = new ValorProduto(2575L);
+        assertThat(produto.toString()).contains("2575");
     }
 
     @Test
     void testInicializarVazio() {
         ValorProduto produto = new ValorProduto();
-        assertThat(produto.getValorProduto()).isNull();
+        assertThat(produto.getCentavos()).isZero();
     }
 
 
     @Test
     void testConstrutorComValorValido() {
-        ValorProduto produto = new ValorProduto(new BigDecimal("30.00"));
-        assertThat(produto.getValorProduto()).isEqualByComparingTo(new BigDecimal("30.00"));
+        ValorProduto produto = ValorProduto.deReais(new BigDecimal("30.00"));
+        assertThat(produto.getCentavos()).isEqualTo(3000L);
+        assertThat(produto.emReais()).isEqualByComparingTo(new BigDecimal("30.00"));
+    }
+
+    @Test
+    void testConverterValorComMenosCasasDecimais() {
+        assertThat(ValorProduto.deReais(new BigDecimal("5")).getCentavos()).isEqualTo(500L);
+        assertThat(ValorProduto.deReais(new BigDecimal("5.5")).getCentavos()).isEqualTo(550L);
+        assertThat(ValorProduto.emReais(550L)).isEqualTo(new BigDecimal("5.50"));
     }
 
     @Test
     void testConstrutorComValorNulo() {
         assertThrows(ValorProdutoInvalidoException.class, () -> {
-            new ValorProduto(null);
+            ValorProduto.deReais(null);
+        });
+    }
+
+    @Test
+    void testConstrutorComFracaoDeCentavo() {
+        assertThrows(ValorProdutoInvalidoException.class, () -> {
+            ValorProduto.deReais(new BigDecimal("10.005"));
         });
     }
 }
@@ -2,6 +2,7 @@ package com.fiap.pedidos.exceptions.handlers;
 import com.fiap.pedidos.exceptions.entities.*;
 import com.fiap.pedidos.exceptions.handlers.PedidoExceptionHandler;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockHttpServletRequest;
@@ -31,4 +32,25 @@ class PedidoExceptionHandlerTest {
         assertThat(res).isInstanceOf(ResponseEntity.class);
         assertThat(res.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
     }
+
+    @Test
+    void deveGerarExcecao_QuandoCursorInvalido() {
+        var exception = new CursorInvalidoException();
+        var req = new MockHttpServletRequest();
+        var res = handler.cursorInvalido(exception, req);
+
+        assertThat(res).isInstanceOf(ResponseEntity.class);
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoWebhookSobrecarregado() {
+        var exception = new WebhookSobrecarregadoException(5);
+        var req = new MockHttpServletRequest();
+        var res = handler.webhookSobrecarregado(exception, req);
+
+        assertThat(res).isInstanceOf(ResponseEntity.class);
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(res.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("5");
+    }
 }
@@ -0,0 +1,59 @@
+package com.fiap.pedidos.facade;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.pedidos.helpers.Helper;
+import com.fiap.pedidos.utils.enums.TipoProduto;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CardapioSerializadoTest {
+
+    private final CardapioSerializado cardapioSerializado = new CardapioSerializado(new ObjectMapper());
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Reaproveitar o corpo serializado enquanto a lista do catálogo é a mesma")
+    void deveReaproveitarCorpo_QuandoListaNaoMudou() {
+        var produtos = List.of(Helper.gerarProdutoLanche());
+
+        var primeiro = cardapioSerializado.obter(TipoProduto.LANCHE, produtos);
+        var segundo = cardapioSerializado.obter(TipoProduto.LANCHE, produtos);
+
+        assertThat(segundo).isSameAs(primeiro);
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Manter o ETag quando o conteúdo recarregado é igual e trocar quando muda")
+    void deveGerarEtagPeloConteudo() {
+        var lanche = Helper.gerarProdutoLanche();
+
+        var original = cardapioSerializado.obter(TipoProduto.LANCHE, List.of(lanche));
+        var recarregado = cardapioSerializado.obter(TipoProduto.LANCHE, new ArrayList<>(List.of(lanche)));
+        var alterado = cardapioSerializado.obter(TipoProduto.LANCHE, List.of(lanche, Helper.gerarProdutoLanche()));
+
+        assertThat(recarregado).isNotSameAs(original);
+        assertThat(recarregado.etag()).isEqualTo(original.etag());
+        assertThat(alterado.etag()).isNotEqualTo(original.etag());
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Comparar If-None-Match com listas, ETag fraco e curinga")
+    void deveCompararIfNoneMatch() {
+        var cardapio = cardapioSerializado.obter(TipoProduto.BEBIDA, List.of(Helper.gerarProdutoBebida()));
+
+        assertThat(cardapio.correspondeA(null)).isFalse();
+        assertThat(cardapio.correspondeA("\"outro\"")).isFalse();
+        assertThat(cardapio.correspondeA("\"outro\", " + cardapio.etag())).isTrue();
+        assertThat(cardapio.correspondeA("W/" + cardapio.etag())).isTrue();
+        assertThat(cardapio.correspondeA("*")).isTrue();
+    }
+}
@@ -1,5 +1,6 @@
 package com.fiap.pedidos.facade;
 
+import com.fiap.pedidos.interfaces.facade.IPublicadorEventosPedido;
 import com.fiap.pedidos.interfaces.gateways.*;
 import com.fiap.pedidos.interfaces.usecases.IClienteUseCasePort;
 import com.fiap.pedidos.interfaces.usecases.IPedidoProdutoUseCasePort;
@@ -32,10 +33,10 @@ class ConfigurationContextFacadeTest {
     private IPagamentoRepositoryPort pagamentoRepositoryPort;
 
     @Mock
-    private IFilaRepositoryPort filaRepositoryPort;
+    private IClienteRepositoryPort clienteRepositoryPort;
 
     @Mock
-    private IClienteRepositoryPort clienteRepositoryPort;
+    private IPublicadorEventosPedido publicadorEventosPedido;
 
 
     AutoCloseable mock;
@@ -65,7 +66,8 @@ class ConfigurationContextFacadeTest {
         @Description("Inicializar PedidoUseCase")
         void inicializarPedidoUseCasePort() {
             IPedidoUseCasePort pedidoUseCasePort = new ConfigurationContext()
-                    .pedidoUseCasePort(pedidoProdutoRepositoryPort, pedidoRepositoryPort, pagamentoRepositoryPort, filaRepositoryPort);
+                    .pedidoUseCasePort(pedidoProdutoRepositoryPort, pedidoRepositoryPort, pagamentoRepositoryPort,
+                            publicadorEventosPedido);
             assertThat(pedidoUseCasePort).isNotNull();
         }
 
@@ -0,0 +1,110 @@
+package com.fiap.pedidos.facade;
+
+import com.fiap.pedidos.exceptions.entities.WebhookSobrecarregadoException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExecutorWebhookTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch liberar = new CountDownLatch(1);
+    private ExecutorWebhook executorWebhook;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        liberar.countDown();
+        if (executorWebhook != null) {
+            executorWebhook.destroy();
+        }
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Recusar webhooks quando execução e fila estão cheias")
+    void deveRecusarWebhook_QuandoCapacidadeEsgotada() throws Exception {
+        executorWebhook = new ExecutorWebhook(meterRegistry, "plataforma", 1, 1, Duration.ofSeconds(7));
+        var iniciou = new CountDownLatch(1);
+
+        executorWebhook.executar(() -> {
+            iniciou.countDown();
+            aguardarLiberacao();
+        });
+        assertThat(iniciou.await(5, TimeUnit.SECONDS)).isTrue();
+        executorWebhook.executar(this::aguardarLiberacao);
+
+        assertThat(executorWebhook.getEmExecucao()).isEqualTo(1);
+        assertThat(executorWebhook.getEmFila()).isEqualTo(1);
+        assertThatThrownBy(() -> executorWebhook.executar(() -> {}))
+                .isInstanceOf(WebhookSobrecarregadoException.class)
+                .extracting("segundosParaNovaTentativa").isEqualTo(7L);
+        assertThat(meterRegistry.get("webhook.rejeicoes").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("webhook.fila").gauge().value()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("webhook.em.execucao").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Liberar capacidade e registrar o tempo de processamento ao concluir os webhooks")
+    void deveLiberarCapacidade_AoConcluirWebhooks() throws Exception {
+        executorWebhook = new ExecutorWebhook(meterRegistry, "plataforma", 1, 0, Duration.ofSeconds(5));
+        var concluido = new CountDownLatch(2);
+
+        executorWebhook.executar(() -> {
+            throw new IllegalStateException("falha no processamento");
+        });
+        aguardarCapacidade();
+        executorWebhook.executar(concluido::countDown);
+        aguardarCapacidade();
+        executorWebhook.executar(concluido::countDown);
+
+        assertThat(concluido.await(5, TimeUnit.SECONDS)).isTrue();
+        aguardarCapacidade();
+        assertThat(meterRegistry.get("webhook.processamento").timer().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("webhook.rejeicoes").counter().count()).isZero();
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Limitar a concorrência também quando configurado com threads virtuais")
+    void deveLimitarConcorrencia_ComThreadsVirtuais() throws Exception {
+        executorWebhook = new ExecutorWebhook(meterRegistry, ExecutorWebhook.TIPO_VIRTUAL, 1, 1, Duration.ofSeconds(5));
+        var iniciou = new CountDownLatch(1);
+
+        executorWebhook.executar(() -> {
+            iniciou.countDown();
+            aguardarLiberacao();
+        });
+        assertThat(iniciou.await(5, TimeUnit.SECONDS)).isTrue();
+        executorWebhook.executar(this::aguardarLiberacao);
+
+        assertThatThrownBy(() -> executorWebhook.executar(() -> {}))
+                .isInstanceOf(WebhookSobrecarregadoException.class);
+        assertThat(executorWebhook.getEmExecucao()).isEqualTo(1);
+    }
+
+    private void aguardarLiberacao() {
+        try {
+            liberar.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void aguardarCapacidade() throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((executorWebhook.getEmExecucao() > 0 || executorWebhook.getEmFila() > 0) && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+    }
+}
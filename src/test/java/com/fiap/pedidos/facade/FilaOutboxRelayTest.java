@@ -0,0 +1,101 @@
+package com.fiap.pedidos.facade;
+
+import com.fiap.pedidos.entities.EnvioFila;
+import com.fiap.pedidos.interfaces.gateways.IFilaOutboxRepositoryPort;
+import com.fiap.pedidos.interfaces.gateways.IFilaRepositoryPort;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class FilaOutboxRelayTest {
+
+    @Mock
+    private IFilaOutboxRepositoryPort filaOutboxRepositoryPort;
+
+    @Mock
+    private IFilaRepositoryPort filaRepositoryPort;
+
+    private FilaOutboxRelay filaOutboxRelay;
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup() {
+        mock = MockitoAnnotations.openMocks(this);
+        filaOutboxRelay = new FilaOutboxRelay(filaOutboxRepositoryPort, filaRepositoryPort,
+                2, Duration.ofMinutes(5), Duration.ofSeconds(2), Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mock.close();
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Enviar pendentes para a fila em lotes até esvaziar o outbox")
+    void deveEnviarPendentesEmLotes() {
+        var primeiro = gerarEnvio(0);
+        var segundo = gerarEnvio(0);
+        var terceiro = gerarEnvio(0);
+
+        when(filaOutboxRepositoryPort.reservarPendentes(anyInt(), any(Date.class)))
+                .thenReturn(List.of(primeiro, segundo))
+                .thenReturn(List.of(terceiro));
+
+        filaOutboxRelay.enviarPendentes();
+
+        verify(filaOutboxRepositoryPort, times(2)).reservarPendentes(eq(2), any(Date.class));
+        verify(filaRepositoryPort, times(3)).inserePedidoNaFila(any(UUID.class), any(UUID.class));
+        verify(filaOutboxRepositoryPort).concluir(primeiro.getIdEnvio());
+        verify(filaOutboxRepositoryPort).concluir(segundo.getIdEnvio());
+        verify(filaOutboxRepositoryPort).concluir(terceiro.getIdEnvio());
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Reagendar envio com espera exponencial quando a fila falha")
+    void deveReagendarEnvio_QuandoFilaFalha() {
+        var envio = gerarEnvio(2);
+
+        when(filaOutboxRepositoryPort.reservarPendentes(anyInt(), any(Date.class))).thenReturn(List.of(envio));
+        doThrow(new RuntimeException("fila indisponível"))
+                .when(filaRepositoryPort).inserePedidoNaFila(any(UUID.class), any(UUID.class));
+
+        long antes = System.currentTimeMillis();
+        filaOutboxRelay.enviarPendentes();
+
+        verify(filaOutboxRepositoryPort, never()).concluir(any(UUID.class));
+        verify(filaOutboxRepositoryPort, times(1)).reagendar(eq(envio.getIdEnvio()), eq(3),
+                argThat(data -> data.getTime() >= antes + 6_400 && data.getTime() <= System.currentTimeMillis() + 8_000));
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Limitar a espera entre tentativas ao máximo configurado")
+    void deveLimitarEsperaEntreTentativas() {
+        assertThat(filaOutboxRelay.calcularEspera(1)).isBetween(Duration.ofMillis(1_600), Duration.ofSeconds(2));
+        assertThat(filaOutboxRelay.calcularEspera(50)).isBetween(Duration.ofMinutes(4), Duration.ofMinutes(5));
+    }
+
+    private static EnvioFila gerarEnvio(int tentativas) {
+        return new EnvioFila(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), tentativas);
+    }
+}
@@ -0,0 +1,143 @@
+package com.fiap.pedidos.facade;
+
+import com.fiap.pedidos.entities.EventoStatusPedido;
+import com.fiap.pedidos.utils.enums.StatusPedido;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PainelPedidosPublisherTest {
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Inscrever painel e agendar o envio do snapshot")
+    void deveInscreverPainelEAgendarSnapshot() {
+        var executor = mock(ExecutorService.class);
+        var publisher = gerarPublisher(executor);
+
+        var emitter = publisher.inscrever(List::of);
+
+        assertThat(emitter).isNotNull();
+        assertThat(publisher.quantidadeAssinantes()).isEqualTo(1);
+        verify(executor, times(1)).execute(any(Runnable.class));
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Desconectar painel lento quando o buffer de eventos enche")
+    void deveDesconectarPainel_QuandoBufferCheio() {
+        var executor = mock(ExecutorService.class);
+        var publisher = gerarPublisher(executor);
+        publisher.inscrever(List::of);
+
+        publisher.aoTransicionar(gerarEvento());
+        assertThat(publisher.quantidadeAssinantes()).isEqualTo(1);
+
+        publisher.aoTransicionar(gerarEvento());
+        assertThat(publisher.quantidadeAssinantes()).isZero();
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Manter painel conectado enquanto ele consome os eventos")
+    void deveManterPainel_QuandoConsomeEventos() {
+        var executor = mock(ExecutorService.class);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(executor).execute(any(Runnable.class));
+        var publisher = gerarPublisher(executor);
+        publisher.inscrever(List::of);
+
+        for (int i = 0; i < 10; i++) {
+            publisher.aoTransicionar(gerarEvento());
+        }
+
+        assertThat(publisher.quantidadeAssinantes()).isEqualTo(1);
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Enviar os eventos ocorridos durante a montagem do snapshot somente depois dele")
+    void deveEnviarEventosSomenteAposSnapshot() {
+        var executor = mock(ExecutorService.class);
+        var publisher = gerarPublisher(executor);
+
+        publisher.inscrever(() -> {
+            publisher.aoTransicionar(gerarEvento());
+            verify(executor, never()).execute(any(Runnable.class));
+            return List.of();
+        });
+
+        assertThat(publisher.quantidadeAssinantes()).isEqualTo(1);
+        verify(executor, times(1)).execute(any(Runnable.class));
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Remover o painel quando a montagem do snapshot falha")
+    void deveRemoverPainel_QuandoSnapshotFalha() {
+        var executor = mock(ExecutorService.class);
+        var publisher = gerarPublisher(executor);
+
+        assertThatThrownBy(() -> publisher.inscrever(() -> {
+            throw new IllegalStateException("falha ao consultar os pedidos");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(publisher.quantidadeAssinantes()).isZero();
+        verify(executor, never()).execute(any(Runnable.class));
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Manter painel sem envio em andamento na verificação de envios travados")
+    void deveManterPainel_QuandoNaoHaEnvioEmAndamento() {
+        var executor = mock(ExecutorService.class);
+        var publisher = new PainelPedidosPublisher(2, Duration.ofMinutes(1), Duration.ZERO,
+                mock(ScheduledExecutorService.class), executor);
+        publisher.inscrever(List::of);
+
+        publisher.desconectarEnviosTravados();
+
+        assertThat(publisher.quantidadeAssinantes()).isEqualTo(1);
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Desconectar todos os painéis ao encerrar a aplicação")
+    void deveDesconectarPaineis_AoEncerrar() {
+        var agendador = mock(ScheduledExecutorService.class);
+        var executor = mock(ExecutorService.class);
+        var publisher = new PainelPedidosPublisher(2, Duration.ofMinutes(1), Duration.ofSeconds(10), agendador, executor);
+        publisher.inscrever(List::of);
+        publisher.inscrever(List::of);
+
+        publisher.destroy();
+
+        assertThat(publisher.quantidadeAssinantes()).isZero();
+        verify(agendador, times(1)).shutdownNow();
+        verify(executor, times(1)).shutdownNow();
+    }
+
+    private static PainelPedidosPublisher gerarPublisher(ExecutorService executor) {
+        return new PainelPedidosPublisher(2, Duration.ofMinutes(1), Duration.ofSeconds(10),
+                mock(ScheduledExecutorService.class), executor);
+    }
+
+    private static EventoStatusPedido gerarEvento() {
+        return new EventoStatusPedido(UUID.randomUUID(), StatusPedido.R, StatusPedido.E, new Date());
+    }
+}
@@ -0,0 +1,151 @@
+package com.fiap.pedidos.facade;
+
+import com.fiap.pedidos.entities.CursorPedido;
+import com.fiap.pedidos.entities.Pedido;
+import com.fiap.pedidos.helpers.Helper;
+import com.fiap.pedidos.interfaces.gateways.ITarefaAgendadaRepositoryPort;
+import com.fiap.pedidos.interfaces.usecases.IPedidoUseCasePort;
+import com.fiap.pedidos.utils.enums.StatusPedido;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ReconciliacaoPagamentosTest {
+
+    @Mock
+    private IPedidoUseCasePort pedidoUseCasePort;
+
+    @Mock
+    private ITarefaAgendadaRepositoryPort tarefaAgendadaRepositoryPort;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReconciliacaoPagamentos reconciliacaoPagamentos;
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup() {
+        mock = MockitoAnnotations.openMocks(this);
+        reconciliacaoPagamentos = new ReconciliacaoPagamentos(pedidoUseCasePort, tarefaAgendadaRepositoryPort,
+                meterRegistry, Duration.ofMinutes(5), Duration.ofHours(24), 2, 2, 60_000L, Duration.ofMinutes(10));
+        when(tarefaAgendadaRepositoryPort.reservar(anyString(), any(Date.class))).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        reconciliacaoPagamentos.destroy();
+        mock.close();
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Percorrer os pedidos abertos em lotes e reconciliar cada lote")
+    void deveReconciliarPedidosAbertosEmLotes() {
+        var primeiroLote = List.of(gerarPedidoAberto(), gerarPedidoAberto());
+        var segundoLote = List.of(gerarPedidoAberto());
+
+        when(pedidoUseCasePort.buscarAguardandoPagamento(any(CursorPedido.class), any(Date.class), anyInt()))
+                .thenReturn(primeiroLote)
+                .thenReturn(segundoLote);
+        when(pedidoUseCasePort.reconciliarPagamentos(anyList()))
+                .thenAnswer(invocation -> List.of(invocation.<List<Pedido>>getArgument(0).get(0)));
+
+        reconciliacaoPagamentos.reconciliar();
+
+        verify(pedidoUseCasePort, times(2)).buscarAguardandoPagamento(any(CursorPedido.class), any(Date.class), eq(2));
+        verify(pedidoUseCasePort).buscarAguardandoPagamento(
+                argThat(cursor -> cursor != null && cursor.getIdPedido().equals(primeiroLote.get(1).getIdPedido())),
+                any(Date.class), eq(2));
+        verify(pedidoUseCasePort).reconciliarPagamentos(primeiroLote);
+        verify(pedidoUseCasePort).reconciliarPagamentos(segundoLote);
+        assertThat(meterRegistry.get("reconciliacao.pagamentos.confirmados").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Seguir para os próximos lotes quando um lote falha")
+    void deveContinuar_QuandoLoteFalha() {
+        var primeiroLote = List.of(gerarPedidoAberto(), gerarPedidoAberto());
+        var segundoLote = List.of(gerarPedidoAberto());
+
+        when(pedidoUseCasePort.buscarAguardandoPagamento(any(CursorPedido.class), any(Date.class), anyInt()))
+                .thenReturn(primeiroLote)
+                .thenReturn(segundoLote);
+        when(pedidoUseCasePort.reconciliarPagamentos(primeiroLote)).thenThrow(new IllegalStateException("falha"));
+        when(pedidoUseCasePort.reconciliarPagamentos(segundoLote)).thenReturn(segundoLote);
+
+        reconciliacaoPagamentos.reconciliar();
+
+        verify(pedidoUseCasePort).reconciliarPagamentos(segundoLote);
+        assertThat(meterRegistry.get("reconciliacao.pagamentos.confirmados").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Não reconciliar nada quando não há pedidos abertos")
+    void naoDeveReconciliar_QuandoNaoHaPedidosAbertos() {
+        when(pedidoUseCasePort.buscarAguardandoPagamento(any(CursorPedido.class), any(Date.class), anyInt()))
+                .thenReturn(List.of());
+
+        reconciliacaoPagamentos.reconciliar();
+
+        verify(pedidoUseCasePort, never()).reconciliarPagamentos(anyList());
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Não reconciliar quando outra réplica já reservou a rodada")
+    void naoDeveReconciliar_QuandoOutraReplicaReservou() {
+        when(tarefaAgendadaRepositoryPort.reservar(anyString(), any(Date.class))).thenReturn(false);
+
+        reconciliacaoPagamentos.reconciliar();
+
+        verifyNoInteractions(pedidoUseCasePort);
+        verify(tarefaAgendadaRepositoryPort, never()).liberar(anyString(), any(Date.class), any(Date.class));
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Manter a reserva até o próximo intervalo ao terminar a rodada")
+    void deveManterReservaAteProximoIntervalo_AoTerminar() {
+        when(pedidoUseCasePort.buscarAguardandoPagamento(any(CursorPedido.class), any(Date.class), anyInt()))
+                .thenReturn(List.of());
+
+        long inicio = System.currentTimeMillis();
+        reconciliacaoPagamentos.reconciliar();
+
+        var reservadaAte = ArgumentCaptor.forClass(Date.class);
+        verify(tarefaAgendadaRepositoryPort).reservar(eq(ReconciliacaoPagamentos.TAREFA), reservadaAte.capture());
+        verify(tarefaAgendadaRepositoryPort).liberar(eq(ReconciliacaoPagamentos.TAREFA), eq(reservadaAte.getValue()),
+                argThat(proximaExecucao -> proximaExecucao.getTime() >= inicio + 60_000L));
+        assertThat(reservadaAte.getValue().getTime()).isGreaterThanOrEqualTo(inicio + 600_000L);
+    }
+
+    private static Pedido gerarPedidoAberto() {
+        var pedido = Helper.gerarPedidoComIDComClienteComIDEProdutos();
+        pedido.setStatusPedido(StatusPedido.A);
+        pedido.setDataInclusao(new Date(System.currentTimeMillis() - 600_000L));
+        return pedido;
+    }
+}
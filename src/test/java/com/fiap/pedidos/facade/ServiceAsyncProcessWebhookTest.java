@@ -1,35 +1,43 @@
 package com.fiap.pedidos.facade;
 
+import com.fiap.pedidos.entities.Pedido;
+import com.fiap.pedidos.exceptions.entities.WebhookSobrecarregadoException;
 import com.fiap.pedidos.helpers.Helper;
 import com.fiap.pedidos.interfaces.usecases.IPedidoUseCasePort;
+import com.fiap.pedidos.utils.enums.StatusPedido;
 import com.fiap.pedidos.utils.enums.TipoAtualizacao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.scheduling.annotation.Async;
 
+import java.time.Duration;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 class ServiceAsyncProcessWebhookTest {
 
-    @InjectMocks
     private ServiceAsyncProcessWebhook serviceAsyncProcessWebhook;
 
     @Mock
     private IPedidoUseCasePort pedidoUseCasePort;
 
+    @Mock
+    private ExecutorWebhook executorWebhook;
+
     AutoCloseable mock;
 
     @BeforeEach
     void setup() {
         mock = MockitoAnnotations.openMocks(this);
-        serviceAsyncProcessWebhook = new ServiceAsyncProcessWebhook(pedidoUseCasePort);
+        serviceAsyncProcessWebhook = new ServiceAsyncProcessWebhook(pedidoUseCasePort, executorWebhook,
+                new SimpleMeterRegistry(), 100, Duration.ofMinutes(10));
     }
 
     @AfterEach
@@ -42,12 +50,13 @@ class ServiceAsyncProcessWebhookTest {
     void deveProcessarWebhookEAtualizarPedido() {
         UUID idPedido = UUID.randomUUID();
 
+        executarNaMesmaThread();
         when(pedidoUseCasePort.atualizarPedido(
                 any(UUID.class),
                 any(TipoAtualizacao.class),
                 any(),
                 any()
-        )).thenReturn(Helper.gerarPedidoComCliente());
+        )).thenReturn(gerarPedido(StatusPedido.R));
 
         serviceAsyncProcessWebhook.processarWebhook(idPedido);
 
@@ -56,4 +65,104 @@ class ServiceAsyncProcessWebhookTest {
                         isNull(),
                         isNull());
     }
+
+    @Test
+    @DisplayName("Deve repassar a recusa do executor quando não há capacidade")
+    void deveRecusarWebhook_QuandoExecutorSobrecarregado() {
+        doThrow(new WebhookSobrecarregadoException(5)).when(executorWebhook).executar(any(Runnable.class));
+
+        assertThatThrownBy(() -> serviceAsyncProcessWebhook.processarWebhook(UUID.randomUUID()))
+                .isInstanceOf(WebhookSobrecarregadoException.class);
+
+        verifyNoInteractions(pedidoUseCasePort);
+    }
+
+    @Test
+    @DisplayName("Deve atender com a própria verificação os webhooks recebidos enquanto ela aguarda na fila")
+    void deveAgruparWebhooksEnquantoVerificacaoAguarda() {
+        UUID idPedido = UUID.randomUUID();
+        ArgumentCaptor<Runnable> tarefa = ArgumentCaptor.forClass(Runnable.class);
+
+        when(pedidoUseCasePort.atualizarPedido(any(UUID.class), any(TipoAtualizacao.class), any(), any()))
+                .thenReturn(gerarPedido(StatusPedido.A));
+
+        serviceAsyncProcessWebhook.processarWebhook(idPedido);
+        serviceAsyncProcessWebhook.processarWebhook(idPedido);
+        serviceAsyncProcessWebhook.processarWebhook(idPedido);
+
+        verify(executorWebhook, times(1)).executar(tarefa.capture());
+        tarefa.getValue().run();
+
+        verify(pedidoUseCasePort, times(1))
+                .atualizarPedido(eq(idPedido), eq(TipoAtualizacao.P), isNull(), isNull());
+    }
+
+    @Test
+    @DisplayName("Deve agrupar webhooks recebidos durante a verificação em uma única nova verificação")
+    void deveAgruparWebhooksDuranteVerificacao() {
+        UUID idPedido = UUID.randomUUID();
+        ArgumentCaptor<Runnable> tarefa = ArgumentCaptor.forClass(Runnable.class);
+
+        when(pedidoUseCasePort.atualizarPedido(any(UUID.class), any(TipoAtualizacao.class), any(), any()))
+                .thenAnswer(invocation -> {
+                    serviceAsyncProcessWebhook.processarWebhook(idPedido);
+                    serviceAsyncProcessWebhook.processarWebhook(idPedido);
+                    return gerarPedido(StatusPedido.A);
+                })
+                .thenReturn(gerarPedido(StatusPedido.R));
+
+        serviceAsyncProcessWebhook.processarWebhook(idPedido);
+
+        verify(executorWebhook, times(1)).executar(tarefa.capture());
+        tarefa.getValue().run();
+
+        verify(pedidoUseCasePort, times(2))
+                .atualizarPedido(eq(idPedido), eq(TipoAtualizacao.P), isNull(), isNull());
+    }
+
+    @Test
+    @DisplayName("Deve ignorar webhooks repetidos de pedido com pagamento já confirmado")
+    void deveIgnorarWebhook_QuandoPagamentoJaConfirmado() {
+        UUID idPedido = UUID.randomUUID();
+
+        executarNaMesmaThread();
+        when(pedidoUseCasePort.atualizarPedido(any(UUID.class), any(TipoAtualizacao.class), any(), any()))
+                .thenReturn(gerarPedido(StatusPedido.R));
+
+        serviceAsyncProcessWebhook.processarWebhook(idPedido);
+        serviceAsyncProcessWebhook.processarWebhook(idPedido);
+
+        verify(executorWebhook, times(1)).executar(any(Runnable.class));
+        verify(pedidoUseCasePort, times(1))
+                .atualizarPedido(eq(idPedido), eq(TipoAtualizacao.P), isNull(), isNull());
+    }
+
+    @Test
+    @DisplayName("Deve verificar novamente quando o pagamento ainda não foi confirmado")
+    void deveVerificarNovamente_QuandoPagamentoPendente() {
+        UUID idPedido = UUID.randomUUID();
+
+        executarNaMesmaThread();
+        when(pedidoUseCasePort.atualizarPedido(any(UUID.class), any(TipoAtualizacao.class), any(), any()))
+                .thenReturn(gerarPedido(StatusPedido.A));
+
+        serviceAsyncProcessWebhook.processarWebhook(idPedido);
+        serviceAsyncProcessWebhook.processarWebhook(idPedido);
+
+        verify(pedidoUseCasePort, times(2))
+                .atualizarPedido(eq(idPedido), eq(TipoAtualizacao.P), isNull(), isNull());
+    }
+
+    private void executarNaMesmaThread() {
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(executorWebhook).executar(any(Runnable.class));
+    }
+
+    private static Pedido gerarPedido(StatusPedido statusPedido) {
+        Pedido pedido = Helper.gerarPedidoComIDComClienteComIDEProdutos();
+        pedido.setStatusPedido(statusPedido);
+        return pedido;
+    }
 }
@@ -0,0 +1,56 @@
+package com.fiap.pedidos.facade;
+
+import com.fiap.pedidos.entities.EventoStatusPedido;
+import com.fiap.pedidos.interfaces.facade.IOuvinteTransicaoPedido;
+import com.fiap.pedidos.utils.enums.StatusPedido;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TransicoesPedidoPublisherTest {
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Entregar a transição a todos os ouvintes")
+    void deveEntregarTransicaoATodosOsOuvintes() {
+        var painel = mock(IOuvinteTransicaoPedido.class);
+        var meterRegistry = new SimpleMeterRegistry();
+        var publisher = new TransicoesPedidoPublisher(List.of(painel, new MetricasTransicoesPedido(meterRegistry)));
+        var evento = gerarEvento();
+
+        publisher.publicar(evento);
+
+        verify(painel, times(1)).aoTransicionar(evento);
+        assertThat(meterRegistry.get("pedidos.transicoes").tag("de", "R").tag("para", "E").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Continuar entregando aos demais ouvintes quando um deles falha")
+    void deveContinuar_QuandoOuvinteFalha() {
+        var comFalha = mock(IOuvinteTransicaoPedido.class);
+        var ouvinte = mock(IOuvinteTransicaoPedido.class);
+        doThrow(new IllegalStateException("falha")).when(comFalha).aoTransicionar(any(EventoStatusPedido.class));
+        var publisher = new TransicoesPedidoPublisher(List.of(comFalha, ouvinte));
+        var evento = gerarEvento();
+
+        publisher.publicar(evento);
+
+        verify(ouvinte, times(1)).aoTransicionar(evento);
+    }
+
+    private static EventoStatusPedido gerarEvento() {
+        return new EventoStatusPedido(UUID.randomUUID(), StatusPedido.R, StatusPedido.E, new Date());
+    }
+}
@@ -0,0 +1,78 @@
+package com.fiap.pedidos.facade;
+
+import com.fiap.pedidos.interfaces.gateways.IPedidoRepositoryPort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class VerificacaoValoresPedidosTest {
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Corrigir os pedidos divergentes alterados na janela, antes da margem, e contar as correções")
+    void deveCorrigirPedidosDivergentes() {
+        var pedidoRepositoryPort = mock(IPedidoRepositoryPort.class);
+        var meterRegistry = new SimpleMeterRegistry();
+        var verificacao = gerarVerificacao(pedidoRepositoryPort, meterRegistry, 10);
+        when(pedidoRepositoryPort.corrigirValoresDivergentes(any(Date.class), any(Date.class), anyInt()))
+                .thenReturn(List.of(UUID.randomUUID(), UUID.randomUUID()));
+
+        long inicio = System.currentTimeMillis();
+        assertThat(verificacao.verificar()).isEqualTo(2);
+
+        verify(pedidoRepositoryPort, times(1)).corrigirValoresDivergentes(
+                argThat(alteradosDesde -> alteradosDesde.getTime() <= inicio - 86_400_000L + 1_000L),
+                argThat(alteradosAntes -> alteradosAntes.getTime() <= inicio - 60_000L + 1_000L),
+                eq(10));
+        assertThat(meterRegistry.get("pedidos.valores.corrigidos").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Buscar o próximo lote enquanto os lotes vêm cheios")
+    void deveCorrigirEmLotes_EnquantoLotesCheios() {
+        var pedidoRepositoryPort = mock(IPedidoRepositoryPort.class);
+        var meterRegistry = new SimpleMeterRegistry();
+        var verificacao = gerarVerificacao(pedidoRepositoryPort, meterRegistry, 2);
+        when(pedidoRepositoryPort.corrigirValoresDivergentes(any(Date.class), any(Date.class), anyInt()))
+                .thenReturn(List.of(UUID.randomUUID(), UUID.randomUUID()))
+                .thenReturn(List.of(UUID.randomUUID()));
+
+        assertThat(verificacao.verificar()).isEqualTo(3);
+
+        verify(pedidoRepositoryPort, times(2)).corrigirValoresDivergentes(any(Date.class), any(Date.class), eq(2));
+        assertThat(meterRegistry.get("pedidos.valores.corrigidos").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Não contar correções quando os totais conferem")
+    void naoDeveContar_QuandoNaoHaDivergencias() {
+        var pedidoRepositoryPort = mock(IPedidoRepositoryPort.class);
+        var meterRegistry = new SimpleMeterRegistry();
+        var verificacao = gerarVerificacao(pedidoRepositoryPort, meterRegistry, 10);
+        when(pedidoRepositoryPort.corrigirValoresDivergentes(any(Date.class), any(Date.class), anyInt()))
+                .thenReturn(List.of());
+
+        assertThat(verificacao.verificar()).isZero();
+        assertThat(meterRegistry.get("pedidos.valores.corrigidos").counter().count()).isZero();
+    }
+
+    private static VerificacaoValoresPedidos gerarVerificacao(IPedidoRepositoryPort pedidoRepositoryPort,
+                                                              SimpleMeterRegistry meterRegistry, int lote) {
+        return new VerificacaoValoresPedidos(pedidoRepositoryPort, meterRegistry,
+                Duration.ofMinutes(1), Duration.ofHours(24), lote);
+    }
+}
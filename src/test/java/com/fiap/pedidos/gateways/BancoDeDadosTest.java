@@ -0,0 +1,49 @@
+package com.fiap.pedidos.gateways;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.jdbc.DatabaseDriver;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BancoDeDadosTest {
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Identificar o Postgres pelos metadados da conexão, sem depender do dialeto configurado")
+    void deveIdentificarPostgresPelosMetadados() throws SQLException {
+        assertThat(new BancoDeDados(gerarDataSource("PostgreSQL")).isPostgres()).isTrue();
+        assertThat(new BancoDeDados(gerarDataSource("H2")).isPostgres()).isFalse();
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Impedir a subida com um banco sem as versões dos comandos específicos")
+    void deveLancarExcecao_QuandoBancoNaoSuportado() {
+        assertThatThrownBy(() -> new BancoDeDados(gerarDataSource("MySQL")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("MYSQL");
+        assertThatThrownBy(() -> new BancoDeDados(DatabaseDriver.UNKNOWN))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static DataSource gerarDataSource(String nomeProduto) throws SQLException {
+        var dataSource = mock(DataSource.class);
+        var conexao = mock(Connection.class);
+        var metadados = mock(DatabaseMetaData.class);
+        when(dataSource.getConnection()).thenReturn(conexao);
+        when(conexao.getMetaData()).thenReturn(metadados);
+        when(metadados.getDatabaseProductName()).thenReturn(nomeProduto);
+        return dataSource;
+    }
+}
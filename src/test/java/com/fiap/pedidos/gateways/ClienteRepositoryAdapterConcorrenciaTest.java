@@ -0,0 +1,139 @@
+package com.fiap.pedidos.gateways;
+
+import com.fiap.pedidos.entities.Cliente;
+import com.fiap.pedidos.entities.Cpf;
+import com.fiap.pedidos.gateways.cache.ClienteCache;
+import com.fiap.pedidos.helpers.JpaTestConfiguration;
+import com.fiap.pedidos.interfaces.repositories.ClienteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//Identificação concorrente do mesmo CPF num Postgres descartável, migrado pelo Flyway. Sem Docker o teste é ignorado.
+//Sem transação do teste: cada thread grava na sua própria transação, como os totens
+@DataJpaTest
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ContextConfiguration(classes = {JpaTestConfiguration.class, ClienteRepositoryAdapter.class, ClienteCache.class,
+        ReservaClientesAnonimos.class, SimpleMeterRegistry.class})
+class ClienteRepositoryAdapterConcorrenciaTest {
+
+    private static final int THREADS = 8;
+    private static final int IDENTIFICACOES_POR_THREAD = 10;
+    private static final List<String> CPFS = List.of("52998224725", "11144477735", "12345678909");
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void propriedades(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    @Autowired
+    private ClienteRepositoryAdapter clienteRepositoryAdapter;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setup() {
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        clienteRepository.deleteAll();
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Não duplicar o cliente quando o mesmo CPF é cadastrado concorrentemente")
+    void naoDeveDuplicarCliente_QuandoCpfCadastradoConcorrentemente() throws Exception {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+
+        //Direto no repositório, sem o cache da identificação, para que todas as chamadas cheguem ao banco
+        executarConcorrentemente(() -> {
+            for (int i = 0; i < IDENTIFICACOES_POR_THREAD; i++) {
+                ids.add(clienteRepository.inserirOuBuscarPorCpf(CPFS.get(0))
+                        .or(() -> clienteRepository.findAllByCpf(new Cpf(CPFS.get(0))))
+                        .orElseThrow()
+                        .getId());
+            }
+            return null;
+        });
+
+        assertThat(ids).hasSize(1);
+        assertThat(clienteRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Identificar o mesmo cliente para cada CPF em todos os totens concorrentes")
+    void deveIdentificarMesmoCliente_QuandoIdentificadoConcorrentemente() throws Exception {
+        Set<Cliente> clientes = ConcurrentHashMap.newKeySet();
+
+        executarConcorrentemente(() -> {
+            for (String cpf : CPFS) {
+                clientes.add(clienteRepositoryAdapter.identificarPorCpf(new Cpf(cpf)));
+            }
+            return null;
+        });
+
+        assertThat(clientes).hasSize(CPFS.size());
+        assertThat(clientes).extracting(cliente -> cliente.getCpf().getCpf()).containsExactlyInAnyOrderElementsOf(CPFS);
+        assertThat(clienteRepository.count()).isEqualTo(CPFS.size());
+    }
+
+    private void executarConcorrentemente(Callable<Void> tarefa) throws Exception {
+        var largada = new CountDownLatch(1);
+        List<Future<Void>> execucoes = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            execucoes.add(executor.submit(() -> {
+                largada.await();
+                return tarefa.call();
+            }));
+        }
+        largada.countDown();
+        for (Future<Void> execucao : execucoes) {
+            execucao.get(30, TimeUnit.SECONDS);
+        }
+    }
+}
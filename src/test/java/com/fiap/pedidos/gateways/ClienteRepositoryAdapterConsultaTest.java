@@ -0,0 +1,100 @@
+package com.fiap.pedidos.gateways;
+
+import com.fiap.pedidos.entities.Cliente;
+import com.fiap.pedidos.entities.CursorCliente;
+import com.fiap.pedidos.entities.Cpf;
+import com.fiap.pedidos.gateways.cache.ClienteCache;
+import com.fiap.pedidos.gateways.entities.ClienteEntity;
+import com.fiap.pedidos.helpers.Helper;
+import com.fiap.pedidos.helpers.JpaTestConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@ContextConfiguration(classes = {JpaTestConfiguration.class, ClienteRepositoryAdapter.class, ClienteCache.class,
+        ReservaClientesAnonimos.class, SimpleMeterRegistry.class})
+class ClienteRepositoryAdapterConsultaTest {
+
+    private static final List<String> CPFS = List.of("52998224725", "11144477735", "12345678909", "39053344705",
+            "98765432100");
+
+    @Autowired
+    private ClienteRepositoryAdapter clienteRepositoryAdapter;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        var clienteComTodosDados = Helper.gerarClienteComTodosDados();
+        for (String cpf : CPFS) {
+            entityManager.persist(new ClienteEntity().from(Cliente.builder()
+                    .nome(clienteComTodosDados.getNome())
+                    .cpf(new Cpf(cpf))
+                    .email(clienteComTodosDados.getEmail())
+                    .build()));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Percorrer todos os clientes por cursor, uma consulta por página e sem carregar entidades")
+    void devePercorrerClientesPorCursor() {
+        List<UUID> idsListados = new ArrayList<>();
+        CursorCliente cursor = null;
+        List<Cliente> pagina;
+        do {
+            pagina = clienteRepositoryAdapter.buscarTodos(cursor, 2);
+            pagina.forEach(cliente -> idsListados.add(cliente.getId()));
+            cursor = pagina.isEmpty() ? null : CursorCliente.de(pagina.get(pagina.size() - 1));
+        } while (pagina.size() == 2);
+
+        assertThat(idsListados).hasSize(CPFS.size()).doesNotHaveDuplicates();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Exportar todos os clientes numa única consulta sem carregar entidades")
+    void deveExportarTodosOsClientes() {
+        List<Cliente> exportados = new ArrayList<>();
+
+        clienteRepositoryAdapter.percorrerTodos(exportados::add);
+
+        assertThat(exportados).extracting(cliente -> cliente.getCpf().getCpf()).containsExactlyInAnyOrderElementsOf(CPFS);
+        assertThat(exportados).allSatisfy(cliente -> assertThat(cliente.getNome()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+}
@@ -2,10 +2,15 @@ package com.fiap.pedidos.gateways;
 
 import com.fiap.pedidos.entities.Cliente;
 import com.fiap.pedidos.entities.Cpf;
+import com.fiap.pedidos.entities.CursorCliente;
+import com.fiap.pedidos.exceptions.entities.CpfExistenteException;
+import com.fiap.pedidos.gateways.cache.ClienteCache;
 import com.fiap.pedidos.gateways.entities.ClienteEntity;
+import com.fiap.pedidos.gateways.projecao.ItemCliente;
 import com.fiap.pedidos.helpers.Helper;
 import com.fiap.pedidos.interfaces.gateways.IClienteRepositoryPort;
 import com.fiap.pedidos.interfaces.repositories.ClienteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.qameta.allure.Description;
 import io.qameta.allure.Severity;
 import io.qameta.allure.SeverityLevel;
@@ -15,13 +20,22 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 class ClienteRepositoryAdapterTest {
@@ -36,7 +50,7 @@ class ClienteRepositoryAdapterTest {
     @BeforeEach
     void setup(){
         mock = MockitoAnnotations.openMocks(this);
-        clienteRepositoryAdapter = new ClienteRepositoryAdapter(clienteRepository);
+        clienteRepositoryAdapter = gerarAdapter(DatabaseDriver.H2);
     }
 
     @AfterEach
@@ -44,6 +58,14 @@ class ClienteRepositoryAdapterTest {
         mock.close();
     }
 
+    private IClienteRepositoryPort gerarAdapter(DatabaseDriver driver) {
+        return new ClienteRepositoryAdapter(clienteRepository,
+                new ClienteCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(30), Duration.ofSeconds(30)),
+                new ReservaClientesAnonimos(clienteRepository, new SimpleMeterRegistry(), 10, 5,
+                        Duration.ofHours(24), 500),
+                new BancoDeDados(driver));
+    }
+
     @Nested class CadastrarCliente{
         @Test
         @Severity(SeverityLevel.BLOCKER)
@@ -105,6 +127,19 @@ class ClienteRepositoryAdapterTest {
             assertThat(id).isNotNull();
             verify(clienteRepository, times(1)).save(any(ClienteEntity.class));
         }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Cadastrar cliente com CPF gravado por outra requisição")
+        void deveGerarExcecao_QuandoCpfViolaRestricaoUnica(){
+            var cliente = Helper.gerarClienteComTodosDados();
+
+            when(clienteRepository.save(any(ClienteEntity.class)))
+                    .thenThrow(new DataIntegrityViolationException("uk_clientes_cpf"));
+
+            assertThatThrownBy(() -> clienteRepositoryAdapter.cadastrar(cliente))
+                    .isInstanceOf(CpfExistenteException.class);
+        }
     }
 
     @Nested class BuscarCliente{
@@ -112,7 +147,7 @@ class ClienteRepositoryAdapterTest {
         @Severity(SeverityLevel.CRITICAL)
         @Description("Buscar cliente pelo cpf")
         void deveBuscarClientePorCpf(){
-            var cpf = "11111111111";
+            var cpf = "86288366757";
             var clienteEntity = new ClienteEntity().from(Helper.gerarClienteComTodosDados());
             clienteEntity.setId(UUID.randomUUID());
 
@@ -128,32 +163,177 @@ class ClienteRepositoryAdapterTest {
 
         @Test
         @Severity(SeverityLevel.CRITICAL)
-        @Description("Buscar todos os clientes")
-        void deveBuscarTodosOsCliente(){
+        @Description("Buscar a primeira página de clientes")
+        void deveBuscarPrimeiraPaginaDeClientes(){
             var clienteComTodosDados = Helper.gerarClienteComTodosDados();
-            var clienteSomenteComCpf = Helper.gerarClienteSomenteComCPF();
-            var clienteEntityList = new ArrayList<ClienteEntity>();
-
-            clienteEntityList.add(new ClienteEntity().from(clienteComTodosDados));
-            clienteEntityList.get(0).setId(UUID.randomUUID());
-            clienteEntityList.add(new ClienteEntity().from(clienteSomenteComCpf));
-            clienteEntityList.get(1).setId(UUID.randomUUID());
+            var itemCliente = new ItemCliente(UUID.randomUUID(), clienteComTodosDados.getNome(),
+                    clienteComTodosDados.getCpf(), clienteComTodosDados.getEmail());
 
-            when(clienteRepository.findAll()).thenReturn(clienteEntityList);
+            when(clienteRepository.listagemOrdenadaPorId(anyInt())).thenReturn(List.of(itemCliente));
 
-            var clienteList = clienteRepositoryAdapter.bucarTodos();
+            var clienteList = clienteRepositoryAdapter.buscarTodos(null, 10);
 
-            assertThat(clienteList.isEmpty()).isFalse();
-            assertThat(clienteList.size()).isEqualTo(2);
+            assertThat(clienteList).hasSize(1);
+            assertThat(clienteList.get(0).getId()).isEqualTo(itemCliente.id());
             assertThat(clienteList.get(0).getNome().getNome()).isEqualTo(clienteComTodosDados.getNome().getNome());
             assertThat(clienteList.get(0).getCpf().getCpf()).isEqualTo(clienteComTodosDados.getCpf().getCpf());
             assertThat(clienteList.get(0).getEmail().getEmail()).isEqualTo(clienteComTodosDados.getEmail().getEmail());
 
-            assertThat(clienteList.get(1).getCpf().getCpf()).isEqualTo(clienteComTodosDados.getCpf().getCpf());
-            assertThat(clienteList.get(1).getNome()).isNull();
-            assertThat(clienteList.get(1).getEmail()).isNull();
+            verify(clienteRepository, times(1)).listagemOrdenadaPorId(10);
+            verify(clienteRepository, never()).findAll();
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Buscar a página de clientes seguinte ao cursor")
+        void deveBuscarPaginaDeClientesAposCursor(){
+            var cursor = new CursorCliente(UUID.randomUUID());
+
+            when(clienteRepository.listagemOrdenadaPorIdAposCursor(any(UUID.class), anyInt())).thenReturn(List.of());
+
+            var clienteList = clienteRepositoryAdapter.buscarTodos(cursor, 10);
+
+            assertThat(clienteList).isEmpty();
+            verify(clienteRepository, times(1)).listagemOrdenadaPorIdAposCursor(cursor.getIdCliente(), 10);
+            verify(clienteRepository, never()).listagemOrdenadaPorId(anyInt());
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Percorrer todos os clientes e fechar o cursor do banco")
+        void devePercorrerTodosOsClientes(){
+            var cliente = Helper.gerarClienteSomenteComCPF();
+            var fechado = new AtomicBoolean();
+            var itens = Stream.of(new ItemCliente(UUID.randomUUID(), null, cliente.getCpf(), null),
+                    new ItemCliente(UUID.randomUUID(), null, cliente.getCpf(), null))
+                    .onClose(() -> fechado.set(true));
+
+            when(clienteRepository.exportacao()).thenReturn(itens);
+
+            var clientes = new ArrayList<Cliente>();
+            clienteRepositoryAdapter.percorrerTodos(clientes::add);
+
+            assertThat(clientes).hasSize(2);
+            assertThat(fechado).isTrue();
+        }
+    }
+
+    @Nested class CacheCliente{
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Buscar cliente pelo cpf e pelo id consultando o banco uma única vez")
+        void deveBuscarClienteDoCache_QuandoJaCarregado(){
+            var clienteEntity = new ClienteEntity().from(Helper.gerarClienteComTodosDados());
+            clienteEntity.setId(UUID.randomUUID());
+
+            when(clienteRepository.findAllByCpf(any(Cpf.class))).thenReturn(Optional.of(clienteEntity));
+
+            clienteRepositoryAdapter.buscarPorCpf(clienteEntity.getCpf());
+            var clientePorCpf = clienteRepositoryAdapter.buscarPorCpf(clienteEntity.getCpf());
+            var clientePorId = clienteRepositoryAdapter.buscarPorId(clienteEntity.getId());
+
+            assertThat(clientePorCpf).isPresent();
+            assertThat(clientePorId).isEqualTo(clientePorCpf);
+            verify(clienteRepository, times(1)).findAllByCpf(any(Cpf.class));
+            verify(clienteRepository, never()).findById(any(UUID.class));
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Guardar CPF sem cadastro até o cliente ser cadastrado")
+        void deveGuardarCpfSemCadastro_AteCadastrarCliente(){
+            var cliente = Helper.gerarClienteComTodosDados();
+            var clienteEntity = new ClienteEntity().from(cliente);
+            clienteEntity.setId(UUID.randomUUID());
+
+            when(clienteRepository.findAllByCpf(any(Cpf.class))).thenReturn(Optional.empty());
+            when(clienteRepository.save(any(ClienteEntity.class))).thenReturn(clienteEntity);
+
+            assertThat(clienteRepositoryAdapter.buscarPorCpf(cliente.getCpf())).isEmpty();
+            assertThat(clienteRepositoryAdapter.buscarPorCpf(cliente.getCpf())).isEmpty();
+            verify(clienteRepository, times(1)).findAllByCpf(any(Cpf.class));
+
+            clienteRepositoryAdapter.cadastrar(cliente);
+            when(clienteRepository.findAllByCpf(any(Cpf.class))).thenReturn(Optional.of(clienteEntity));
+
+            assertThat(clienteRepositoryAdapter.buscarPorCpf(cliente.getCpf())).isPresent();
+            verify(clienteRepository, times(2)).findAllByCpf(any(Cpf.class));
+        }
+    }
+
+    @Nested class IdentificarCliente{
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Identificar cliente no Postgres com um único comando e guardá-lo em cache")
+        void deveIdentificarClienteComUmUnicoComando_QuandoPostgres(){
+            var clienteEntity = new ClienteEntity().from(Helper.gerarClienteSomenteComCPF());
+            clienteEntity.setId(UUID.randomUUID());
+            var adapter = gerarAdapter(DatabaseDriver.POSTGRESQL);
+
+            when(clienteRepository.inserirOuBuscarPorCpf(anyString())).thenReturn(Optional.of(clienteEntity));
+
+            adapter.identificarPorCpf(clienteEntity.getCpf());
+            var cliente = adapter.identificarPorCpf(clienteEntity.getCpf());
+
+            assertThat(cliente.getId()).isEqualTo(clienteEntity.getId());
+            assertThat(adapter.buscarPorId(clienteEntity.getId())).contains(cliente);
+            verify(clienteRepository, times(1)).inserirOuBuscarPorCpf(clienteEntity.getCpf().getCpf());
+            verify(clienteRepository, never()).findAllByCpf(any(Cpf.class));
+            verify(clienteRepository, never()).findById(any(UUID.class));
+            verify(clienteRepository, never()).save(any(ClienteEntity.class));
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Buscar o cliente cadastrado por outro totem durante a identificação no Postgres")
+        void deveBuscarCliente_QuandoCadastradoConcorrentementeNoPostgres(){
+            var clienteEntity = new ClienteEntity().from(Helper.gerarClienteSomenteComCPF());
+            clienteEntity.setId(UUID.randomUUID());
+            var adapter = gerarAdapter(DatabaseDriver.POSTGRESQL);
+
+            when(clienteRepository.inserirOuBuscarPorCpf(anyString())).thenReturn(Optional.empty());
+            when(clienteRepository.findAllByCpf(clienteEntity.getCpf())).thenReturn(Optional.of(clienteEntity));
+
+            var cliente = adapter.identificarPorCpf(clienteEntity.getCpf());
+
+            assertThat(cliente.getId()).isEqualTo(clienteEntity.getId());
+            verify(clienteRepository, never()).save(any(ClienteEntity.class));
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Identificar cliente sem cadastro existente por CPF fora do Postgres")
+        void deveCadastrarCliente_QuandoCpfSemCadastro(){
+            var clienteEntity = new ClienteEntity().from(Helper.gerarClienteSomenteComCPF());
+            clienteEntity.setId(UUID.randomUUID());
+
+            when(clienteRepository.findAllByCpf(any(Cpf.class))).thenReturn(Optional.empty());
+            when(clienteRepository.save(any(ClienteEntity.class))).thenReturn(clienteEntity);
+
+            var cliente = clienteRepositoryAdapter.identificarPorCpf(clienteEntity.getCpf());
+
+            assertThat(cliente.getId()).isEqualTo(clienteEntity.getId());
+            verify(clienteRepository, times(1)).save(any(ClienteEntity.class));
+            verify(clienteRepository, never()).inserirOuBuscarPorCpf(anyString());
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Identificar cliente cadastrado concorrentemente por outro totem fora do Postgres")
+        void deveBuscarClienteDeNovo_QuandoCpfViolaRestricaoUnica(){
+            var clienteEntity = new ClienteEntity().from(Helper.gerarClienteSomenteComCPF());
+            clienteEntity.setId(UUID.randomUUID());
+
+            when(clienteRepository.findAllByCpf(any(Cpf.class)))
+                    .thenReturn(Optional.empty())
+                    .thenReturn(Optional.of(clienteEntity));
+            when(clienteRepository.save(any(ClienteEntity.class)))
+                    .thenThrow(new DataIntegrityViolationException("uk_clientes_cpf"));
+
+            var cliente = clienteRepositoryAdapter.identificarPorCpf(clienteEntity.getCpf());
 
-            verify(clienteRepository, times(1)).findAll();
+            assertThat(cliente.getId()).isEqualTo(clienteEntity.getId());
+            verify(clienteRepository, times(2)).findAllByCpf(any(Cpf.class));
         }
     }
 }
@@ -0,0 +1,100 @@
+package com.fiap.pedidos.gateways;
+
+import com.fiap.pedidos.gateways.entities.FilaOutboxEntity;
+import com.fiap.pedidos.interfaces.gateways.IFilaOutboxRepositoryPort;
+import com.fiap.pedidos.interfaces.repositories.FilaOutboxRepository;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class FilaOutboxRepositoryAdapterTest {
+
+    private IFilaOutboxRepositoryPort filaOutboxRepositoryPort;
+
+    @Mock
+    private FilaOutboxRepository filaOutboxRepository;
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup() {
+        mock = MockitoAnnotations.openMocks(this);
+        filaOutboxRepositoryPort = new FilaOutboxRepositoryAdapter(filaOutboxRepository);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mock.close();
+    }
+
+    @Nested
+    class ReservarPendentes {
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Reservar envios pendentes adiando a próxima tentativa")
+        void deveReservarPendentes() {
+            var pendente = FilaOutboxEntity.novo(UUID.randomUUID(), UUID.randomUUID());
+            pendente.setIdEnvio(UUID.randomUUID());
+            var reservadoAte = new Date(System.currentTimeMillis() + 60_000);
+
+            when(filaOutboxRepository.buscarPendentes(any(Date.class), any(Pageable.class)))
+                    .thenReturn(List.of(pendente));
+
+            var envios = filaOutboxRepositoryPort.reservarPendentes(20, reservadoAte);
+
+            assertThat(envios).hasSize(1);
+            assertThat(envios.get(0).getIdPedido()).isEqualTo(pendente.getIdPedido());
+            assertThat(pendente.getProximaTentativa()).isEqualTo(reservadoAte);
+            verify(filaOutboxRepository, times(1))
+                    .buscarPendentes(any(Date.class), argThat(pageable -> pageable.getPageSize() == 20));
+        }
+    }
+
+    @Nested
+    class ConcluirEnvio {
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Remover o envio do outbox após a entrega na fila")
+        void deveConcluirEnvio() {
+            var idEnvio = UUID.randomUUID();
+
+            filaOutboxRepositoryPort.concluir(idEnvio);
+
+            verify(filaOutboxRepository, times(1)).deleteById(idEnvio);
+        }
+    }
+
+    @Nested
+    class ReagendarEnvio {
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Reagendar envio que falhou")
+        void deveReagendarEnvio() {
+            var idEnvio = UUID.randomUUID();
+            var proximaTentativa = new Date();
+
+            filaOutboxRepositoryPort.reagendar(idEnvio, 3, proximaTentativa);
+
+            verify(filaOutboxRepository, times(1)).reagendar(idEnvio, 3, proximaTentativa);
+        }
+    }
+}
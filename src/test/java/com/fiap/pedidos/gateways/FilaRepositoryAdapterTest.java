@@ -1,7 +1,10 @@
 package com.fiap.pedidos.gateways;
 
+import com.fiap.pedidos.exceptions.entities.ServicoRemotoIndisponivelException;
+import com.fiap.pedidos.gateways.resiliencia.ProtecaoServicosRemotos;
 import com.fiap.pedidos.interfaces.gateways.IFilaRepositoryPort;
 import com.fiap.pedidos.interfaces.repositories.FilaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.qameta.allure.Description;
 import io.qameta.allure.Severity;
 import io.qameta.allure.SeverityLevel;
@@ -12,8 +15,10 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.time.Duration;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -29,7 +34,8 @@ class FilaRepositoryAdapterTest {
     @BeforeEach
     void setup(){
         mock = MockitoAnnotations.openMocks(this);
-        filaRepositoryPortAdapter = new FilaRepositoryAdapter(filaRepository);
+        filaRepositoryPortAdapter = new FilaRepositoryAdapter(filaRepository, new ProtecaoServicosRemotos(new SimpleMeterRegistry(),
+                10, 50, 50, Duration.ofSeconds(2), 4, 4, Duration.ofMinutes(1)));
     }
 
     @AfterEach
@@ -48,5 +54,22 @@ class FilaRepositoryAdapterTest {
             verify(filaRepository, times(1))
                     .inserePedidoNaFila(any(UUID.class), any(UUID.class));
         }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Parar de chamar a fila quando o circuito abre por falhas")
+        void deveInterromperChamadas_QuandoFilaFalhaRepetidamente() {
+            doThrow(new IllegalStateException("fila fora do ar"))
+                    .when(filaRepository).inserePedidoNaFila(any(UUID.class), any(UUID.class));
+
+            for (int i = 0; i < 4; i++) {
+                assertThatThrownBy(() -> filaRepositoryPortAdapter.inserePedidoNaFila(UUID.randomUUID(), UUID.randomUUID()))
+                        .isInstanceOf(IllegalStateException.class);
+            }
+
+            assertThatThrownBy(() -> filaRepositoryPortAdapter.inserePedidoNaFila(UUID.randomUUID(), UUID.randomUUID()))
+                    .isInstanceOf(ServicoRemotoIndisponivelException.class);
+            verify(filaRepository, times(4)).inserePedidoNaFila(any(UUID.class), any(UUID.class));
+        }
     }
 }
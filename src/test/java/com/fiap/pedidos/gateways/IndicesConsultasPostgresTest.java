@@ -0,0 +1,106 @@
+package com.fiap.pedidos.gateways;
+
+import com.fiap.pedidos.interfaces.repositories.PedidoRepository;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.StringJoiner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//Aplica as migrações num Postgres descartável e confere pelo EXPLAIN que as consultas mais frequentes usam índice.
+//Sem Docker disponível o teste é ignorado.
+@Testcontainers(disabledWithoutDocker = true)
+class IndicesConsultasPostgresTest {
+
+    private static final String ID = "00000000-0000-0000-0000-000000000001";
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private Connection conexao;
+
+    @BeforeAll
+    static void migrar() {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration/postgresql")
+                .load()
+                .migrate();
+    }
+
+    @BeforeEach
+    void setup() throws SQLException {
+        conexao = DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        //Com as tabelas vazias o planejador sempre prefere a varredura sequencial; desligada, ela só aparece quando
+        //nenhum índice atende a consulta
+        executar("SET enable_seqscan = off");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        conexao.close();
+    }
+
+    @ParameterizedTest
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Executar as consultas mais frequentes sem varredura sequencial")
+    @ValueSource(strings = {
+            "SELECT pp.*, pr.* FROM pedido_produtos pp JOIN produtos pr ON pr.id_produto = pp.id_produto " +
+                    "WHERE pp.id_pedido = '" + ID + "'",
+            "SELECT * FROM produtos WHERE tipo_produto = 'L' AND ativo = true",
+            "SELECT * FROM clientes WHERE txt_cpf = '52998224725'",
+            "SELECT * FROM pedidos WHERE nr_ordem_status <= 4 ORDER BY nr_ordem_status, dt_h_inclusao, id LIMIT 100",
+            "SELECT * FROM pedidos WHERE dt_h_atualizacao >= now()",
+            "SELECT * FROM fila_outbox WHERE dt_h_proxima_tentativa <= now() ORDER BY dt_h_proxima_tentativa LIMIT 20"
+    })
+    void deveUsarIndice(String consulta) throws SQLException {
+        assertThat(planoDe(consulta)).doesNotContain("Seq Scan");
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Usar o índice parcial de pedidos por cliente também no plano genérico das consultas preparadas")
+    void deveUsarIndiceParcialNoPlanoGenerico() throws SQLException {
+        executar("SET plan_cache_mode = force_generic_plan");
+        //A mesma consulta do repositório, com os parâmetros posicionais do JPA trocados pelos do PREPARE
+        executar("PREPARE pedidos_cliente(uuid, varchar) AS " +
+                PedidoRepository.PEDIDOS_ATIVOS_POR_CLIENTE_E_STATUS.replaceAll("\\?(\\d+)", "\\$$1"));
+
+        assertThat(planoDe("EXECUTE pedidos_cliente('" + ID + "', 'A')"))
+                .contains("idx_pedidos_cliente_status");
+    }
+
+    private void executar(String comando) throws SQLException {
+        try (Statement statement = conexao.createStatement()) {
+            statement.execute(comando);
+        }
+    }
+
+    private String planoDe(String consulta) throws SQLException {
+        StringJoiner plano = new StringJoiner("\n");
+        try (Statement statement = conexao.createStatement();
+             ResultSet resultSet = statement.executeQuery("EXPLAIN " + consulta)) {
+            while (resultSet.next()) {
+                plano.add(resultSet.getString(1));
+            }
+        }
+        return plano.toString();
+    }
+}
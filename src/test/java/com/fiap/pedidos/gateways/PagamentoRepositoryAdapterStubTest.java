@@ -0,0 +1,93 @@
+package com.fiap.pedidos.gateways;
+
+import com.fiap.pedidos.exceptions.entities.ServicoRemotoIndisponivelException;
+import com.fiap.pedidos.gateways.resiliencia.ProtecaoServicosRemotos;
+import com.fiap.pedidos.interfaces.repositories.PagamentoRepository;
+import com.sun.net.httpserver.HttpServer;
+import feign.Feign;
+import feign.Request;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+//Serviço de pagamentos simulado com o HttpServer do JDK, passando pelo cliente Feign de verdade
+class PagamentoRepositoryAdapterStubTest {
+
+    private HttpServer servidor;
+    private final AtomicInteger chamadas = new AtomicInteger();
+    private volatile int statusResposta = 200;
+    private volatile long atrasoResposta = 0;
+    private PagamentoRepositoryAdapter pagamentoRepositoryAdapter;
+
+    @BeforeEach
+    void setup() throws Exception {
+        servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        servidor.createContext("/", exchange -> {
+            chamadas.incrementAndGet();
+            try {
+                Thread.sleep(atrasoResposta);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(statusResposta, -1);
+            exchange.close();
+        });
+        servidor.start();
+
+        PagamentoRepository pagamentoRepository = Feign.builder()
+                .contract(new SpringMvcContract())
+                .options(new Request.Options(1, TimeUnit.SECONDS, 1, TimeUnit.SECONDS, true))
+                .target(PagamentoRepository.class, "http://localhost:" + servidor.getAddress().getPort());
+        var meterRegistry = new SimpleMeterRegistry();
+        pagamentoRepositoryAdapter = new PagamentoRepositoryAdapter(pagamentoRepository,
+                new ProtecaoServicosRemotos(meterRegistry, 10, 50, 50, Duration.ofMillis(100), 4, 4, Duration.ofMinutes(1)),
+                meterRegistry, Duration.ofSeconds(30), 1000, Duration.ofSeconds(30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        servidor.stop(0);
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Confirmar pagamento chamando o serviço apenas uma vez")
+    void deveConfirmarPagamentoComUmaChamada() {
+        var idPedido = UUID.randomUUID();
+
+        assertThat(pagamentoRepositoryAdapter.consultaPagamento(idPedido)).isTrue();
+        assertThat(pagamentoRepositoryAdapter.consultaPagamento(idPedido)).isTrue();
+
+        assertThat(chamadas).hasValue(1);
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Abrir o circuito quando o serviço de pagamentos fica lento")
+    void deveAbrirCircuito_QuandoServicoLento() {
+        statusResposta = 404;
+        atrasoResposta = 200;
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(pagamentoRepositoryAdapter.consultaPagamento(UUID.randomUUID())).isFalse();
+        }
+
+        assertThatThrownBy(() -> pagamentoRepositoryAdapter.consultaPagamento(UUID.randomUUID()))
+                .isInstanceOf(ServicoRemotoIndisponivelException.class);
+        assertThat(chamadas).hasValue(4);
+    }
+}
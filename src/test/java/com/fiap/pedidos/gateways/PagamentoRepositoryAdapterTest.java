@@ -1,10 +1,14 @@
 package com.fiap.pedidos.gateways;
 
+import com.fiap.pedidos.adapters.SituacaoPagamentoDTO;
+import com.fiap.pedidos.exceptions.entities.ServicoRemotoIndisponivelException;
+import com.fiap.pedidos.gateways.resiliencia.ProtecaoServicosRemotos;
 import com.fiap.pedidos.interfaces.gateways.IPagamentoRepositoryPort;
 import com.fiap.pedidos.interfaces.repositories.PagamentoRepository;
+import feign.FeignException;
 import feign.Request;
-import feign.RequestTemplate;
 import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.qameta.allure.Description;
 import io.qameta.allure.Severity;
 import io.qameta.allure.SeverityLevel;
@@ -15,9 +19,13 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.time.Duration;
 import java.util.*;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 class PagamentoRepositoryAdapterTest {
@@ -32,7 +40,11 @@ class PagamentoRepositoryAdapterTest {
     @BeforeEach
     void setup(){
         mock = MockitoAnnotations.openMocks(this);
-        pagamentoRepositoryPortAdapter = new PagamentoRepositoryAdapter(pagamentoRepository);
+        var meterRegistry = new SimpleMeterRegistry();
+        var protecaoServicosRemotos = new ProtecaoServicosRemotos(meterRegistry,
+                10, 50, 50, Duration.ofSeconds(2), 4, 4, Duration.ofMinutes(1));
+        pagamentoRepositoryPortAdapter = new PagamentoRepositoryAdapter(pagamentoRepository,
+                protecaoServicosRemotos, meterRegistry, Duration.ofSeconds(30), 1000, Duration.ofSeconds(30));
     }
 
     @AfterEach
@@ -46,27 +58,140 @@ class PagamentoRepositoryAdapterTest {
         @Severity(SeverityLevel.BLOCKER)
         @Description("Consulta pagamento")
         void deveConsultarPagamento() {
-            var header = new HashMap<String, Collection<String>>();
-            header.put("header", Collections.EMPTY_LIST);
-
-            var request = Request
-                    .create(
-                            Request.HttpMethod.GET,
-                            "" ,
-                            header,
-                            null,
-                            null,
-                            null);
-            var response = Response.builder()
-                            .request(request)
-                            .status(200)
-                            .build();
-
-            when(pagamentoRepository.consultarPagamento(any(UUID.class))).thenReturn(response);
+            when(pagamentoRepository.consultarPagamento(any(UUID.class))).thenReturn(gerarResponse(200));
 
             pagamentoRepositoryPortAdapter.consultaPagamento(UUID.randomUUID());
 
             verify(pagamentoRepository, times(1)).consultarPagamento(any(UUID.class));
         }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Reaproveitar a confirmação do pagamento sem nova chamada ao serviço")
+        void deveReaproveitarConfirmacaoDePagamento() {
+            var idPedido = UUID.randomUUID();
+            when(pagamentoRepository.consultarPagamento(any(UUID.class))).thenReturn(gerarResponse(200));
+
+            assertThat(pagamentoRepositoryPortAdapter.consultaPagamento(idPedido)).isTrue();
+            assertThat(pagamentoRepositoryPortAdapter.consultaPagamento(idPedido)).isTrue();
+
+            verify(pagamentoRepository, times(1)).consultarPagamento(idPedido);
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Consultar novamente o pagamento que ainda não foi confirmado")
+        void deveConsultarNovamente_QuandoPagamentoNaoConfirmado() {
+            var idPedido = UUID.randomUUID();
+            when(pagamentoRepository.consultarPagamento(any(UUID.class))).thenReturn(gerarResponse(404));
+
+            assertThat(pagamentoRepositoryPortAdapter.consultaPagamento(idPedido)).isFalse();
+            assertThat(pagamentoRepositoryPortAdapter.consultaPagamento(idPedido)).isFalse();
+
+            verify(pagamentoRepository, times(2)).consultarPagamento(idPedido);
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Tratar erro do servidor de pagamentos como falha e abrir o circuito")
+        void deveAbrirCircuito_QuandoServicoDePagamentosRetornaErro() {
+            when(pagamentoRepository.consultarPagamento(any(UUID.class))).thenReturn(gerarResponse(503));
+
+            for (int i = 0; i < 4; i++) {
+                assertThatThrownBy(() -> pagamentoRepositoryPortAdapter.consultaPagamento(UUID.randomUUID()))
+                        .isInstanceOf(ServicoRemotoIndisponivelException.class);
+            }
+            assertThatThrownBy(() -> pagamentoRepositoryPortAdapter.consultaPagamento(UUID.randomUUID()))
+                    .isInstanceOf(ServicoRemotoIndisponivelException.class);
+
+            verify(pagamentoRepository, times(4)).consultarPagamento(any(UUID.class));
+        }
+    }
+
+    @Nested class ConsultaPagamentos {
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Consultar pagamentos em lote com uma única chamada")
+        void deveConsultarPagamentosEmLote() {
+            var pago = UUID.randomUUID();
+            var pendente = UUID.randomUUID();
+            when(pagamentoRepository.consultarPagamentos(anyList())).thenReturn(List.of(
+                    new SituacaoPagamentoDTO(pago, true), new SituacaoPagamentoDTO(pendente, false)));
+
+            var confirmados = pagamentoRepositoryPortAdapter.consultaPagamentos(List.of(pago, pendente));
+
+            assertThat(confirmados).containsExactly(pago);
+            verify(pagamentoRepository, times(1)).consultarPagamentos(anyList());
+            verify(pagamentoRepository, never()).consultarPagamento(any(UUID.class));
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Consultar pedido a pedido quando o serviço não tem consulta em lote")
+        void deveConsultarPedidoAPedido_QuandoConsultaEmLoteIndisponivel() {
+            var pago = UUID.randomUUID();
+            var pendente = UUID.randomUUID();
+            when(pagamentoRepository.consultarPagamentos(anyList())).thenThrow(FeignException.NotFound.class);
+            when(pagamentoRepository.consultarPagamento(pago)).thenReturn(gerarResponse(200));
+            when(pagamentoRepository.consultarPagamento(pendente)).thenReturn(gerarResponse(404));
+
+            assertThat(pagamentoRepositoryPortAdapter.consultaPagamentos(List.of(pago, pendente))).containsExactly(pago);
+            assertThat(pagamentoRepositoryPortAdapter.consultaPagamentos(List.of(pendente))).isEmpty();
+
+            verify(pagamentoRepository, times(1)).consultarPagamentos(anyList());
+            verify(pagamentoRepository, times(2)).consultarPagamento(pendente);
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Deixar para a próxima rodada os pedidos sem vaga no limite de chamadas")
+        void deveDeixarPedidosParaProximaRodada_QuandoLimiteDeChamadasAtingido() {
+            var meterRegistry = new SimpleMeterRegistry();
+            var protecaoServicosRemotos = new ProtecaoServicosRemotos(meterRegistry,
+                    10, 50, 50, Duration.ofSeconds(2), 4, 4, Duration.ofMinutes(1));
+            var adapter = new PagamentoRepositoryAdapter(pagamentoRepository, protecaoServicosRemotos, meterRegistry,
+                    Duration.ofSeconds(30), 2, Duration.ZERO);
+            var pago = UUID.randomUUID();
+            var naoConsultado = UUID.randomUUID();
+            when(pagamentoRepository.consultarPagamentos(anyList())).thenThrow(FeignException.NotFound.class);
+            when(pagamentoRepository.consultarPagamento(pago)).thenReturn(gerarResponse(200));
+
+            assertThat(adapter.consultaPagamentos(List.of(pago, naoConsultado))).containsExactly(pago);
+
+            verify(pagamentoRepository, times(1)).consultarPagamento(pago);
+            verify(pagamentoRepository, never()).consultarPagamento(naoConsultado);
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Não consultar novamente pagamentos já confirmados")
+        void naoDeveConsultarPagamentosJaConfirmados() {
+            var pago = UUID.randomUUID();
+            when(pagamentoRepository.consultarPagamento(pago)).thenReturn(gerarResponse(200));
+            pagamentoRepositoryPortAdapter.consultaPagamento(pago);
+
+            assertThat(pagamentoRepositoryPortAdapter.consultaPagamentos(List.of(pago))).containsExactly(pago);
+
+            verify(pagamentoRepository, never()).consultarPagamentos(anyList());
+        }
+    }
+
+    private static Response gerarResponse(int status) {
+        var header = new HashMap<String, Collection<String>>();
+        header.put("header", Collections.EMPTY_LIST);
+
+        var request = Request
+                .create(
+                        Request.HttpMethod.GET,
+                        "" ,
+                        header,
+                        null,
+                        null,
+                        null);
+        return Response.builder()
+                        .request(request)
+                        .status(status)
+                        .build();
     }
 }
@@ -2,15 +2,19 @@ package com.fiap.pedidos.gateways;
 
 import com.fiap.pedidos.entities.PedidoProduto;
 import com.fiap.pedidos.entities.Produto;
+import com.fiap.pedidos.entities.ValorProduto;
 import com.fiap.pedidos.exceptions.entities.PedidoNaoEncontradoException;
+import com.fiap.pedidos.exceptions.entities.PedidoOperacaoNaoSuportadaException;
 import com.fiap.pedidos.gateways.entities.PedidoEntity;
 import com.fiap.pedidos.gateways.entities.PedidoProdutoEntity;
 import com.fiap.pedidos.gateways.entities.ProdutoEntity;
+import com.fiap.pedidos.gateways.projecao.ItemListagem;
 import com.fiap.pedidos.helpers.Helper;
 import com.fiap.pedidos.interfaces.gateways.IPedidoProdutoRepositoryPort;
 import com.fiap.pedidos.interfaces.repositories.PedidoProdutoRepository;
+import com.fiap.pedidos.interfaces.repositories.PedidoProdutoRepositoryCustom.QuantidadeItem;
 import com.fiap.pedidos.interfaces.repositories.PedidoRepository;
-import com.fiap.pedidos.interfaces.repositories.ProdutoRepository;
+import com.fiap.pedidos.utils.enums.StatusPedido;
 import io.qameta.allure.Description;
 import io.qameta.allure.Severity;
 import io.qameta.allure.SeverityLevel;
@@ -23,6 +27,7 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -31,6 +36,11 @@ import java.util.stream.Collectors;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class PedidoProdutoRepositoryAdapterTest {
@@ -41,8 +51,6 @@ class PedidoProdutoRepositoryAdapterTest {
     private PedidoRepository pedidoRepository;
     @Mock
     private PedidoProdutoRepository pedidoProdutoRepository;
-    @Mock
-    private ProdutoRepository produtoRepository;
 
     AutoCloseable mock;
 
@@ -51,8 +59,7 @@ class PedidoProdutoRepositoryAdapterTest {
         mock = MockitoAnnotations.openMocks(this);
         pedidoProdutoRepositoryPort = new PedidoProdutoRepositoryAdapter(
                 pedidoProdutoRepository,
-                pedidoRepository,
-                produtoRepository);
+                pedidoRepository);
     }
 
     @AfterEach
@@ -65,39 +72,171 @@ class PedidoProdutoRepositoryAdapterTest {
 
         @Test
         @Severity(SeverityLevel.BLOCKER)
-        @Description("Cadastrar PedidoProduto")
-        void deveCadastrarPedidoProduto() {
-            var uuidPedido = UUID.randomUUID();
-            var uuidProduto = UUID.randomUUID();
+        @Description("Cadastrar PedidoProduto somando o valor do produto ao pedido")
+        void deveCadastrarPedidoProdutoSomandoValor() {
+            var pedidoProdutoEntity = Helper.gerarPedidoProdutoEntity();
+            var uuidPedido = pedidoProdutoEntity.getPedido().getIdPedido();
+            var produto = pedidoProdutoEntity.getProduto().to();
+            var gravado = gerarItemGravado(uuidPedido, 5000L);
+
+            when(pedidoRepository.somarValorPedidoAberto(any(UUID.class), anyLong()))
+                    .thenReturn(Optional.of(gravado));
+
+            var pedido = pedidoProdutoRepositoryPort
+                    .adicionarPedidoProdutoSomandoValor(uuidPedido, produto);
+
+            assertThat(pedido.getIdPedido()).isEqualTo(uuidPedido);
+            assertThat(pedido.getCliente().getId()).isEqualTo(gravado.idCliente());
+            assertThat(pedido.getValorPedido()).isEqualTo(5000L);
+            assertThat(pedido.getDataAtualizacao()).isEqualTo(gravado.dataAtualizacao());
+            assertThat(pedido.getProdutos()).containsExactly(produto);
+
+            var ordem = inOrder(pedidoRepository, pedidoProdutoRepository);
+            ordem.verify(pedidoRepository)
+                    .somarValorPedidoAberto(uuidPedido, produto.getValorProduto().getCentavos());
+            ordem.verify(pedidoProdutoRepository).somarQuantidades(uuidPedido, List.of(
+                    new QuantidadeItem(produto.getIdProduto(), produto.getValorProduto().getCentavos(), 1)));
+            verify(pedidoProdutoRepository, never()).buscarItensComProdutoPorIdPedido(any(UUID.class));
+            verify(pedidoRepository, never()).findById(any(UUID.class));
+            verify(pedidoRepository, never()).findByIdComClienteEProdutos(any(UUID.class));
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Cadastrar PedidoProduto quando o pedido não está aberto")
+        void deveFalhar_AoCadastrarPedidoProdutoEmPedidoNaoAberto() {
+            var produto = Helper.gerarProdutoLanche();
+            produto.setIdProduto(UUID.randomUUID());
 
-            var pedido = Helper.gerarPedidoComCliente();
-            pedido.setIdPedido(uuidPedido);
+            when(pedidoRepository.somarValorPedidoAberto(any(UUID.class), anyLong())).thenReturn(Optional.empty());
+            when(pedidoRepository.existsById(any(UUID.class))).thenReturn(true);
 
+            assertThatThrownBy(() -> pedidoProdutoRepositoryPort
+                    .adicionarPedidoProdutoSomandoValor(UUID.randomUUID(), produto))
+                    .isInstanceOf(PedidoOperacaoNaoSuportadaException.class)
+                    .hasMessage("Pedido não está aberto para edição.");
+
+            verify(pedidoProdutoRepository, never()).somarQuantidades(any(UUID.class), anyList());
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Cadastrar PedidoProduto em pedido inexistente")
+        void deveFalhar_AoCadastrarPedidoProdutoEmPedidoInexistente() {
             var produto = Helper.gerarProdutoLanche();
-            produto.setIdProduto(uuidProduto);
+            produto.setIdProduto(UUID.randomUUID());
 
-            var pedidoProduto = Helper.gerarPedidoProduto();
-            pedidoProduto.setPedidoId(UUID.randomUUID());
+            when(pedidoRepository.somarValorPedidoAberto(any(UUID.class), anyLong())).thenReturn(Optional.empty());
+            when(pedidoRepository.existsById(any(UUID.class))).thenReturn(false);
 
-            var pedidoProdutoEntity = Helper.gerarPedidoProdutoEntity();
-            pedidoProdutoEntity.setId(UUID.randomUUID());
+            assertThatThrownBy(() -> pedidoProdutoRepositoryPort
+                    .adicionarPedidoProdutoSomandoValor(UUID.randomUUID(), produto))
+                    .isInstanceOf(PedidoNaoEncontradoException.class);
 
-            when(pedidoProdutoRepository.save(any(PedidoProdutoEntity.class))).thenReturn(pedidoProdutoEntity);
+            verify(pedidoProdutoRepository, never()).somarQuantidades(any(UUID.class), anyList());
+        }
 
-            var pedidoProdutoSalvo = pedidoProdutoRepositoryPort
-                    .adicionarPedidoProduto(pedido, produto, pedidoProduto);
+    }
+
+    @Nested
+    class ItensEmLote {
 
-            assertThat(pedidoProdutoSalvo).isNotNull();
-            assertThat(pedidoProdutoSalvo).isInstanceOf(PedidoProduto.class);
-            assertThat(pedidoProdutoSalvo.getPedidoId()).isEqualTo(pedidoProdutoEntity.getPedido().getIdPedido());
-            assertThat(pedidoProdutoSalvo.getProdutoId()).isEqualTo(pedidoProdutoEntity.getProduto().getIdProduto());
+        @Test
+        @Severity(SeverityLevel.BLOCKER)
+        @Description("Cadastrar vários PedidoProduto com uma única atualização do valor e uma gravação em lote")
+        void deveCadastrarPedidoProdutosSomandoValor() {
+            var uuidPedido = UUID.randomUUID();
+            var lanche = Helper.gerarProdutoLanche();
+            lanche.setIdProduto(UUID.randomUUID());
+            var bebida = Helper.gerarProdutoBebida();
+            bebida.setIdProduto(UUID.randomUUID());
+
+            var valorItens = lanche.getValorProduto().getCentavos() * 2 + bebida.getValorProduto().getCentavos();
+
+            when(pedidoRepository.somarValorPedidoAberto(any(UUID.class), anyLong()))
+                    .thenReturn(Optional.of(gerarItemGravado(uuidPedido, valorItens)));
+
+            var pedido = pedidoProdutoRepositoryPort
+                    .adicionarPedidoProdutosSomandoValor(uuidPedido, List.of(lanche, bebida, lanche));
+
+            assertThat(pedido.getValorPedido()).isEqualTo(valorItens);
+            assertThat(pedido.getProdutos()).containsExactly(lanche, bebida, lanche);
+            verify(pedidoRepository, times(1)).somarValorPedidoAberto(uuidPedido, valorItens);
+            verify(pedidoProdutoRepository, times(1)).somarQuantidades(uuidPedido, List.of(
+                    new QuantidadeItem(lanche.getIdProduto(), lanche.getValorProduto().getCentavos(), 2),
+                    new QuantidadeItem(bebida.getIdProduto(), bebida.getValorProduto().getCentavos(), 1)));
+            verify(pedidoProdutoRepository, never()).buscarItensComProdutoPorIdPedido(any(UUID.class));
+        }
 
-            assertThat(pedidoProdutoSalvo.getProdutoId()).isInstanceOf(UUID.class);
-            assertThat(pedidoProdutoSalvo.getProdutoId()).isInstanceOf(UUID.class);
+        @Test
+        @Severity(SeverityLevel.BLOCKER)
+        @Description("Remover vários PedidoProduto agrupando por produto e recalculando o total pelos itens")
+        void deveRemoverPedidoProdutosRecalculandoValor() {
+            var lanche = gerarItem(Helper.gerarProdutoLanche(), 2);
+            var bebida = gerarItem(Helper.gerarProdutoBebida(), 2);
+            var uuidPedido = lanche.getPedido().getIdPedido();
+
+            when(pedidoRepository.somarValorPedido(any(UUID.class), anyLong(), any(StatusPedido.class)))
+                    .thenReturn(1);
+            when(pedidoProdutoRepository.buscarItensComProdutoPorIdPedido(uuidPedido)).thenReturn(List.of(lanche, bebida));
+            when(pedidoRepository.buscarValorPedido(uuidPedido)).thenReturn(500L);
+
+            var valorPedido = pedidoProdutoRepositoryPort.excluirPedidoProdutosRecalculandoValor(uuidPedido,
+                    List.of(lanche.getProduto().to(), lanche.getProduto().to(), bebida.getProduto().to()));
+
+            assertThat(valorPedido).isEqualTo(500L);
+            assertThat(bebida.getQuantidade()).isEqualTo(1);
+            var ordem = inOrder(pedidoRepository, pedidoProdutoRepository);
+            ordem.verify(pedidoRepository)
+                    .somarValorPedido(eq(uuidPedido), eq(0L), eq(StatusPedido.A));
+            ordem.verify(pedidoProdutoRepository).deleteAll(List.of(lanche));
+            ordem.verify(pedidoProdutoRepository).flush();
+            ordem.verify(pedidoRepository).recalcularValorPedido(eq(uuidPedido));
+        }
 
-            verify(pedidoProdutoRepository, times(1)).save(any(PedidoProdutoEntity.class));
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Remover primeiro da linha com o valor do produto removido")
+        void deveRemoverDaLinhaComOMesmoValor() {
+            var maisBarato = gerarItem(Helper.gerarProdutoLanche(), 1);
+            var uuidPedido = maisBarato.getPedido().getIdPedido();
+            var maisCaro = PedidoProdutoEntity.builder()
+                    .pedido(maisBarato.getPedido())
+                    .produto(maisBarato.getProduto())
+                    .valorProduto(maisBarato.getValorProduto() + 200)
+                    .quantidade(1)
+                    .build();
+            var removido = maisBarato.getProduto().to();
+            removido.setValorProduto(new ValorProduto(maisCaro.getValorProduto()));
+
+            when(pedidoRepository.somarValorPedido(any(UUID.class), anyLong(), any(StatusPedido.class)))
+                    .thenReturn(1);
+            when(pedidoProdutoRepository.buscarItensComProdutoPorIdPedido(uuidPedido))
+                    .thenReturn(List.of(maisBarato, maisCaro));
+
+            pedidoProdutoRepositoryPort.excluirPedidoProdutosRecalculandoValor(uuidPedido, List.of(removido));
+
+            assertThat(maisBarato.getQuantidade()).isEqualTo(1);
+            verify(pedidoProdutoRepository).deleteAll(List.of(maisCaro));
         }
 
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Remover vários PedidoProduto quando o pedido não está aberto")
+        void deveFalhar_AoRemoverPedidoProdutosEmPedidoNaoAberto() {
+            var lanche = Helper.gerarProdutoLanche();
+            lanche.setIdProduto(UUID.randomUUID());
+
+            when(pedidoRepository.somarValorPedido(any(UUID.class), anyLong(), any(StatusPedido.class)))
+                    .thenReturn(0);
+
+            assertThatThrownBy(() -> pedidoProdutoRepositoryPort
+                    .excluirPedidoProdutosRecalculandoValor(UUID.randomUUID(), List.of(lanche)))
+                    .isInstanceOf(PedidoOperacaoNaoSuportadaException.class);
+
+            verify(pedidoProdutoRepository, never()).deleteAll(anyList());
+            verify(pedidoRepository, never()).recalcularValorPedido(any(UUID.class));
+        }
     }
 
     @Nested
@@ -126,79 +265,61 @@ class PedidoProdutoRepositoryAdapterTest {
 
         @Test
         @Severity(SeverityLevel.CRITICAL)
-        @Description("Buscar todos os produtos associados ao pedido")
+        @Description("Buscar todos os produtos associados ao pedido, uma unidade por quantidade")
         void deveObterTodosOsProdutosAssociadosAoPedidoPeloIdPedido() {
             var uuid = UUID.randomUUID();
 
-            var produtoEntity = Helper.gerarProdutoEntity();
+            var pedidoProdutoEntity = Helper.gerarPedidoProdutoEntity();
+            pedidoProdutoEntity.setQuantidade(2);
+            var produtoEntity = pedidoProdutoEntity.getProduto();
 
-            when(produtoRepository
-                    .findAllProductsByIdPedido(any(UUID.class)))
-                    .thenReturn(Optional.of(List.of(produtoEntity)));
+            when(pedidoProdutoRepository
+                    .buscarItensComProdutoPorIdPedido(any(UUID.class)))
+                    .thenReturn(List.of(pedidoProdutoEntity));
 
             var pedidoProdutoSalvo = pedidoProdutoRepositoryPort
                     .obterTodosOsProdutosAssociadosAoPedidoPeloIdPedido(uuid);
 
-            assertThat(pedidoProdutoSalvo.isEmpty()).isFalse();
+            assertThat(pedidoProdutoSalvo).hasSize(2);
             assertThat(pedidoProdutoSalvo.get(0)).isInstanceOf(Produto.class);
 
             assertThat(pedidoProdutoSalvo.get(0).getIdProduto()).isEqualTo(produtoEntity.getIdProduto());
 
-            verify(produtoRepository, times(1))
-                    .findAllProductsByIdPedido(any(UUID.class));
+            verify(pedidoProdutoRepository, times(1))
+                    .buscarItensComProdutoPorIdPedido(any(UUID.class));
         }
     }
-    @Nested
-    class RemoverPedidoProduto {
-        @Test
-        @Severity(SeverityLevel.CRITICAL)
-        @Description("Remover PedidoProduto")
-        void deveRemoverPedidoProduto() {
-            var uuidPedido = UUID.randomUUID();
-            var uuidProduto = UUID.randomUUID();
-            var uuidPedidoProduto = UUID.randomUUID();
-            var uuidPedidoEntity = UUID.randomUUID();
 
-            var pedido = Helper.gerarPedidoComClienteEProdutos();
-            pedido.setIdPedido(uuidPedido);
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Devolver cada unidade com o valor gravado na linha, e não com o valor atual do produto")
+    void deveDevolverProdutosComValorDaLinha() {
+        var item = gerarItem(Helper.gerarProdutoLanche(), 2);
+        item.getProduto().setValorProduto(new ValorProduto(item.getValorProduto() + 200));
 
-            var produto = Helper.gerarProdutoLanche();
-            produto.setIdProduto(uuidProduto);
-
-            var pedidoEntity = new PedidoEntity().from(pedido, false);
+        when(pedidoProdutoRepository.buscarItensComProdutoPorIdPedido(any(UUID.class))).thenReturn(List.of(item));
 
-            var pedidoProdutoEntity = Helper.gerarPedidoProdutoEntity();
-            pedidoProdutoEntity.setId(uuidPedidoProduto);
+        var produtos = pedidoProdutoRepositoryPort
+                .obterTodosOsProdutosAssociadosAoPedidoPeloIdPedido(item.getPedido().getIdPedido());
 
-            pedidoEntity.setProdutos(List.of(pedidoProdutoEntity));
-            pedidoEntity.setIdPedido(uuidPedidoEntity);
-
-            when(pedidoRepository.findById(any(UUID.class))).thenReturn(Optional.of(pedidoEntity));
-            doNothing().when(pedidoProdutoRepository)
-                    .deleteByIdPedidoAndIdProduto(any(UUID.class), any(UUID.class));
-
-            pedidoProdutoRepositoryPort.excluirPedidoProduto(uuidPedido, uuidProduto);
-
-            verify(pedidoProdutoRepository, times(1))
-                    .deleteByIdPedidoAndIdProduto(any(UUID.class), any(UUID.class));
-
-            verify(pedidoRepository, times(1)).findById(any(UUID.class));
-        }
-
-        @Test
-        @Severity(SeverityLevel.CRITICAL)
-        @Description("Remover PedidoProduto quando não existe pedido")
-        void deveFalhar_AoTentarRemoverPedidoProduto() {
-            var uuidPedido = UUID.randomUUID();
-            var uuidProduto = UUID.randomUUID();
-
-            when(pedidoRepository.findById(any(UUID.class))).thenReturn(Optional.empty());
+        assertThat(produtos).extracting(produto -> produto.getValorProduto().getCentavos())
+                .containsExactly(item.getValorProduto(), item.getValorProduto());
+    }
 
-            assertThatThrownBy(() -> pedidoProdutoRepositoryPort.excluirPedidoProduto(uuidPedido, uuidProduto))
-                    .isInstanceOf(PedidoNaoEncontradoException.class)
-                            .hasMessage("Pedido não encontrado");
+    private static PedidoProdutoEntity gerarItem(Produto produto, int quantidade) {
+        produto.setIdProduto(UUID.randomUUID());
+        var pedido = Helper.gerarPedidoComCliente();
+        pedido.setIdPedido(UUID.randomUUID());
+        return PedidoProdutoEntity.builder()
+                .pedido(new PedidoEntity().from(pedido, true))
+                .produto(new ProdutoEntity().from(produto, true))
+                .valorProduto(produto.getValorProduto().getCentavos())
+                .quantidade(quantidade)
+                .build();
+    }
 
-            verify(pedidoRepository, times(1)).findById(any(UUID.class));
-        }
+    private static ItemListagem gerarItemGravado(UUID idPedido, long valorPedido) {
+        return new ItemListagem(idPedido, UUID.randomUUID(), StatusPedido.A, valorPedido,
+                new Date(), new Date(), 2L);
     }
 }
@@ -0,0 +1,148 @@
+package com.fiap.pedidos.gateways;
+
+import com.fiap.pedidos.entities.Pedido;
+import com.fiap.pedidos.exceptions.entities.PedidoAlteradoConcorrentementeException;
+import com.fiap.pedidos.gateways.entities.ClienteEntity;
+import com.fiap.pedidos.gateways.entities.PedidoEntity;
+import com.fiap.pedidos.gateways.projecao.ProjecaoListagemPedidos;
+import com.fiap.pedidos.helpers.Helper;
+import com.fiap.pedidos.helpers.JpaTestConfiguration;
+import com.fiap.pedidos.interfaces.repositories.ClienteRepository;
+import com.fiap.pedidos.interfaces.repositories.FilaOutboxRepository;
+import com.fiap.pedidos.interfaces.repositories.PedidoRepository;
+import com.fiap.pedidos.utils.enums.StatusPedido;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//Sem transação do teste: cada thread grava na sua própria transação, como as requisições concorrentes
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ContextConfiguration(classes = {JpaTestConfiguration.class, PedidoRepositoryAdapter.class, ProjecaoListagemPedidos.class})
+class PedidoRepositoryAdapterConcorrenciaTest {
+
+    private static final int THREADS = 8;
+    private static final int ATUALIZACOES_POR_THREAD = 10;
+
+    @Autowired
+    private PedidoRepositoryAdapter pedidoRepositoryAdapter;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private FilaOutboxRepository filaOutboxRepository;
+
+    private ExecutorService executor;
+
+    private UUID idPedido;
+
+    @BeforeEach
+    void setup() {
+        var cliente = clienteRepository.save(new ClienteEntity().from(Helper.gerarClienteComTodosDados()));
+        var pedido = new PedidoEntity().from(Helper.gerarPedidoComCliente(), true);
+        pedido.setCliente(cliente);
+        pedido.setDataAtualizacao(new Date());
+        idPedido = pedidoRepository.save(pedido).getIdPedido();
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        filaOutboxRepository.deleteAll();
+        pedidoRepository.deleteAll();
+        clienteRepository.deleteAll();
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Não perder atualizações do valor do pedido gravadas concorrentemente")
+    void naoDevePerderAtualizacoesConcorrentes() throws Exception {
+        executarConcorrentemente(() -> {
+            for (int i = 0; i < ATUALIZACOES_POR_THREAD; i++) {
+                while (true) {
+                    Pedido pedido = pedidoRepositoryAdapter.buscarPorId(idPedido).orElseThrow();
+                    pedido.setValorPedido(pedido.getValorPedido() + 1);
+                    pedido.setDataAtualizacao(new Date());
+                    try {
+                        pedidoRepositoryAdapter.atualizarPedido(pedido);
+                        break;
+                    } catch (PedidoAlteradoConcorrentementeException e) {
+                        //Outra thread gravou antes: relê o pedido e soma de novo
+                    }
+                }
+            }
+            return null;
+        });
+
+        var pedidoEntity = pedidoRepository.findById(idPedido).orElseThrow();
+        assertThat(pedidoEntity.getValorPedido()).isEqualTo(THREADS * ATUALIZACOES_POR_THREAD);
+        assertThat(pedidoEntity.getVersao()).isEqualTo(THREADS * ATUALIZACOES_POR_THREAD);
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Transicionar o status e gravar o envio para a fila uma única vez sob concorrência")
+    void deveTransicionarStatusUmaUnicaVez() throws Exception {
+        var transicoes = new AtomicInteger();
+
+        executarConcorrentemente(() -> {
+            Pedido pedido = pedidoRepositoryAdapter.buscarPorId(idPedido).orElseThrow();
+            pedido.setStatusPedido(StatusPedido.R);
+            try {
+                pedidoRepositoryAdapter.transicionarStatusEnviandoParaFila(pedido, StatusPedido.A);
+                transicoes.incrementAndGet();
+            } catch (PedidoAlteradoConcorrentementeException e) {
+                //Outra thread já confirmou o pedido
+            }
+            return null;
+        });
+
+        var pedidoEntity = pedidoRepository.findById(idPedido).orElseThrow();
+        assertThat(transicoes.get()).isEqualTo(1);
+        assertThat(pedidoEntity.getStatusPedido()).isEqualTo(StatusPedido.R);
+        assertThat(pedidoEntity.getOrdemStatus()).isEqualTo(StatusPedido.R.getOrdemListagem());
+        assertThat(filaOutboxRepository.findAll()).hasSize(1);
+    }
+
+    private void executarConcorrentemente(Callable<Void> tarefa) throws Exception {
+        var largada = new CountDownLatch(1);
+        List<Future<Void>> execucoes = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            execucoes.add(executor.submit(() -> {
+                largada.await();
+                return tarefa.call();
+            }));
+        }
+        largada.countDown();
+        for (Future<Void> execucao : execucoes) {
+            execucao.get(30, TimeUnit.SECONDS);
+        }
+    }
+}
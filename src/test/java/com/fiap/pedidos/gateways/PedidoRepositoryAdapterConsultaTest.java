@@ -0,0 +1,351 @@
+package com.fiap.pedidos.gateways;
+
+import com.fiap.pedidos.entities.Cliente;
+import com.fiap.pedidos.entities.Cpf;
+import com.fiap.pedidos.entities.CursorPedido;
+import com.fiap.pedidos.entities.Pedido;
+import com.fiap.pedidos.entities.Produto;
+import com.fiap.pedidos.entities.ValorProduto;
+import com.fiap.pedidos.gateways.entities.ClienteEntity;
+import com.fiap.pedidos.gateways.entities.PedidoEntity;
+import com.fiap.pedidos.gateways.projecao.ProjecaoListagemPedidos;
+import com.fiap.pedidos.gateways.entities.PedidoProdutoEntity;
+import com.fiap.pedidos.gateways.entities.ProdutoEntity;
+import com.fiap.pedidos.helpers.Helper;
+import com.fiap.pedidos.helpers.JpaTestConfiguration;
+import com.fiap.pedidos.interfaces.repositories.PedidoExcluidoRepository;
+import com.fiap.pedidos.interfaces.repositories.PedidoRepository;
+import com.fiap.pedidos.utils.enums.StatusPedido;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@ContextConfiguration(classes = {JpaTestConfiguration.class, PedidoRepositoryAdapter.class,
+        PedidoProdutoRepositoryAdapter.class, ProjecaoListagemPedidos.class})
+class PedidoRepositoryAdapterConsultaTest {
+
+    @Autowired
+    private PedidoRepositoryAdapter pedidoRepositoryAdapter;
+
+    @Autowired
+    private PedidoProdutoRepositoryAdapter pedidoProdutoRepositoryAdapter;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private PedidoExcluidoRepository pedidoExcluidoRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private UUID idPedido;
+
+    private UUID idCliente;
+
+    @BeforeEach
+    void setup() {
+        var cliente = entityManager.persist(new ClienteEntity().from(Helper.gerarClienteComTodosDados()));
+        var lanche = entityManager.persist(new ProdutoEntity().from(Helper.gerarProdutoLanche(), true));
+        var bebida = entityManager.persist(new ProdutoEntity().from(Helper.gerarProdutoBebida(), true));
+
+        var pedido = new PedidoEntity().from(Helper.gerarPedidoComCliente(), true);
+        pedido.setCliente(cliente);
+        pedido = entityManager.persist(pedido);
+        entityManager.persist(PedidoProdutoEntity.builder().pedido(pedido).produto(lanche).build());
+        entityManager.persist(PedidoProdutoEntity.builder().pedido(pedido).produto(bebida).build());
+        idPedido = pedido.getIdPedido();
+        idCliente = cliente.getId();
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Buscar pedido com cliente e produtos executando uma única consulta")
+    void deveBuscarPedidoComProdutosEmUmaUnicaConsulta() {
+        Pedido pedido = pedidoRepositoryAdapter.buscarPorIdComProdutos(idPedido).orElseThrow();
+
+        assertThat(pedido.getCliente()).isNotNull();
+        assertThat(pedido.getProdutos()).hasSize(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Paginar pedidos por cursor na ordem de status, data de inclusão e id")
+    void devePaginarPedidosPorCursor() {
+        var cliente = entityManager.find(ClienteEntity.class, idCliente);
+        var pronto = persistirPedido(cliente, StatusPedido.P, 1);
+        var finalizado = persistirPedido(cliente, StatusPedido.F, 2);
+        var recebido = persistirPedido(cliente, StatusPedido.R, 3);
+        var emPreparacao = persistirPedido(cliente, StatusPedido.E, 4);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<UUID> idsListados = new ArrayList<>();
+        CursorPedido cursor = null;
+        List<Pedido> pagina;
+        do {
+            pagina = pedidoRepositoryAdapter.buscarTodos(cursor, 2);
+            pagina.forEach(pedido -> idsListados.add(pedido.getIdPedido()));
+            cursor = pagina.isEmpty() ? null : CursorPedido.de(pagina.get(pagina.size() - 1));
+        } while (pagina.size() == 2);
+
+        assertThat(idsListados).containsExactly(emPreparacao, recebido, idPedido, finalizado);
+        assertThat(idsListados).doesNotContain(pronto);
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Listar pedidos de clientes diferentes executando uma única consulta por página")
+    void deveListarPedidosEmUmaUnicaConsultaPorPagina() {
+        //O CPF é único: cada cliente precisa do seu
+        var cpfs = List.of("52998224725", "11144477735", "12345678909");
+        for (int i = 0; i < cpfs.size(); i++) {
+            var cliente = entityManager.persist(new ClienteEntity().from(Cliente.builder().cpf(new Cpf(cpfs.get(i))).build()));
+            persistirPedido(cliente, StatusPedido.R, i);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        var primeiraPagina = pedidoRepositoryAdapter.buscarTodos(null, 2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        var segundaPagina = pedidoRepositoryAdapter.buscarTodos(CursorPedido.de(primeiraPagina.get(1)), 2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        assertThat(primeiraPagina).hasSize(2);
+        assertThat(segundaPagina).hasSize(2);
+        assertThat(segundaPagina).allSatisfy(pedido -> assertThat(pedido.getCliente().getId()).isNotNull());
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Buscar pedidos abertos na janela de reconciliação e confirmar os pagamentos em lote")
+    void deveReconciliarPedidosAbertosEmLote() {
+        var cliente = entityManager.find(ClienteEntity.class, idCliente);
+        var abertoHaVinteMinutos = persistirPedido(cliente, StatusPedido.A, -20);
+        var abertoHaDezMinutos = persistirPedido(cliente, StatusPedido.A, -10);
+        persistirPedido(cliente, StatusPedido.A, -1);
+        var recebido = persistirPedido(cliente, StatusPedido.R, -10);
+        entityManager.flush();
+        entityManager.clear();
+
+        long agora = System.currentTimeMillis();
+        var inicioJanela = new CursorPedido(StatusPedido.A.getOrdemListagem(), new Date(agora - 3_600_000L), new UUID(0, 0));
+        var aguardando = pedidoRepositoryAdapter.buscarAguardandoPagamento(inicioJanela, new Date(agora - 300_000L), 10);
+
+        assertThat(aguardando).extracting(Pedido::getIdPedido)
+                .containsExactly(abertoHaVinteMinutos, abertoHaDezMinutos);
+
+        var confirmados = pedidoRepositoryAdapter.confirmarPagamentos(
+                List.of(abertoHaVinteMinutos, abertoHaDezMinutos, recebido));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(confirmados).extracting(Pedido::getIdPedido)
+                .containsExactlyInAnyOrder(abertoHaVinteMinutos, abertoHaDezMinutos);
+        assertThat(entityManager.find(PedidoEntity.class, abertoHaDezMinutos).getStatusPedido()).isEqualTo(StatusPedido.R);
+        assertThat(entityManager.find(PedidoEntity.class, abertoHaDezMinutos).getOrdemStatus())
+                .isEqualTo(StatusPedido.R.getOrdemListagem());
+        assertThat(entityManager.getEntityManager()
+                .createQuery("SELECT f.idPedido FROM FilaOutboxEntity f", UUID.class).getResultList())
+                .containsExactlyInAnyOrder(abertoHaVinteMinutos, abertoHaDezMinutos);
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Recalcular pelos itens o total dos pedidos abertos divergentes, ignorando os alterados fora da janela")
+    void deveCorrigirValoresDivergentesPelosItens() {
+        var cliente = entityManager.find(ClienteEntity.class, idCliente);
+        var lanche = entityManager.persist(new ProdutoEntity().from(Helper.gerarProdutoLanche(), true));
+        var divergente = persistirPedidoComItens(cliente, 999L, new Date(System.currentTimeMillis() - 600_000L), lanche, 500L, 2);
+        var correto = persistirPedidoComItens(cliente, 500L, new Date(System.currentTimeMillis() - 600_000L), lanche, 500L, 1);
+        var recente = persistirPedidoComItens(cliente, 0L, new Date(), lanche, 500L, 1);
+        var antigo = persistirPedidoComItens(cliente, 0L, new Date(System.currentTimeMillis() - 7_200_000L), lanche, 500L, 1);
+        var pago = persistirPedidoComItens(cliente, 0L, new Date(System.currentTimeMillis() - 600_000L), lanche, 500L, 1);
+        entityManager.find(PedidoEntity.class, pago).setStatusPedido(StatusPedido.R);
+        entityManager.flush();
+        entityManager.clear();
+
+        var corrigidos = pedidoRepositoryAdapter.corrigirValoresDivergentes(
+                new Date(System.currentTimeMillis() - 3_600_000L), new Date(System.currentTimeMillis() - 60_000L), 10);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(corrigidos).containsExactly(divergente);
+        assertThat(entityManager.find(PedidoEntity.class, divergente).getValorPedido()).isEqualTo(1000L);
+        assertThat(entityManager.find(PedidoEntity.class, correto).getValorPedido()).isEqualTo(500L);
+        assertThat(entityManager.find(PedidoEntity.class, recente).getValorPedido()).isZero();
+        assertThat(entityManager.find(PedidoEntity.class, antigo).getValorPedido()).isZero();
+        assertThat(entityManager.find(PedidoEntity.class, pago).getValorPedido()).isZero();
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Incluir e remover unidades do mesmo produto alterando a quantidade de uma única linha")
+    void deveManterUmaLinhaPorProdutoComQuantidade() {
+        var sobremesa = entityManager.persist(new ProdutoEntity().from(Helper.gerarProdutoSobremesa(), true)).to();
+        entityManager.flush();
+        entityManager.clear();
+
+        pedidoProdutoRepositoryAdapter.adicionarPedidoProdutoSomandoValor(idPedido, sobremesa);
+        var pedidoAlterado = pedidoProdutoRepositoryAdapter
+                .adicionarPedidoProdutosSomandoValor(idPedido, List.of(sobremesa, sobremesa));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(pedidoAlterado.getValorPedido()).isEqualTo(1500L);
+        assertThat(pedidoAlterado.getCliente().getId()).isEqualTo(idCliente);
+        assertThat(pedidoAlterado.getStatusPedido()).isEqualTo(StatusPedido.A);
+        assertThat(pedidoAlterado.getProdutos()).containsExactly(sobremesa, sobremesa);
+        assertThat(buscarItens(sobremesa.getIdProduto())).singleElement()
+                .satisfies(item -> assertThat(item.getQuantidade()).isEqualTo(3));
+        assertThat(entityManager.find(PedidoEntity.class, idPedido).getValorPedido()).isEqualTo(1500L);
+
+        var valorAposRemocao = pedidoProdutoRepositoryAdapter
+                .excluirPedidoProdutosRecalculandoValor(idPedido, List.of(sobremesa, sobremesa));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(valorAposRemocao).isEqualTo(500L);
+        assertThat(buscarItens(sobremesa.getIdProduto())).singleElement()
+                .satisfies(item -> assertThat(item.getQuantidade()).isEqualTo(1));
+
+        pedidoProdutoRepositoryAdapter.excluirPedidoProdutosRecalculandoValor(idPedido, List.of(sobremesa));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(buscarItens(sobremesa.getIdProduto())).isEmpty();
+        assertThat(pedidoRepositoryAdapter.buscarPorIdComProdutos(idPedido).orElseThrow().getProdutos()).hasSize(2);
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Abrir uma linha nova quando o produto volta ao pedido com outro valor, num único comando")
+    void deveAbrirLinhaPorValorDoProduto() {
+        var sobremesa = entityManager.persist(new ProdutoEntity().from(Helper.gerarProdutoSobremesa(), true)).to();
+        entityManager.flush();
+        entityManager.clear();
+
+        pedidoProdutoRepositoryAdapter.adicionarPedidoProdutoSomandoValor(idPedido, sobremesa);
+        var reajustada = new Produto(sobremesa.getIdProduto(), sobremesa.getNomeProduto(),
+                sobremesa.getDescricaoProduto(), sobremesa.getTipoProduto(),
+                new ValorProduto(sobremesa.getValorProduto().getCentavos() + 200), sobremesa.getAtivo());
+        statistics.clear();
+        pedidoProdutoRepositoryAdapter.adicionarPedidoProdutosSomandoValor(idPedido, List.of(sobremesa, reajustada, reajustada));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(buscarItens(sobremesa.getIdProduto()))
+                .extracting(PedidoProdutoEntity::getValorProduto, PedidoProdutoEntity::getQuantidade)
+                .containsExactlyInAnyOrder(
+                        tuple(sobremesa.getValorProduto().getCentavos(), 2),
+                        tuple(sobremesa.getValorProduto().getCentavos() + 200, 2));
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Carimbar a alteração do pedido com a hora do banco, lida pela sincronização da projeção")
+    void deveCarimbarAlteracaoComHoraDoBanco() {
+        var cliente = entityManager.find(ClienteEntity.class, idCliente);
+        var lanche = entityManager.persist(new ProdutoEntity().from(Helper.gerarProdutoLanche(), true));
+        var alterado = persistirPedidoComItens(cliente, 0L, new Date(System.currentTimeMillis() - 7_200_000L), lanche, 500L, 1);
+        entityManager.flush();
+        entityManager.clear();
+
+        var antesDaAlteracao = pedidoRepository.agora();
+        pedidoProdutoRepositoryAdapter.adicionarPedidoProdutoSomandoValor(alterado, lanche.to());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(entityManager.find(PedidoEntity.class, alterado).getDataAtualizacao())
+                .isAfterOrEqualTo(antesDaAlteracao);
+        assertThat(pedidoRepository.buscarAlteradosDesde(antesDaAlteracao))
+                .extracting(item -> item.idPedido())
+                .containsExactly(alterado);
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Registrar a exclusão do pedido com a última versão, para as outras réplicas")
+    void deveRegistrarExclusaoDoPedido() {
+        var antesDaExclusao = pedidoRepository.agora();
+        var versao = entityManager.find(PedidoEntity.class, idPedido).getVersao();
+        entityManager.clear();
+
+        pedidoRepositoryAdapter.remover(idPedido);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(entityManager.find(PedidoEntity.class, idPedido)).isNull();
+        assertThat(pedidoExcluidoRepository.buscarExcluidosDesde(antesDaExclusao)).singleElement()
+                .satisfies(excluido -> {
+                    assertThat(excluido.getIdPedido()).isEqualTo(idPedido);
+                    assertThat(excluido.getVersao()).isEqualTo(versao);
+                });
+    }
+
+    private List<PedidoProdutoEntity> buscarItens(UUID idProduto) {
+        return entityManager.getEntityManager()
+                .createQuery("SELECT pp FROM PedidoProdutoEntity pp WHERE pp.pedido.idPedido = ?1 " +
+                        "AND pp.produto.idProduto = ?2", PedidoProdutoEntity.class)
+                .setParameter(1, idPedido)
+                .setParameter(2, idProduto)
+                .getResultList();
+    }
+
+    private UUID persistirPedidoComItens(ClienteEntity cliente, long valorPedido, Date dataAtualizacao,
+                                         ProdutoEntity produto, long valorItem, int quantidade) {
+        var pedido = new PedidoEntity().from(Helper.gerarPedidoComCliente(), true);
+        pedido.setCliente(cliente);
+        pedido.setValorPedido(valorPedido);
+        pedido.setDataAtualizacao(dataAtualizacao);
+        pedido = entityManager.persist(pedido);
+        entityManager.persist(PedidoProdutoEntity.builder()
+                .pedido(pedido).produto(produto).valorProduto(valorItem).quantidade(quantidade).build());
+        return pedido.getIdPedido();
+    }
+
+    private UUID persistirPedido(ClienteEntity cliente, StatusPedido statusPedido, int minutos) {
+        var pedido = new PedidoEntity().from(Helper.gerarPedidoComCliente(), true);
+        pedido.setCliente(cliente);
+        pedido.setStatusPedido(statusPedido);
+        pedido.setDataInclusao(new Date(System.currentTimeMillis() + minutos * 60_000L));
+        return entityManager.persist(pedido).getIdPedido();
+    }
+}
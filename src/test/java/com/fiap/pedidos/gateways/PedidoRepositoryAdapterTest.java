@@ -1,11 +1,20 @@
 package com.fiap.pedidos.gateways;
 
+import com.fiap.pedidos.entities.CursorPedido;
 import com.fiap.pedidos.entities.Pedido;
+import com.fiap.pedidos.exceptions.entities.PedidoAlteradoConcorrentementeException;
+import com.fiap.pedidos.gateways.entities.FilaOutboxEntity;
 import com.fiap.pedidos.gateways.entities.PedidoEntity;
+import com.fiap.pedidos.gateways.projecao.ItemListagem;
+import com.fiap.pedidos.gateways.projecao.ProjecaoListagemPedidos;
 import com.fiap.pedidos.helpers.Helper;
 import com.fiap.pedidos.interfaces.gateways.IPedidoRepositoryPort;
+import com.fiap.pedidos.interfaces.repositories.ClienteRepository;
+import com.fiap.pedidos.interfaces.repositories.FilaOutboxRepository;
+import com.fiap.pedidos.interfaces.repositories.PedidoExcluidoRepository;
 import com.fiap.pedidos.interfaces.repositories.PedidoProdutoRepository;
 import com.fiap.pedidos.interfaces.repositories.PedidoRepository;
+import com.fiap.pedidos.utils.enums.StatusPedido;
 import io.qameta.allure.Description;
 import io.qameta.allure.Severity;
 import io.qameta.allure.SeverityLevel;
@@ -15,16 +24,17 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.data.domain.Pageable;
 
-import java.math.BigDecimal;
-import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 class PedidoRepositoryAdapterTest {
@@ -37,12 +47,27 @@ class PedidoRepositoryAdapterTest {
     @Mock
     private PedidoProdutoRepository pedidoProdutoRepository;
 
+    @Mock
+    private ClienteRepository clienteRepository;
+
+    @Mock
+    private FilaOutboxRepository filaOutboxRepository;
+
+    @Mock
+    private ProjecaoListagemPedidos projecaoListagemPedidos;
+
+    @Mock
+    private PedidoExcluidoRepository pedidoExcluidoRepository;
+
     AutoCloseable mock;
 
     @BeforeEach
     void setup() {
         mock = MockitoAnnotations.openMocks(this);
-        pedidoRepositoryPort = new PedidoRepositoryAdapter(pedidoRepository, pedidoProdutoRepository);
+        pedidoRepositoryPort = new PedidoRepositoryAdapter(pedidoRepository, pedidoProdutoRepository, clienteRepository,
+                filaOutboxRepository,
+                projecaoListagemPedidos,
+                pedidoExcluidoRepository);
     }
 
     @AfterEach
@@ -68,9 +93,26 @@ class PedidoRepositoryAdapterTest {
             assertThat(pedidoSalvo).isNotNull();
             assertThat(pedidoSalvo).isInstanceOf(Pedido.class);
             assertThat(pedidoSalvo.getIdPedido()).isNotNull();
-            assertThat(pedidoSalvo.getValorPedido()).isEqualTo(new BigDecimal("0.0"));
+            assertThat(pedidoSalvo.getValorPedido()).isZero();
             verify(pedidoRepository, times(1)).save(any(PedidoEntity.class));
         }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Tirar o cliente anônimo da limpeza das reservas no primeiro pedido")
+        void deveConfirmarReservaDoCliente_AoCadastrarPedido() {
+            var pedido = Helper.gerarPedidoComCliente();
+            var pedidoEntity = new PedidoEntity().from(pedido, true);
+            pedidoEntity.setIdPedido(UUID.randomUUID());
+
+            when(pedidoRepository.save(any(PedidoEntity.class))).thenReturn(pedidoEntity);
+
+            pedidoRepositoryPort.cadastrar(pedido);
+
+            var ordem = inOrder(clienteRepository, pedidoRepository);
+            ordem.verify(clienteRepository).confirmarReserva(pedido.getCliente().getId());
+            ordem.verify(pedidoRepository).save(any(PedidoEntity.class));
+        }
     }
 
     @Nested
@@ -78,20 +120,115 @@ class PedidoRepositoryAdapterTest {
 
         @Test
         @Severity(SeverityLevel.BLOCKER)
-        @Description("Atualizar pedido")
+        @Description("Atualizar pedido na versão lida")
         void deveAtualizarPedido() {
-            var pedido = Helper.gerarPedidoComCliente();
-            var pedidoEntity = new PedidoEntity().from(pedido, false);
-            pedidoEntity.setIdPedido(UUID.randomUUID());
+            var pedido = Helper.gerarPedidoComIDComClienteComIDEProdutos();
+            pedido.setVersao(3L);
 
-            when(pedidoRepository.save(any(PedidoEntity.class))).thenReturn(pedidoEntity);
+            when(pedidoRepository.atualizarNaVersao(any(UUID.class), anyLong(), any(StatusPedido.class), any(), any()))
+                    .thenReturn(1);
 
             var pedidoSalvo = pedidoRepositoryPort.atualizarPedido(pedido);
 
             assertThat(pedidoSalvo).isNotNull();
-            assertThat(pedidoSalvo).isInstanceOf(Pedido.class);
-            assertThat(pedidoSalvo.getIdPedido()).isNotNull();
-            verify(pedidoRepository, times(1)).save(any(PedidoEntity.class));
+            assertThat(pedidoSalvo.getIdPedido()).isEqualTo(pedido.getIdPedido());
+            assertThat(pedidoSalvo.getVersao()).isEqualTo(4L);
+            verify(pedidoRepository, times(1)).atualizarNaVersao(
+                    eq(pedido.getIdPedido()), eq(pedido.getValorPedido()), eq(StatusPedido.A),
+                    eq(StatusPedido.A.getOrdemListagem()), eq(3L));
+            verify(pedidoRepository, never()).save(any(PedidoEntity.class));
+            verify(filaOutboxRepository, never()).save(any(FilaOutboxEntity.class));
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Lançar exceção quando o pedido foi gravado por outra operação depois de lido")
+        void deveLancarExcecao_QuandoVersaoDesatualizada() {
+            var pedido = Helper.gerarPedidoComIDComClienteComIDEProdutos();
+            pedido.setVersao(3L);
+
+            when(pedidoRepository.atualizarNaVersao(any(UUID.class), anyLong(), any(StatusPedido.class), any(), any()))
+                    .thenReturn(0);
+
+            assertThatThrownBy(() -> pedidoRepositoryPort.atualizarPedido(pedido))
+                    .isInstanceOf(PedidoAlteradoConcorrentementeException.class);
+            assertThat(pedido.getVersao()).isEqualTo(3L);
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Transicionar status gravando o envio para a fila no outbox")
+        void deveTransicionarStatusGravandoEnvioParaFila() {
+            var pedido = Helper.gerarPedidoComIDComClienteComIDEProdutos();
+            pedido.setStatusPedido(StatusPedido.R);
+
+            when(pedidoRepository.transicionarStatus(any(UUID.class), any(StatusPedido.class), any(StatusPedido.class), any()))
+                    .thenReturn(1);
+
+            var pedidoSalvo = pedidoRepositoryPort.transicionarStatusEnviandoParaFila(pedido, StatusPedido.A);
+
+            assertThat(pedidoSalvo.getStatusPedido()).isEqualTo(StatusPedido.R);
+            assertThat(pedidoSalvo.getDataAtualizacao()).isNotNull();
+            verify(pedidoRepository, times(1)).transicionarStatus(
+                    eq(pedido.getIdPedido()), eq(StatusPedido.A), eq(StatusPedido.R),
+                    eq(StatusPedido.R.getOrdemListagem()));
+            verify(filaOutboxRepository, times(1)).save(argThat(envio ->
+                    envio.getIdPedido().equals(pedido.getIdPedido())
+                            && envio.getIdCliente().equals(pedido.getCliente().getId())
+                            && envio.getTentativas() == 0
+                            && envio.getProximaTentativa() != null));
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Não gravar o envio para a fila quando o pedido já saiu do status esperado")
+        void naoDeveGravarEnvioParaFila_QuandoStatusAlterado() {
+            var pedido = Helper.gerarPedidoComIDComClienteComIDEProdutos();
+            pedido.setStatusPedido(StatusPedido.R);
+
+            when(pedidoRepository.transicionarStatus(any(UUID.class), any(StatusPedido.class), any(StatusPedido.class), any()))
+                    .thenReturn(0);
+
+            assertThatThrownBy(() -> pedidoRepositoryPort.transicionarStatusEnviandoParaFila(pedido, StatusPedido.A))
+                    .isInstanceOf(PedidoAlteradoConcorrentementeException.class);
+            verify(filaOutboxRepository, never()).save(any(FilaOutboxEntity.class));
+        }
+    }
+
+    @Nested
+    class ConfirmarPagamentos {
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Confirmar pagamentos em lote gravando os envios para a fila")
+        void deveConfirmarPagamentosGravandoEnviosParaFila() {
+            var pedido = Helper.gerarPedidoComIDComClienteComIDEProdutos();
+            var pedidoEntity = new PedidoEntity().from(pedido, false);
+
+            when(pedidoRepository.buscarParaAtualizarStatus(anyCollection(), any(StatusPedido.class)))
+                    .thenReturn(List.of(pedidoEntity));
+
+            var confirmados = pedidoRepositoryPort.confirmarPagamentos(List.of(pedido.getIdPedido(), UUID.randomUUID()));
+
+            assertThat(confirmados).hasSize(1);
+            assertThat(confirmados.get(0).getStatusPedido()).isEqualTo(StatusPedido.R);
+            verify(pedidoRepository, times(1)).buscarParaAtualizarStatus(anyCollection(), eq(StatusPedido.A));
+            verify(pedidoRepository, times(1)).atualizarStatus(
+                    eq(List.of(pedido.getIdPedido())), eq(StatusPedido.R), eq(StatusPedido.R.getOrdemListagem()));
+            verify(filaOutboxRepository, times(1)).saveAll(argThat(envios -> envios.iterator().hasNext()));
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Não atualizar nada quando os pedidos já saíram de aberto")
+        void naoDeveAtualizar_QuandoPedidosNaoEstaoAbertos() {
+            when(pedidoRepository.buscarParaAtualizarStatus(anyCollection(), any(StatusPedido.class)))
+                    .thenReturn(List.of());
+
+            assertThat(pedidoRepositoryPort.confirmarPagamentos(List.of(UUID.randomUUID()))).isEmpty();
+
+            verify(pedidoRepository, never()).atualizarStatus(anyCollection(), any(), any());
+            verify(filaOutboxRepository, never()).saveAll(any());
         }
     }
 
@@ -117,26 +254,66 @@ class PedidoRepositoryAdapterTest {
             verify(pedidoRepository, times(1)).findById(any(UUID.class));
         }
 
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Buscar pedidos ativos do cliente por status")
+        void deveBuscarPedidosAtivosPorClienteEStatus() {
+            var idCliente = UUID.randomUUID();
+            var pedidoEntity = new PedidoEntity().from(Helper.gerarPedidoComCliente(), false);
+
+            when(pedidoRepository.buscarPedidosAtivosPorClienteEStatus(any(UUID.class), any(String.class)))
+                    .thenReturn(List.of(pedidoEntity));
+
+            var pedidos = pedidoRepositoryPort.buscarPedidosAtivosPorClienteEStatus(idCliente, StatusPedido.A);
+
+            assertThat(pedidos).hasSize(1);
+            verify(pedidoRepository, times(1)).buscarPedidosAtivosPorClienteEStatus(idCliente, "A");
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Recusar a busca de pedidos finalizados por cliente, que a consulta nunca devolve")
+        void deveRecusarBuscaDeFinalizadosPorCliente() {
+            assertThatThrownBy(() -> pedidoRepositoryPort
+                    .buscarPedidosAtivosPorClienteEStatus(UUID.randomUUID(), StatusPedido.F))
+                    .isInstanceOf(IllegalArgumentException.class);
+
+            verify(pedidoRepository, never()).buscarPedidosAtivosPorClienteEStatus(any(UUID.class), any(String.class));
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Buscar pedido com cliente e produtos")
+        void deveBuscarPedidoComProdutos() {
+            var pedido = Helper.gerarPedidoComCliente();
+            var uuid = UUID.randomUUID();
+            var pedidoEntity = new PedidoEntity().from(pedido, false);
+            pedidoEntity.setIdPedido(uuid);
+            pedidoEntity.setProdutos(List.of(Helper.gerarPedidoProdutoEntity()));
+
+            when(pedidoRepository.findByIdComClienteEProdutos(any(UUID.class))).thenReturn(Optional.of(pedidoEntity));
+
+            var pedidoSalvo = pedidoRepositoryPort.buscarPorIdComProdutos(uuid);
+
+            assertThat(pedidoSalvo).isPresent();
+            assertThat(pedidoSalvo.get().getIdPedido()).isEqualTo(uuid);
+            assertThat(pedidoSalvo.get().getProdutos()).hasSize(1);
+            verify(pedidoRepository, times(1)).findByIdComClienteEProdutos(any(UUID.class));
+            verify(pedidoRepository, never()).findById(any(UUID.class));
+        }
+
         @Test
         @Severity(SeverityLevel.CRITICAL)
         @Description("Buscar todos os pedidos excluindo os status finalizado")
         void deveBuscarTodosOsPedidos() {
-            var pedido = Helper.gerarPedidoComCliente();
             var uuidPedido1 = UUID.randomUUID();
             var uuidPedido2 = UUID.randomUUID();
+            var idCliente = UUID.randomUUID();
 
-            var pedidoEntityList = new ArrayList<PedidoEntity>();
-
-            pedidoEntityList.add(new PedidoEntity().from(pedido, false));
-            pedidoEntityList.add(new PedidoEntity().from(pedido, false));
-            pedidoEntityList.get(0).setIdPedido(uuidPedido1);
-            pedidoEntityList.get(1).setIdPedido(uuidPedido2);
+            when(pedidoRepository.listagemOrdenadaPorStatus(anyInt(), anyInt()))
+                    .thenReturn(List.of(gerarItemListagem(uuidPedido1, idCliente), gerarItemListagem(uuidPedido2, idCliente)));
 
-            when(pedidoRepository
-                    .listagemOrdenadaPorStatusExcluindoFinalizados(any(Pageable.class)))
-                    .thenReturn(pedidoEntityList);
-
-            var pedidoSalvo = pedidoRepositoryPort.buscarTodos(0, 100);
+            var pedidoSalvo = pedidoRepositoryPort.buscarTodos(null, 100);
 
             assertThat(pedidoSalvo.isEmpty()).isFalse();
 
@@ -145,12 +322,51 @@ class PedidoRepositoryAdapterTest {
 
             assertThat(pedidoSalvo.get(1)).isInstanceOf(Pedido.class);
             assertThat(pedidoSalvo.get(1).getIdPedido()).isEqualTo(uuidPedido2);
+            assertThat(pedidoSalvo.get(1).getCliente().getId()).isEqualTo(idCliente);
 
 
             verify(pedidoRepository, times(1))
-                    .listagemOrdenadaPorStatusExcluindoFinalizados(any(Pageable.class));
+                    .listagemOrdenadaPorStatus(StatusPedido.ORDEM_MAXIMA_LISTAGEM, 100);
+            verify(pedidoRepository, never()).listagemOrdenadaPorStatusAposCursor(
+                    anyInt(), anyInt(), any(Date.class), any(UUID.class), anyInt());
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Buscar a página de pedidos seguinte ao cursor")
+        void deveBuscarPedidosAposCursor() {
+            var cursor = new CursorPedido(StatusPedido.R.getOrdemListagem(), new Date(), UUID.randomUUID());
+
+            when(pedidoRepository.listagemOrdenadaPorStatusAposCursor(anyInt(), anyInt(), any(Date.class), any(UUID.class), anyInt()))
+                    .thenReturn(List.of(gerarItemListagem(UUID.randomUUID(), UUID.randomUUID())));
+
+            var pedidos = pedidoRepositoryPort.buscarTodos(cursor, 50);
+
+            assertThat(pedidos).hasSize(1);
+            verify(pedidoRepository, times(1)).listagemOrdenadaPorStatusAposCursor(
+                    eq(StatusPedido.ORDEM_MAXIMA_LISTAGEM),
+                    eq(cursor.getOrdemStatus()),
+                    eq(cursor.getDataInclusao()),
+                    eq(cursor.getIdPedido()),
+                    eq(50));
+            verify(pedidoRepository, never()).listagemOrdenadaPorStatus(anyInt(), anyInt());
         }
 
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Buscar pedidos na projeção da listagem sem consultar o banco")
+        void deveBuscarPedidosNaProjecao_QuandoProjecaoPronta() {
+            var pedido = Helper.gerarPedidoComIDComClienteComIDEProdutos();
+            var cursor = new CursorPedido(StatusPedido.R.getOrdemListagem(), new Date(), UUID.randomUUID());
+
+            when(projecaoListagemPedidos.isPronta()).thenReturn(true);
+            when(projecaoListagemPedidos.listar(cursor, 50)).thenReturn(List.of(pedido));
+
+            var pedidos = pedidoRepositoryPort.buscarTodos(cursor, 50);
+
+            assertThat(pedidos).containsExactly(pedido);
+            verifyNoInteractions(pedidoRepository);
+        }
         @Test
         @Severity(SeverityLevel.CRITICAL)
         @Description("Remover pedido sem produto associado")
@@ -159,6 +375,7 @@ class PedidoRepositoryAdapterTest {
             var uuid = UUID.randomUUID();
             var pedidoEntity = new PedidoEntity().from(pedido, false);
             pedidoEntity.setIdPedido(uuid);
+            pedidoEntity.setVersao(3L);
 
             when(pedidoRepository.findById(any(UUID.class))).thenReturn(Optional.of(pedidoEntity));
             doNothing().when(pedidoRepository).deleteById(any(UUID.class));
@@ -169,6 +386,8 @@ class PedidoRepositoryAdapterTest {
             verify(pedidoProdutoRepository, never()).deleteById(any(UUID.class));
             verify(pedidoRepository, times(1)).delete(any(PedidoEntity.class));
             verify(pedidoRepository, times(1)).findById(any(UUID.class));
+            verify(pedidoExcluidoRepository, times(1)).registrar(uuid, 3L);
+            verify(projecaoListagemPedidos, times(1)).remover(uuid, 3L);
         }
 
         @Test
@@ -183,6 +402,7 @@ class PedidoRepositoryAdapterTest {
 
             pedidoEntity.setProdutos(List.of(pedidoProdutoEntity));
             pedidoEntity.setIdPedido(uuid);
+            pedidoEntity.setVersao(0L);
 
             when(pedidoRepository.findById(any(UUID.class))).thenReturn(Optional.of(pedidoEntity));
             doNothing().when(pedidoRepository).deleteById(any(UUID.class));
@@ -195,9 +415,8 @@ class PedidoRepositoryAdapterTest {
             verify(pedidoRepository, times(1)).findById(any(UUID.class));
         }
     }
-}
-
-
-
-
 
+    private static ItemListagem gerarItemListagem(UUID idPedido, UUID idCliente) {
+        return new ItemListagem(idPedido, idCliente, StatusPedido.R, 1000L, new Date(), new Date(), 0L);
+    }
+}
@@ -3,6 +3,7 @@ package com.fiap.pedidos.gateways;
 import com.fiap.pedidos.entities.Produto;
 import com.fiap.pedidos.exceptions.entities.NomeInvalidoException;
 import com.fiap.pedidos.exceptions.entities.ProdutoNaoEncontradoException;
+import com.fiap.pedidos.gateways.cache.CatalogoProdutoCache;
 import com.fiap.pedidos.gateways.entities.ProdutoEntity;
 import com.fiap.pedidos.helpers.Helper;
 import com.fiap.pedidos.interfaces.gateways.IProdutoRepositoryPort;
@@ -10,6 +11,7 @@ import com.fiap.pedidos.interfaces.repositories.ProdutoRepository;
 import com.fiap.pedidos.utils.enums.TipoProduto;
 import io.qameta.allure.Description;
 import io.qameta.allure.Severity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.qameta.allure.SeverityLevel;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,13 +20,18 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 class ProdutoRepositoryAdapterTest {
@@ -39,7 +46,9 @@ class ProdutoRepositoryAdapterTest {
     @BeforeEach
     void setup() {
         mock = MockitoAnnotations.openMocks(this);
-        produtoRepositoryPort = new ProdutoRepositoryAdapter(produtoRepository);
+        produtoRepositoryPort = new ProdutoRepositoryAdapter(
+                produtoRepository,
+                new CatalogoProdutoCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5)));
     }
 
     @AfterEach
@@ -67,7 +76,7 @@ class ProdutoRepositoryAdapterTest {
             assertThat(produtoSalvo.getIdProduto()).isNotNull();
             assertThat(produtoSalvo.getTipoProduto().getCodigo()).isEqualTo(TipoProduto.BEBIDA.getCodigo());
             assertThat(produtoSalvo.getNomeProduto().getNome()).isEqualTo(produto.getNomeProduto().getNome());
-            assertThat(produtoSalvo.getValorProduto().getValorProduto()).isEqualTo(produto.getValorProduto().getValorProduto());
+            assertThat(produtoSalvo.getValorProduto().getCentavos()).isEqualTo(produto.getValorProduto().getCentavos());
             assertThat(produtoSalvo.getDescricaoProduto().getDescricao()).isEqualTo(produto.getDescricaoProduto().getDescricao());
 
             verify(produtoRepository, times(1)).save(any(ProdutoEntity.class));
@@ -90,7 +99,7 @@ class ProdutoRepositoryAdapterTest {
             assertThat(produtoSalvo.getIdProduto()).isNotNull();
             assertThat(produtoSalvo.getTipoProduto().getCodigo()).isEqualTo(TipoProduto.ACOMPANHAMENTO.getCodigo());
             assertThat(produtoSalvo.getNomeProduto().getNome()).isEqualTo(produto.getNomeProduto().getNome());
-            assertThat(produtoSalvo.getValorProduto().getValorProduto()).isEqualTo(produto.getValorProduto().getValorProduto());
+            assertThat(produtoSalvo.getValorProduto().getCentavos()).isEqualTo(produto.getValorProduto().getCentavos());
             assertThat(produtoSalvo.getDescricaoProduto().getDescricao()).isEqualTo(produto.getDescricaoProduto().getDescricao());
 
             verify(produtoRepository, times(1)).save(any(ProdutoEntity.class));
@@ -113,7 +122,7 @@ class ProdutoRepositoryAdapterTest {
             assertThat(produtoSalvo.getIdProduto()).isNotNull();
             assertThat(produtoSalvo.getTipoProduto().getCodigo()).isEqualTo(TipoProduto.LANCHE.getCodigo());
             assertThat(produtoSalvo.getNomeProduto().getNome()).isEqualTo(produto.getNomeProduto().getNome());
-            assertThat(produtoSalvo.getValorProduto().getValorProduto()).isEqualTo(produto.getValorProduto().getValorProduto());
+            assertThat(produtoSalvo.getValorProduto().getCentavos()).isEqualTo(produto.getValorProduto().getCentavos());
             assertThat(produtoSalvo.getDescricaoProduto().getDescricao()).isEqualTo(produto.getDescricaoProduto().getDescricao());
 
             verify(produtoRepository, times(1)).save(any(ProdutoEntity.class));
@@ -136,7 +145,7 @@ class ProdutoRepositoryAdapterTest {
             assertThat(produtoSalvo.getIdProduto()).isNotNull();
             assertThat(produtoSalvo.getTipoProduto().getCodigo()).isEqualTo(TipoProduto.SOBREMESA.getCodigo());
             assertThat(produtoSalvo.getNomeProduto().getNome()).isEqualTo(produto.getNomeProduto().getNome());
-            assertThat(produtoSalvo.getValorProduto().getValorProduto()).isEqualTo(produto.getValorProduto().getValorProduto());
+            assertThat(produtoSalvo.getValorProduto().getCentavos()).isEqualTo(produto.getValorProduto().getCentavos());
             assertThat(produtoSalvo.getDescricaoProduto().getDescricao()).isEqualTo(produto.getDescricaoProduto().getDescricao());
 
             verify(produtoRepository, times(1)).save(any(ProdutoEntity.class));
@@ -207,7 +216,7 @@ class ProdutoRepositoryAdapterTest {
             assertThat(produtoBuscado.get().getIdProduto()).isNotNull();
             assertThat(produtoBuscado.get().getTipoProduto().getCodigo()).isEqualTo(TipoProduto.SOBREMESA.getCodigo());
             assertThat(produtoBuscado.get().getNomeProduto().getNome()).isEqualTo(produto.getNomeProduto().getNome());
-            assertThat(produtoBuscado.get().getValorProduto().getValorProduto()).isEqualTo(produto.getValorProduto().getValorProduto());
+            assertThat(produtoBuscado.get().getValorProduto().getCentavos()).isEqualTo(produto.getValorProduto().getCentavos());
             assertThat(produtoBuscado.get().getDescricaoProduto().getDescricao()).isEqualTo(produto.getDescricaoProduto().getDescricao());
 
             verify(produtoRepository, times(1)).findById(any(UUID.class));
@@ -237,7 +246,7 @@ class ProdutoRepositoryAdapterTest {
             assertThat(produtoBuscado.get(0).getIdProduto()).isNotNull();
             assertThat(produtoBuscado.get(0).getTipoProduto().getCodigo()).isEqualTo(TipoProduto.SOBREMESA.getCodigo());
             assertThat(produtoBuscado.get(0).getNomeProduto().getNome()).isEqualTo(produtoSobremesa.getNomeProduto().getNome());
-            assertThat(produtoBuscado.get(0).getValorProduto().getValorProduto()).isEqualTo(produtoSobremesa.getValorProduto().getValorProduto());
+            assertThat(produtoBuscado.get(0).getValorProduto().getCentavos()).isEqualTo(produtoSobremesa.getValorProduto().getCentavos());
             assertThat(produtoBuscado.get(0).getDescricaoProduto().getDescricao()).isEqualTo(produtoSobremesa.getDescricaoProduto().getDescricao());
 
             verify(produtoRepository, times(1)).findAllByTipoProdutoAndAtivo(any(String.class), any(Boolean.class));
@@ -266,7 +275,7 @@ class ProdutoRepositoryAdapterTest {
             assertThat(produtoBuscado.get(0).getIdProduto()).isNotNull();
             assertThat(produtoBuscado.get(0).getTipoProduto().getCodigo()).isEqualTo(TipoProduto.LANCHE.getCodigo());
             assertThat(produtoBuscado.get(0).getNomeProduto().getNome()).isEqualTo(produtoLanche.getNomeProduto().getNome());
-            assertThat(produtoBuscado.get(0).getValorProduto().getValorProduto()).isEqualTo(produtoLanche.getValorProduto().getValorProduto());
+            assertThat(produtoBuscado.get(0).getValorProduto().getCentavos()).isEqualTo(produtoLanche.getValorProduto().getCentavos());
             assertThat(produtoBuscado.get(0).getDescricaoProduto().getDescricao()).isEqualTo(produtoLanche.getDescricaoProduto().getDescricao());
 
             verify(produtoRepository, times(1)).findAllByTipoProdutoAndAtivo(any(String.class), any(Boolean.class));
@@ -293,7 +302,7 @@ class ProdutoRepositoryAdapterTest {
             assertThat(produtoBuscado.get(0).getIdProduto()).isNotNull();
             assertThat(produtoBuscado.get(0).getTipoProduto().getCodigo()).isEqualTo(TipoProduto.BEBIDA.getCodigo());
             assertThat(produtoBuscado.get(0).getNomeProduto().getNome()).isEqualTo(produtoBebida.getNomeProduto().getNome());
-            assertThat(produtoBuscado.get(0).getValorProduto().getValorProduto()).isEqualTo(produtoBebida.getValorProduto().getValorProduto());
+            assertThat(produtoBuscado.get(0).getValorProduto().getCentavos()).isEqualTo(produtoBebida.getValorProduto().getCentavos());
             assertThat(produtoBuscado.get(0).getDescricaoProduto().getDescricao()).isEqualTo(produtoBebida.getDescricaoProduto().getDescricao());
 
             verify(produtoRepository, times(1)).findAllByTipoProdutoAndAtivo(any(String.class), any(Boolean.class));
@@ -325,7 +334,86 @@ class ProdutoRepositoryAdapterTest {
             verify(produtoRepository, times(1)).findAllByTipoProdutoAndAtivo(any(String.class), any(Boolean.class));
         }
     }
-}
 
+    @Nested
+    class CatalogoEmCache {
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Buscar produto por id pela segunda vez sem consultar o banco")
+        void deveBuscarProdutoPorIdDoCache() {
+            var produtoEntity = new ProdutoEntity().from(Helper.gerarProdutoLanche(), true);
+            var idProduto = UUID.randomUUID();
+            produtoEntity.setIdProduto(idProduto);
+
+            when(produtoRepository.findById(any(UUID.class))).thenReturn(Optional.of(produtoEntity));
+
+            produtoRepositoryPort.buscarPorId(idProduto);
+            var produtoBuscado = produtoRepositoryPort.buscarPorId(idProduto);
+
+            assertThat(produtoBuscado).isPresent();
+            assertThat(produtoBuscado.get().getIdProduto()).isEqualTo(idProduto);
+            verify(produtoRepository, times(1)).findById(idProduto);
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Buscar produtos por ids consultando o banco apenas para os que não estão em cache")
+        void deveBuscarNoBancoSomenteProdutosForaDoCache() {
+            var lanche = new ProdutoEntity().from(Helper.gerarProdutoLanche(), true);
+            lanche.setIdProduto(UUID.randomUUID());
+            var bebida = new ProdutoEntity().from(Helper.gerarProdutoBebida(), true);
+            bebida.setIdProduto(UUID.randomUUID());
+
+            when(produtoRepository.findById(lanche.getIdProduto())).thenReturn(Optional.of(lanche));
+            when(produtoRepository.findAllById(any())).thenReturn(List.of(bebida));
+
+            produtoRepositoryPort.buscarPorId(lanche.getIdProduto());
+            var produtos = produtoRepositoryPort.buscarPorIds(List.of(lanche.getIdProduto(), bebida.getIdProduto()));
+
+            assertThat(produtos).extracting(Produto::getIdProduto)
+                    .containsExactlyInAnyOrder(lanche.getIdProduto(), bebida.getIdProduto());
+            verify(produtoRepository, times(1)).findAllById(Set.of(bebida.getIdProduto()));
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Listar produtos por tipo novamente após cadastrar um produto do mesmo tipo")
+        void deveInvalidarListagemPorTipoAoCadastrarProduto() {
+            var produto = Helper.gerarProdutoLanche();
+            var produtoEntity = new ProdutoEntity().from(produto, true);
+            produtoEntity.setIdProduto(UUID.randomUUID());
+
+            when(produtoRepository.findAllByTipoProdutoAndAtivo(anyString(), anyBoolean()))
+                    .thenReturn(Optional.of(List.of(produtoEntity)));
+            when(produtoRepository.save(any(ProdutoEntity.class))).thenReturn(produtoEntity);
 
+            produtoRepositoryPort.listarProdutosPorTipo(TipoProduto.LANCHE);
+            produtoRepositoryPort.listarProdutosPorTipo(TipoProduto.LANCHE);
+            verify(produtoRepository, times(1)).findAllByTipoProdutoAndAtivo(TipoProduto.LANCHE.getCodigo(), true);
 
+            produtoRepositoryPort.criarProduto(produto);
+            produtoRepositoryPort.listarProdutosPorTipo(TipoProduto.LANCHE);
+            verify(produtoRepository, times(2)).findAllByTipoProdutoAndAtivo(TipoProduto.LANCHE.getCodigo(), true);
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Buscar produto por id novamente após remover o produto")
+        void deveInvalidarProdutoAoRemover() {
+            var produtoEntity = new ProdutoEntity().from(Helper.gerarProdutoSobremesa(), true);
+            var idProduto = UUID.randomUUID();
+            produtoEntity.setIdProduto(idProduto);
+
+            when(produtoRepository.findById(any(UUID.class))).thenReturn(Optional.of(produtoEntity));
+            when(produtoRepository.save(any(ProdutoEntity.class))).thenReturn(produtoEntity);
+
+            produtoRepositoryPort.buscarPorId(idProduto);
+            produtoRepositoryPort.deletarProduto(idProduto);
+            var produtoBuscado = produtoRepositoryPort.buscarPorId(idProduto);
+
+            assertThat(produtoBuscado.get().getAtivo()).isFalse();
+            verify(produtoRepository, times(3)).findById(idProduto);
+        }
+    }
+}
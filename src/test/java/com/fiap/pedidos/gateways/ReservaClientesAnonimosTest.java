@@ -0,0 +1,167 @@
+package com.fiap.pedidos.gateways;
+
+import com.fiap.pedidos.gateways.entities.ClienteEntity;
+import com.fiap.pedidos.interfaces.repositories.ClienteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ReservaClientesAnonimosTest {
+
+    private static final int TAMANHO = 4;
+    private static final int MINIMO = 2;
+    private static final Duration VALIDADE = Duration.ofHours(24);
+    private static final int LOTE_LIMPEZA = 3;
+
+    @Mock
+    private ClienteRepository clienteRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ReservaClientesAnonimos reserva;
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup() {
+        mock = MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        reserva = new ReservaClientesAnonimos(clienteRepository, meterRegistry, TAMANHO, MINIMO, VALIDADE,
+                LOTE_LIMPEZA);
+        when(clienteRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<ClienteEntity> clientes = invocation.getArgument(0);
+            clientes.forEach(cliente -> cliente.setId(UUID.randomUUID()));
+            return clientes;
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mock.close();
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Entregar ids da reserva sem cadastrar cliente por requisição")
+    void deveEntregarIdsDaReserva() {
+        assertThat(reserva.repor()).isEqualTo(TAMANHO);
+
+        var ids = new HashSet<UUID>();
+        for (int i = 0; i < TAMANHO; i++) {
+            ids.add(reserva.retirar());
+        }
+
+        assertThat(ids).hasSize(TAMANHO).doesNotContainNull();
+        verify(clienteRepository, times(1)).saveAll(anyList());
+        verify(clienteRepository, never()).save(any(ClienteEntity.class));
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Repor a reserva somente quando ela fica abaixo do mínimo")
+    void deveReporSomenteAbaixoDoMinimo() {
+        reserva.repor();
+        reserva.retirar();
+        reserva.retirar();
+
+        assertThat(reserva.repor()).isZero();
+
+        reserva.retirar();
+
+        assertThat(reserva.repor()).isEqualTo(TAMANHO - 1);
+        verify(clienteRepository, times(2)).saveAll(anyList());
+        assertThat(meterRegistry.get("clientes.anonimos.reserva").gauge().value()).isEqualTo(TAMANHO);
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Cadastrar o cliente na hora quando a reserva está esgotada")
+    void deveCadastrarCliente_QuandoReservaEsgotada() {
+        var clienteEntity = new ClienteEntity();
+        clienteEntity.setId(UUID.randomUUID());
+
+        when(clienteRepository.save(any(ClienteEntity.class))).thenReturn(clienteEntity);
+
+        assertThat(reserva.retirar()).isEqualTo(clienteEntity.getId());
+        assertThat(meterRegistry.get("clientes.anonimos.reserva.esgotada").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Gravar os clientes da reserva marcados com a validade")
+    void deveGravarClientesMarcadosComValidade() {
+        var antes = System.currentTimeMillis();
+
+        reserva.repor();
+
+        verify(clienteRepository).saveAll(argThat(clientes -> {
+            for (ClienteEntity cliente : clientes) {
+                if (cliente.getReservadoAte().getTime() < antes + VALIDADE.toMillis()) {
+                    return false;
+                }
+            }
+            return true;
+        }));
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Não entregar cliente da reserva com menos da metade da validade")
+    void naoDeveEntregarClienteComReservaPertoDeVencer() {
+        var reservaCurta = new ReservaClientesAnonimos(clienteRepository, meterRegistry, TAMANHO, MINIMO,
+                Duration.ofMillis(-1), LOTE_LIMPEZA);
+        var clienteEntity = new ClienteEntity();
+        clienteEntity.setId(UUID.randomUUID());
+        when(clienteRepository.save(any(ClienteEntity.class))).thenReturn(clienteEntity);
+        reservaCurta.repor();
+
+        assertThat(reservaCurta.retirar()).isEqualTo(clienteEntity.getId());
+        verify(clienteRepository, times(1)).save(any(ClienteEntity.class));
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Excluir em lotes os clientes reservados que venceram sem pedido")
+    void deveExcluirReservasVencidasEmLotes() {
+        when(clienteRepository.excluirReservasVencidas(any(Date.class), eq(LOTE_LIMPEZA)))
+                .thenReturn(LOTE_LIMPEZA, 1);
+
+        assertThat(reserva.excluirVencidos()).isEqualTo(LOTE_LIMPEZA + 1);
+
+        verify(clienteRepository, times(2)).excluirReservasVencidas(any(Date.class), eq(LOTE_LIMPEZA));
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Excluir os clientes que sobraram na reserva ao encerrar a aplicação")
+    void deveExcluirClientesNaoUtilizados_AoEncerrar() {
+        reserva.repor();
+        var utilizado = reserva.retirar();
+
+        reserva.liberar();
+
+        verify(clienteRepository, times(1)).deleteAllByIdInBatch(argThat(ids -> {
+            var restantes = new HashSet<UUID>();
+            ids.forEach(restantes::add);
+            return restantes.size() == TAMANHO - 1 && !restantes.contains(utilizado);
+        }));
+    }
+}
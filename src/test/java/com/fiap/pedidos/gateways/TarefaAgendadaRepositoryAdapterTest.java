@@ -0,0 +1,112 @@
+package com.fiap.pedidos.gateways;
+
+import com.fiap.pedidos.interfaces.gateways.ITarefaAgendadaRepositoryPort;
+import com.fiap.pedidos.interfaces.repositories.TarefaAgendadaRepository;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class TarefaAgendadaRepositoryAdapterTest {
+
+    private static final String TAREFA = "tarefa";
+
+    private ITarefaAgendadaRepositoryPort tarefaAgendadaRepositoryPort;
+
+    @Mock
+    private TarefaAgendadaRepository tarefaAgendadaRepository;
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup() {
+        mock = MockitoAnnotations.openMocks(this);
+        tarefaAgendadaRepositoryPort = new TarefaAgendadaRepositoryAdapter(tarefaAgendadaRepository);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mock.close();
+    }
+
+    @Nested
+    class Reservar {
+
+        private final Date reservadaAte = new Date(System.currentTimeMillis() + 60_000);
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Reservar a tarefa quando a reserva anterior já venceu")
+        void deveReservar_QuandoReservaVencida() {
+            when(tarefaAgendadaRepository.reservar(eq(TAREFA), any(Date.class), eq(reservadaAte))).thenReturn(1);
+
+            assertThat(tarefaAgendadaRepositoryPort.reservar(TAREFA, reservadaAte)).isTrue();
+
+            verify(tarefaAgendadaRepository, never()).inserir(anyString(), any(Date.class));
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Não reservar a tarefa reservada por outra réplica")
+        void naoDeveReservar_QuandoReservadaPorOutraReplica() {
+            when(tarefaAgendadaRepository.reservar(eq(TAREFA), any(Date.class), eq(reservadaAte))).thenReturn(0);
+            when(tarefaAgendadaRepository.existsById(TAREFA)).thenReturn(true);
+
+            assertThat(tarefaAgendadaRepositoryPort.reservar(TAREFA, reservadaAte)).isFalse();
+
+            verify(tarefaAgendadaRepository, never()).inserir(anyString(), any(Date.class));
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Reservar a tarefa na primeira execução inserindo a sua linha")
+        void deveReservar_NaPrimeiraExecucao() {
+            when(tarefaAgendadaRepository.reservar(eq(TAREFA), any(Date.class), eq(reservadaAte))).thenReturn(0);
+            when(tarefaAgendadaRepository.existsById(TAREFA)).thenReturn(false);
+            when(tarefaAgendadaRepository.inserir(TAREFA, reservadaAte)).thenReturn(1);
+
+            assertThat(tarefaAgendadaRepositoryPort.reservar(TAREFA, reservadaAte)).isTrue();
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Não reservar quando outra réplica inseriu a linha da tarefa primeiro")
+        void naoDeveReservar_QuandoOutraReplicaInseriuPrimeiro() {
+            when(tarefaAgendadaRepository.reservar(eq(TAREFA), any(Date.class), eq(reservadaAte))).thenReturn(0);
+            when(tarefaAgendadaRepository.existsById(TAREFA)).thenReturn(false);
+            when(tarefaAgendadaRepository.inserir(TAREFA, reservadaAte))
+                    .thenThrow(new DataIntegrityViolationException("tarefas_agendadas_pkey"));
+
+            assertThat(tarefaAgendadaRepositoryPort.reservar(TAREFA, reservadaAte)).isFalse();
+        }
+    }
+
+    @Nested
+    class Liberar {
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Liberar a reserva até a próxima execução")
+        void deveLiberarAteProximaExecucao() {
+            var reservadaAte = new Date();
+            var proximaExecucao = new Date(reservadaAte.getTime() + 60_000);
+
+            tarefaAgendadaRepositoryPort.liberar(TAREFA, reservadaAte, proximaExecucao);
+
+            verify(tarefaAgendadaRepository).liberar(TAREFA, reservadaAte, proximaExecucao);
+        }
+    }
+}
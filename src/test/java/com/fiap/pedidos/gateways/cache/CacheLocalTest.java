@@ -0,0 +1,116 @@
+package com.fiap.pedidos.gateways.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheLocalTest {
+
+    private final AtomicLong relogio = new AtomicLong();
+
+    private final CacheLocal<String, String> cache = new CacheLocal<>(2, Duration.ofSeconds(10), relogio::get);
+
+    @Nested
+    class Buscar {
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Carregar o valor apenas na primeira busca")
+        void deveCarregarSomenteNaFalta() {
+            var cargas = new AtomicLong();
+
+            cache.buscar("a", chave -> chave + cargas.incrementAndGet());
+            var valor = cache.buscar("a", chave -> chave + cargas.incrementAndGet());
+
+            assertThat(valor).isEqualTo("a1");
+            assertThat(cargas.get()).isEqualTo(1);
+            assertThat(cache.getFaltas()).isEqualTo(1);
+            assertThat(cache.getAcertos()).isEqualTo(1);
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Não guardar valores nulos")
+        void naoDeveGuardarValorNulo() {
+            assertThat(cache.buscar("a", chave -> null)).isNull();
+            assertThat(cache.tamanho()).isZero();
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Expirar a entrada após o tempo de vida")
+        void deveExpirarEntrada() {
+            cache.colocar("a", "1");
+            relogio.addAndGet(Duration.ofSeconds(10).toNanos());
+
+            assertThat(cache.buscar("a")).isEmpty();
+            assertThat(cache.getRemocoes()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    class Limite {
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Remover a entrada menos usada recentemente ao atingir o limite")
+        void deveRemoverEntradaMenosUsada() {
+            cache.colocar("a", "1");
+            cache.colocar("b", "2");
+            cache.buscar("a");
+            cache.colocar("c", "3");
+
+            assertThat(cache.buscar("a")).contains("1");
+            assertThat(cache.buscar("b")).isEmpty();
+            assertThat(cache.buscar("c")).contains("3");
+            assertThat(cache.getRemocoes()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    class Invalidacao {
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Não guardar valor carregado enquanto o cache era invalidado")
+        void naoDeveGuardarValorCarregadoDuranteInvalidacao() {
+            var valor = cache.buscar("a", chave -> {
+                cache.invalidar(chave);
+                return "antigo";
+            });
+
+            assertThat(valor).isEqualTo("antigo");
+            assertThat(cache.buscar("a")).isEmpty();
+        }
+    }
+
+    @Nested
+    class Metricas {
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Expor acertos, faltas e remoções como métricas")
+        void deveRegistrarMetricas() {
+            var meterRegistry = new SimpleMeterRegistry();
+            cache.registrarMetricas(meterRegistry, "teste");
+
+            cache.buscar("a");
+            cache.colocar("a", "1");
+            cache.buscar("a");
+
+            assertThat(meterRegistry.get("cache.gets").tags("cache", "teste", "result", "hit").functionCounter().count())
+                    .isEqualTo(1);
+            assertThat(meterRegistry.get("cache.gets").tags("cache", "teste", "result", "miss").functionCounter().count())
+                    .isEqualTo(1);
+            assertThat(meterRegistry.get("cache.size").tags("cache", "teste").gauge().value()).isEqualTo(1);
+        }
+    }
+}
@@ -15,7 +15,7 @@ class ClienteEntityTest {
     void testCreateClienteEntity() {
         UUID id = UUID.randomUUID();
         Nome nome = new Nome("Primeiro 1");
-        Cpf cpf = new Cpf("11111111111");
+        Cpf cpf = new Cpf("86288366757");
         Email email = new Email("cliente@example.com");
 
         ClienteEntity clienteEntity = ClienteEntity.builder()
@@ -36,7 +36,7 @@ class ClienteEntityTest {
         ClienteEntity clienteEntity1 = ClienteEntity.builder()
                 .id(UUID.randomUUID())
                 .nome(new Nome("Primeiro 1"))
-                .cpf(new Cpf("11111111111"))
+                .cpf(new Cpf("86288366757"))
                 .email(new Email("clienteA@example.com"))
                 .build();
 
@@ -56,7 +56,7 @@ class ClienteEntityTest {
         ClienteEntity clienteEntity = ClienteEntity.builder()
                 .id(UUID.randomUUID())
                 .nome(new Nome("Primeiro 1"))
-                .cpf(new Cpf("11111111111"))
+                .cpf(new Cpf("86288366757"))
                 .email(new Email("clienteB@example.com"))
                 .build();
 
@@ -13,7 +13,6 @@ import com.fiap.pedidos.gateways.entities.PedidoEntity;
 import com.fiap.pedidos.gateways.entities.PedidoProdutoEntity;
 import com.fiap.pedidos.utils.enums.StatusPedido;
 import org.junit.jupiter.api.Test;
-import java.math.BigDecimal;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
@@ -27,7 +26,7 @@ class PedidoEntityTest {
         UUID idPedido = UUID.randomUUID();
         ClienteEntity clienteEntity = new ClienteEntity();
         StatusPedido statusPedido = StatusPedido.A;
-        BigDecimal valorPedido = new BigDecimal("100.00");
+        long valorPedido = 10000L;
         Date dataInclusao = new Date();
         Date dataAtualizacao = new Date();
         List<PedidoProdutoEntity> produtos = List.of(new PedidoProdutoEntity());
@@ -60,7 +59,7 @@ class PedidoEntityTest {
                 .idPedido(id1)
                 .cliente(new ClienteEntity())
                 .statusPedido(StatusPedido.A)
-                .valorPedido(new BigDecimal("100.00"))
+                .valorPedido(10000L)
                 .dataInclusao(new Date())
                 .dataAtualizacao(new Date())
                 .produtos(List.of(new PedidoProdutoEntity()))
@@ -70,7 +69,7 @@ class PedidoEntityTest {
                 .idPedido(id1)
                 .cliente(new ClienteEntity())
                 .statusPedido(StatusPedido.A)
-                .valorPedido(new BigDecimal("100.00"))
+                .valorPedido(10000L)
                 .dataInclusao(new Date())
                 .dataAtualizacao(new Date())
                 .produtos(List.of(new PedidoProdutoEntity()))
@@ -80,7 +79,7 @@ class PedidoEntityTest {
                 .idPedido(id2)
                 .cliente(new ClienteEntity())
                 .statusPedido(StatusPedido.A)
-                .valorPedido(new BigDecimal("100.00"))
+                .valorPedido(10000L)
                 .dataInclusao(new Date())
                 .dataAtualizacao(new Date())
                 .produtos(List.of(new PedidoProdutoEntity()))
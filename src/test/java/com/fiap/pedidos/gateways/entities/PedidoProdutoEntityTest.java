@@ -1,5 +1,6 @@
 package com.fiap.pedidos.gateways.entities;
 import com.fiap.pedidos.entities.PedidoProduto;
+import com.fiap.pedidos.helpers.Helper;
 import org.junit.jupiter.api.Test;
 import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -21,7 +22,22 @@ class PedidoProdutoEntityTest {
         assertThat(pedidoProdutoEntity.getId()).isEqualTo(id);
         assertThat(pedidoProdutoEntity.getPedido()).isEqualTo(pedidoEntity);
         assertThat(pedidoProdutoEntity.getProduto()).isEqualTo(produtoEntity);
+        assertThat(pedidoProdutoEntity.getQuantidade()).isEqualTo(1);
     }
+
+    @Test
+    void testToProdutosUmaUnidadePorQuantidade() {
+        ProdutoEntity produtoEntity = new ProdutoEntity().from(Helper.gerarProdutoLanche(), true);
+
+        PedidoProdutoEntity pedidoProdutoEntity = PedidoProdutoEntity.builder()
+                .produto(produtoEntity)
+                .quantidade(3)
+                .build();
+
+        assertThat(pedidoProdutoEntity.toProdutos()).hasSize(3)
+                .allMatch(produto -> produto.equals(produtoEntity.to()));
+    }
+
     @Test
     void testConstrutorVazio() {
         PedidoProdutoEntity pedidoProdutoEntity = new PedidoProdutoEntity();
@@ -6,7 +6,6 @@ import com.fiap.pedidos.entities.ValorProduto;
 import com.fiap.pedidos.utils.enums.TipoProduto;
 import org.junit.jupiter.api.Test;
 
-import java.math.BigDecimal;
 import java.util.Date;
 import java.util.UUID;
 
@@ -20,7 +19,7 @@ class ProdutoEntityTest {
         NomeProduto nomeProduto = new NomeProduto("Produto Teste");
         DescricaoProduto descricaoProduto = new DescricaoProduto("Descrição do Produto Teste");
         TipoProduto tipoProduto = TipoProduto.BEBIDA;
-        ValorProduto valorProduto = new ValorProduto(new BigDecimal("50.00"));
+        ValorProduto valorProduto = new ValorProduto(5000L);
         Date dataAtualizacao = new Date();
         Date dataCriacao = new Date();
         Boolean ativo = true;
@@ -56,7 +55,7 @@ class ProdutoEntityTest {
                 .nomeProduto(new NomeProduto("Produto1"))
                 .descricaoProduto(new DescricaoProduto("Descrição1"))
                 .tipoProduto(TipoProduto.BEBIDA.getCodigo())
-                .valorProduto(new ValorProduto(new BigDecimal("50.00")))
+                .valorProduto(new ValorProduto(5000L))
                 .dataAtualizacao(new Date())
                 .dataCriacao(new Date())
                 .ativo(true)
@@ -67,7 +66,7 @@ class ProdutoEntityTest {
                 .nomeProduto(new NomeProduto("Produto1"))
                 .descricaoProduto(new DescricaoProduto("Descrição1"))
                 .tipoProduto(TipoProduto.BEBIDA.getCodigo())
-                .valorProduto(new ValorProduto(new BigDecimal("50.00")))
+                .valorProduto(new ValorProduto(5000L))
                 .dataAtualizacao(new Date())
                 .dataCriacao(new Date())
                 .ativo(true)
@@ -78,7 +77,7 @@ class ProdutoEntityTest {
                 .nomeProduto(new NomeProduto("Produto2"))
                 .descricaoProduto(new DescricaoProduto("Descrição2"))
                 .tipoProduto(TipoProduto.BEBIDA.getCodigo())
-                .valorProduto(new ValorProduto(new BigDecimal("100.00")))
+                .valorProduto(new ValorProduto(10000L))
                 .dataAtualizacao(new Date())
                 .dataCriacao(new Date())
                 .ativo(false)
@@ -0,0 +1,104 @@
+package com.fiap.pedidos.gateways.http;
+
+import com.fiap.pedidos.interfaces.repositories.PagamentoRepository;
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import feign.Feign;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara o p99 das consultas de pagamento com o cliente padrão do Feign e com o pool do OkHttp.
+ * Executar com {@code mvn test -Dtest=ClientesHttpCargaTest -Dteste.carga=true}.
+ */
+@EnabledIfSystemProperty(named = "teste.carga", matches = "true")
+class ClientesHttpCargaTest {
+
+    private static final int THREADS = 16;
+    private static final int CHAMADAS_POR_THREAD = 500;
+
+    private HttpServer servidor;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setup() throws Exception {
+        servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 256);
+        servidor.setExecutor(Executors.newFixedThreadPool(THREADS));
+        servidor.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        servidor.start();
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        servidor.stop(0);
+    }
+
+    @Test
+    void deveReduzirP99ComPoolDeConexoes() throws Exception {
+        var clientesHttp = new ClientesHttp(new SimpleMeterRegistry());
+        var pooled = new feign.okhttp.OkHttpClient(clientesHttp.obter("pagamentos",
+                new ClientesHttp.ConfiguracaoClienteHttp(THREADS, Duration.ofMinutes(5),
+                        Duration.ofSeconds(2), Duration.ofSeconds(2), false)));
+
+        medirP99(new Client.Default(null, null));
+        medirP99(pooled);
+        long p99Padrao = medirP99(new Client.Default(null, null));
+        long p99Pool = medirP99(pooled);
+
+        System.out.printf("p99 cliente padrão: %d µs, p99 OkHttp com pool: %d µs%n", p99Padrao / 1_000, p99Pool / 1_000);
+        assertThat(p99Pool).isLessThanOrEqualTo(p99Padrao);
+        clientesHttp.destroy();
+    }
+
+    private long medirP99(Client client) throws Exception {
+        PagamentoRepository pagamentoRepository = Feign.builder()
+                .client(client)
+                .contract(new SpringMvcContract())
+                .target(PagamentoRepository.class, "http://localhost:" + servidor.getAddress().getPort());
+
+        List<Future<List<Long>>> resultados = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            resultados.add(executor.submit(() -> {
+                List<Long> duracoes = new ArrayList<>(CHAMADAS_POR_THREAD);
+                for (int i = 0; i < CHAMADAS_POR_THREAD; i++) {
+                    long inicio = System.nanoTime();
+                    try (Response response = pagamentoRepository.consultarPagamento(UUID.randomUUID())) {
+                        assertThat(response.status()).isEqualTo(200);
+                    }
+                    duracoes.add(System.nanoTime() - inicio);
+                }
+                return duracoes;
+            }));
+        }
+
+        List<Long> duracoes = new ArrayList<>();
+        for (Future<List<Long>> resultado : resultados) {
+            duracoes.addAll(resultado.get());
+        }
+        Collections.sort(duracoes);
+        return duracoes.get((int) Math.ceil(duracoes.size() * 0.99) - 1);
+    }
+}
@@ -0,0 +1,71 @@
+package com.fiap.pedidos.gateways.http;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import okhttp3.Request;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientesHttpTest {
+
+    private static final ClientesHttp.ConfiguracaoClienteHttp CONFIGURACAO = new ClientesHttp.ConfiguracaoClienteHttp(
+            5, Duration.ofMinutes(1), Duration.ofSeconds(1), Duration.ofSeconds(1), false);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ClientesHttp clientesHttp = new ClientesHttp(meterRegistry);
+    private HttpServer servidor;
+
+    @BeforeEach
+    void setup() throws Exception {
+        servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        servidor.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        servidor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        clientesHttp.destroy();
+        servidor.stop(0);
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Reutilizar a mesma conexão em chamadas seguidas ao serviço")
+    void deveReutilizarConexao() throws Exception {
+        var cliente = clientesHttp.obter("pagamentos", CONFIGURACAO);
+        var request = new Request.Builder().url("http://localhost:" + servidor.getAddress().getPort() + "/").build();
+
+        for (int i = 0; i < 10; i++) {
+            try (var response = cliente.newCall(request).execute()) {
+                assertThat(response.code()).isEqualTo(200);
+            }
+        }
+
+        assertThat(cliente.connectionPool().connectionCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("okhttp.pool.connection.count")
+                .tags("servico", "pagamentos", "state", "idle").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Manter um cliente e um pool por serviço")
+    void deveManterClientePorServico() {
+        var pagamentos = clientesHttp.obter("pagamentos", CONFIGURACAO);
+        var fila = clientesHttp.obter("fila", CONFIGURACAO);
+
+        assertThat(clientesHttp.obter("pagamentos", CONFIGURACAO)).isSameAs(pagamentos);
+        assertThat(fila.connectionPool()).isNotSameAs(pagamentos.connectionPool());
+    }
+}
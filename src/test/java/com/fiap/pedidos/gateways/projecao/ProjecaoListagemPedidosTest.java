@@ -0,0 +1,235 @@
+package com.fiap.pedidos.gateways.projecao;
+
+import com.fiap.pedidos.entities.CursorPedido;
+import com.fiap.pedidos.entities.EventoStatusPedido;
+import com.fiap.pedidos.entities.Pedido;
+import com.fiap.pedidos.gateways.entities.PedidoExcluidoEntity;
+import com.fiap.pedidos.interfaces.repositories.PedidoExcluidoRepository;
+import com.fiap.pedidos.interfaces.repositories.PedidoRepository;
+import com.fiap.pedidos.utils.enums.StatusPedido;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class ProjecaoListagemPedidosTest {
+
+    @Mock
+    private PedidoRepository pedidoRepository;
+
+    @Mock
+    private PedidoExcluidoRepository pedidoExcluidoRepository;
+
+    private ProjecaoListagemPedidos projecao;
+
+    private final UUID idCliente = UUID.randomUUID();
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup() {
+        mock = MockitoAnnotations.openMocks(this);
+        when(pedidoRepository.agora()).thenAnswer(invocacao -> new Date());
+        projecao = new ProjecaoListagemPedidos(pedidoRepository, pedidoExcluidoRepository, 2,
+                Duration.ofSeconds(5), Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mock.close();
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Montar a projeção em lotes e paginar na ordem de status, data de inclusão e id")
+    void deveMontarEPaginarNaOrdemDaListagem() {
+        var emPreparacao = gerarItem(StatusPedido.E, 1, 0L);
+        var recebido = gerarItem(StatusPedido.R, 2, 0L);
+        var aberto = gerarItem(StatusPedido.A, 3, 0L);
+
+        when(pedidoRepository.listagemOrdenadaPorStatus(ProjecaoListagemPedidos.ORDEM_MAXIMA_EM_MEMORIA, 2))
+                .thenReturn(List.of(emPreparacao, recebido));
+        when(pedidoRepository.listagemOrdenadaPorStatusAposCursor(
+                eq(ProjecaoListagemPedidos.ORDEM_MAXIMA_EM_MEMORIA), anyInt(), any(Date.class),
+                eq(recebido.idPedido()), eq(2)))
+                .thenReturn(List.of(aberto));
+
+        assertThat(projecao.isPronta()).isFalse();
+        assertThat(projecao.reconstruir()).isEqualTo(3);
+        assertThat(projecao.isPronta()).isTrue();
+
+        var primeiraPagina = projecao.listar(null, 2);
+        assertThat(primeiraPagina).extracting(Pedido::getIdPedido)
+                .containsExactly(emPreparacao.idPedido(), recebido.idPedido());
+        assertThat(primeiraPagina.get(0).getCliente().getId()).isEqualTo(idCliente);
+
+        var segundaPagina = projecao.listar(CursorPedido.de(primeiraPagina.get(1)), 2);
+        assertThat(segundaPagina).extracting(Pedido::getIdPedido).containsExactly(aberto.idPedido());
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Completar pelo banco a página que chega aos pedidos finalizados")
+    void deveCompletarPaginaComFinalizadosDoBanco() {
+        var aberto = gerarItem(StatusPedido.A, 1, 0L);
+        var finalizado = gerarItem(StatusPedido.F, 2, 0L);
+        var outroFinalizado = gerarItem(StatusPedido.F, 3, 0L);
+        when(pedidoRepository.listagemOrdenadaPorStatus(anyInt(), anyInt())).thenReturn(List.of(aberto));
+        when(pedidoRepository.listagemOrdenadaPorStatusAposCursor(
+                StatusPedido.ORDEM_MAXIMA_LISTAGEM, StatusPedido.F.getOrdemListagem(), new Date(0L), new UUID(0, 0), 1))
+                .thenReturn(List.of(finalizado));
+        when(pedidoRepository.listagemOrdenadaPorStatusAposCursor(
+                eq(StatusPedido.ORDEM_MAXIMA_LISTAGEM), eq(StatusPedido.F.getOrdemListagem()), any(Date.class),
+                eq(finalizado.idPedido()), eq(2)))
+                .thenReturn(List.of(outroFinalizado));
+        projecao.reconstruir();
+
+        var primeiraPagina = projecao.listar(null, 2);
+        assertThat(primeiraPagina).extracting(Pedido::getIdPedido)
+                .containsExactly(aberto.idPedido(), finalizado.idPedido());
+
+        var segundaPagina = projecao.listar(CursorPedido.de(primeiraPagina.get(1)), 2);
+        assertThat(segundaPagina).extracting(Pedido::getIdPedido).containsExactly(outroFinalizado.idPedido());
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Não consultar o banco quando a página fica cheia com pedidos em andamento")
+    void naoDeveConsultarFinalizados_QuandoPaginaCheia() {
+        var aberto = gerarItem(StatusPedido.A, 1, 0L);
+        when(pedidoRepository.listagemOrdenadaPorStatus(anyInt(), anyInt())).thenReturn(List.of(aberto));
+        projecao.reconstruir();
+
+        assertThat(projecao.listar(null, 1)).extracting(Pedido::getIdPedido).containsExactly(aberto.idPedido());
+
+        verify(pedidoRepository, never()).listagemOrdenadaPorStatusAposCursor(
+                anyInt(), anyInt(), any(Date.class), any(UUID.class), anyInt());
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Tirar da memória o pedido finalizado")
+    void deveTirarDaMemoriaPedidoFinalizado() {
+        var pronto = gerarItem(StatusPedido.P, 1, 0L);
+        var emPreparacao = gerarItem(StatusPedido.E, 2, 0L);
+        when(pedidoRepository.listagemOrdenadaPorStatus(anyInt(), anyInt())).thenReturn(List.of(emPreparacao));
+        projecao.reconstruir();
+
+        projecao.aoTransicionar(new EventoStatusPedido(
+                emPreparacao.idPedido(), StatusPedido.E, StatusPedido.F, new Date()));
+        var finalizadoLido = new ItemListagem(pronto.idPedido(), idCliente, StatusPedido.F, 1000L,
+                pronto.dataInclusao(), new Date(), 1L);
+        when(pedidoRepository.buscarAlteradosDesde(any(Date.class))).thenReturn(List.of(finalizadoLido));
+        projecao.sincronizar();
+
+        assertThat(projecao.listar(null, 10)).isEmpty();
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Aplicar a transição de status publicada e tirar da listagem o pedido pronto")
+    void deveAplicarTransicoesDeStatus() {
+        var recebido = gerarItem(StatusPedido.R, 1, 0L);
+        var emPreparacao = gerarItem(StatusPedido.E, 2, 0L);
+        when(pedidoRepository.listagemOrdenadaPorStatus(anyInt(), anyInt())).thenReturn(List.of(emPreparacao, recebido));
+        projecao.reconstruir();
+
+        projecao.aoTransicionar(new EventoStatusPedido(
+                recebido.idPedido(), StatusPedido.R, StatusPedido.E, new Date()));
+        projecao.aoTransicionar(new EventoStatusPedido(
+                emPreparacao.idPedido(), StatusPedido.E, StatusPedido.P, new Date()));
+
+        var pedidos = projecao.listar(null, 10);
+        assertThat(pedidos).extracting(Pedido::getIdPedido).containsExactly(recebido.idPedido());
+        assertThat(pedidos.get(0).getStatusPedido()).isEqualTo(StatusPedido.E);
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Ignorar leitura do banco mais antiga que a transição já aplicada")
+    void deveIgnorarLeituraAtrasada() {
+        var recebido = gerarItem(StatusPedido.R, 1, 4L);
+        when(pedidoRepository.listagemOrdenadaPorStatus(anyInt(), anyInt())).thenReturn(List.of(recebido));
+        projecao.reconstruir();
+        projecao.aoTransicionar(new EventoStatusPedido(
+                recebido.idPedido(), StatusPedido.R, StatusPedido.E, new Date()));
+
+        var leituraAtrasada = new ItemListagem(recebido.idPedido(), idCliente, StatusPedido.R, 1000L,
+                recebido.dataInclusao(), new Date(), 4L);
+        var novoPedido = gerarItem(StatusPedido.A, 2, 0L);
+        when(pedidoRepository.buscarAlteradosDesde(any(Date.class))).thenReturn(List.of(leituraAtrasada, novoPedido));
+
+        projecao.sincronizar();
+
+        assertThat(projecao.listar(null, 10))
+                .extracting(Pedido::getIdPedido, Pedido::getStatusPedido)
+                .containsExactly(
+                        tuple(recebido.idPedido(), StatusPedido.E),
+                        tuple(novoPedido.idPedido(), StatusPedido.A));
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Remover da projeção o pedido excluído")
+    void deveRemoverPedidoExcluido() {
+        var aberto = gerarItem(StatusPedido.A, 1, 0L);
+        when(pedidoRepository.listagemOrdenadaPorStatus(anyInt(), anyInt())).thenReturn(List.of(aberto));
+        projecao.reconstruir();
+
+        projecao.remover(aberto.idPedido(), 0L);
+
+        assertThat(projecao.listar(null, 10)).isEmpty();
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Não devolver à projeção o pedido excluído quando a sincronização lê a linha anterior à exclusão")
+    void deveIgnorarLeituraAnteriorAExclusao() {
+        var aberto = gerarItem(StatusPedido.A, 1, 2L);
+        when(pedidoRepository.listagemOrdenadaPorStatus(anyInt(), anyInt())).thenReturn(List.of(aberto));
+        projecao.reconstruir();
+
+        projecao.remover(aberto.idPedido(), 2L);
+        when(pedidoRepository.buscarAlteradosDesde(any(Date.class))).thenReturn(List.of(aberto));
+        projecao.sincronizar();
+
+        assertThat(projecao.listar(null, 10)).isEmpty();
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Remover da projeção o pedido excluído por outra instância")
+    void deveRemoverPedidoExcluidoPorOutraInstancia() {
+        var aberto = gerarItem(StatusPedido.A, 1, 2L);
+        var recebido = gerarItem(StatusPedido.R, 2, 0L);
+        when(pedidoRepository.listagemOrdenadaPorStatus(anyInt(), anyInt())).thenReturn(List.of(recebido, aberto));
+        projecao.reconstruir();
+
+        when(pedidoRepository.buscarAlteradosDesde(any(Date.class))).thenReturn(List.of(aberto));
+        when(pedidoExcluidoRepository.buscarExcluidosDesde(any(Date.class)))
+                .thenReturn(List.of(new PedidoExcluidoEntity(aberto.idPedido(), 2L, new Date())));
+        projecao.sincronizar();
+
+        assertThat(projecao.listar(null, 10)).extracting(Pedido::getIdPedido).containsExactly(recebido.idPedido());
+    }
+
+    private ItemListagem gerarItem(StatusPedido statusPedido, int minutos, Long versao) {
+        return new ItemListagem(UUID.randomUUID(), idCliente, statusPedido, 1000L,
+                new Date(System.currentTimeMillis() + minutos * 60_000L), new Date(), versao);
+    }
+}
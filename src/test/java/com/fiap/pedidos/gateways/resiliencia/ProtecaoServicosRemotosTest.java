@@ -0,0 +1,109 @@
+package com.fiap.pedidos.gateways.resiliencia;
+
+import com.fiap.pedidos.exceptions.entities.ServicoRemotoIndisponivelException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProtecaoServicosRemotosTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ProtecaoServicosRemotos criar(int concorrenciaMaxima, Duration chamadaLenta) {
+        return new ProtecaoServicosRemotos(meterRegistry, concorrenciaMaxima, 50, 50, chamadaLenta,
+                4, 4, Duration.ofMinutes(1));
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Abrir o circuito quando o serviço falha e parar de chamá-lo")
+    void deveAbrirCircuito_QuandoServicoFalha() {
+        var protecao = criar(10, Duration.ofSeconds(5)).obter("pagamentos");
+        var chamadas = new AtomicInteger();
+
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> protecao.executar(() -> {
+                chamadas.incrementAndGet();
+                throw new IllegalStateException("falha");
+            })).isInstanceOf(IllegalStateException.class);
+        }
+
+        assertThat(protecao.getEstado()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> protecao.executar(chamadas::incrementAndGet))
+                .isInstanceOf(ServicoRemotoIndisponivelException.class);
+        assertThat(chamadas).hasValue(4);
+        assertThat(meterRegistry.get("servico.remoto.transicoes")
+                .tags("servico", "pagamentos", "de", "CLOSED", "para", "OPEN")
+                .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Abrir o circuito quando o serviço responde acima do limite de lentidão")
+    void deveAbrirCircuito_QuandoServicoLento() {
+        var protecao = criar(10, Duration.ofMillis(20)).obter("fila");
+
+        for (int i = 0; i < 4; i++) {
+            protecao.executar(() -> aguardar(60));
+        }
+
+        assertThat(protecao.getEstado()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Recusar chamadas acima do limite de concorrência do serviço")
+    void deveRecusarChamada_QuandoConcorrenciaEsgotada() throws Exception {
+        var protecao = criar(1, Duration.ofSeconds(5)).obter("pagamentos");
+        var iniciou = new CountDownLatch(1);
+        var liberar = new CountDownLatch(1);
+
+        var emAndamento = CompletableFuture.runAsync(() -> protecao.executar(() -> {
+            iniciou.countDown();
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(iniciou.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> protecao.executar(() -> true))
+                .isInstanceOf(ServicoRemotoIndisponivelException.class);
+
+        liberar.countDown();
+        emAndamento.get(5, TimeUnit.SECONDS);
+        assertThat(protecao.executar(() -> true)).isTrue();
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Manter um circuito independente por serviço")
+    void deveManterCircuitoPorServico() {
+        var protecoes = criar(10, Duration.ofSeconds(5));
+
+        assertThat(protecoes.obter("pagamentos")).isSameAs(protecoes.obter("pagamentos"));
+        assertThat(protecoes.obter("pagamentos")).isNotSameAs(protecoes.obter("fila"));
+    }
+
+    private static Object aguardar(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+}
@@ -20,7 +20,7 @@ public class Helper {
         return Cliente.builder()
                 .email(new Email("cliente1@gmail.com"))
                 .nome(new Nome("Cliente 1"))
-                .cpf(new Cpf("11111111111"))
+                .cpf(new Cpf("86288366757"))
                 .build();
     }
 
@@ -28,14 +28,14 @@ public class Helper {
         return Cliente.builder()
                 .email(new Email("cliente1@gmail.com"))
                 .nome(new Nome("Cliente 1"))
-                .cpf(new Cpf("11111111111"))
+                .cpf(new Cpf("86288366757"))
                 .id(UUID.randomUUID())
                 .build();
     }
 
     public static Cliente gerarClienteSomenteComCPF() {
         return Cliente.builder()
-                .cpf(new Cpf("11111111111"))
+                .cpf(new Cpf("86288366757"))
                 .build();
     }
 
@@ -43,34 +43,34 @@ public class Helper {
         return Produto.builder().nomeProduto(new NomeProduto(TipoProduto.BEBIDA.name()))
                 .descricaoProduto(new DescricaoProduto("Descricao produto: "))
                 .tipoProduto(TipoProduto.BEBIDA)
-                .valorProduto(new ValorProduto(new BigDecimal(5.0))).build();
+                .valorProduto(new ValorProduto(500L)).build();
     }
 
     public static Produto gerarProdutoAcompanhamento() {
         return Produto.builder().nomeProduto(new NomeProduto(TipoProduto.ACOMPANHAMENTO.name()))
                 .descricaoProduto(new DescricaoProduto("Descricao produto: "))
                 .tipoProduto(TipoProduto.ACOMPANHAMENTO)
-                .valorProduto(new ValorProduto(new BigDecimal("5.0"))).build();
+                .valorProduto(new ValorProduto(500L)).build();
     }
 
     public static Produto gerarProdutoLanche() {
         return Produto.builder().nomeProduto(new NomeProduto(TipoProduto.LANCHE.name()))
                 .descricaoProduto(new DescricaoProduto("Descricao produto: "))
                 .tipoProduto(TipoProduto.LANCHE)
-                .valorProduto(new ValorProduto(new BigDecimal("5.0"))).build();
+                .valorProduto(new ValorProduto(500L)).build();
     }
 
     public static Produto gerarProdutoSobremesa() {
         return Produto.builder().nomeProduto(new NomeProduto(TipoProduto.SOBREMESA.name()))
                 .descricaoProduto(new DescricaoProduto("Descricao produto: "))
                 .tipoProduto(TipoProduto.SOBREMESA)
-                .valorProduto(new ValorProduto(new BigDecimal("5.0"))).build();
+                .valorProduto(new ValorProduto(500L)).build();
     }
 
     public static Pedido gerarPedidoComCliente(){
         return Pedido.builder()
                 .cliente(gerarClienteComTodosDados())
-                .valorPedido(new BigDecimal("0.0"))
+                .valorPedido(0L)
                 .build();
     }
 
@@ -80,7 +80,7 @@ public class Helper {
         produtosList.add(gerarProdutoBebida());
         return Pedido.builder()
                 .cliente(gerarClienteComTodosDados())
-                .valorPedido(new BigDecimal("0.0"))
+                .valorPedido(0L)
                 .statusPedido(StatusPedido.A)
                 .produtos(produtosList)
                 .build();
@@ -92,7 +92,7 @@ public class Helper {
         produtosList.add(gerarProdutoBebida());
         return Pedido.builder()
                 .cliente(gerarClienteComTodosDadosEID())
-                .valorPedido(new BigDecimal("0.0"))
+                .valorPedido(0L)
                 .statusPedido(StatusPedido.A)
                 .produtos(produtosList)
                 .build();
@@ -105,7 +105,7 @@ public class Helper {
         return Pedido.builder()
                 .idPedido(UUID.randomUUID())
                 .cliente(gerarClienteComTodosDadosEID())
-                .valorPedido(new BigDecimal("0.0"))
+                .valorPedido(0L)
                 .statusPedido(StatusPedido.A)
                 .produtos(produtosList)
                 .build();
@@ -118,7 +118,7 @@ public class Helper {
         return Pedido.builder()
                 .idPedido(UUID.randomUUID())
                 .cliente(gerarClienteComTodosDadosEID())
-                .valorPedido(new BigDecimal("0.0"))
+                .valorPedido(0L)
                 .statusPedido(StatusPedido.E)
                 .produtos(produtosList)
                 .build();
@@ -164,7 +164,7 @@ public class Helper {
         var clienteRequest = new ClienteRequest();
                 clienteRequest.setEmail("cliente1@gmail.com");
                 clienteRequest.setNome("Cliente 1");
-                clienteRequest.setCpf("11111111111");
+                clienteRequest.setCpf("86288366757");
         return clienteRequest;
     }
 
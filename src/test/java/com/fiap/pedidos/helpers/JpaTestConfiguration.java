@@ -0,0 +1,18 @@
+package com.fiap.pedidos.helpers;
+
+import com.fiap.pedidos.gateways.BancoDeDados;
+import com.fiap.pedidos.gateways.entities.PedidoEntity;
+import com.fiap.pedidos.interfaces.repositories.PedidoRepository;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+//Sobe apenas a camada JPA, sem os clientes Feign registrados pela aplicação. O BancoDeDados escolhe os comandos
+//específicos de cada banco usados pelos repositórios
+@Configuration
+@Import(BancoDeDados.class)
+@EntityScan(basePackageClasses = PedidoEntity.class)
+@EnableJpaRepositories(basePackageClasses = PedidoRepository.class)
+public class JpaTestConfiguration {
+}
@@ -2,6 +2,7 @@ package com.fiap.pedidos.usecases;
 
 import com.fiap.pedidos.entities.Cliente;
 import com.fiap.pedidos.entities.Cpf;
+import com.fiap.pedidos.entities.CursorCliente;
 import com.fiap.pedidos.exceptions.entities.CpfExistenteException;
 import com.fiap.pedidos.helpers.Helper;
 import com.fiap.pedidos.interfaces.gateways.IClienteRepositoryPort;
@@ -16,12 +17,16 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 class ClienteUseCaseImplTest {
@@ -85,45 +90,25 @@ class ClienteUseCaseImplTest {
     class IdentificarCliente {
         @Test
         @Severity(SeverityLevel.CRITICAL)
-        @Description("Identificar cliente sem cadastro existente por CPF")
-        void deveIdentificarClienteSemCadastroExistentePorCPF() {
+        @Description("Identificar cliente por CPF")
+        void deveIdentificarClientePorCPF() {
             var cliente = Helper.gerarClienteComTodosDados();
 
-            when(clienteRepositoryPort.cadastrar(any(Cliente.class))).thenReturn(cliente);
-            when(clienteRepositoryPort.buscarPorCpf(any(Cpf.class))).thenReturn(Optional.empty());
-
-            var clienteSalvo = clienteUseCaseImpl.identificarPorCpf(cliente.getCpf());
-
-            assertThat(clienteSalvo).isNotNull();
-            assertThat(clienteSalvo).isInstanceOf(Cliente.class);
-            assertThat(clienteSalvo.getNome().getNome()).isEqualTo(cliente.getNome().getNome());
-            assertThat(clienteSalvo.getEmail().getEmail()).isEqualTo(cliente.getEmail().getEmail());
-            assertThat(clienteSalvo.getCpf().getCpf()).isEqualTo(cliente.getCpf().getCpf());
-
-            verify(clienteRepositoryPort, times(1)).cadastrar(any(Cliente.class));
-        }
+            when(clienteRepositoryPort.identificarPorCpf(any(Cpf.class))).thenReturn(cliente);
 
-        @Test
-        @Severity(SeverityLevel.NORMAL)
-        @Description("Identificar cliente com cadastro existente por CPF")
-        void deveIdentificarClienteComCadastroExistentePorCPF() {
-            var cliente = Helper.gerarClienteComTodosDados();
-
-            when(clienteRepositoryPort.cadastrar(any(Cliente.class))).thenReturn(cliente);
-            when(clienteRepositoryPort.buscarPorCpf(any(Cpf.class))).thenReturn(Optional.of(cliente));
+            var clienteIdentificado = clienteUseCaseImpl.identificarPorCpf(cliente.getCpf());
 
-            var clienteSalvo = clienteUseCaseImpl.identificarPorCpf(cliente.getCpf());
-
-            assertThat(clienteSalvo).isNotNull();
-            assertThat(clienteSalvo).isInstanceOf(Cliente.class);
-            assertThat(clienteSalvo.getNome().getNome()).isEqualTo(cliente.getNome().getNome());
-            assertThat(clienteSalvo.getEmail().getEmail()).isEqualTo(cliente.getEmail().getEmail());
-            assertThat(clienteSalvo.getCpf().getCpf()).isEqualTo(cliente.getCpf().getCpf());
+            assertThat(clienteIdentificado).isNotNull();
+            assertThat(clienteIdentificado).isInstanceOf(Cliente.class);
+            assertThat(clienteIdentificado.getNome().getNome()).isEqualTo(cliente.getNome().getNome());
+            assertThat(clienteIdentificado.getEmail().getEmail()).isEqualTo(cliente.getEmail().getEmail());
+            assertThat(clienteIdentificado.getCpf().getCpf()).isEqualTo(cliente.getCpf().getCpf());
 
+            verify(clienteRepositoryPort, times(1)).identificarPorCpf(any(Cpf.class));
+            verify(clienteRepositoryPort, never()).buscarPorCpf(any(Cpf.class));
             verify(clienteRepositoryPort, never()).cadastrar(any(Cliente.class));
         }
 
-
         @Test
         @Severity(SeverityLevel.NORMAL)
         @Description("Gerar id para identificar cliente não cadastrado")
@@ -141,4 +126,58 @@ class ClienteUseCaseImplTest {
             verify(clienteRepositoryPort, times(1)).gerarId();
         }
     }
+
+    @Nested
+    class BuscarClientes {
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Buscar página de clientes com cursor para a próxima página")
+        void deveBuscarPaginaComProximoCursor() {
+            var clientes = List.of(gerarClienteComId(), gerarClienteComId(), gerarClienteComId());
+
+            when(clienteRepositoryPort.buscarTodos(any(), anyInt())).thenReturn(clientes);
+
+            var pagina = clienteUseCaseImpl.buscarTodos(null, 2);
+
+            assertThat(pagina.getClientes()).containsExactly(clientes.get(0), clientes.get(1));
+            assertThat(pagina.getProximoCursor()).contains(CursorCliente.de(clientes.get(1)));
+            verify(clienteRepositoryPort, times(1)).buscarTodos(null, 3);
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Buscar última página de clientes sem cursor para a próxima página")
+        void deveBuscarUltimaPaginaSemProximoCursor() {
+            var cursor = new CursorCliente(UUID.randomUUID());
+            var clientes = List.of(gerarClienteComId());
+
+            when(clienteRepositoryPort.buscarTodos(any(), anyInt())).thenReturn(clientes);
+
+            var pagina = clienteUseCaseImpl.buscarTodos(cursor, 2);
+
+            assertThat(pagina.getClientes()).containsExactlyElementsOf(clientes);
+            assertThat(pagina.getProximoCursor()).isEmpty();
+            verify(clienteRepositoryPort, times(1)).buscarTodos(cursor, 3);
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Exportar todos os clientes")
+        void deveExportarTodosOsClientes() {
+            var cliente = gerarClienteComId();
+            doAnswer(invocation -> {
+                invocation.<Consumer<Cliente>>getArgument(0).accept(cliente);
+                return null;
+            }).when(clienteRepositoryPort).percorrerTodos(any());
+
+            var exportados = new ArrayList<Cliente>();
+            clienteUseCaseImpl.exportarTodos(exportados::add);
+
+            assertThat(exportados).containsExactly(cliente);
+        }
+
+        private Cliente gerarClienteComId() {
+            return Cliente.builder().id(UUID.randomUUID()).cpf(Helper.gerarClienteSomenteComCPF().getCpf()).build();
+        }
+    }
 }
@@ -0,0 +1,91 @@
+package com.fiap.pedidos.usecases;
+
+import com.fiap.pedidos.exceptions.entities.PedidoOperacaoNaoSuportadaException;
+import com.fiap.pedidos.utils.enums.StatusPedido;
+import com.fiap.pedidos.utils.enums.TipoAtualizacao;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MaquinaEstadosPedidoTest {
+
+    @Nested
+    class Fila {
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Permitir que a fila avance o pedido na ordem de preparo")
+        void devePermitirAvancarNaOrdemDePreparo() {
+            assertThat(MaquinaEstadosPedido.permite(TipoAtualizacao.F, StatusPedido.R, StatusPedido.E)).isTrue();
+            assertThat(MaquinaEstadosPedido.permite(TipoAtualizacao.F, StatusPedido.E, StatusPedido.P)).isTrue();
+            assertThat(MaquinaEstadosPedido.permite(TipoAtualizacao.F, StatusPedido.P, StatusPedido.F)).isTrue();
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Recusar que a fila pule etapas, volte etapas ou confirme pagamento")
+        void deveRecusarTransicoesForaDaOrdem() {
+            assertThat(MaquinaEstadosPedido.permite(TipoAtualizacao.F, StatusPedido.R, StatusPedido.F)).isFalse();
+            assertThat(MaquinaEstadosPedido.permite(TipoAtualizacao.F, StatusPedido.P, StatusPedido.E)).isFalse();
+            assertThat(MaquinaEstadosPedido.permite(TipoAtualizacao.F, StatusPedido.A, StatusPedido.R)).isFalse();
+            assertThat(MaquinaEstadosPedido.permite(TipoAtualizacao.F, StatusPedido.A, StatusPedido.E)).isFalse();
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Aceitar a repetição do status atual enviada pela fila")
+        void deveAceitarStatusRepetido() {
+            assertThat(MaquinaEstadosPedido.permite(TipoAtualizacao.F, StatusPedido.E, StatusPedido.E)).isTrue();
+            assertThat(MaquinaEstadosPedido.permite(TipoAtualizacao.F, StatusPedido.F, StatusPedido.F)).isTrue();
+            assertThat(MaquinaEstadosPedido.permite(TipoAtualizacao.F, StatusPedido.R, StatusPedido.R)).isFalse();
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Recusar destinos que a fila nunca alcança sem precisar do status atual")
+        void deveRecusarDestinoInalcancavel() {
+            assertThatThrownBy(() -> MaquinaEstadosPedido.validarDestino(TipoAtualizacao.F, StatusPedido.A))
+                    .isInstanceOf(PedidoOperacaoNaoSuportadaException.class);
+            assertThatThrownBy(() -> MaquinaEstadosPedido.validarDestino(TipoAtualizacao.F, StatusPedido.R))
+                    .isInstanceOf(PedidoOperacaoNaoSuportadaException.class);
+            assertThatCode(() -> MaquinaEstadosPedido.validarDestino(TipoAtualizacao.F, StatusPedido.E))
+                    .doesNotThrowAnyException();
+        }
+    }
+
+    @Nested
+    class PedidoAberto {
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Permitir pagamento, itens e checkout apenas em pedido aberto")
+        void devePermitirApenasPedidoAberto() {
+            assertThat(MaquinaEstadosPedido.permite(TipoAtualizacao.P, StatusPedido.A, StatusPedido.R)).isTrue();
+            assertThat(MaquinaEstadosPedido.permite(TipoAtualizacao.P, StatusPedido.R, StatusPedido.R)).isFalse();
+            assertThat(MaquinaEstadosPedido.permite(TipoAtualizacao.I, StatusPedido.A, StatusPedido.A)).isTrue();
+            assertThat(MaquinaEstadosPedido.permite(TipoAtualizacao.C, StatusPedido.E, StatusPedido.A)).isFalse();
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Informar que o pedido não está aberto ao editar pedido fechado")
+        void deveLancarExcecao_QuandoPedidoFechado() {
+            assertThatThrownBy(() -> MaquinaEstadosPedido.validar(TipoAtualizacao.I, StatusPedido.E, StatusPedido.A))
+                    .isInstanceOf(PedidoOperacaoNaoSuportadaException.class)
+                    .hasMessage("Pedido não está aberto para edição.");
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Recusar alteração de status junto com a edição de itens")
+        void deveLancarExcecao_QuandoEdicaoAlteraStatus() {
+            assertThatThrownBy(() -> MaquinaEstadosPedido.validar(TipoAtualizacao.I, StatusPedido.A, StatusPedido.F))
+                    .isInstanceOf(PedidoOperacaoNaoSuportadaException.class)
+                    .hasMessage("Pedido Aberto não pode passar para Finalizado pela atualização ITEM.");
+        }
+    }
+}
@@ -4,6 +4,8 @@ import com.fiap.pedidos.entities.Pedido;
 import com.fiap.pedidos.entities.PedidoProduto;
 import com.fiap.pedidos.entities.Produto;
 import com.fiap.pedidos.entities.ValorProduto;
+import com.fiap.pedidos.exceptions.entities.PedidoOperacaoNaoSuportadaException;
+import com.fiap.pedidos.exceptions.entities.ProdutoNaoEncontradoException;
 import com.fiap.pedidos.gateways.entities.PedidoEntity;
 import com.fiap.pedidos.gateways.entities.PedidoProdutoEntity;
 import com.fiap.pedidos.helpers.Helper;
@@ -21,11 +23,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
-import java.math.BigDecimal;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class PedidoProdutoUseCaseImplTest {
@@ -69,88 +74,191 @@ class PedidoProdutoUseCaseImplTest {
             var uuidPedido = UUID.randomUUID();
             var uuidProduto = UUID.randomUUID();
 
-            var pedido = Helper.gerarPedidoComIDComClienteComIDEProdutos();
-            pedido.setIdPedido(uuidPedido);
-
             var produto = Helper.gerarProdutoLanche();
             produto.setIdProduto(uuidProduto);
 
             var pedidoProduto = Helper.gerarPedidoProduto();
-            pedidoProduto.setPedidoId(UUID.randomUUID());
+            pedidoProduto.setPedidoId(uuidPedido);
+            pedidoProduto.setProdutoId(uuidProduto);
+
+            var pedidoGravado = Helper.gerarPedidoComIDComClienteComIDEProdutos();
+            pedidoGravado.setIdPedido(uuidPedido);
+            pedidoGravado.setProdutos(List.of(produto));
 
-            when(pedidoRepositoryPort.buscarPorId(any(UUID.class))).thenReturn(Optional.of(pedido));
             when(produtoRepositoryPort.buscarPorId(any(UUID.class))).thenReturn(Optional.of(produto));
-            when(pedidoProdutoRepositoryPort
-                    .obterTodosOsProdutosAssociadosAoPedidoPeloIdPedido(any(UUID.class)))
-                    .thenReturn(List.of(produto));
-            when(pedidoProdutoRepositoryPort.adicionarPedidoProduto(
-                    any(Pedido.class),
-                    any(Produto.class),
-                    any(PedidoProduto.class))).thenReturn(pedidoProduto);
-            when(pedidoRepositoryPort.atualizarPedido(any(Pedido.class))).thenReturn(pedido);
+            when(pedidoProdutoRepositoryPort.adicionarPedidoProdutoSomandoValor(
+                    any(UUID.class),
+                    any(Produto.class))).thenReturn(pedidoGravado);
 
             var pedidoSalvo = pedidoProdutoUseCase
                     .adicionarItemNoPedido(pedidoProduto);
 
-            assertThat(pedidoSalvo).isNotNull();
-            assertThat(pedidoSalvo).isInstanceOf(Pedido.class);
-            assertThat(pedidoSalvo.getIdPedido()).isEqualTo(pedidoSalvo.getIdPedido());
-            assertThat(pedidoSalvo.getProdutos().get(0).getTipoProduto())
-                    .isEqualTo(pedidoSalvo.getProdutos().get(0).getTipoProduto());
+            assertThat(pedidoSalvo).isSameAs(pedidoGravado);
 
-            verify(pedidoRepositoryPort, times(1)).buscarPorId(any(UUID.class));
             verify(produtoRepositoryPort, times(1)).buscarPorId(any(UUID.class));
             verify(pedidoProdutoRepositoryPort, times(1))
+                    .adicionarPedidoProdutoSomandoValor(eq(uuidPedido), eq(produto));
+            verify(pedidoRepositoryPort, never()).buscarPorIdComProdutos(any(UUID.class));
+            verify(pedidoProdutoRepositoryPort, never())
                     .obterTodosOsProdutosAssociadosAoPedidoPeloIdPedido(any(UUID.class));
-            verify(pedidoProdutoRepositoryPort, times(1))
-                    .adicionarPedidoProduto(
-                            any(Pedido.class),
-                            any(Produto.class),
-                            any(PedidoProduto.class));
+            verify(pedidoRepositoryPort, never()).atualizarPedido(any(Pedido.class));
+        }
 
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Adicionar item em pedido que não está aberto")
+        void deveFalhar_AoAdicionarItemEmPedidoNaoAberto() {
+            var produto = Helper.gerarProdutoLanche();
+            var pedidoProduto = Helper.gerarPedidoProduto();
+
+            when(produtoRepositoryPort.buscarPorId(any(UUID.class))).thenReturn(Optional.of(produto));
+            when(pedidoProdutoRepositoryPort.adicionarPedidoProdutoSomandoValor(any(UUID.class), any(Produto.class)))
+                    .thenThrow(new PedidoOperacaoNaoSuportadaException("Pedido não está aberto para edição."));
+
+            assertThatThrownBy(() -> pedidoProdutoUseCase.adicionarItemNoPedido(pedidoProduto))
+                    .isInstanceOf(PedidoOperacaoNaoSuportadaException.class);
+
+            verify(pedidoRepositoryPort, never()).buscarPorIdComProdutos(any(UUID.class));
+        }
+    }
+
+    @Nested
+    class ItensEmLote {
+
+        @Test
+        @Severity(SeverityLevel.BLOCKER)
+        @Description("Adicionar vários itens no pedido com uma única busca de produtos")
+        void deveAdicionarItensNoPedido() {
+            var pedido = Helper.gerarPedidoComIDComClienteComIDEProdutos();
+            var lanche = Helper.gerarProdutoLanche();
+            lanche.setIdProduto(UUID.randomUUID());
+            var bebida = Helper.gerarProdutoBebida();
+            bebida.setIdProduto(UUID.randomUUID());
+
+            var itens = List.of(
+                    PedidoProduto.builder().pedidoId(pedido.getIdPedido()).produtoId(lanche.getIdProduto()).build(),
+                    PedidoProduto.builder().pedidoId(pedido.getIdPedido()).produtoId(lanche.getIdProduto()).build(),
+                    PedidoProduto.builder().pedidoId(pedido.getIdPedido()).produtoId(bebida.getIdProduto()).build());
+
+            when(produtoRepositoryPort.buscarPorIds(anyCollection())).thenReturn(List.of(lanche, bebida));
+            when(pedidoProdutoRepositoryPort.adicionarPedidoProdutosSomandoValor(any(UUID.class), anyList()))
+                    .thenReturn(pedido);
+
+            var pedidoSalvo = pedidoProdutoUseCase.adicionarItensNoPedido(pedido.getIdPedido(), itens);
+
+            assertThat(pedidoSalvo).isSameAs(pedido);
+
+            verify(pedidoRepositoryPort, never()).buscarPorIdComProdutos(any(UUID.class));
+            verify(produtoRepositoryPort, times(1)).buscarPorIds(Set.of(lanche.getIdProduto(), bebida.getIdProduto()));
+            verify(produtoRepositoryPort, never()).buscarPorId(any(UUID.class));
+            verify(pedidoProdutoRepositoryPort, times(1)).adicionarPedidoProdutosSomandoValor(
+                    eq(pedido.getIdPedido()), eq(List.of(lanche, lanche, bebida)));
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Adicionar vários itens no pedido com produto inexistente")
+        void deveFalhar_AoAdicionarItensComProdutoInexistente() {
+            var pedido = Helper.gerarPedidoComIDComClienteComIDEProdutos();
+            var itens = List.of(Helper.gerarPedidoProduto());
+
+            when(produtoRepositoryPort.buscarPorIds(anyCollection())).thenReturn(List.of());
+
+            assertThatThrownBy(() -> pedidoProdutoUseCase.adicionarItensNoPedido(pedido.getIdPedido(), itens))
+                    .isInstanceOf(ProdutoNaoEncontradoException.class);
+
+            verify(pedidoProdutoRepositoryPort, never())
+                    .adicionarPedidoProdutosSomandoValor(any(UUID.class), anyList());
+        }
+
+        @Test
+        @Severity(SeverityLevel.BLOCKER)
+        @Description("Remover vários itens do pedido ignorando os que não estão no pedido")
+        void deveRemoverItensDoPedido() {
+            var pedido = Helper.gerarPedidoComIDComClienteComIDEProdutos();
+            var lanche = pedido.getProdutos().get(0);
+            lanche.setIdProduto(UUID.randomUUID());
+            pedido.getProdutos().get(1).setIdProduto(UUID.randomUUID());
+            pedido.setValorPedido(1000L);
+
+            var itens = List.of(
+                    PedidoProduto.builder().pedidoId(pedido.getIdPedido()).produtoId(lanche.getIdProduto()).build(),
+                    PedidoProduto.builder().pedidoId(pedido.getIdPedido()).produtoId(lanche.getIdProduto()).build());
+
+            when(pedidoRepositoryPort.buscarPorIdComProdutos(any(UUID.class))).thenReturn(Optional.of(pedido));
+            when(pedidoProdutoRepositoryPort.excluirPedidoProdutosRecalculandoValor(any(UUID.class), anyList()))
+                    .thenReturn(500L);
+
+            var pedidoSalvo = pedidoProdutoUseCase.removerItensDoPedido(pedido.getIdPedido(), itens);
+
+            assertThat(pedidoSalvo.getProdutos()).hasSize(1);
+            assertThat(pedidoSalvo.getValorPedido()).isEqualTo(500L);
+
+            verify(pedidoProdutoRepositoryPort, times(1)).excluirPedidoProdutosRecalculandoValor(
+                    eq(pedido.getIdPedido()), eq(List.of(lanche)));
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Remover vários itens que não estão no pedido")
+        void naoDeveAlterarPedido_QuandoItensNaoEstaoNoPedido() {
+            var pedido = Helper.gerarPedidoComIDComClienteComIDEProdutos();
+            var itens = List.of(Helper.gerarPedidoProduto());
+
+            when(pedidoRepositoryPort.buscarPorIdComProdutos(any(UUID.class))).thenReturn(Optional.of(pedido));
+
+            var pedidoSalvo = pedidoProdutoUseCase.removerItensDoPedido(pedido.getIdPedido(), itens);
+
+            assertThat(pedidoSalvo.getProdutos()).hasSize(2);
+            verify(pedidoProdutoRepositoryPort, never())
+                    .excluirPedidoProdutosRecalculandoValor(any(UUID.class), anyList());
         }
     }
 
     @Nested
     class RemoverItem {
         @Test
+        @Severity(SeverityLevel.BLOCKER)
+        @Description("Remover item do pedido recalculando o total no banco")
         void deveRemoverItemDoPedido() {
-            UUID pedidoId = UUID.randomUUID();
-            UUID produtoId = UUID.randomUUID();
-
             Pedido pedido = Helper.gerarPedidoComIDComClienteComIDEProdutos();
-            pedido.setIdPedido(pedidoId);
-            Produto produto = Helper.gerarProdutoLanche();
-            produto.setIdProduto(produtoId);
+            Produto produto = pedido.getProdutos().get(0);
+            produto.setIdProduto(UUID.randomUUID());
+            pedido.setValorPedido(1000L);
 
             PedidoProduto pedidoProduto = Helper.gerarPedidoProduto();
-            pedidoProduto.setPedidoId(pedidoId);
-            pedidoProduto.setProdutoId(produtoId);
+            pedidoProduto.setPedidoId(pedido.getIdPedido());
+            pedidoProduto.setProdutoId(produto.getIdProduto());
 
-            List<Produto> produtosAssociadosAoPedido = Collections.singletonList(produto);
+            when(produtoRepositoryPort.buscarPorId(produto.getIdProduto())).thenReturn(Optional.of(produto));
+            when(pedidoRepositoryPort.buscarPorIdComProdutos(pedido.getIdPedido())).thenReturn(Optional.of(pedido));
+            when(pedidoProdutoRepositoryPort.excluirPedidoProdutosRecalculandoValor(any(UUID.class), anyList()))
+                    .thenReturn(500L);
 
-            when(pedidoRepositoryPort.buscarPorId(pedidoId)).thenReturn(Optional.of(pedido));
-            when(produtoRepositoryPort.buscarPorId(produtoId)).thenReturn(Optional.of(produto));
-            when(pedidoProdutoRepositoryPort.obterTodosOsProdutosAssociadosAoPedidoPeloIdPedido(pedidoId))
-                    .thenReturn(produtosAssociadosAoPedido);
+            Pedido resultado = pedidoProdutoUseCase.removerItemDoPedido(pedidoProduto);
 
-            Pedido pedidoAtualizado = Helper.gerarPedidoComIDComClienteComIDEProdutos();
-            pedidoAtualizado.setIdPedido(pedidoId);
-            pedidoAtualizado.setDataAtualizacao(new Date());
+            assertThat(resultado.getIdPedido()).isEqualTo(pedido.getIdPedido());
+            assertThat(resultado.getProdutos()).hasSize(1);
+            assertThat(resultado.getValorPedido()).isEqualTo(500L);
 
-            doNothing().when(pedidoProdutoRepositoryPort).excluirPedidoProduto(pedidoId, produtoId);
-            when(pedidoRepositoryPort.atualizarPedido(any(Pedido.class))).thenReturn(pedidoAtualizado);
+            verify(pedidoProdutoRepositoryPort, times(1)).excluirPedidoProdutosRecalculandoValor(
+                    eq(pedido.getIdPedido()), eq(List.of(produto)));
+            verify(pedidoRepositoryPort, never()).atualizarPedido(any(Pedido.class));
+        }
 
-            Pedido resultado = pedidoProdutoUseCase.removerItemDoPedido(pedidoProduto);
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Remover item com produto inexistente")
+        void deveFalhar_AoRemoverItemComProdutoInexistente() {
+            PedidoProduto pedidoProduto = Helper.gerarPedidoProduto();
+
+            when(produtoRepositoryPort.buscarPorId(any(UUID.class))).thenReturn(Optional.empty());
 
-            assertThat(resultado).isNotNull();
-            assertThat(resultado.getIdPedido()).isEqualTo(pedidoId);
+            assertThatThrownBy(() -> pedidoProdutoUseCase.removerItemDoPedido(pedidoProduto))
+                    .isInstanceOf(ProdutoNaoEncontradoException.class);
 
-            verify(pedidoRepositoryPort, times(1)).buscarPorId(pedidoId);
-            verify(produtoRepositoryPort, times(1)).buscarPorId(produtoId);
-            verify(pedidoProdutoRepositoryPort, times(1)).obterTodosOsProdutosAssociadosAoPedidoPeloIdPedido(pedidoId);
-            verify(pedidoProdutoRepositoryPort, times(1)).excluirPedidoProduto(pedidoId, produtoId);
-            verify(pedidoRepositoryPort, times(1)).atualizarPedido(any(Pedido.class));
+            verify(pedidoProdutoRepositoryPort, never())
+                    .excluirPedidoProdutosRecalculandoValor(any(UUID.class), anyList());
         }
     }
 }
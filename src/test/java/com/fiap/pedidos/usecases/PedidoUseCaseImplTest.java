@@ -1,9 +1,13 @@
 package com.fiap.pedidos.usecases;
 
+import com.fiap.pedidos.entities.CursorPedido;
+import com.fiap.pedidos.entities.EventoStatusPedido;
 import com.fiap.pedidos.entities.Pedido;
+import com.fiap.pedidos.exceptions.entities.PedidoAlteradoConcorrentementeException;
+import com.fiap.pedidos.exceptions.entities.PedidoNaoEncontradoException;
 import com.fiap.pedidos.exceptions.entities.PedidoOperacaoNaoSuportadaException;
 import com.fiap.pedidos.helpers.Helper;
-import com.fiap.pedidos.interfaces.gateways.IFilaRepositoryPort;
+import com.fiap.pedidos.interfaces.facade.IPublicadorEventosPedido;
 import com.fiap.pedidos.interfaces.gateways.IPagamentoRepositoryPort;
 import com.fiap.pedidos.interfaces.gateways.IPedidoProdutoRepositoryPort;
 import com.fiap.pedidos.interfaces.gateways.IPedidoRepositoryPort;
@@ -19,13 +23,17 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 class PedidoUseCaseImplTest {
@@ -38,7 +46,7 @@ class PedidoUseCaseImplTest {
     @Mock
     private IPagamentoRepositoryPort pagamentoRepositoryPort;
     @Mock
-    private IFilaRepositoryPort filaRepositoryPort;
+    private IPublicadorEventosPedido publicadorEventosPedido;
     AutoCloseable mock;
 
     @BeforeEach
@@ -54,7 +62,7 @@ class PedidoUseCaseImplTest {
         void deveIniciarNovoPedido() {
             Pedido pedido = Helper.gerarPedidoComClienteComIDEProdutos();
 
-            when(pedidoRepositoryPort.buscarPedidosPorClienteEStatus(any(UUID.class), any(StatusPedido.class)))
+            when(pedidoRepositoryPort.buscarPedidosAtivosPorClienteEStatus(any(UUID.class), any(StatusPedido.class)))
                     .thenReturn(List.of());
             when(pedidoRepositoryPort.cadastrar(any(Pedido.class))).thenReturn(pedido);
 
@@ -64,7 +72,7 @@ class PedidoUseCaseImplTest {
             assertThat(pedidoIniciado.getIdPedido()).isEqualTo(pedido.getIdPedido());
             assertThat(pedidoIniciado.getValorPedido()).isEqualTo(pedido.getValorPedido());
 
-            verify(pedidoRepositoryPort, times(1)).buscarPedidosPorClienteEStatus(any(UUID.class), any(StatusPedido.class));
+            verify(pedidoRepositoryPort, times(1)).buscarPedidosAtivosPorClienteEStatus(any(UUID.class), any(StatusPedido.class));
             verify(pedidoRepositoryPort, times(1)).cadastrar(any(Pedido.class));
         }
     }
@@ -76,22 +84,124 @@ class PedidoUseCaseImplTest {
         @Description("Atualizar status do pedido para entregue")
         void deveAtualizarStatusDoPedidoParaEntregue() {
             Pedido pedidoExistente = Helper.gerarPedidoComIDComClienteComIDEProdutos();
-
+            pedidoExistente.setStatusPedido(StatusPedido.P);
 
             when(pedidoRepositoryPort.buscarPorId(any(UUID.class))).thenReturn(Optional.of(pedidoExistente));
-            when(pedidoRepositoryPort.atualizarPedido(any(Pedido.class))).thenReturn(pedidoExistente);
+            when(pedidoRepositoryPort.transicionarStatus(any(Pedido.class), any(StatusPedido.class))).thenReturn(pedidoExistente);
 
             Pedido pedidoAtualizado = pedidoUseCaseImpl.atualizarPedido(
                     pedidoExistente.getIdPedido(),
                     TipoAtualizacao.F,
                     null,
-                    StatusPedido.R);
+                    StatusPedido.F);
 
             assertThat(pedidoAtualizado).isNotNull();
-            assertThat(pedidoAtualizado.getStatusPedido()).isEqualTo(StatusPedido.R);
+            assertThat(pedidoAtualizado.getStatusPedido()).isEqualTo(StatusPedido.F);
 
             verify(pedidoRepositoryPort, times(1)).buscarPorId(any(UUID.class));
-            verify(pedidoRepositoryPort, times(1)).atualizarPedido(any(Pedido.class));
+            verify(pedidoRepositoryPort, times(1)).transicionarStatus(any(Pedido.class), eq(StatusPedido.P));
+            verify(pedidoRepositoryPort, never()).atualizarPedido(any(Pedido.class));
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Reler o pedido quando outra operação alterou o status e não gravar de novo o mesmo status")
+        void deveReler_QuandoStatusAlteradoConcorrentemente() {
+            Pedido lidoAntes = Helper.gerarPedidoComIDComClienteComIDEProdutosEStatusEmPreparacao();
+            Pedido lidoDepois = Helper.gerarPedidoComIDComClienteComIDEProdutosEStatusEmPreparacao();
+            lidoDepois.setIdPedido(lidoAntes.getIdPedido());
+            lidoDepois.setStatusPedido(StatusPedido.P);
+
+            when(pedidoRepositoryPort.buscarPorId(any(UUID.class)))
+                    .thenReturn(Optional.of(lidoAntes))
+                    .thenReturn(Optional.of(lidoDepois));
+            when(pedidoRepositoryPort.transicionarStatus(any(Pedido.class), eq(StatusPedido.E)))
+                    .thenThrow(new PedidoAlteradoConcorrentementeException());
+
+            Pedido pedidoAtualizado = pedidoUseCaseImpl.atualizarPedido(
+                    lidoAntes.getIdPedido(), TipoAtualizacao.F, null, StatusPedido.P);
+
+            assertThat(pedidoAtualizado.getStatusPedido()).isEqualTo(StatusPedido.P);
+            verify(pedidoRepositoryPort, times(2)).buscarPorId(any(UUID.class));
+            verify(pedidoRepositoryPort, times(1)).transicionarStatus(any(Pedido.class), any(StatusPedido.class));
+            verify(pedidoRepositoryPort, never()).atualizarPedido(any(Pedido.class));
+            verify(publicadorEventosPedido, never()).publicar(any(EventoStatusPedido.class));
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Recusar status que a fila não pode definir sem ler o pedido")
+        void deveRecusarDestinoInvalido_SemLerPedido() {
+            assertThatThrownBy(() -> pedidoUseCaseImpl.atualizarPedido(
+                    UUID.randomUUID(), TipoAtualizacao.F, null, StatusPedido.A))
+                    .isInstanceOf(PedidoOperacaoNaoSuportadaException.class);
+
+            verify(pedidoRepositoryPort, never()).buscarPorId(any(UUID.class));
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Recusar transição fora da ordem de preparo")
+        void deveRecusarTransicaoInvalida() {
+            Pedido pedidoExistente = Helper.gerarPedidoComIDComClienteComIDEProdutos();
+
+            when(pedidoRepositoryPort.buscarPorId(any(UUID.class))).thenReturn(Optional.of(pedidoExistente));
+
+            assertThatThrownBy(() -> pedidoUseCaseImpl.atualizarPedido(
+                    pedidoExistente.getIdPedido(), TipoAtualizacao.F, null, StatusPedido.F))
+                    .isInstanceOf(PedidoOperacaoNaoSuportadaException.class);
+
+            verify(pedidoRepositoryPort, never()).transicionarStatus(any(Pedido.class), any(StatusPedido.class));
+            verify(publicadorEventosPedido, never()).publicar(any(EventoStatusPedido.class));
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Desistir da atualização quando o conflito se repete em todas as tentativas")
+        void deveLancarExcecao_QuandoConflitoPersiste() {
+            Pedido pedidoExistente = Helper.gerarPedidoComIDComClienteComIDEProdutos();
+
+            when(pedidoRepositoryPort.buscarPorId(any(UUID.class)))
+                    .thenAnswer(invocation -> Optional.of(Helper.gerarPedidoComIDComClienteComIDEProdutosEStatusEmPreparacao()));
+            when(pedidoRepositoryPort.transicionarStatus(any(Pedido.class), any(StatusPedido.class)))
+                    .thenThrow(new PedidoAlteradoConcorrentementeException());
+
+            assertThatThrownBy(() -> pedidoUseCaseImpl.atualizarPedido(
+                    pedidoExistente.getIdPedido(), TipoAtualizacao.F, null, StatusPedido.P))
+                    .isInstanceOf(PedidoAlteradoConcorrentementeException.class);
+
+            verify(pedidoRepositoryPort, times(3)).transicionarStatus(any(Pedido.class), any(StatusPedido.class));
+            verify(publicadorEventosPedido, never()).publicar(any(EventoStatusPedido.class));
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Publicar evento para o painel quando o status do pedido muda")
+        void devePublicarEvento_QuandoStatusMuda() {
+            Pedido pedidoExistente = Helper.gerarPedidoComIDComClienteComIDEProdutosEStatusEmPreparacao();
+
+            when(pedidoRepositoryPort.buscarPorId(any(UUID.class))).thenReturn(Optional.of(pedidoExistente));
+            when(pedidoRepositoryPort.transicionarStatus(any(Pedido.class), any(StatusPedido.class))).thenReturn(pedidoExistente);
+
+            pedidoUseCaseImpl.atualizarPedido(pedidoExistente.getIdPedido(), TipoAtualizacao.F, null, StatusPedido.P);
+
+            verify(publicadorEventosPedido, times(1)).publicar(argThat(evento ->
+                    evento.getIdPedido().equals(pedidoExistente.getIdPedido())
+                            && evento.getStatusAnterior() == StatusPedido.E
+                            && evento.getStatusAtual() == StatusPedido.P));
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Não publicar evento quando o status do pedido não muda")
+        void naoDevePublicarEvento_QuandoStatusNaoMuda() {
+            Pedido pedidoExistente = Helper.gerarPedidoComIDComClienteComIDEProdutos();
+
+            when(pedidoRepositoryPort.buscarPorId(any(UUID.class))).thenReturn(Optional.of(pedidoExistente));
+
+            pedidoUseCaseImpl.atualizarPedido(pedidoExistente.getIdPedido(), TipoAtualizacao.C, null, null);
+
+            verify(publicadorEventosPedido, never()).publicar(any(EventoStatusPedido.class));
         }
     }
 
@@ -117,12 +227,11 @@ class PedidoUseCaseImplTest {
 
     @Test
     @Severity(SeverityLevel.CRITICAL)
-    @Description("Atualizar pedido apos checkout")
+    @Description("Validar o checkout sem gravar o pedido, que não muda")
     void atualizarPedidoAposCheckout() {
         Pedido pedidoExistente = Helper.gerarPedidoComIDComClienteComIDEProdutos();
 
         when(pedidoRepositoryPort.buscarPorId(any(UUID.class))).thenReturn(Optional.of(pedidoExistente));
-        when(pedidoRepositoryPort.atualizarPedido(any(Pedido.class))).thenReturn(pedidoExistente);
 
         var pedidoAtualizado = pedidoUseCaseImpl.atualizarPedido(
                 pedidoExistente.getIdPedido(),
@@ -132,9 +241,11 @@ class PedidoUseCaseImplTest {
 
         assertThat(pedidoAtualizado).isNotNull();
         assertThat(pedidoAtualizado.getStatusPedido()).isEqualTo(StatusPedido.A);
+        assertThat(pedidoAtualizado.getVersao()).isEqualTo(pedidoExistente.getVersao());
 
         verify(pedidoRepositoryPort, times(1)).buscarPorId(any(UUID.class));
-        verify(pedidoRepositoryPort, times(1)).atualizarPedido(any(Pedido.class));
+        verify(pedidoRepositoryPort, never()).atualizarPedido(any(Pedido.class));
+        verify(pedidoRepositoryPort, never()).transicionarStatus(any(Pedido.class), any(StatusPedido.class));
     }
 
 
@@ -147,6 +258,7 @@ class PedidoUseCaseImplTest {
             Pedido pedidoExistente = Helper.gerarPedidoComIDComClienteComIDEProdutos();
             Pedido pedidoRequest = Helper.gerarPedidoComIDComClienteComIDEProdutos();
             pedidoRequest.setProdutos(null);
+            pedidoRequest.setValorPedido(pedidoExistente.getValorPedido() + 500);
 
             when(pedidoRepositoryPort.buscarPorId(any(UUID.class))).thenReturn(Optional.of(pedidoExistente));
             when(pedidoRepositoryPort.atualizarPedido(any(Pedido.class))).thenReturn(pedidoExistente);
@@ -166,10 +278,32 @@ class PedidoUseCaseImplTest {
 
             verify(pedidoRepositoryPort, times(1)).buscarPorId(any(UUID.class));
             verify(pedidoRepositoryPort, times(1)).atualizarPedido(any(Pedido.class));
-            verify(pedidoProdutoRepositoryPort, times(2))
+            verify(pedidoProdutoRepositoryPort, times(1))
                     .obterTodosOsProdutosAssociadosAoPedidoPeloIdPedido(any(UUID.class));
         }
 
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Não gravar o pedido quando os detalhes repetem o status e o valor atuais")
+        void naoDeveGravar_QuandoDetalhesNaoMudam() {
+            Pedido pedidoExistente = Helper.gerarPedidoComIDComClienteComIDEProdutos();
+            Pedido pedidoRequest = Helper.gerarPedidoComIDComClienteComIDEProdutos();
+            pedidoRequest.setValorPedido(pedidoExistente.getValorPedido());
+
+            when(pedidoRepositoryPort.buscarPorId(any(UUID.class))).thenReturn(Optional.of(pedidoExistente));
+
+            Pedido pedidoAtualizado = pedidoUseCaseImpl.atualizarPedido(
+                    pedidoExistente.getIdPedido(),
+                    TipoAtualizacao.I,
+                    pedidoRequest,
+                    StatusPedido.A);
+
+            assertThat(pedidoAtualizado.getValorPedido()).isEqualTo(pedidoExistente.getValorPedido());
+
+            verify(pedidoRepositoryPort, never()).atualizarPedido(any(Pedido.class));
+            verify(pedidoRepositoryPort, never()).transicionarStatus(any(Pedido.class), any(StatusPedido.class));
+        }
+
         @Test
         @Severity(SeverityLevel.NORMAL)
         @Description("Tentar atualizar pedido com operação não suportada")
@@ -199,17 +333,17 @@ class PedidoUseCaseImplTest {
     class AtualizarStatusPagamento {
         @Test
         @Severity(SeverityLevel.CRITICAL)
-        @Description("Atualizar status do pagamento e inserir na fila")
+        @Description("Atualizar status do pagamento e gravar o envio para a fila")
         void deveAtualizarStatusDoPagamentoEInserirNaFila() {
-            Pedido pedidoExistente = Helper.gerarPedidoComIDComClienteComIDEProdutosEStatusEmPreparacao();
+            Pedido pedidoExistente = Helper.gerarPedidoComIDComClienteComIDEProdutos();
             Pedido pedidoRequest = Helper.gerarPedidoComIDComClienteComIDEProdutosEStatusEmPreparacao();
 
             when(pagamentoRepositoryPort.consultaPagamento(any(UUID.class))).thenReturn(true);
-            doNothing().when(filaRepositoryPort).inserePedidoNaFila(any(UUID.class), any(UUID.class));
             when(pedidoProdutoRepositoryPort.obterTodosOsProdutosAssociadosAoPedidoPeloIdPedido(any(UUID.class)))
                     .thenReturn(List.of(pedidoExistente.getProdutos().get(0)));
             when(pedidoRepositoryPort.buscarPorId(any(UUID.class))).thenReturn(Optional.of(pedidoExistente));
-            when(pedidoRepositoryPort.atualizarPedido(any(Pedido.class))).thenReturn(pedidoExistente);
+            when(pedidoRepositoryPort.transicionarStatusEnviandoParaFila(any(Pedido.class), any(StatusPedido.class)))
+                    .thenReturn(pedidoExistente);
 
             Pedido pedidoAtualizado = pedidoUseCaseImpl.atualizarPedido(
                     pedidoExistente.getIdPedido(),
@@ -220,7 +354,52 @@ class PedidoUseCaseImplTest {
             assertThat(pedidoAtualizado.getStatusPedido()).isEqualTo(StatusPedido.R);
 
             verify(pagamentoRepositoryPort, times(1)).consultaPagamento(any(UUID.class));
-            verify(filaRepositoryPort, times(1)).inserePedidoNaFila(any(UUID.class), any(UUID.class));
+            verify(pedidoRepositoryPort, times(1)).transicionarStatusEnviandoParaFila(any(Pedido.class), eq(StatusPedido.A));
+            verify(pedidoRepositoryPort, never()).atualizarPedido(any(Pedido.class));
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Não enviar para a fila quando o pagamento não foi confirmado")
+        void naoDeveInserirNaFila_QuandoPagamentoNaoConfirmado() {
+            Pedido pedidoExistente = Helper.gerarPedidoComIDComClienteComIDEProdutos();
+
+            when(pagamentoRepositoryPort.consultaPagamento(any(UUID.class))).thenReturn(false);
+            when(pedidoRepositoryPort.buscarPorId(any(UUID.class))).thenReturn(Optional.of(pedidoExistente));
+
+            Pedido pedidoAtualizado = pedidoUseCaseImpl.atualizarPedido(
+                    pedidoExistente.getIdPedido(),
+                    TipoAtualizacao.P,
+                    null,
+                    null);
+
+            assertThat(pedidoAtualizado.getStatusPedido()).isEqualTo(StatusPedido.A);
+
+            verify(pedidoRepositoryPort, never()).atualizarPedido(any(Pedido.class));
+            verify(pedidoRepositoryPort, never()).transicionarStatusEnviandoParaFila(any(Pedido.class), any(StatusPedido.class));
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Ignorar webhook repetido de pedido com pagamento já confirmado")
+        void naoDeveConsultarPagamento_QuandoPedidoJaPago() {
+            Pedido pedidoExistente = Helper.gerarPedidoComIDComClienteComIDEProdutos();
+            pedidoExistente.setStatusPedido(StatusPedido.R);
+
+            when(pedidoRepositoryPort.buscarPorId(any(UUID.class))).thenReturn(Optional.of(pedidoExistente));
+
+            Pedido pedidoAtualizado = pedidoUseCaseImpl.atualizarPedido(
+                    pedidoExistente.getIdPedido(),
+                    TipoAtualizacao.P,
+                    null,
+                    null);
+
+            assertThat(pedidoAtualizado.getStatusPedido()).isEqualTo(StatusPedido.R);
+
+            verify(pagamentoRepositoryPort, never()).consultaPagamento(any(UUID.class));
+            verify(pedidoRepositoryPort, never()).atualizarPedido(any(Pedido.class));
+            verify(pedidoRepositoryPort, never()).transicionarStatusEnviandoParaFila(any(Pedido.class), any(StatusPedido.class));
+            verify(publicadorEventosPedido, never()).publicar(any(EventoStatusPedido.class));
         }
     }
 
@@ -232,18 +411,112 @@ class PedidoUseCaseImplTest {
         void deveBuscarPedidoPorIdComSucesso() {
             Pedido pedidoExistente = Helper.gerarPedidoComIDComClienteComIDEProdutos();
 
-            when(pedidoRepositoryPort.buscarPorId(any(UUID.class))).thenReturn(Optional.of(pedidoExistente));
-            when(pedidoProdutoRepositoryPort.obterTodosOsProdutosAssociadosAoPedidoPeloIdPedido(any(UUID.class)))
-                    .thenReturn(List.of(pedidoExistente.getProdutos().get(0)));
+            when(pedidoRepositoryPort.buscarPorIdComProdutos(any(UUID.class))).thenReturn(Optional.of(pedidoExistente));
 
             Pedido pedidoEncontrado = pedidoUseCaseImpl.buscarPorId(pedidoExistente.getIdPedido());
 
             assertThat(pedidoEncontrado).isNotNull();
             assertThat(pedidoEncontrado.getIdPedido()).isEqualTo(pedidoExistente.getIdPedido());
+            assertThat(pedidoEncontrado.getProdutos()).hasSize(2);
 
-            verify(pedidoRepositoryPort, times(1)).buscarPorId(any(UUID.class));
-            verify(pedidoProdutoRepositoryPort, times(1))
+            verify(pedidoRepositoryPort, times(1)).buscarPorIdComProdutos(any(UUID.class));
+            verify(pedidoRepositoryPort, never()).buscarPorId(any(UUID.class));
+            verify(pedidoProdutoRepositoryPort, never())
                     .obterTodosOsProdutosAssociadosAoPedidoPeloIdPedido(any(UUID.class));
         }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Buscar pedido por ID inexistente")
+        void deveLancarExcecao_QuandoPedidoNaoExiste() {
+            when(pedidoRepositoryPort.buscarPorIdComProdutos(any(UUID.class))).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> pedidoUseCaseImpl.buscarPorId(UUID.randomUUID()))
+                    .isInstanceOf(PedidoNaoEncontradoException.class);
+        }
+    }
+
+    @Nested
+    class BuscarTodos {
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Buscar pedidos retornando cursor quando existe próxima página")
+        void deveRetornarCursor_QuandoExisteProximaPagina() {
+            var pedidos = List.of(gerarPedidoListado(), gerarPedidoListado(), gerarPedidoListado());
+
+            when(pedidoRepositoryPort.buscarTodos(any(), anyInt())).thenReturn(pedidos);
+
+            var pagina = pedidoUseCaseImpl.buscarTodos(null, 2);
+
+            assertThat(pagina.getPedidos()).containsExactly(pedidos.get(0), pedidos.get(1));
+            assertThat(pagina.getProximoCursor()).contains(CursorPedido.de(pedidos.get(1)));
+            verify(pedidoRepositoryPort, times(1)).buscarTodos(null, 3);
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Buscar última página de pedidos sem cursor")
+        void naoDeveRetornarCursor_QuandoUltimaPagina() {
+            var cursor = CursorPedido.de(gerarPedidoListado());
+            var pedidos = List.of(gerarPedidoListado());
+
+            when(pedidoRepositoryPort.buscarTodos(any(), anyInt())).thenReturn(pedidos);
+
+            var pagina = pedidoUseCaseImpl.buscarTodos(cursor, 2);
+
+            assertThat(pagina.getPedidos()).containsExactly(pedidos.get(0));
+            assertThat(pagina.getProximoCursor()).isEmpty();
+            verify(pedidoRepositoryPort, times(1)).buscarTodos(cursor, 3);
+        }
+
+        private Pedido gerarPedidoListado() {
+            var pedido = Helper.gerarPedidoComIDComClienteComIDEProdutos();
+            pedido.setDataInclusao(new Date());
+            return pedido;
+        }
+    }
+
+    @Nested
+    class ReconciliarPagamentos {
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Confirmar em lote os pedidos pagos e publicar a mudança de status")
+        void deveConfirmarPedidosPagos() {
+            var pago = Helper.gerarPedidoComIDComClienteComIDEProdutos();
+            var pendente = Helper.gerarPedidoComIDComClienteComIDEProdutos();
+            var confirmado = Helper.gerarPedidoComIDComClienteComIDEProdutos();
+            confirmado.setIdPedido(pago.getIdPedido());
+            confirmado.setStatusPedido(StatusPedido.R);
+            confirmado.setDataAtualizacao(new Date());
+
+            when(pagamentoRepositoryPort.consultaPagamentos(anyCollection())).thenReturn(Set.of(pago.getIdPedido()));
+            when(pedidoRepositoryPort.confirmarPagamentos(anyCollection())).thenReturn(List.of(confirmado));
+
+            var confirmados = pedidoUseCaseImpl.reconciliarPagamentos(List.of(pago, pendente));
+
+            assertThat(confirmados).containsExactly(confirmado);
+            verify(pagamentoRepositoryPort, times(1))
+                    .consultaPagamentos(List.of(pago.getIdPedido(), pendente.getIdPedido()));
+            verify(pedidoRepositoryPort, times(1)).confirmarPagamentos(Set.of(pago.getIdPedido()));
+            verify(publicadorEventosPedido, times(1)).publicar(argThat(evento ->
+                    evento.getIdPedido().equals(pago.getIdPedido())
+                            && evento.getStatusAnterior() == StatusPedido.A
+                            && evento.getStatusAtual() == StatusPedido.R));
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Não atualizar pedidos quando nenhum pagamento foi confirmado")
+        void naoDeveAtualizarPedidos_QuandoNenhumPagamentoConfirmado() {
+            var pendente = Helper.gerarPedidoComIDComClienteComIDEProdutos();
+
+            when(pagamentoRepositoryPort.consultaPagamentos(anyCollection())).thenReturn(Set.of());
+
+            assertThat(pedidoUseCaseImpl.reconciliarPagamentos(List.of(pendente))).isEmpty();
+
+            verify(pedidoRepositoryPort, never()).confirmarPagamentos(anyCollection());
+            verify(publicadorEventosPedido, never()).publicar(any(EventoStatusPedido.class));
+        }
     }
 }
@@ -66,7 +66,7 @@ class ProdutoUseCaseImplTest {
             assertThat(produtoSalvo.getIdProduto()).isNotNull();
             assertThat(produtoSalvo.getTipoProduto().getCodigo()).isEqualTo(TipoProduto.BEBIDA.getCodigo());
             assertThat(produtoSalvo.getNomeProduto().getNome()).isEqualTo(produto.getNomeProduto().getNome());
-            assertThat(produtoSalvo.getValorProduto().getValorProduto()).isEqualTo(produto.getValorProduto().getValorProduto());
+            assertThat(produtoSalvo.getValorProduto().getCentavos()).isEqualTo(produto.getValorProduto().getCentavos());
             assertThat(produtoSalvo.getDescricaoProduto().getDescricao()).isEqualTo(produto.getDescricaoProduto().getDescricao());
 
             verify(produtoRepositoryPort, times(1)).criarProduto(any(Produto.class));
@@ -89,7 +89,7 @@ class ProdutoUseCaseImplTest {
             assertThat(produtoSalvo.getIdProduto()).isNotNull();
             assertThat(produtoSalvo.getTipoProduto().getCodigo()).isEqualTo(TipoProduto.ACOMPANHAMENTO.getCodigo());
             assertThat(produtoSalvo.getNomeProduto().getNome()).isEqualTo(produto.getNomeProduto().getNome());
-            assertThat(produtoSalvo.getValorProduto().getValorProduto()).isEqualTo(produto.getValorProduto().getValorProduto());
+            assertThat(produtoSalvo.getValorProduto().getCentavos()).isEqualTo(produto.getValorProduto().getCentavos());
             assertThat(produtoSalvo.getDescricaoProduto().getDescricao()).isEqualTo(produto.getDescricaoProduto().getDescricao());
 
             verify(produtoRepositoryPort, times(1)).criarProduto(any(Produto.class));
@@ -112,7 +112,7 @@ class ProdutoUseCaseImplTest {
             assertThat(produtoSalvo.getIdProduto()).isNotNull();
             assertThat(produtoSalvo.getTipoProduto().getCodigo()).isEqualTo(TipoProduto.LANCHE.getCodigo());
             assertThat(produtoSalvo.getNomeProduto().getNome()).isEqualTo(produto.getNomeProduto().getNome());
-            assertThat(produtoSalvo.getValorProduto().getValorProduto()).isEqualTo(produto.getValorProduto().getValorProduto());
+            assertThat(produtoSalvo.getValorProduto().getCentavos()).isEqualTo(produto.getValorProduto().getCentavos());
             assertThat(produtoSalvo.getDescricaoProduto().getDescricao()).isEqualTo(produto.getDescricaoProduto().getDescricao());
 
             verify(produtoRepositoryPort, times(1)).criarProduto(any(Produto.class));
@@ -135,7 +135,7 @@ class ProdutoUseCaseImplTest {
             assertThat(produtoSalvo.getIdProduto()).isNotNull();
             assertThat(produtoSalvo.getTipoProduto().getCodigo()).isEqualTo(TipoProduto.SOBREMESA.getCodigo());
             assertThat(produtoSalvo.getNomeProduto().getNome()).isEqualTo(produto.getNomeProduto().getNome());
-            assertThat(produtoSalvo.getValorProduto().getValorProduto()).isEqualTo(produto.getValorProduto().getValorProduto());
+            assertThat(produtoSalvo.getValorProduto().getCentavos()).isEqualTo(produto.getValorProduto().getCentavos());
             assertThat(produtoSalvo.getDescricaoProduto().getDescricao()).isEqualTo(produto.getDescricaoProduto().getDescricao());
 
             verify(produtoRepositoryPort, times(1)).criarProduto(any(Produto.class));
@@ -180,7 +180,7 @@ class ProdutoUseCaseImplTest {
             assertThat(produtoBuscado.get()).isInstanceOf(Produto.class);
             assertThat(produtoBuscado.get().getTipoProduto().getCodigo()).isEqualTo(TipoProduto.SOBREMESA.getCodigo());
             assertThat(produtoBuscado.get().getNomeProduto().getNome()).isEqualTo(produto.getNomeProduto().getNome());
-            assertThat(produtoBuscado.get().getValorProduto().getValorProduto()).isEqualTo(produto.getValorProduto().getValorProduto());
+            assertThat(produtoBuscado.get().getValorProduto().getCentavos()).isEqualTo(produto.getValorProduto().getCentavos());
             assertThat(produtoBuscado.get().getDescricaoProduto().getDescricao()).isEqualTo(produto.getDescricaoProduto().getDescricao());
 
             verify(produtoRepositoryPort, times(1)).buscarPorId(any(UUID.class));
@@ -201,7 +201,7 @@ class ProdutoUseCaseImplTest {
             assertThat(produtoBuscado.size()).isEqualTo(1);
             assertThat(produtoBuscado.get(0).getTipoProduto().getCodigo()).isEqualTo(TipoProduto.SOBREMESA.getCodigo());
             assertThat(produtoBuscado.get(0).getNomeProduto().getNome()).isEqualTo(produto.getNomeProduto().getNome());
-            assertThat(produtoBuscado.get(0).getValorProduto().getValorProduto()).isEqualTo(produto.getValorProduto().getValorProduto());
+            assertThat(produtoBuscado.get(0).getValorProduto().getCentavos()).isEqualTo(produto.getValorProduto().getCentavos());
             assertThat(produtoBuscado.get(0).getDescricaoProduto().getDescricao()).isEqualTo(produto.getDescricaoProduto().getDescricao());
 
             verify(produtoRepositoryPort, times(1)).listarProdutosPorTipo(any(TipoProduto.class));
@@ -222,7 +222,7 @@ class ProdutoUseCaseImplTest {
             assertThat(produtoBuscado.size()).isEqualTo(1);
             assertThat(produtoBuscado.get(0).getTipoProduto().getCodigo()).isEqualTo(TipoProduto.LANCHE.getCodigo());
             assertThat(produtoBuscado.get(0).getNomeProduto().getNome()).isEqualTo(produto.getNomeProduto().getNome());
-            assertThat(produtoBuscado.get(0).getValorProduto().getValorProduto()).isEqualTo(produto.getValorProduto().getValorProduto());
+            assertThat(produtoBuscado.get(0).getValorProduto().getCentavos()).isEqualTo(produto.getValorProduto().getCentavos());
             assertThat(produtoBuscado.get(0).getDescricaoProduto().getDescricao()).isEqualTo(produto.getDescricaoProduto().getDescricao());
 
             verify(produtoRepositoryPort, times(1)).listarProdutosPorTipo(any(TipoProduto.class));
@@ -243,7 +243,7 @@ class ProdutoUseCaseImplTest {
             assertThat(produtoBuscado.size()).isEqualTo(1);
             assertThat(produtoBuscado.get(0).getTipoProduto().getCodigo()).isEqualTo(TipoProduto.BEBIDA.getCodigo());
             assertThat(produtoBuscado.get(0).getNomeProduto().getNome()).isEqualTo(produto.getNomeProduto().getNome());
-            assertThat(produtoBuscado.get(0).getValorProduto().getValorProduto()).isEqualTo(produto.getValorProduto().getValorProduto());
+            assertThat(produtoBuscado.get(0).getValorProduto().getCentavos()).isEqualTo(produto.getValorProduto().getCentavos());
             assertThat(produtoBuscado.get(0).getDescricaoProduto().getDescricao()).isEqualTo(produto.getDescricaoProduto().getDescricao());
 
             verify(produtoRepositoryPort, times(1)).listarProdutosPorTipo(any(TipoProduto.class));
@@ -264,7 +264,7 @@ class ProdutoUseCaseImplTest {
             assertThat(produtoBuscado.size()).isEqualTo(1);
             assertThat(produtoBuscado.get(0).getTipoProduto().getCodigo()).isEqualTo(TipoProduto.ACOMPANHAMENTO.getCodigo());
             assertThat(produtoBuscado.get(0).getNomeProduto().getNome()).isEqualTo(produto.getNomeProduto().getNome());
-            assertThat(produtoBuscado.get(0).getValorProduto().getValorProduto()).isEqualTo(produto.getValorProduto().getValorProduto());
+            assertThat(produtoBuscado.get(0).getValorProduto().getCentavos()).isEqualTo(produto.getValorProduto().getCentavos());
             assertThat(produtoBuscado.get(0).getDescricaoProduto().getDescricao()).isEqualTo(produto.getDescricaoProduto().getDescricao());
 
             verify(produtoRepositoryPort, times(1)).listarProdutosPorTipo(any(TipoProduto.class));
@@ -2,12 +2,12 @@
 Funcionalidade: Cadastrar Cliente
 
   Cenario: Cadastrar Cliente
-    Dado que o cliente de CPF "88888888888" não está cadastrado
+    Dado que o cliente de CPF "39053344705" não está cadastrado
     Quando o cliente decide se cadastrar
     Entao o cliente é cadastrado com sucesso
 
   Cenario: Cadastrar Cliente identificado pelo CPF
-    Dado que o cliente de CPF "99999999999" não está cadastrado
+    Dado que o cliente de CPF "98765432100" não está cadastrado
     Quando o cliente decide se identificar pelo CPF
     Entao o cliente é cadastrado com sucesso
 